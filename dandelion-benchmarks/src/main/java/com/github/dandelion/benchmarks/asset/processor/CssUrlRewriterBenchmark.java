@@ -0,0 +1,92 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.asset.processor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.dandelion.core.asset.processor.support.CssUrlRewriter;
+
+/**
+ * <p>
+ * Measures the {@link CssUrlRewriter}, used the same way as in the
+ * {@code CssUrlRewritingProcessor}, on a synthetic stylesheet containing the
+ * given number of relative, root-relative and absolute URLs.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CssUrlRewriterBenchmark {
+
+   private static final String[] URLS = { "url(../img/sprite.png)", "url('../fonts/glyphicons.woff')",
+         "url(\"/benchmarks/img/logo.svg\")", "url(http://cdn.example.com/img/bg.jpg)",
+         "url(data:image/gif;base64,R0lGODlhAQABAAAAACw=)" };
+
+   @Param({ "10", "200" })
+   public int urlCount;
+
+   private CssUrlRewriter urlRewriter;
+   private String source;
+
+   @Setup
+   public void setup() {
+      urlRewriter = new CssUrlRewriter();
+
+      StringBuilder css = new StringBuilder();
+      for (int i = 0; i < urlCount; i++) {
+         css.append(".rule").append(i).append(" {\n   color: #333;\n   background: ").append(URLS[i % URLS.length])
+               .append(" no-repeat;\n}\n");
+      }
+      source = css.toString();
+   }
+
+   @Benchmark
+   public StringBuffer rewriteUrl() {
+      return urlRewriter.rewriteUrl("/benchmarks/assets/css/app.css",
+            "/benchmarks/dandelion-assets/a1b2c3/css/app-1.0.0.css", source, "/benchmarks");
+   }
+}
@@ -0,0 +1,142 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.cache;
+
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.dandelion.benchmarks.support.MockWebSupport;
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.cache.CacheEntry;
+import com.github.dandelion.core.cache.impl.MemoryRequestCache;
+import com.github.dandelion.core.cache.support.ConcurrentLruCache;
+
+/**
+ * <p>
+ * Measures the request caches under contention: three threads keep reading
+ * while a fourth one keeps writing, on a key space twice as large as the
+ * cache so that evictions happen continuously.
+ * </p>
+ * <p>
+ * The {@code lru} group measures the raw {@link ConcurrentLruCache} while the
+ * {@code requestCache} group measures the {@link MemoryRequestCache}, which
+ * adds the statistics and hot keys tracking on top of it.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestCacheBenchmark {
+
+   private static final int KEY_SPACE = 1000;
+
+   private String[] keys;
+   private CacheEntry entry;
+   private Context context;
+   private ConcurrentLruCache<String, CacheEntry> lruCache;
+   private MemoryRequestCache requestCache;
+
+   @Setup
+   public void setup() {
+      keys = new String[KEY_SPACE];
+      for (int i = 0; i < KEY_SPACE; i++) {
+         keys[i] = "/benchmarks/page" + i + ".html|app";
+      }
+      entry = new CacheEntry("/benchmarks/page.html", Collections.<Asset> emptySet());
+
+      context = MockWebSupport.newContext();
+      int maxSize = KEY_SPACE / 2;
+      lruCache = new ConcurrentLruCache<String, CacheEntry>(maxSize);
+      requestCache = new MemoryRequestCache();
+      requestCache.initCache(context);
+      for (int i = 0; i < maxSize; i++) {
+         lruCache.put(keys[i], entry);
+         requestCache.put(keys[i], entry);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      context.destroy();
+   }
+
+   private String randomKey() {
+      return keys[ThreadLocalRandom.current().nextInt(KEY_SPACE)];
+   }
+
+   @Benchmark
+   @Group("lru")
+   @GroupThreads(3)
+   public CacheEntry lruGet() {
+      return lruCache.get(randomKey());
+   }
+
+   @Benchmark
+   @Group("lru")
+   @GroupThreads(1)
+   public CacheEntry lruPut() {
+      return lruCache.put(randomKey(), entry);
+   }
+
+   @Benchmark
+   @Group("requestCache")
+   @GroupThreads(3)
+   public CacheEntry requestCacheGet() {
+      return requestCache.get(randomKey());
+   }
+
+   @Benchmark
+   @Group("requestCache")
+   @GroupThreads(1)
+   public void requestCachePut() {
+      requestCache.put(randomKey(), entry);
+   }
+}
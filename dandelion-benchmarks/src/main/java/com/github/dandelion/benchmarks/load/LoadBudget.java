@@ -0,0 +1,243 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.load;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.util.ClassUtils;
+
+/**
+ * <p>
+ * Thresholds that the {@link LoadReport}s must satisfy.
+ * </p>
+ * <p>
+ * Budgets are read from a properties file where each key is prefixed either
+ * by the name of a scenario or by {@code default}, which applies to all
+ * scenarios that don't override it:
+ * </p>
+ * 
+ * <pre>
+ * default.errors.max = 0
+ * jsp.alloc.per.request.max = 262144
+ * thymeleaf.latency.p99.max = 20000
+ * </pre>
+ * 
+ * <p>
+ * Only the errors and the allocations per request, which hardly depend on the
+ * machine nor on its load, are budgets that {@link #check(List)} enforces.
+ * The throughput ({@code throughput.min}), the latencies (
+ * {@code latency.p50.max}, {@code latency.p99.max} and
+ * {@code latency.p999.max}) and the garbage collections ({@code gc.count.max})
+ * are targets: {@link #checkTargets(List)} reports the ones that are missed,
+ * as warnings, since they are only meaningful on the machine they were set on.
+ * </p>
+ * <p>
+ * Latencies are expressed in microseconds, the throughput in requests per
+ * second and the allocations in bytes per request. Unset budgets are not
+ * checked.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class LoadBudget {
+
+   /**
+    * Classpath location of the budgets used by default.
+    */
+   public static final String DEFAULT_LOCATION = "load-budgets.properties";
+
+   private static final String DEFAULT_PREFIX = "default";
+
+   private final Properties budgets;
+
+   public LoadBudget(Properties budgets) {
+      this.budgets = budgets;
+   }
+
+   /**
+    * @return the budgets read from the file path or classpath location given
+    *         by the {@code load.budgets} system property, default:
+    *         {@value #DEFAULT_LOCATION}.
+    */
+   public static LoadBudget fromSystemProperties() {
+      String location = System.getProperty("load.budgets", DEFAULT_LOCATION);
+      return new File(location).isFile() ? fromFile(new File(location)) : fromClasspath(location);
+   }
+
+   /**
+    * @return the budgets read from {@value #DEFAULT_LOCATION}.
+    */
+   public static LoadBudget fromClasspath() {
+      return fromClasspath(DEFAULT_LOCATION);
+   }
+
+   public static LoadBudget fromClasspath(String location) {
+      InputStream stream = ClassUtils.getDefaultClassLoader().getResourceAsStream(location);
+      if (stream == null) {
+         throw new DandelionException("The budgets file '" + location + "' cannot be found in the classpath");
+      }
+      return load(stream, location);
+   }
+
+   public static LoadBudget fromFile(File file) {
+      try {
+         return load(new FileInputStream(file), file.getPath());
+      }
+      catch (IOException e) {
+         throw new DandelionException("Unable to load the budgets file '" + file + "'", e);
+      }
+   }
+
+   private static LoadBudget load(InputStream stream, String location) {
+      Properties budgets = new Properties();
+      try {
+         budgets.load(stream);
+      }
+      catch (IOException e) {
+         throw new DandelionException("Unable to load the budgets file '" + location + "'", e);
+      }
+      finally {
+         try {
+            stream.close();
+         }
+         catch (IOException e) {
+            // Nothing to do
+         }
+      }
+      return new LoadBudget(budgets);
+   }
+
+   /**
+    * @param reports
+    *           The reports to check.
+    * @return a description of each exceeded budget, empty if all reports are
+    *         within their budgets.
+    */
+   public List<String> check(List<LoadReport> reports) {
+      List<String> violations = new ArrayList<String>();
+      for (LoadReport report : reports) {
+         violations.addAll(check(report));
+      }
+      return violations;
+   }
+
+   /**
+    * @param report
+    *           The report to check.
+    * @return a description of each exceeded budget, empty if the report is
+    *         within all budgets.
+    */
+   public List<String> check(LoadReport report) {
+      List<String> violations = new ArrayList<String>();
+
+      checkMax(violations, report, "errors.max", report.getErrors());
+      if (report.getAllocatedBytesPerRequest() >= 0) {
+         checkMax(violations, report, "alloc.per.request.max", report.getAllocatedBytesPerRequest());
+      }
+
+      return violations;
+   }
+
+   /**
+    * @param reports
+    *           The reports to check.
+    * @return a description of each missed target, empty if all reports reach
+    *         their targets.
+    */
+   public List<String> checkTargets(List<LoadReport> reports) {
+      List<String> warnings = new ArrayList<String>();
+      for (LoadReport report : reports) {
+         warnings.addAll(checkTargets(report));
+      }
+      return warnings;
+   }
+
+   /**
+    * @param report
+    *           The report to check.
+    * @return a description of each missed target, empty if the report reaches
+    *         all targets.
+    */
+   public List<String> checkTargets(LoadReport report) {
+      List<String> warnings = new ArrayList<String>();
+
+      checkMin(warnings, report, "throughput.min", report.getThroughput());
+      checkMax(warnings, report, "latency.p50.max", report.getLatency(50));
+      checkMax(warnings, report, "latency.p99.max", report.getLatency(99));
+      checkMax(warnings, report, "latency.p999.max", report.getLatency(99.9));
+      checkMax(warnings, report, "gc.count.max", report.getGcCount());
+
+      return warnings;
+   }
+
+   private void checkMax(List<String> violations, LoadReport report, String budget, double actual) {
+      Double max = get(report.getScenario(), budget);
+      if (max != null && actual > max) {
+         violations.add(format(report, budget, "exceeded", actual, max));
+      }
+   }
+
+   private void checkMin(List<String> violations, LoadReport report, String budget, double actual) {
+      Double min = get(report.getScenario(), budget);
+      if (min != null && actual < min) {
+         violations.add(format(report, budget, "not reached", actual, min));
+      }
+   }
+
+   private Double get(String scenario, String budget) {
+      String value = budgets.getProperty(scenario + "." + budget);
+      if (value == null) {
+         value = budgets.getProperty(DEFAULT_PREFIX + "." + budget);
+      }
+      if (value == null || value.trim().isEmpty()) {
+         return null;
+      }
+      try {
+         return Double.valueOf(value.trim());
+      }
+      catch (NumberFormatException e) {
+         throw new DandelionException("The budget '" + budget + "' of the scenario '" + scenario
+               + "' is not a number: " + value);
+      }
+   }
+
+   private static String format(LoadReport report, String budget, String violation, double actual, double limit) {
+      return String.format(Locale.ENGLISH, "%s: %s %s (actual: %.1f, budget: %.1f)", report.getScenario(), budget,
+            violation, actual, limit);
+   }
+}
@@ -0,0 +1,422 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.config.Profile;
+import com.github.dandelion.core.web.DandelionFilter;
+
+/**
+ * <p>
+ * Closed-loop load generator: each load thread sends an HTTP request to the
+ * {@link LoadServer} as soon as the previous response was read, first during a
+ * warmup period and then during a measurement period.
+ * </p>
+ * <p>
+ * The application runs in an embedded Jetty, behind the {@link DandelionFilter}
+ * , and serves each page the way a deployed application would: from a servlet,
+ * from a JSP compiled by Jetty and from Thymeleaf. For each {@link Scenario},
+ * the throughput, the latency percentiles, the bytes allocated per request (as
+ * reported by the {@link java.lang.management.ThreadMXBean} for the threads of
+ * the server) and the garbage collections are reported and checked against a
+ * {@link LoadBudget}. Since the load threads run on the same machine as the
+ * server, the latencies include the HTTP stack on both sides.
+ * </p>
+ * <p>
+ * The harness is run from the benchmarks jar, with the default budgets:
+ * </p>
+ * 
+ * <pre>
+ * java -cp benchmarks.jar com.github.dandelion.benchmarks.load.LoadHarness
+ * </pre>
+ * 
+ * <p>
+ * or through the {@code load-test} Maven profile of this module. It is tuned
+ * using the following system properties: {@code load.threads} (default:
+ * {@value #DEFAULT_THREADS}), {@code load.warmup} and {@code load.duration}
+ * (in seconds, default: {@value #DEFAULT_WARMUP} and {@value #DEFAULT_DURATION}
+ * ), {@code load.scenarios} (comma-separated names, default: all),
+ * {@code load.report} (file the reports are also written to) and
+ * {@code load.budgets}, see {@link LoadBudget#fromSystemProperties()}.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class LoadHarness {
+
+   public static final int DEFAULT_THREADS = 4;
+   public static final int DEFAULT_WARMUP = 5;
+   public static final int DEFAULT_DURATION = 10;
+
+   /**
+    * Asset of the {@code dashboard} bundle, which must be injected in all
+    * pages.
+    */
+   private static final String DASHBOARD_ASSET = "//cdn.example.com/app/1.0.0/dashboard.js";
+
+   private final int threads;
+   private final long warmupNanos;
+   private final long durationNanos;
+
+   public LoadHarness(int threads, long warmup, long duration, TimeUnit unit) {
+      this.threads = threads;
+      this.warmupNanos = unit.toNanos(warmup);
+      this.durationNanos = unit.toNanos(duration);
+   }
+
+   /**
+    * @return all available scenarios.
+    */
+   public static List<Scenario> scenarios() {
+      List<Scenario> scenarios = new ArrayList<Scenario>();
+      scenarios.add(new Scenario("servlet", "/servlet/dashboard"));
+      scenarios.add(new Scenario("jsp", "/jsp/dashboard.jsp"));
+      scenarios.add(new Scenario("thymeleaf", "/thymeleaf/dashboard"));
+      return scenarios;
+   }
+
+   /**
+    * <p>
+    * Starts a {@link LoadServer}, then loads it with each given scenario in
+    * turn.
+    * </p>
+    * 
+    * @param scenarios
+    *           The scenarios to run.
+    * @return one report per scenario.
+    * @throws DandelionException
+    *            if a page can't be served, or isn't processed by Dandelion.
+    */
+   public List<LoadReport> run(List<Scenario> scenarios) throws InterruptedException {
+
+      // Same as the JMH benchmarks, unless overriden
+      if (System.getProperty(Profile.DANDELION_PROFILE_ACTIVE) == null) {
+         System.setProperty(Profile.DANDELION_PROFILE_ACTIVE, "prod");
+      }
+      // Keeps one connection per load thread open, 5 by default
+      if (System.getProperty("http.maxConnections") == null) {
+         System.setProperty("http.maxConnections", String.valueOf(threads));
+      }
+
+      LoadServer server = new LoadServer(threads);
+      server.start();
+
+      List<LoadReport> reports = new ArrayList<LoadReport>();
+      try {
+         for (Scenario scenario : scenarios) {
+            checkPage(server, scenario);
+            reports.add(run(server, scenario));
+         }
+      }
+      finally {
+         server.stop();
+      }
+      return reports;
+   }
+
+   /**
+    * Checks that the page of the given scenario is served, with the assets
+    * injected by Dandelion.
+    */
+   private static void checkPage(LoadServer server, Scenario scenario) {
+      String url = server.getUrl(scenario.getPath());
+      try {
+         HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+         int status = connection.getResponseCode();
+         if (status != HttpURLConnection.HTTP_OK) {
+            throw new DandelionException("The page " + url + " of the scenario '" + scenario.getName()
+                  + "' can't be served (HTTP " + status + ")");
+         }
+         InputStream body = connection.getInputStream();
+         ByteArrayOutputStream page = new ByteArrayOutputStream();
+         try {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+               page.write(buffer, 0, read);
+            }
+         }
+         finally {
+            body.close();
+         }
+         if (!page.toString("UTF-8").contains(DASHBOARD_ASSET)) {
+            throw new DandelionException("The assets of the bundle 'dashboard' are missing from the page " + url
+                  + " of the scenario '" + scenario.getName() + "'");
+         }
+      }
+      catch (IOException e) {
+         throw new DandelionException("The page " + url + " of the scenario '" + scenario.getName()
+               + "' can't be served", e);
+      }
+   }
+
+   private LoadReport run(LoadServer server, Scenario scenario) throws InterruptedException {
+
+      URL url;
+      try {
+         url = new URL(server.getUrl(scenario.getPath()));
+      }
+      catch (IOException e) {
+         throw new DandelionException("Invalid URL for the scenario '" + scenario.getName() + "'", e);
+      }
+
+      CountDownLatch ready = new CountDownLatch(threads);
+      CountDownLatch start = new CountDownLatch(1);
+      LoadThread[] loadThreads = new LoadThread[threads];
+      for (int i = 0; i < threads; i++) {
+         loadThreads[i] = new LoadThread(url, scenario, ready, start);
+         loadThreads[i].start();
+      }
+      ready.await();
+
+      // All threads share the same deadlines
+      long warmupEnd = System.nanoTime() + warmupNanos;
+      long measurementEnd = warmupEnd + durationNanos;
+      for (LoadThread loadThread : loadThreads) {
+         loadThread.setDeadlines(warmupEnd, measurementEnd);
+      }
+      start.countDown();
+
+      TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+      long[] gcBefore = gcStats();
+      long allocatedBefore = server.getAllocatedBytes();
+      for (LoadThread loadThread : loadThreads) {
+         loadThread.join();
+      }
+      long allocatedAfter = server.getAllocatedBytes();
+      long[] gcAfter = gcStats();
+
+      long errors = 0;
+      int latencyCount = 0;
+      for (LoadThread loadThread : loadThreads) {
+         if (loadThread.failure != null) {
+            throw new DandelionException("The scenario '" + scenario.getName() + "' failed", loadThread.failure);
+         }
+         errors += loadThread.errors;
+         latencyCount += loadThread.latencyCount;
+      }
+
+      long[] latencies = new long[latencyCount];
+      int offset = 0;
+      for (LoadThread loadThread : loadThreads) {
+         System.arraycopy(loadThread.latencies, 0, latencies, offset, loadThread.latencyCount);
+         offset += loadThread.latencyCount;
+      }
+
+      long allocatedBytes = allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore;
+      return new LoadReport(scenario.getName(), threads, errors, durationNanos, latencies, allocatedBytes,
+            gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+   }
+
+   /**
+    * @return the total number and time of collections of all collectors.
+    */
+   private static long[] gcStats() {
+      long[] stats = new long[2];
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+         stats[0] += Math.max(0, gc.getCollectionCount());
+         stats[1] += Math.max(0, gc.getCollectionTime());
+      }
+      return stats;
+   }
+
+   private static class LoadThread extends Thread {
+
+      private final URL url;
+      private final CountDownLatch ready;
+      private final CountDownLatch start;
+      private final byte[] buffer = new byte[8192];
+
+      private volatile long warmupEnd;
+      private volatile long measurementEnd;
+
+      private long[] latencies = new long[1024];
+      private int latencyCount;
+      private long errors;
+      private Throwable failure;
+
+      LoadThread(URL url, Scenario scenario, CountDownLatch ready, CountDownLatch start) {
+         super("load-" + scenario.getName());
+         this.url = url;
+         this.ready = ready;
+         this.start = start;
+      }
+
+      void setDeadlines(long warmupEnd, long measurementEnd) {
+         this.warmupEnd = warmupEnd;
+         this.measurementEnd = measurementEnd;
+      }
+
+      @Override
+      public void run() {
+         try {
+            ready.countDown();
+            start.await();
+
+            while (System.nanoTime() < warmupEnd) {
+               sendRequest();
+            }
+
+            while (System.nanoTime() < measurementEnd) {
+               long latency = sendRequest();
+               if (latency >= 0) {
+                  record(latency);
+               }
+               else {
+                  errors++;
+               }
+            }
+         }
+         catch (Throwable e) {
+            failure = e;
+         }
+      }
+
+      /**
+       * <p>
+       * Sends a GET request accepting GZIP-encoded responses, and reads the
+       * whole response so that the connection is kept alive for the next one.
+       * </p>
+       * 
+       * @return the time elapsed until the response was read, in nanoseconds,
+       *         or -1 if the response is not a successful one.
+       */
+      private long sendRequest() {
+         long start = System.nanoTime();
+         try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestProperty("Accept-Encoding", "gzip, deflate");
+            int status = connection.getResponseCode();
+            InputStream body = status < HttpURLConnection.HTTP_BAD_REQUEST ? connection.getInputStream()
+                  : connection.getErrorStream();
+            long length = 0;
+            if (body != null) {
+               try {
+                  int read;
+                  while ((read = body.read(buffer)) != -1) {
+                     length += read;
+                  }
+               }
+               finally {
+                  body.close();
+               }
+            }
+            long latency = System.nanoTime() - start;
+            return status == HttpURLConnection.HTTP_OK && length > 0 ? latency : -1;
+         }
+         catch (IOException e) {
+            return -1;
+         }
+      }
+
+      private void record(long latency) {
+         if (latencyCount == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencyCount * 2);
+         }
+         latencies[latencyCount++] = latency;
+      }
+   }
+
+   /**
+    * @return a harness configured by the {@code load.threads},
+    *         {@code load.warmup} and {@code load.duration} system properties.
+    */
+   public static LoadHarness fromSystemProperties() {
+      return new LoadHarness(Integer.getInteger("load.threads", DEFAULT_THREADS), Integer.getInteger("load.warmup",
+            DEFAULT_WARMUP), Integer.getInteger("load.duration", DEFAULT_DURATION), TimeUnit.SECONDS);
+   }
+
+   /**
+    * @return the scenarios selected by the {@code load.scenarios} system
+    *         property, all of them by default.
+    */
+   public static List<Scenario> selectedScenarios() {
+      List<Scenario> scenarios = scenarios();
+      String selectedScenarios = System.getProperty("load.scenarios");
+      if (selectedScenarios != null) {
+         List<String> names = Arrays.asList(selectedScenarios.trim().split("\\s*,\\s*"));
+         for (int i = scenarios.size() - 1; i >= 0; i--) {
+            if (!names.contains(scenarios.get(i).getName())) {
+               scenarios.remove(i);
+            }
+         }
+      }
+      return scenarios;
+   }
+
+   /**
+    * <p>
+    * Runs the selected scenarios and writes their reports to the standard
+    * output, and to the file given by the {@code load.report} system property
+    * if any.
+    * </p>
+    * 
+    * @throws DandelionException
+    *            if a budget is exceeded.
+    */
+   public static void main(String[] args) throws Exception {
+
+      LoadBudget budget = LoadBudget.fromSystemProperties();
+      List<LoadReport> reports = fromSystemProperties().run(selectedScenarios());
+      List<String> violations = budget.check(reports);
+      List<String> warnings = budget.checkTargets(reports);
+
+      LoadReport.write(reports, violations, warnings, new PrintWriter(new OutputStreamWriter(System.out, "UTF-8")));
+      String reportFile = System.getProperty("load.report");
+      if (reportFile != null) {
+         PrintWriter out = new PrintWriter(reportFile, "UTF-8");
+         try {
+            LoadReport.write(reports, violations, warnings, out);
+         }
+         finally {
+            out.close();
+         }
+      }
+
+      if (!violations.isEmpty()) {
+         throw new DandelionException(violations.size() + " load budget(s) exceeded: " + violations);
+      }
+   }
+}
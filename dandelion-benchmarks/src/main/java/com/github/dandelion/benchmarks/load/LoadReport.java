@@ -0,0 +1,186 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.load;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>
+ * Results of a {@link LoadHarness} run for a single {@link Scenario}.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class LoadReport {
+
+   private static final String FORMAT = "%-12s %8s %10s %12s %10s %10s %10s %14s %8s %10s";
+
+   private final String scenario;
+   private final int threads;
+   private final long requests;
+   private final long errors;
+   private final long elapsedNanos;
+   private final long[] sortedLatencies;
+   private final long allocatedBytes;
+   private final long gcCount;
+   private final long gcTimeMillis;
+
+   /**
+    * @param latencies
+    *           The latency of each successful request, in nanoseconds. The
+    *           array is sorted in place.
+    * @param allocatedBytes
+    *           The bytes allocated by the server threads while measuring, or a
+    *           negative value if the JVM doesn't support it.
+    */
+   public LoadReport(String scenario, int threads, long errors, long elapsedNanos, long[] latencies,
+         long allocatedBytes, long gcCount, long gcTimeMillis) {
+      this.scenario = scenario;
+      this.threads = threads;
+      this.requests = latencies.length + errors;
+      this.errors = errors;
+      this.elapsedNanos = elapsedNanos;
+      Arrays.sort(latencies);
+      this.sortedLatencies = latencies;
+      this.allocatedBytes = allocatedBytes;
+      this.gcCount = gcCount;
+      this.gcTimeMillis = gcTimeMillis;
+   }
+
+   public String getScenario() {
+      return scenario;
+   }
+
+   public int getThreads() {
+      return threads;
+   }
+
+   public long getRequests() {
+      return requests;
+   }
+
+   public long getErrors() {
+      return errors;
+   }
+
+   /**
+    * @return the number of requests per second.
+    */
+   public double getThroughput() {
+      return elapsedNanos == 0 ? 0 : requests * 1e9 / elapsedNanos;
+   }
+
+   /**
+    * @param percentile
+    *           The percentile, between 0 (excluded) and 100.
+    * @return the latency under which the given percentage of the successful
+    *         requests completed, in microseconds.
+    */
+   public double getLatency(double percentile) {
+      if (sortedLatencies.length == 0) {
+         return 0;
+      }
+      int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length);
+      return sortedLatencies[Math.max(rank, 1) - 1] / 1e3;
+   }
+
+   /**
+    * @return the average number of bytes allocated per request, or -1 if the
+    *         JVM doesn't support the allocation measurement.
+    */
+   public long getAllocatedBytesPerRequest() {
+      if (allocatedBytes < 0 || requests == 0) {
+         return -1;
+      }
+      return allocatedBytes / requests;
+   }
+
+   public long getGcCount() {
+      return gcCount;
+   }
+
+   public long getGcTimeMillis() {
+      return gcTimeMillis;
+   }
+
+   /**
+    * <p>
+    * Writes the given reports as a table, followed by the missed targets and
+    * the exceeded budgets.
+    * </p>
+    * 
+    * @param reports
+    *           The reports to write.
+    * @param violations
+    *           The exceeded budgets, see {@link LoadBudget#check(List)}.
+    * @param warnings
+    *           The missed targets, see {@link LoadBudget#checkTargets(List)}.
+    * @param out
+    *           The writer to write to, flushed once done.
+    */
+   public static void write(List<LoadReport> reports, List<String> violations, List<String> warnings,
+         PrintWriter out) {
+      out.println(header());
+      for (LoadReport report : reports) {
+         out.println(report);
+      }
+      write("Targets missed (not enforced):", warnings, out);
+      write("Budgets exceeded:", violations, out);
+      out.flush();
+   }
+
+   private static void write(String title, List<String> lines, PrintWriter out) {
+      if (!lines.isEmpty()) {
+         out.println();
+         out.println(title);
+         for (String line : lines) {
+            out.println("  " + line);
+         }
+      }
+   }
+
+   public static String header() {
+      return String.format(Locale.ENGLISH, FORMAT, "Scenario", "Threads", "Requests", "Req/s", "p50 (us)",
+            "p99 (us)", "p999 (us)", "Alloc/req (B)", "GCs", "GC (ms)");
+   }
+
+   @Override
+   public String toString() {
+      return String.format(Locale.ENGLISH, FORMAT, scenario, threads, requests,
+            String.format(Locale.ENGLISH, "%.1f", getThroughput()),
+            String.format(Locale.ENGLISH, "%.0f", getLatency(50)),
+            String.format(Locale.ENGLISH, "%.0f", getLatency(99)),
+            String.format(Locale.ENGLISH, "%.0f", getLatency(99.9)), getAllocatedBytesPerRequest(), gcCount,
+            gcTimeMillis);
+   }
+}
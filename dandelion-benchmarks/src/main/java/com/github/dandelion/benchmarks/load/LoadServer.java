@@ -0,0 +1,164 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.nio.SelectChannelConnector;
+import org.eclipse.jetty.util.resource.Resource;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.webapp.WebAppContext;
+
+import com.github.dandelion.core.DandelionException;
+
+/**
+ * <p>
+ * Embedded Jetty server hosting the application loaded by the
+ * {@link LoadHarness}, whose web resources (the {@code web.xml}, the JSP pages
+ * and the Thymeleaf templates) are located in the {@value #WEBAPP_LOCATION}
+ * folder of the classpath. It listens on an ephemeral port of the loopback
+ * interface.
+ * </p>
+ * <p>
+ * All requests are handled by a fixed pool of threads, so that the memory
+ * they allocate can be measured.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class LoadServer {
+
+   public static final String WEBAPP_LOCATION = "load-webapp";
+   public static final String CONTEXT_PATH = "/benchmarks";
+
+   private static final String THREAD_NAME = "load-server";
+
+   /**
+    * Pool threads used by the connector: one acceptor and one selector.
+    */
+   private static final int CONNECTOR_THREADS = 2;
+
+   private final Server server;
+   private final SelectChannelConnector connector;
+
+   /**
+    * @param threads
+    *           The number of requests that can be handled concurrently.
+    */
+   public LoadServer(int threads) {
+      QueuedThreadPool threadPool = new QueuedThreadPool(threads + CONNECTOR_THREADS);
+      threadPool.setMinThreads(threads + CONNECTOR_THREADS);
+      threadPool.setName(THREAD_NAME);
+
+      connector = new SelectChannelConnector();
+      connector.setHost("127.0.0.1");
+      connector.setPort(0);
+      connector.setAcceptors(1);
+
+      WebAppContext webapp = new WebAppContext();
+      webapp.setContextPath(CONTEXT_PATH);
+      webapp.setBaseResource(Resource.newClassPathResource(WEBAPP_LOCATION));
+      webapp.setParentLoaderPriority(true);
+      // The tag libraries are looked up in the jars of the classpath
+      webapp.setAttribute("org.eclipse.jetty.server.webapp.ContainerIncludeJarPattern", ".*\\.jar$");
+
+      server = new Server();
+      server.setThreadPool(threadPool);
+      server.addConnector(connector);
+      server.setHandler(webapp);
+      server.setStopAtShutdown(true);
+   }
+
+   public void start() {
+      if (Resource.newClassPathResource(WEBAPP_LOCATION) == null) {
+         throw new DandelionException("The folder '" + WEBAPP_LOCATION + "' cannot be found in the classpath");
+      }
+      try {
+         server.start();
+      }
+      catch (Exception e) {
+         throw new DandelionException("Unable to start the load server", e);
+      }
+   }
+
+   public void stop() {
+      try {
+         server.stop();
+      }
+      catch (Exception e) {
+         throw new DandelionException("Unable to stop the load server", e);
+      }
+   }
+
+   /**
+    * @param path
+    *           The path of a page, relative to the context path.
+    * @return the absolute URL of the page.
+    */
+   public String getUrl(String path) {
+      return "http://127.0.0.1:" + connector.getLocalPort() + CONTEXT_PATH + path;
+   }
+
+   /**
+    * @return the bytes allocated so far by the threads of the server, or -1
+    *         if the JVM doesn't support it.
+    */
+   public long getAllocatedBytes() {
+      ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+      if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+         return -1;
+      }
+      com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+      if (!sunThreadMXBean.isThreadAllocatedMemorySupported() || !sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+         return -1;
+      }
+
+      List<Long> threadIds = new ArrayList<Long>();
+      for (Thread thread : Thread.getAllStackTraces().keySet()) {
+         if (thread.getName().startsWith(THREAD_NAME)) {
+            threadIds.add(thread.getId());
+         }
+      }
+      long[] ids = new long[threadIds.size()];
+      for (int i = 0; i < ids.length; i++) {
+         ids[i] = threadIds.get(i);
+      }
+
+      long allocatedBytes = 0;
+      for (long threadAllocatedBytes : sunThreadMXBean.getThreadAllocatedBytes(ids)) {
+         allocatedBytes += Math.max(0, threadAllocatedBytes);
+      }
+      return allocatedBytes;
+   }
+}
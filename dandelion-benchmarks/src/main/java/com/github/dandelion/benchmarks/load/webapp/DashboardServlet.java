@@ -0,0 +1,77 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.load.webapp;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.github.dandelion.benchmarks.load.PageRow;
+import com.github.dandelion.core.web.AssetRequestContext;
+
+/**
+ * <p>
+ * Page written directly to the response, after the requested bundles have
+ * been added to the {@link AssetRequestContext} through the API, as a servlet
+ * or a controller would do.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class DashboardServlet extends HttpServlet {
+
+   private static final long serialVersionUID = 1L;
+
+   @Override
+   @SuppressWarnings("unchecked")
+   protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+      AssetRequestContext.get(request).addBundle("dashboard");
+
+      List<PageRow> rows = (List<PageRow>) getServletContext().getAttribute(PageRowsListener.ROWS_ATTRIBUTE);
+      response.setContentType("text/html;charset=UTF-8");
+      PrintWriter writer = response.getWriter();
+      writer.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>Dashboard</title>\n</head>\n<body>\n");
+      writer.write("<h1>Dashboard</h1>\n<table id=\"rows\">\n<tbody>\n");
+      for (PageRow row : rows) {
+         writer.write("<tr><td>");
+         writer.write(String.valueOf(row.getId()));
+         writer.write("</td><td>");
+         writer.write(row.getName());
+         writer.write("</td><td>");
+         writer.write(row.getDescription());
+         writer.write("</td></tr>\n");
+      }
+      writer.write("</tbody>\n</table>\n</body>\n</html>");
+   }
+}
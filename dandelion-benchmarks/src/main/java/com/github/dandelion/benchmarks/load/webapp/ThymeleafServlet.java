@@ -0,0 +1,87 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.load.webapp;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.templateresolver.ServletContextTemplateResolver;
+
+import com.github.dandelion.thymeleaf.dialect.DandelionDialect;
+
+/**
+ * <p>
+ * Renders the template named after the path info of the request, located in
+ * {@code /WEB-INF/templates}, with the {@link DandelionDialect}.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class ThymeleafServlet extends HttpServlet {
+
+   private static final long serialVersionUID = 1L;
+
+   private transient TemplateEngine templateEngine;
+
+   @Override
+   public void init() {
+      ServletContextTemplateResolver templateResolver = new ServletContextTemplateResolver();
+      templateResolver.setPrefix("/WEB-INF/templates/");
+      templateResolver.setSuffix(".html");
+      templateResolver.setTemplateMode("HTML5");
+      templateResolver.setCharacterEncoding("UTF-8");
+      templateResolver.setCacheable(true);
+
+      templateEngine = new TemplateEngine();
+      templateEngine.setTemplateResolver(templateResolver);
+      templateEngine.addDialect(new DandelionDialect());
+   }
+
+   @Override
+   protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+      String pathInfo = request.getPathInfo();
+      if (pathInfo == null || pathInfo.length() < 2) {
+         response.sendError(HttpServletResponse.SC_NOT_FOUND);
+         return;
+      }
+
+      WebContext context = new WebContext(request, response, getServletContext(), request.getLocale());
+      context.setVariable("title", "Dashboard");
+      context.setVariable("rows", getServletContext().getAttribute(PageRowsListener.ROWS_ATTRIBUTE));
+
+      response.setContentType("text/html;charset=UTF-8");
+      templateEngine.process(pathInfo.substring(1), context, response.getWriter());
+   }
+}
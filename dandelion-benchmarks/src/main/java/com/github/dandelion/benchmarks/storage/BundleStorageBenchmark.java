@@ -0,0 +1,129 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.dandelion.core.asset.AssetType;
+import com.github.dandelion.core.storage.AssetStorageUnit;
+import com.github.dandelion.core.storage.BundleStorage;
+import com.github.dandelion.core.storage.BundleStorageUnit;
+
+/**
+ * <p>
+ * Measures the resolution of the bundles to include for a request, i.e. the
+ * topological sort of the bundle graph performed by
+ * {@link BundleStorage#bundlesFor(String...)}.
+ * </p>
+ * <p>
+ * The synthetic graph is a binary tree: the bundle {@code bundle<i>} depends on
+ * {@code bundle<(i-1)/2>}, so that the deepest bundles have a logarithmic
+ * number of transitive dependencies. Each bundle holds one JavaScript and one
+ * CSS asset.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BundleStorageBenchmark {
+
+   @Param({ "50", "500" })
+   public int bundleCount;
+
+   private BundleStorage bundleStorage;
+   private String deepestBundle;
+   private String[] requestedBundles;
+
+   @Setup
+   public void setup() {
+      List<BundleStorageUnit> bundles = new ArrayList<BundleStorageUnit>(bundleCount);
+      for (int i = 0; i < bundleCount; i++) {
+         Set<AssetStorageUnit> assets = new LinkedHashSet<AssetStorageUnit>();
+         assets.add(asset("bundle" + i, AssetType.js));
+         assets.add(asset("bundle" + i, AssetType.css));
+         BundleStorageUnit bsu = new BundleStorageUnit("bundle" + i, assets);
+         if (i > 0) {
+            bsu.setDependencies(Collections.singletonList("bundle" + (i - 1) / 2));
+         }
+         bundles.add(bsu);
+      }
+
+      bundleStorage = new BundleStorage();
+      bundleStorage.storeBundles(bundles);
+      bundleStorage.consolidateBundles(bundles);
+      bundleStorage.freeze();
+
+      // A request typically asks for a handful of bundles, spread across the
+      // graph
+      deepestBundle = "bundle" + (bundleCount - 1);
+      requestedBundles = new String[] { deepestBundle, "bundle" + (bundleCount / 2), "bundle" + (bundleCount / 3),
+            "bundle" + (bundleCount / 4), "bundle1" };
+   }
+
+   private static AssetStorageUnit asset(String name, AssetType type) {
+      AssetStorageUnit asu = new AssetStorageUnit(name, Collections.singletonMap("remote", "//cdn.example.com/"
+            + name + "." + type.name()));
+      asu.setVersion("1.0.0");
+      asu.setType(type);
+      return asu;
+   }
+
+   @Benchmark
+   public Set<BundleStorageUnit> bundlesForOne() {
+      return bundleStorage.bundlesFor(deepestBundle);
+   }
+
+   @Benchmark
+   public Set<BundleStorageUnit> bundlesForMany() {
+      return bundleStorage.bundlesFor(requestedBundles);
+   }
+}
@@ -0,0 +1,178 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.support;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.servlet.ServletContext;
+
+import org.springframework.core.io.FileSystemResourceLoader;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.config.DandelionConfig;
+import com.github.dandelion.core.web.WebConstants;
+
+/**
+ * <p>
+ * Builds the mock servlet objects shared by the benchmarks exercising the web
+ * layer.
+ * </p>
+ * <p>
+ * The bundles used by the benchmarks ({@code jquery}, {@code bootstrap} and
+ * {@code app}, the latter depending on the former ones) are located in
+ * {@code src/main/resources/dandelion/benchmarks} and only reference remote
+ * assets, so that no asset content is ever fetched while measuring.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public final class MockWebSupport {
+
+   /**
+    * Name of the bundle requested by the benchmarks, which transitively pulls
+    * all others.
+    */
+   public static final String BUNDLE = "app";
+
+   public static final String CONTEXT_PATH = "/benchmarks";
+
+   private MockWebSupport() {
+   }
+
+   /**
+    * @return a new {@link MockFilterConfig} enabling the caching and the GZIP
+    *         compression, as in production. The asset minification and the
+    *         automatic versioning are disabled since both would require the
+    *         remote assets to be fetched.
+    */
+   public static MockFilterConfig newFilterConfig() {
+      MockServletContext servletContext = new MockServletContext(newWebappRoot().getAbsolutePath(),
+            new FileSystemResourceLoader());
+      servletContext.setContextPath(CONTEXT_PATH);
+      MockFilterConfig filterConfig = new MockFilterConfig(servletContext, "dandelion");
+      filterConfig.addInitParameter(DandelionConfig.CACHE.getName(), "true");
+      filterConfig.addInitParameter(DandelionConfig.TOOL_GZIP.getName(), "true");
+      filterConfig.addInitParameter(DandelionConfig.ASSET_MINIFICATION.getName(), "false");
+      filterConfig.addInitParameter(DandelionConfig.ASSET_VERSIONING_MODE.getName(), "manual");
+      return filterConfig;
+   }
+
+   /**
+    * <p>
+    * The web resources scanned at startup (e.g. by the {@code BowerPreLoader})
+    * are looked up in an empty directory rather than in the classpath, which
+    * can't be browsed as a file system once packaged.
+    * </p>
+    * 
+    * @return a new empty directory, deleted when the JVM exits.
+    */
+   private static File newWebappRoot() {
+      try {
+         File webappRoot = File.createTempFile("dandelion-benchmarks", "");
+         if (!webappRoot.delete() || !webappRoot.mkdir()) {
+            throw new IOException("Unable to create the directory " + webappRoot);
+         }
+         webappRoot.deleteOnExit();
+         return webappRoot;
+      }
+      catch (IOException e) {
+         throw new DandelionException("Unable to create the webapp root", e);
+      }
+   }
+
+   /**
+    * @return a fully initialized {@link Context}.
+    */
+   public static Context newContext() {
+      return new Context(newFilterConfig());
+   }
+
+   /**
+    * @param context
+    *           The Dandelion context, bound to the request as the
+    *           {@code DandelionFilter} does.
+    * @param path
+    *           The path of the requested page, relative to the context path.
+    * @return a new GET request accepting GZIP-encoded responses.
+    */
+   public static MockHttpServletRequest newRequest(Context context, String path) {
+      MockHttpServletRequest request = newRequest(context.getFilterConfig().getServletContext(), path);
+      request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, context);
+      return request;
+   }
+
+   /**
+    * @param servletContext
+    *           The servlet context the request belongs to.
+    * @param path
+    *           The path of the requested page, relative to the context path.
+    * @return a new GET request accepting GZIP-encoded responses.
+    */
+   public static MockHttpServletRequest newRequest(ServletContext servletContext, String path) {
+      MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", CONTEXT_PATH + path);
+      request.setContextPath(CONTEXT_PATH);
+      request.setServletPath(path);
+      request.addHeader("Accept-Encoding", "gzip, deflate");
+      return request;
+   }
+
+   /**
+    * @return a new response whose content type is already set to HTML.
+    */
+   public static MockHttpServletResponse newHtmlResponse() {
+      MockHttpServletResponse response = new MockHttpServletResponse();
+      response.setContentType("text/html");
+      return response;
+   }
+
+   /**
+    * @param sizeInKb
+    *           The approximate size of the page body.
+    * @return an HTML page made of a head section and as many paragraphs as
+    *         needed to reach the given size.
+    */
+   public static String newHtmlPage(int sizeInKb) {
+      StringBuilder html = new StringBuilder(sizeInKb * 1024 + 256);
+      html.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>Benchmark</title>\n</head>\n<body>\n");
+      int i = 0;
+      while (html.length() < sizeInKb * 1024) {
+         html.append("<p id=\"p").append(i++)
+               .append("\">Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor.</p>\n");
+      }
+      html.append("</body>\n</html>");
+      return html.toString();
+   }
+}
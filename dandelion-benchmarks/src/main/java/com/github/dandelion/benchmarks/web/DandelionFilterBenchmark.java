@@ -0,0 +1,118 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.web;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.github.dandelion.benchmarks.support.MockWebSupport;
+import com.github.dandelion.core.web.AssetRequestContext;
+import com.github.dandelion.core.web.DandelionFilter;
+
+/**
+ * <p>
+ * Measures a whole request going through the {@link DandelionFilter}: pre
+ * handlers, response buffering, bundle resolution, asset injection and GZIP
+ * compression.
+ * </p>
+ * <p>
+ * The application is simulated by a {@link FilterChain} that requests the
+ * {@code app} bundle and writes a static HTML page of the given size.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Ddandelion.profile.active=prod")
+public class DandelionFilterBenchmark {
+
+   @Param({ "4", "64" })
+   public int pageSizeInKb;
+
+   private DandelionFilter filter;
+   private MockFilterConfig filterConfig;
+   private FilterChain application;
+
+   @Setup
+   public void setup() throws ServletException {
+      filterConfig = MockWebSupport.newFilterConfig();
+      filter = new DandelionFilter();
+      filter.init(filterConfig);
+
+      final String page = MockWebSupport.newHtmlPage(pageSizeInKb);
+      application = new FilterChain() {
+
+         @Override
+         public void doFilter(ServletRequest request, ServletResponse response) throws IOException {
+            AssetRequestContext.get(request).addBundle(MockWebSupport.BUNDLE);
+            response.setContentType("text/html");
+            response.getWriter().write(page);
+         }
+      };
+   }
+
+   @TearDown
+   public void tearDown() {
+      filter.destroy();
+   }
+
+   @Benchmark
+   public MockHttpServletResponse doFilter() throws Exception {
+      MockHttpServletRequest request = MockWebSupport.newRequest(filterConfig.getServletContext(), "/index.html");
+      MockHttpServletResponse response = new MockHttpServletResponse();
+      filter.doFilter(request, response, application);
+      return response;
+   }
+}
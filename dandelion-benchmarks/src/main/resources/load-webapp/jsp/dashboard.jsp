@@ -0,0 +1,33 @@
+<%@ page contentType="text/html;charset=UTF-8" pageEncoding="UTF-8" trimDirectiveWhitespaces="true"%>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core"%>
+<%@ taglib prefix="dandelion" uri="http://github.com/dandelion"%>
+<dandelion:bundle includes="dashboard" />
+<!DOCTYPE html>
+<html>
+<head>
+<meta charset="utf-8">
+<title>Dashboard</title>
+<dandelion:placeholder type="css" />
+</head>
+<body>
+   <h1>Dashboard</h1>
+   <table id="rows">
+      <thead>
+         <tr>
+            <th>Id</th>
+            <th>Name</th>
+            <th>Description</th>
+         </tr>
+      </thead>
+      <tbody>
+         <c:forEach items="${rows}" var="row">
+            <tr>
+               <td>${row.id}</td>
+               <td><c:out value="${row.name}" /></td>
+               <td><c:out value="${row.description}" /></td>
+            </tr>
+         </c:forEach>
+      </tbody>
+   </table>
+</body>
+</html>
@@ -0,0 +1,69 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.benchmarks.load;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * <p>
+ * Runs the {@link LoadHarness} with the same system properties as its command
+ * line, and writes the reports to {@code target/load-report.txt} unless
+ * another {@code load.report} file is given.
+ * </p>
+ */
+public class LoadHarnessTest {
+
+   @Test
+   public void should_stay_within_the_budgets() throws Exception {
+
+      LoadBudget budget = LoadBudget.fromSystemProperties();
+      List<LoadReport> reports = LoadHarness.fromSystemProperties().run(LoadHarness.selectedScenarios());
+      List<String> violations = budget.check(reports);
+      List<String> warnings = budget.checkTargets(reports);
+
+      File reportFile = new File(System.getProperty("load.report", "target/load-report.txt"));
+      reportFile.getAbsoluteFile().getParentFile().mkdirs();
+      PrintWriter out = new PrintWriter(reportFile, "UTF-8");
+      try {
+         LoadReport.write(reports, violations, warnings, out);
+      }
+      finally {
+         out.close();
+      }
+
+      assertThat(violations).as("Load budgets, see " + reportFile).isEmpty();
+   }
+}
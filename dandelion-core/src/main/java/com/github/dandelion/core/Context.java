@@ -34,9 +34,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.JMException;
 import javax.management.MBeanServer;
@@ -53,27 +59,40 @@ import com.github.dandelion.core.asset.versioning.AssetVersioningStrategy;
 import com.github.dandelion.core.bundle.loader.BundleLoader;
 import com.github.dandelion.core.bundle.loader.PreLoader;
 import com.github.dandelion.core.bundle.loader.impl.DandelionBundleLoader;
-import com.github.dandelion.core.cache.Cache;
+import com.github.dandelion.core.bundle.loader.support.BundleIndex;
 import com.github.dandelion.core.cache.CacheManager;
 import com.github.dandelion.core.cache.RequestCache;
-import com.github.dandelion.core.cache.StandardCache;
 import com.github.dandelion.core.cache.impl.MemoryRequestCache;
 import com.github.dandelion.core.config.Configuration;
 import com.github.dandelion.core.config.ConfigurationLoader;
 import com.github.dandelion.core.config.Profile;
 import com.github.dandelion.core.config.StandardConfigurationLoader;
+import com.github.dandelion.core.flash.FlashDataStore;
+import com.github.dandelion.core.flash.impl.MemoryFlashDataStore;
+import com.github.dandelion.core.jmx.AssetStorageMonitor;
+import com.github.dandelion.core.jmx.BundleGraphMonitor;
 import com.github.dandelion.core.jmx.DandelionRuntime;
+import com.github.dandelion.core.jmx.MetricsMonitor;
+import com.github.dandelion.core.jmx.RequestCacheMonitor;
+import com.github.dandelion.core.monitoring.MetricRegistry;
+import com.github.dandelion.core.monitoring.MetricsReporter;
+import com.github.dandelion.core.storage.AbstractAssetStorage;
 import com.github.dandelion.core.storage.AssetStorage;
 import com.github.dandelion.core.storage.BundleStorage;
 import com.github.dandelion.core.storage.BundleStorageUnit;
 import com.github.dandelion.core.storage.impl.MemoryAssetStorage;
+import com.github.dandelion.core.storage.support.BundleSuggestionIndex;
+import com.github.dandelion.core.storage.support.ResourceWatcher;
 import com.github.dandelion.core.util.ClassUtils;
 import com.github.dandelion.core.util.LibraryDetector;
 import com.github.dandelion.core.util.ServiceLoaderUtils;
 import com.github.dandelion.core.util.StringUtils;
+import com.github.dandelion.core.util.scanner.ClasspathIndex;
+import com.github.dandelion.core.util.scanner.ClasspathResourceScanner;
 import com.github.dandelion.core.web.DandelionFilter;
-import com.github.dandelion.core.web.RequestFlashData;
+import com.github.dandelion.core.web.handler.AbstractHandlerChain;
 import com.github.dandelion.core.web.handler.HandlerChain;
+import com.github.dandelion.core.web.handler.HandlerPlans;
 import com.github.dandelion.core.web.handler.debug.DebugMenu;
 import com.github.dandelion.core.web.handler.debug.DebugPage;
 
@@ -100,23 +119,31 @@ public class Context {
    private final FilterConfig filterConfig;
    private List<Component> components;
    private RequestCache requestCache;
-   private Cache<String, RequestFlashData> requestFlashDataCache;
+   private FlashDataStore flashDataStore;
    private Map<String, AssetProcessor> processorsMap;
    private Map<String, AssetVersioningStrategy> versioningStrategyMap;
    private AssetVersioningStrategy activeVersioningStrategy;
    private List<AssetProcessor> activeProcessors;
    private List<BundleLoader> bundleLoaders;
    private List<PreLoader> extraLoaders;
+   private BundleIndex bundleIndex;
    private AssetProcessorManager assetProcessorManager;
    private CacheManager assetCacheManager;
    private Map<String, AssetLocator> assetLocatorsMap;
-   private BundleStorage bundleStorage;
+   private volatile BundleStorage bundleStorage;
    private AssetStorage assetStorage;
+   private ExecutorService assetMappingExecutor;
+   private ResourceWatcher resourceWatcher;
    private Configuration configuration;
    private HandlerChain preHandlerChain;
    private HandlerChain postHandlerChain;
+   private HandlerPlans handlerPlans;
    private Map<String, DebugMenu> debugMenuMap;
    private Map<String, DebugPage> debugPageMap;
+   private MetricRegistry metricRegistry;
+   private List<MetricsReporter> metricsReporters;
+   private List<ObjectName> registeredMBeans;
+   private Map<String, Long> startupTimings;
 
    /**
     * <p>
@@ -138,24 +165,62 @@ public class Context {
     */
    public void init() {
 
-      initConfiguration(this.filterConfig);
-      initComponents();
-      initBundleLoaders();
-      initExtraLoaders();
-      initAssetLocators();
-      initRequestCache();
-      initRequestFlashDataCache();
-      initAssetProcessors();
-      initAssetVersioning();
+      // All classpath scans performed during the initialization share the
+      // same index, discarded once the context is ready
+      ClasspathIndex classpathIndex = ClasspathResourceScanner.openIndex();
+      startupTimings = new LinkedHashMap<String, Long>();
+      long start = System.nanoTime();
+      try {
+         initConfiguration(this.filterConfig);
+         initMetrics();
+         start = recordStartupPhase("configuration", start);
+         initComponents();
+         initBundleIndex();
+         initBundleLoaders();
+         initExtraLoaders();
+         start = recordStartupPhase("loaders", start);
+         initAssetLocators();
+         initRequestCache();
+         initFlashDataStore();
+         initAssetProcessors();
+         initAssetVersioning();
+
+         assetProcessorManager = new AssetProcessorManager(this);
+         assetCacheManager = new CacheManager(this);
+         start = recordStartupPhase("services", start);
+
+         initBundleStorage();
+         start = recordStartupPhase("bundleStorage", start);
+         initAssetStorage();
+         initAssetMapping();
+         initResourceWatcher();
+         start = recordStartupPhase("assetStorage", start);
+         initHandlers();
+         initDebugMenus();
+         start = recordStartupPhase("handlers", start);
+         initMBean(this.filterConfig);
+         initMetricsReporters();
+         recordStartupPhase("monitoring", start);
+      }
+      finally {
+         ClasspathResourceScanner.closeIndex();
+      }
 
-      assetProcessorManager = new AssetProcessorManager(this);
-      assetCacheManager = new CacheManager(this);
+      LOG.debug("Classpath scanned with {} JAR files and {} directories walked",
+            classpathIndex.getWalkedJarCount(), classpathIndex.getWalkedDirectoryCount());
+   }
 
-      initBundleStorage();
-      initAssetStorage();
-      initMBean(this.filterConfig);
-      initHandlers();
-      initDebugMenus();
+   /**
+    * <p>
+    * Records the duration of a startup phase.
+    * </p>
+    * 
+    * @return the end time of the phase, i.e. the start time of the next one.
+    */
+   private long recordStartupPhase(String phase, long start) {
+      long end = System.nanoTime();
+      startupTimings.put(phase, TimeUnit.NANOSECONDS.toMillis(end - start));
+      return end;
    }
 
    public void initComponents() {
@@ -210,6 +275,46 @@ public class Context {
       configuration = new Configuration(filterConfig, configurationLoader.loadUserConfiguration(), this);
    }
 
+   /**
+    * <p>
+    * Initializes the {@link MetricRegistry} shared by all instrumented
+    * components. It must be available before any of them gets initialized.
+    * </p>
+    */
+   public void initMetrics() {
+      if (configuration.isMonitoringMetricsEnabled()) {
+         LOG.info("Initializing metrics");
+         metricRegistry = new MetricRegistry(true);
+      }
+      else {
+         metricRegistry = MetricRegistry.DISABLED;
+      }
+   }
+
+   /**
+    * <p>
+    * Starts all service providers of the {@link MetricsReporter} SPI, once the
+    * context is fully initialized.
+    * </p>
+    */
+   public void initMetricsReporters() {
+
+      metricsReporters = new ArrayList<MetricsReporter>();
+
+      if (metricRegistry.isEnabled()) {
+         for (MetricsReporter reporter : ServiceLoader.load(MetricsReporter.class)) {
+            try {
+               reporter.start(metricRegistry, this);
+               metricsReporters.add(reporter);
+               LOG.info("Metrics reporter started: {}", reporter.getName());
+            }
+            catch (RuntimeException e) {
+               LOG.warn("Unable to start the metrics reporter {}", reporter.getName(), e);
+            }
+         }
+      }
+   }
+
    /**
     * <p>
     * Initializes the asset versioning for the whole application.
@@ -317,14 +422,40 @@ public class Context {
 
    /**
     * <p>
-    * Initialize the request flash data cache only if Thymeleaf is present in
-    * the classpath.
+    * Initialize the service provider of {@link FlashDataStore} only if
+    * Thymeleaf is present in the classpath.
     * </p>
     */
-   public void initRequestFlashDataCache() {
+   public void initFlashDataStore() {
 
       if (LibraryDetector.isThymeleafAvailable()) {
-         requestFlashDataCache = new StandardCache<String, RequestFlashData>(100);
+         LOG.info("Initializing flash data store");
+
+         ServiceLoader<FlashDataStore> fdsServiceLoader = ServiceLoader.load(FlashDataStore.class);
+
+         String desiredStore = configuration.getAssetJsProcessingFlashStore();
+         if (StringUtils.isNotBlank(desiredStore)) {
+            for (FlashDataStore store : fdsServiceLoader) {
+               LOG.info("Found flash data store: {}", store.getName());
+               if (store.getName().equalsIgnoreCase(desiredStore.trim())) {
+                  flashDataStore = store;
+               }
+            }
+            if (flashDataStore == null) {
+               LOG.warn(
+                     "The desired flash data store ({}) hasn't been found in the classpath. Did you forget to add a dependency? The default one will be used.",
+                     desiredStore);
+            }
+         }
+
+         // Defaults to the in-memory store
+         if (flashDataStore == null) {
+            flashDataStore = new MemoryFlashDataStore();
+         }
+
+         flashDataStore.init(this);
+
+         LOG.info("Flash data store initialized with: {}", flashDataStore.getName());
       }
    }
 
@@ -427,6 +558,26 @@ public class Context {
       }
    }
 
+   /**
+    * <p>
+    * If enabled, loads the {@link BundleIndex} generated at build time, which
+    * is then used by the bundle loaders instead of scanning the classpath.
+    * </p>
+    */
+   public void initBundleIndex() {
+
+      bundleIndex = null;
+      if (configuration.isBundleIndexEnabled()) {
+         bundleIndex = BundleIndex.load(ClassUtils.getDefaultClassLoader());
+         if (bundleIndex != null) {
+            LOG.info("Bundle index loaded with {} bundles from {}", bundleIndex.size(), bundleIndex.getLocations());
+         }
+         else {
+            LOG.debug("No bundle index found, bundles will be loaded by scanning the classpath");
+         }
+      }
+   }
+
    /**
     * <p>
     * Initializes the {@link BundleStorage} by using all configured
@@ -437,10 +588,12 @@ public class Context {
     * Once loader, some checks are performed on the {@link BundleStorage}.
     * </p>
     */
-   public void initBundleStorage() {
+   public synchronized void initBundleStorage() {
       LOG.info("Initializing bundle storage");
 
-      bundleStorage = new BundleStorage();
+      // The new storage is built aside and only published once complete, so
+      // that requests served meanwhile keep using the previous one
+      BundleStorage newBundleStorage = new BundleStorage();
       List<BundleStorageUnit> allBundles = new ArrayList<BundleStorageUnit>();
 
       // Extra vendor bundles
@@ -469,7 +622,7 @@ public class Context {
 
          LOG.debug("Found {} bundle{}: {}", loadedBundles.size(), loadedBundles.size() <= 1 ? "" : "s", loadedBundles);
 
-         bundleStorage.storeBundles(loadedBundles);
+         newBundleStorage.storeBundles(loadedBundles);
       }
 
       // Regular bundles
@@ -482,12 +635,21 @@ public class Context {
 
          LOG.debug("Found {} bundle{}: {}", loadedBundles.size(), loadedBundles.size() <= 1 ? "" : "s", loadedBundles);
 
-         bundleStorage.storeBundles(loadedBundles);
+         newBundleStorage.storeBundles(loadedBundles);
       }
 
-      bundleStorage.consolidateBundles(allBundles);
+      newBundleStorage.consolidateBundles(allBundles);
 
-      LOG.info("Bundle storage initialized with {} bundles", bundleStorage.getBundleDag().getVertexMap().size());
+      // Suggestions for missing bundles are looked up while reporting alerts
+      // on each response, so the classpath is only scanned once, here
+      if (configuration.isToolAlertReportingEnabled()) {
+         newBundleStorage.setSuggestionIndex(BundleSuggestionIndex.scan());
+      }
+
+      newBundleStorage.freeze();
+      this.bundleStorage = newBundleStorage;
+
+      LOG.info("Bundle storage initialized with {} bundles", newBundleStorage.getBundleDag().getVertexMap().size());
    }
 
    public void initAssetStorage() {
@@ -511,6 +673,10 @@ public class Context {
          assetStorage = new MemoryAssetStorage();
       }
 
+      if (assetStorage instanceof AbstractAssetStorage) {
+         ((AbstractAssetStorage) assetStorage).initMetrics(metricRegistry);
+      }
+
       requestCache.initCache(this);
 
       LOG.info("Asset storage initialized with: {}", assetStorage.getName());
@@ -518,26 +684,84 @@ public class Context {
 
    /**
     * <p>
-    * If JMX is enabled, initializes a MBean allowing to reload bundles and
-    * access cache.
+    * If parallel asset mapping is enabled, initializes the executor shared by
+    * all requests to map their assets concurrently.
+    * </p>
+    */
+   public void initAssetMapping() {
+      if (configuration.isAssetParallelMappingEnabled()) {
+         LOG.info("Initializing parallel asset mapping with {} threads", configuration.getAssetMappingThreads());
+
+         assetMappingExecutor = Executors.newFixedThreadPool(configuration.getAssetMappingThreads(),
+               new ThreadFactory() {
+
+                  private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                  @Override
+                  public Thread newThread(Runnable runnable) {
+                     Thread thread = new Thread(runnable, "dandelion-asset-mapping-" + threadNumber.getAndIncrement());
+                     thread.setDaemon(true);
+                     return thread;
+                  }
+               });
+      }
+   }
+
+   /**
+    * <p>
+    * If enabled, starts watching the files of the loaded bundles and stored
+    * assets in order to refresh them as soon as they are modified.
+    * </p>
+    */
+   public void initResourceWatcher() {
+      if (configuration.isToolFileWatcherEnabled()) {
+         LOG.info("Watching bundle and asset files every {}ms", configuration.getToolFileWatcherInterval());
+
+         resourceWatcher = new ResourceWatcher(this);
+         resourceWatcher.start(configuration.getToolFileWatcherInterval());
+      }
+   }
+
+   /**
+    * <p>
+    * If JMX is enabled, registers the MBeans allowing to reload bundles and
+    * access cache, along with the ones exposing the statistics of the request
+    * cache, the asset storage, the bundle graph and, if enabled, the metrics.
     * </p>
     * 
     * @param filterConfig
     *           The servlet filter configuration.
     */
    public void initMBean(FilterConfig filterConfig) {
+
+      registeredMBeans = new ArrayList<ObjectName>();
+
       if (configuration.isMonitoringJmxEnabled()) {
-         try {
-            MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
-            ObjectName name = new ObjectName("com.github.dandelion", "type", DandelionRuntime.class.getSimpleName());
-            if (!mbeanServer.isRegistered(name)) {
-               mbeanServer.registerMBean(new DandelionRuntime(this, filterConfig), name);
+         registerMBean(new DandelionRuntime(this, filterConfig), "type=" + DandelionRuntime.class.getSimpleName());
+         registerMBean(new RequestCacheMonitor(this), "type=RequestCache");
+         registerMBean(new AssetStorageMonitor(this), "type=AssetStorage");
+         registerMBean(new BundleGraphMonitor(this), "type=BundleGraph");
+
+         if (metricRegistry.isEnabled()) {
+            for (String group : new String[] { "filter", "handler", "locator", "processor" }) {
+               registerMBean(new MetricsMonitor(metricRegistry, group + "."), "type=Metrics,name=" + group);
             }
          }
-         catch (final JMException e) {
-            LOG.error("An exception occured while registering the DandelionRuntimeMBean", e);
+      }
+   }
+
+   private void registerMBean(Object mbean, String keyProperties) {
+      try {
+         MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+         ObjectName name = new ObjectName("com.github.dandelion:" + keyProperties);
+         if (!mbeanServer.isRegistered(name)) {
+            mbeanServer.registerMBean(mbean, name);
+            registeredMBeans.add(name);
          }
       }
+      catch (final JMException e) {
+         LOG.error("An exception occured while registering the MBean {}", keyProperties, e);
+      }
    }
 
    /**
@@ -560,6 +784,12 @@ public class Context {
          else {
             preHandlers.add(handler);
          }
+
+         if (handler instanceof AbstractHandlerChain) {
+            ((AbstractHandlerChain) handler).setTimer(metricRegistry.timer("handler."
+                  + handler.getClass().getSimpleName()));
+            ((AbstractHandlerChain) handler).setServerTimingEnabled(configuration.isMonitoringServerTimingEnabled());
+         }
       }
 
       // Sort all handlers using their rank
@@ -606,6 +836,10 @@ public class Context {
       while (index <= postHandlers.size());
 
       this.postHandlerChain = postHandlers.get(0);
+
+      // Execution plans only keep, per kind of request, the handlers that can
+      // apply
+      this.handlerPlans = HandlerPlans.create(preHandlers, postHandlers, configuration);
    }
 
    public void initDebugMenus() {
@@ -625,16 +859,36 @@ public class Context {
    }
 
    public void destroy() {
-      if (configuration.isMonitoringJmxEnabled()) {
-         try {
-            MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
-            ObjectName name = new ObjectName("com.github.dandelion", "type", DandelionRuntime.class.getSimpleName());
-            if (mbeanServer.isRegistered(name)) {
-               mbeanServer.unregisterMBean(name);
+      if (assetMappingExecutor != null) {
+         assetMappingExecutor.shutdown();
+      }
+      if (resourceWatcher != null) {
+         resourceWatcher.stop();
+      }
+      if (flashDataStore != null) {
+         flashDataStore.destroy();
+      }
+      if (metricsReporters != null) {
+         for (MetricsReporter reporter : metricsReporters) {
+            try {
+               reporter.stop();
+            }
+            catch (RuntimeException e) {
+               LOG.warn("Unable to stop the metrics reporter {}", reporter.getName(), e);
             }
          }
-         catch (final JMException e) {
-            LOG.error("An exception occured while unregistering the DandelionRuntimeMBean", e);
+      }
+      if (registeredMBeans != null) {
+         MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+         for (ObjectName name : registeredMBeans) {
+            try {
+               if (mbeanServer.isRegistered(name)) {
+                  mbeanServer.unregisterMBean(name);
+               }
+            }
+            catch (final JMException e) {
+               LOG.error("An exception occured while unregistering the MBean {}", name, e);
+            }
          }
       }
    }
@@ -680,6 +934,30 @@ public class Context {
       return assetStorage;
    }
 
+   /**
+    * @return the bundle index generated at build time, or {@code null} if it
+    *         is disabled or missing.
+    */
+   public BundleIndex getBundleIndex() {
+      return bundleIndex;
+   }
+
+   /**
+    * @return the watcher of the bundle and asset files, or {@code null} if
+    *         file watching is disabled.
+    */
+   public ResourceWatcher getResourceWatcher() {
+      return resourceWatcher;
+   }
+
+   /**
+    * @return the executor used to map assets concurrently, or {@code null} if
+    *         parallel asset mapping is disabled.
+    */
+   public ExecutorService getAssetMappingExecutor() {
+      return assetMappingExecutor;
+   }
+
    public AssetProcessorManager getProcessorManager() {
       return assetProcessorManager;
    }
@@ -744,6 +1022,26 @@ public class Context {
       return postHandlerChain;
    }
 
+   /**
+    * @return the execution plans of the handlers, or {@code null} if they
+    *         can't be computed for the registered handlers, in which case the
+    *         handler chains are used.
+    */
+   public HandlerPlans getHandlerPlans() {
+      return handlerPlans;
+   }
+
+   /**
+    * @return the duration of each startup phase, in milliseconds.
+    */
+   public Map<String, Long> getStartupTimings() {
+      return startupTimings;
+   }
+
+   public MetricRegistry getMetricRegistry() {
+      return metricRegistry;
+   }
+
    public Map<String, DebugMenu> getDebugMenuMap() {
       return debugMenuMap;
    }
@@ -752,7 +1050,7 @@ public class Context {
       return debugPageMap;
    }
 
-   public Cache<String, RequestFlashData> getRequestFlashDataCache() {
-      return requestFlashDataCache;
+   public FlashDataStore getFlashDataStore() {
+      return flashDataStore;
    }
 }
\ No newline at end of file
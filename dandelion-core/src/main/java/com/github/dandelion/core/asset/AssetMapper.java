@@ -29,8 +29,15 @@
  */
 package com.github.dandelion.core.asset;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -47,6 +54,8 @@ import com.github.dandelion.core.storage.StorageEntry;
 import com.github.dandelion.core.util.AssetUtils;
 import com.github.dandelion.core.util.PathUtils;
 import com.github.dandelion.core.util.StringUtils;
+import com.github.dandelion.core.web.RequestSnapshot;
+import com.github.dandelion.core.web.ServerTiming;
 
 /**
  * <p>
@@ -80,6 +89,15 @@ public class AssetMapper {
     * The same as {@link #mapToAssets(Set)} but for a set of
     * {@link AssetStorageUnit}s.
     * </p>
+    * <p>
+    * If parallel asset mapping is enabled, the {@link AssetStorageUnit}s are
+    * mapped concurrently using the executor of the {@link Context}. The mapped
+    * {@link Asset}s are still returned in the same order.
+    * </p>
+    * <p>
+    * Since the request is not thread-safe, the executor threads are only given
+    * a {@link RequestSnapshot}, taken beforehand by the calling thread.
+    * </p>
     * 
     * @param asus
     *           The set of {@link AssetStorageUnit}s to map to a set of
@@ -87,15 +105,70 @@ public class AssetMapper {
     * @return a set of mapped {@link Asset}s.
     */
    public Set<Asset> mapToAssets(Set<AssetStorageUnit> asus) {
+      long start = ServerTiming.start(context.getConfiguration(), request);
+      try {
+         return doMapToAssets(asus);
+      }
+      finally {
+         ServerTiming.stop(request, "mapping", start);
+      }
+   }
+
+   private Set<Asset> doMapToAssets(Set<AssetStorageUnit> asus) {
       Set<Asset> retval = new LinkedHashSet<Asset>();
 
-      for (AssetStorageUnit asu : asus) {
-         retval.add(mapToAsset(asu));
+      ExecutorService executor = context.getAssetMappingExecutor();
+      if (executor == null || asus.size() < 2) {
+         for (AssetStorageUnit asu : asus) {
+            retval.add(mapToAsset(asu));
+         }
+         return retval;
+      }
+
+      final HttpServletRequest snapshot = RequestSnapshot.of(request);
+      List<Future<Asset>> futures = new ArrayList<Future<Asset>>(asus.size());
+      for (final AssetStorageUnit asu : asus) {
+         futures.add(executor.submit(new Callable<Asset>() {
+
+            @Override
+            public Asset call() {
+               return mapToAsset(asu, snapshot);
+            }
+         }));
+      }
+
+      Iterator<AssetStorageUnit> asuIterator = asus.iterator();
+      for (Future<Asset> future : futures) {
+         AssetStorageUnit asu = asuIterator.next();
+         try {
+            retval.add(future.get());
+         }
+         catch (ExecutionException e) {
+            cancel(futures);
+            StringBuilder msg = new StringBuilder("Unable to map the asset ");
+            msg.append(asu.toLog());
+            msg.append(" of the bundle \"");
+            msg.append(asu.getBundle());
+            msg.append("\"");
+            throw new DandelionException(msg.toString(), e.getCause()).set("bundle", asu.getBundle()).set("asset",
+                  asu.getName());
+         }
+         catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new DandelionException("Interrupted while mapping the asset " + asu.toLog(), e);
+         }
       }
 
       return retval;
    }
 
+   private void cancel(List<Future<Asset>> futures) {
+      for (Future<Asset> future : futures) {
+         future.cancel(false);
+      }
+   }
+
    /**
     * <p>
     * Maps an {@link AssetStorageUnit} to an {@link Asset}.
@@ -113,6 +186,10 @@ public class AssetMapper {
     *            if the {@link AssetStorageUnit} is not configured properly.
     */
    public Asset mapToAsset(AssetStorageUnit asu) {
+      return mapToAsset(asu, request);
+   }
+
+   private Asset mapToAsset(AssetStorageUnit asu, HttpServletRequest request) {
 
       Asset asset = new Asset(asu);
 
@@ -148,7 +225,7 @@ public class AssetMapper {
       asset.setName(getName(asu, location));
       asset.setType(getType(asu, location));
       asset.setVersion(getVersion(asset));
-      asset.setFinalLocation(getFinalLocation(asset, assetLocator));
+      asset.setFinalLocation(getFinalLocation(asset, assetLocator, request));
 
       return asset;
    }
@@ -196,9 +273,11 @@ public class AssetMapper {
     *           The asset for which the final location is to be computed.
     * @param locator
     *           The selected asset locator.
+    * @param request
+    *           The current request, or its snapshot.
     * @return The final location of the asset.
     */
-   private String getFinalLocation(Asset asset, AssetLocator locator) {
+   private String getFinalLocation(Asset asset, AssetLocator locator, HttpServletRequest request) {
 
       if (asset.isNotVendor()
             && (this.context.getConfiguration().isAssetAutoVersioningEnabled() || locator.isCachingForced() || this.context
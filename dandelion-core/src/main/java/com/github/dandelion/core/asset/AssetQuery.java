@@ -43,10 +43,13 @@ import com.github.dandelion.core.cache.CacheEntry;
 import com.github.dandelion.core.cache.RequestCache;
 import com.github.dandelion.core.reporting.Alert;
 import com.github.dandelion.core.storage.AssetStorageUnit;
+import com.github.dandelion.core.storage.BundleStorage;
 import com.github.dandelion.core.storage.BundleStorageUnit;
 import com.github.dandelion.core.util.AssetUtils;
 import com.github.dandelion.core.util.UrlUtils;
 import com.github.dandelion.core.web.AssetRequestContext;
+import com.github.dandelion.core.web.ServerTiming;
+import com.github.dandelion.core.web.WebConstants;
 
 /**
  * <p>
@@ -75,14 +78,50 @@ public class AssetQuery {
     */
    private final HttpServletRequest request;
 
+   /**
+    * The bundle storage the current request is served with.
+    */
+   private final BundleStorage bundleStorage;
+
    /**
     * The desired position in the DOM.
     */
    private AssetDomPosition assetDomPosition;
 
+   /**
+    * Whether the request cache is read and updated.
+    */
+   private boolean requestCache = true;
+
    public AssetQuery(HttpServletRequest request, Context context) {
       this.context = context;
       this.request = request;
+      this.bundleStorage = getBundleStorage(request, context);
+   }
+
+   /**
+    * <p>
+    * Returns the {@link BundleStorage} the given request is served with.
+    * </p>
+    * <p>
+    * The storage published by the context is pinned in the request by the
+    * first query, so that all queries of a request use the same bundle graph,
+    * even if bundles are reloaded meanwhile.
+    * </p>
+    * 
+    * @param request
+    *           The current request.
+    * @param context
+    *           The Dandelion context.
+    * @return the bundle storage to use for the whole request.
+    */
+   private static BundleStorage getBundleStorage(HttpServletRequest request, Context context) {
+      BundleStorage bundleStorage = (BundleStorage) request.getAttribute(WebConstants.DANDELION_BUNDLE_STORAGE);
+      if (bundleStorage == null) {
+         bundleStorage = context.getBundleStorage();
+         request.setAttribute(WebConstants.DANDELION_BUNDLE_STORAGE, bundleStorage);
+      }
+      return bundleStorage;
    }
 
    /**
@@ -103,6 +142,27 @@ public class AssetQuery {
       return this;
    }
 
+   /**
+    * <p>
+    * Configures whether the request cache is used, both to read the assets
+    * of the request and to store the assets computed on a cache miss.
+    * </p>
+    * <p>
+    * Queries performed while the page is still being generated must not use
+    * it: the bundles and assets declared further in the page are not known
+    * yet, and the cached entry, keyed by URL, holds the assets of the whole
+    * page.
+    * </p>
+    * 
+    * @param requestCache
+    *           {@code false} to bypass the request cache.
+    * @return the current instance of {@link AssetQuery}.
+    */
+   public AssetQuery withRequestCache(boolean requestCache) {
+      this.requestCache = requestCache;
+      return this;
+   }
+
    /**
     * <p>
     * Actually performs the query to retrieve the desired {@link Asset}s.
@@ -112,6 +172,16 @@ public class AssetQuery {
     *         {@link HttpServletRequest}.
     */
    public Set<Asset> perform() {
+      long start = ServerTiming.start(context.getConfiguration(), request);
+      try {
+         return doPerform();
+      }
+      finally {
+         ServerTiming.stop(request, "assetquery", start);
+      }
+   }
+
+   private Set<Asset> doPerform() {
 
       Set<Asset> requestedAssets = null;
       String requestCacheKey = null;
@@ -119,7 +189,8 @@ public class AssetQuery {
 
       LOG.debug("Performing query for the request \"{}\"", currentUri);
 
-      if (this.context.getConfiguration().isCachingEnabled()) {
+      boolean cachingEnabled = this.context.getConfiguration().isCachingEnabled() && this.requestCache;
+      if (cachingEnabled) {
          requestCacheKey = this.context.getCacheManager().generateRequestCacheKey(this.request);
          CacheEntry cacheElement = this.context.getCacheManager().getAssets(requestCacheKey);
          if (cacheElement != null) {
@@ -139,7 +210,7 @@ public class AssetQuery {
          // If caching is enabled, the assocation request<=>assets is cached
          // for
          // quicker future access
-         if (this.context.getConfiguration().isCachingEnabled()) {
+         if (cachingEnabled) {
             requestedAssets = context.getCacheManager()
                   .storeAssets(requestCacheKey, new CacheEntry(currentUri, requestedAssets)).getAssets();
          }
@@ -158,7 +229,7 @@ public class AssetQuery {
       LOG.debug("Checking for alerts for the request \"{}\"", currentUri);
 
       String[] bundleNames = AssetRequestContext.get(this.request).getBundles(true);
-      errors.addAll(this.context.getBundleStorage().alertsFor(bundleNames));
+      errors.addAll(this.bundleStorage.alertsFor(bundleNames));
       
       LOG.debug("-> Errors found: {}", errors.size());
       return errors;
@@ -169,7 +240,7 @@ public class AssetQuery {
       // First collect JS from the excluded bundles
       Set<String> excludedJsNames = new HashSet<String>();
       for (String bundleToExclude : AssetRequestContext.get(this.request).getExcludedBundles()) {
-         Set<BundleStorageUnit> bsus = this.context.getBundleStorage().bundlesFor(bundleToExclude);
+         Set<BundleStorageUnit> bsus = this.bundleStorage.bundlesFor(bundleToExclude);
          for (BundleStorageUnit bsu : bsus) {
             excludedJsNames.addAll(bsu.getJsAssetStorageUnitNames());
          }
@@ -183,7 +254,7 @@ public class AssetQuery {
       // Then collect CSS from the excluded bundles
       Set<String> excludedCssNames = new HashSet<String>();
       for (String bundleToExclude : AssetRequestContext.get(this.request).getExcludedBundles()) {
-         Set<BundleStorageUnit> bsus = this.context.getBundleStorage().bundlesFor(bundleToExclude);
+         Set<BundleStorageUnit> bsus = this.bundleStorage.bundlesFor(bundleToExclude);
          for (BundleStorageUnit bsu : bsus) {
             excludedCssNames.addAll(bsu.getCssAssetStorageUnitNames());
          }
@@ -214,7 +285,7 @@ public class AssetQuery {
       Set<AssetStorageUnit> asus = new LinkedHashSet<AssetStorageUnit>();
 
       String[] bundleNames = AssetRequestContext.get(this.request).getBundles(true);
-      for (BundleStorageUnit bsu : this.context.getBundleStorage().bundlesFor(bundleNames)) {
+      for (BundleStorageUnit bsu : this.bundleStorage.bundlesFor(bundleNames)) {
          asus.addAll(bsu.getAssetStorageUnits());
       }
       return asus;
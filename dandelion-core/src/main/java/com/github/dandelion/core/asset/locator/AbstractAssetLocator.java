@@ -38,6 +38,8 @@ import com.github.dandelion.core.Context;
 import com.github.dandelion.core.DandelionException;
 import com.github.dandelion.core.asset.Asset;
 import com.github.dandelion.core.asset.processor.AssetProcessor;
+import com.github.dandelion.core.monitoring.MetricRegistry;
+import com.github.dandelion.core.monitoring.Timer;
 import com.github.dandelion.core.storage.AssetStorageUnit;
 import com.github.dandelion.core.util.StringUtils;
 import com.github.dandelion.core.web.AssetRequestContext;
@@ -57,6 +59,7 @@ public abstract class AbstractAssetLocator implements AssetLocator {
 
    protected boolean active = true;
    protected Context context;
+   private Timer contentTimer = Timer.DISABLED;
 
    @Override
    public boolean isCachingForced() {
@@ -66,6 +69,7 @@ public abstract class AbstractAssetLocator implements AssetLocator {
    @Override
    public void initLocator(Context context) {
       this.context = context;
+      this.contentTimer = MetricRegistry.of(context).timer("locator." + getLocationKey() + ".content");
    }
 
    /**
@@ -117,7 +121,14 @@ public abstract class AbstractAssetLocator implements AssetLocator {
    public String getContent(Asset asset, HttpServletRequest request) {
 
       Map<String, Object> parameters = AssetRequestContext.get(request).getParameters(asset.getName());
-      String content = doGetContent(asset, parameters, request);
+      long start = contentTimer.start();
+      String content;
+      try {
+         content = doGetContent(asset, parameters, request);
+      }
+      finally {
+         contentTimer.stop(start);
+      }
 
       // Apply variable replacement
       if (!parameters.isEmpty()) {
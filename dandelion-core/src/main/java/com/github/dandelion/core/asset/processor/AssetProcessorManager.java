@@ -36,8 +36,10 @@ import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
@@ -49,8 +51,12 @@ import com.github.dandelion.core.Context;
 import com.github.dandelion.core.asset.Asset;
 import com.github.dandelion.core.asset.AssetType;
 import com.github.dandelion.core.asset.locator.AssetLocator;
+import com.github.dandelion.core.monitoring.MetricRegistry;
+import com.github.dandelion.core.monitoring.Timer;
 import com.github.dandelion.core.storage.StorageEntry;
 import com.github.dandelion.core.util.AssetUtils;
+import com.github.dandelion.core.util.HashingWriter;
+import com.github.dandelion.core.web.ServerTiming;
 
 /**
  * <p>
@@ -71,8 +77,21 @@ public final class AssetProcessorManager {
     */
    private final Context context;
 
+   /**
+    * The timer of each active processor.
+    */
+   private final Map<AssetProcessor, Timer> processorTimers;
+
    public AssetProcessorManager(Context context) {
       this.context = context;
+      this.processorTimers = new IdentityHashMap<AssetProcessor, Timer>();
+
+      MetricRegistry registry = MetricRegistry.of(context);
+      if (context.getActiveProcessors() != null) {
+         for (AssetProcessor assetProcessor : context.getActiveProcessors()) {
+            processorTimers.put(assetProcessor, registry.timer("processor." + assetProcessor.getProcessorKey()));
+         }
+      }
    }
 
    public Set<Asset> process(Set<Asset> assets, HttpServletRequest request) {
@@ -97,6 +116,17 @@ public final class AssetProcessorManager {
          return asset;
       }
 
+      long start = ServerTiming.start(context.getConfiguration(), request);
+      try {
+         return doProcess(asset, request);
+      }
+      finally {
+         ServerTiming.stop(request, "processing", start);
+      }
+   }
+
+   private Asset doProcess(Asset asset, HttpServletRequest request) {
+
       List<AssetProcessor> compatibleAssetProcessors = getCompatibleProcessorFor(asset);
 
       if (!compatibleAssetProcessors.isEmpty()) {
@@ -108,12 +138,32 @@ public final class AssetProcessorManager {
          String contents = locator.getContent(asset, request);
 
          Reader assetReader = new StringReader(contents);
-         Writer assetWriter = new StringWriter();
+         StringWriter assetWriter = null;
+         HashingWriter hashingWriter = null;
 
-         for (AssetProcessor assetProcessor : compatibleAssetProcessors) {
+         for (int i = 0; i < compatibleAssetProcessors.size(); i++) {
+            AssetProcessor assetProcessor = compatibleAssetProcessors.get(i);
             LOG.trace("Applying processor {} on {}", assetProcessor.getProcessorKey(), asset.toLog());
             assetWriter = new StringWriter();
-            assetProcessor.process(assetReader, assetWriter, processingContext);
+
+            // The output of the last processor is hashed while being written
+            Writer processorWriter = assetWriter;
+            if (i == compatibleAssetProcessors.size() - 1) {
+               hashingWriter = new HashingWriter(assetWriter);
+               processorWriter = hashingWriter;
+            }
+
+            Timer timer = processorTimers.get(assetProcessor);
+            if (timer == null) {
+               timer = Timer.DISABLED;
+            }
+            long start = timer.start();
+            try {
+               assetProcessor.process(assetReader, processorWriter, processingContext);
+            }
+            finally {
+               timer.stop(start);
+            }
             assetReader = new StringReader(assetWriter.toString());
          }
 
@@ -122,7 +172,8 @@ public final class AssetProcessorManager {
          }
 
          // The cache system is updated with the new key/content pair
-         context.getAssetStorage().put(asset.getStorageKey(), new StorageEntry(asset, assetWriter.toString()));
+         context.getAssetStorage().put(asset.getStorageKey(),
+               new StorageEntry(asset, assetWriter.toString(), hashingWriter.getHash()));
       }
       else {
          LOG.trace("No compatible processor was found for the asset {}", asset.toLog());
@@ -102,7 +102,6 @@ public class CssUrlRewritingProcessor extends AbstractAssetProcessor {
       Asset asset = processingContext.getAsset();
       String contextPath = processingContext.getRequest().getContextPath();
       LOG.debug("Processing {}", asset.toLog());
-      urlRewriter.setContextPath(contextPath);
 
       StringBuilder assetContent = StringBuilderUtils.toStringBuilder(reader);
 
@@ -113,7 +112,7 @@ public class CssUrlRewritingProcessor extends AbstractAssetProcessor {
 
          bufferedWriter = new BufferedWriter(writer);
          bufferedWriter.write(urlRewriter.rewriteUrl("/" + contextPath + asset.getConfigLocation(),
-               asset.getFinalLocation(), assetContent.toString()).toString());
+               asset.getFinalLocation(), assetContent.toString(), contextPath).toString());
       }
       catch (IOException e) {
          LOG.error("An error occurred when processing relative paths inside the asset " + asset.toLog());
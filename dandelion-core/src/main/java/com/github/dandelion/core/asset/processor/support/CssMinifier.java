@@ -0,0 +1,717 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.asset.processor.support;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.dandelion.core.asset.processor.vendor.CssCompressor;
+
+/**
+ * <p>
+ * CSS minifier based on a single-pass tokenizer working directly on an array
+ * of characters.
+ * </p>
+ * <p>
+ * The applied optimizations are the ones of the {@link CssCompressor}:
+ * </p>
+ * <ul>
+ * <li>comments are removed, except the ones starting with <code>/*!</code>
+ * and the IE Mac hack</li>
+ * <li>whitespaces are collapsed and removed around the characters that don't
+ * need them</li>
+ * <li>the last semicolon of a block, duplicate semicolons and empty rules are
+ * removed</li>
+ * <li>units are removed from zero values, leading zeros from decimals and
+ * <code>0 0 0 0</code> is shortened to <code>0</code></li>
+ * <li><code>rgb(51,102,153)</code> is converted to <code>#336699</code>, which
+ * in turn is shortened to <code>#369</code></li>
+ * </ul>
+ * <p>
+ * Unlike the {@link CssCompressor}, which works on the whole stylesheet with
+ * regular expressions, the tokenizer knows whether it is in a selector, in a
+ * declaration, in a string, in a <code>url()</code> or in a
+ * <code>calc()</code>. As a consequence, strings and URLs are left untouched,
+ * spaces around <code>+</code> are kept in <code>calc()</code>, spaces around
+ * parentheses are kept in media queries and id selectors are never mistaken for
+ * colors.
+ * </p>
+ * <p>
+ * When built with a {@link CssUrlRewriter}, the relative URLs are also
+ * rewritten while being copied, so that rewriting and minification happen in
+ * the same pass.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class CssMinifier {
+
+   /**
+    * Characters before which whitespaces are removed.
+    */
+   private static final String NO_SPACE_BEFORE = "!{};:>+()],";
+
+   /**
+    * Characters after which whitespaces are removed.
+    */
+   private static final String NO_SPACE_AFTER = "!{}:;>+([,";
+
+   /**
+    * Units that can be removed from zero values.
+    */
+   private static final Set<String> ZERO_UNITS = new HashSet<String>(Arrays.asList("px", "em", "%", "in", "cm",
+         "mm", "pc", "pt", "ex"));
+
+   /**
+    * Functions in which <code>+</code> is a binary operator that must be
+    * surrounded by whitespaces.
+    */
+   private static final Set<String> MATH_FUNCTIONS = new HashSet<String>(Arrays.asList("calc", "-webkit-calc",
+         "-moz-calc", "min", "max", "clamp"));
+
+   /**
+    * At-rules whose block contains rules instead of declarations.
+    */
+   private static final Set<String> GROUPING_AT_RULES = new HashSet<String>(Arrays.asList("media", "supports",
+         "document", "keyframes", "layer", "container"));
+
+   /**
+    * Properties for which <code>0 0</code> is not equivalent to <code>0</code>.
+    */
+   private static final Set<String> NO_ZERO_SHORTHAND_PROPERTIES = new HashSet<String>(Arrays.asList(
+         "transform-origin", "-webkit-transform-origin", "-moz-transform-origin", "-ms-transform-origin",
+         "-o-transform-origin", "perspective-origin", "-webkit-perspective-origin", "-webkit-mask-position",
+         "background-size", "box-shadow", "-webkit-box-shadow", "-moz-box-shadow"));
+
+   private static final Map<String, String> NAMED_COLORS = new HashMap<String, String>();
+   static {
+      NAMED_COLORS.put("C0C0C0", "silver");
+      NAMED_COLORS.put("800000", "maroon");
+      NAMED_COLORS.put("800080", "purple");
+      NAMED_COLORS.put("008000", "green");
+      NAMED_COLORS.put("808000", "olive");
+      NAMED_COLORS.put("000080", "navy");
+      NAMED_COLORS.put("008080", "teal");
+   }
+
+   private final char[] in;
+   private final int length;
+   private final StringBuilder out;
+
+   private final CssUrlRewriter urlRewriter;
+   private final String contextPath;
+   private final String originalCssPath;
+   private final String newCssPath;
+
+   private int pos;
+   private boolean pendingSpace;
+
+   /**
+    * Whether the comment that follows an IE Mac hack comment must be kept.
+    */
+   private boolean ieMacHack;
+
+   /**
+    * Output index of the current statement (selector, at-rule or declaration).
+    */
+   private int statementStart;
+
+   /**
+    * Whether the current statement is an at-rule.
+    */
+   private boolean atRule;
+
+   /**
+    * Output index of the current declaration value, or -1 outside of any
+    * declaration value.
+    */
+   private int valueStart = -1;
+
+   // Stack of the opened blocks: output index of their prelude and whether
+   // they contain declarations
+   private int[] blockStarts = new int[16];
+   private boolean[] declarationBlocks = new boolean[16];
+   private int blockDepth;
+
+   // Stack of the opened parentheses: whether they belong to a math function
+   private boolean[] mathParentheses = new boolean[16];
+   private int parenthesisDepth;
+
+   public CssMinifier(char[] in) {
+      this(in, in.length);
+   }
+
+   public CssMinifier(char[] in, int length) {
+      this(in, length, null, null, null, null);
+   }
+
+   /**
+    * @param in
+    *           The CSS code to minify.
+    * @param length
+    *           The number of characters to read from <code>in</code>.
+    * @param urlRewriter
+    *           The rewriter to apply on each <code>url()</code>, or
+    *           {@code null} to copy them as-is.
+    * @param contextPath
+    *           The context path of the current request.
+    * @param originalCssPath
+    *           The original CSS path, used to resolve the relative URLs.
+    * @param newCssPath
+    *           The new CSS path, which the URLs must be relative to.
+    */
+   public CssMinifier(char[] in, int length, CssUrlRewriter urlRewriter, String contextPath, String originalCssPath,
+         String newCssPath) {
+      this.in = in;
+      this.length = length;
+      this.out = new StringBuilder(length);
+      this.urlRewriter = urlRewriter;
+      this.contextPath = contextPath;
+      this.originalCssPath = originalCssPath;
+      this.newCssPath = newCssPath;
+   }
+
+   /**
+    * <p>
+    * Convenient method that minifies the given stylesheet.
+    * </p>
+    * 
+    * @param source
+    *           The CSS code to minify.
+    * @return the minified CSS code.
+    */
+   public static String minify(CharSequence source) {
+      return new CssMinifier(source.toString().toCharArray()).minify();
+   }
+
+   /**
+    * @return the minified CSS code.
+    */
+   public String minify() {
+
+      while (pos < length) {
+         char c = in[pos];
+
+         if (isWhitespace(c)) {
+            pendingSpace = out.length() > 0;
+            pos++;
+         }
+         else if (c == '/' && pos + 1 < length && in[pos + 1] == '*') {
+            comment();
+         }
+         else if (c == '"' || c == '\'') {
+            space(c);
+            string();
+         }
+         else if (c == '{') {
+            space(c);
+            openBlock();
+            pos++;
+         }
+         else if (c == '}') {
+            pendingSpace = false;
+            closeBlock();
+            pos++;
+         }
+         else if (c == ';') {
+            pendingSpace = false;
+            endStatement();
+            pos++;
+         }
+         else if (c == ':') {
+            space(c);
+            out.append(c);
+            if (valueStart < 0 && parenthesisDepth == 0 && !atRule && isInDeclarationBlock()) {
+               valueStart = out.length();
+            }
+            pos++;
+         }
+         else if (c == '(') {
+            space(c);
+            openParenthesis();
+         }
+         else if (c == ')') {
+            space(c);
+            if (parenthesisDepth > 0) {
+               parenthesisDepth--;
+            }
+            out.append(c);
+            pos++;
+         }
+         else if (c == '#' && valueStart >= 0) {
+            space(c);
+            color();
+         }
+         else if ((c >= '0' && c <= '9') || c == '.') {
+            space(c);
+            number();
+         }
+         else if (c == '\\') {
+            // Escaped characters are copied as-is
+            space(c);
+            out.append(in, pos, Math.min(2, length - pos));
+            pos += 2;
+         }
+         else {
+            space(c);
+            if (c == '@' && out.length() == statementStart) {
+               atRule = true;
+            }
+            out.append(c);
+            pos++;
+         }
+      }
+
+      endDeclaration();
+      return out.toString();
+   }
+
+   /**
+    * <p>
+    * Writes the pending whitespace, if any, unless the previously written
+    * character or the next one doesn't need it.
+    * </p>
+    * 
+    * @param next
+    *           The next character to be written.
+    */
+   private void space(char next) {
+      if (!pendingSpace || out.length() == 0) {
+         pendingSpace = false;
+         return;
+      }
+      pendingSpace = false;
+
+      char previous = out.charAt(out.length() - 1);
+      boolean inMath = parenthesisDepth > 0 && mathParentheses[parenthesisDepth - 1];
+
+      // Pseudo-classes in selectors, media features in at-rules and binary
+      // operators in calc() need the whitespace
+      boolean keepAfter = NO_SPACE_AFTER.indexOf(previous) < 0 || (previous == '+' && inMath);
+      boolean keepBefore = NO_SPACE_BEFORE.indexOf(next) < 0 || (next == '+' && inMath)
+            || (next == '(' && (atRule || (inMath && "+-*/".indexOf(previous) >= 0)))
+            || (next == ':' && (atRule || !isInDeclarationBlock()));
+
+      if (keepAfter && keepBefore) {
+         out.append(' ');
+      }
+   }
+
+   private void comment() {
+      int end = indexOf('*', '/', pos + 2);
+      boolean preserved = pos + 2 < length && in[pos + 2] == '!';
+      boolean hack = end > 0 && in[end - 1] == '\\';
+
+      if (preserved || hack || ieMacHack) {
+         int stop = end < 0 ? length : end + 2;
+         space('/');
+         out.append(in, pos, stop - pos);
+         pos = stop;
+         ieMacHack = hack;
+      }
+      else {
+         pos = end < 0 ? length : end + 2;
+      }
+   }
+
+   private void string() {
+      char quote = in[pos];
+      int start = pos++;
+      while (pos < length) {
+         char c = in[pos++];
+         if (c == '\\' && pos < length) {
+            pos++;
+         }
+         else if (c == quote || c == '\n') {
+            break;
+         }
+      }
+      out.append(in, start, pos - start);
+   }
+
+   private void openBlock() {
+      endDeclaration();
+      out.append('{');
+
+      if (blockDepth == blockStarts.length) {
+         blockStarts = Arrays.copyOf(blockStarts, blockDepth * 2);
+         declarationBlocks = Arrays.copyOf(declarationBlocks, blockDepth * 2);
+      }
+      blockStarts[blockDepth] = statementStart;
+      declarationBlocks[blockDepth] = !atRule || !isGroupingAtRule();
+      blockDepth++;
+
+      newStatement();
+   }
+
+   private void closeBlock() {
+      endDeclaration();
+
+      // The last semicolon of the block is useless
+      int last = out.length() - 1;
+      if (last >= 0 && out.charAt(last) == ';') {
+         out.setLength(last);
+      }
+
+      if (blockDepth > 0) {
+         blockDepth--;
+
+         // Empty blocks are removed along with their prelude
+         if (out.charAt(out.length() - 1) == '{') {
+            out.setLength(blockStarts[blockDepth]);
+         }
+         else {
+            out.append('}');
+         }
+      }
+      else {
+         out.append('}');
+      }
+
+      newStatement();
+   }
+
+   private void endStatement() {
+      endDeclaration();
+      int last = out.length() - 1;
+      if (last >= 0 && out.charAt(last) != ';' && out.charAt(last) != '{') {
+         out.append(';');
+      }
+      newStatement();
+   }
+
+   private void newStatement() {
+      statementStart = out.length();
+      atRule = false;
+      valueStart = -1;
+      parenthesisDepth = 0;
+   }
+
+   /**
+    * <p>
+    * Shortens the value of the current declaration, if any, when it only
+    * contains zeros.
+    * </p>
+    */
+   private void endDeclaration() {
+      if (valueStart < 0) {
+         return;
+      }
+
+      int valueLength = out.length() - valueStart;
+      if ((valueLength == 7 || valueLength == 5 || valueLength == 3) && isZeros(valueStart, out.length())) {
+         String property = out.substring(statementStart, valueStart - 1).trim().toLowerCase();
+         if ("background-position".equals(property)) {
+            out.setLength(valueStart);
+            out.append("0 0");
+         }
+         else if (!NO_ZERO_SHORTHAND_PROPERTIES.contains(property)) {
+            out.setLength(valueStart);
+            out.append('0');
+         }
+      }
+   }
+
+   private void openParenthesis() {
+      int nameStart = out.length();
+      while (nameStart > statementStart && isNameChar(out.charAt(nameStart - 1))) {
+         nameStart--;
+      }
+      String name = out.substring(nameStart);
+
+      if ("url".equalsIgnoreCase(name)) {
+         url();
+         return;
+      }
+      if ("rgb".equals(name) && valueStart >= 0 && rgb(nameStart)) {
+         return;
+      }
+
+      if (parenthesisDepth == mathParentheses.length) {
+         mathParentheses = Arrays.copyOf(mathParentheses, parenthesisDepth * 2);
+      }
+      boolean inMath = parenthesisDepth > 0 && mathParentheses[parenthesisDepth - 1];
+      mathParentheses[parenthesisDepth++] = inMath || MATH_FUNCTIONS.contains(name.toLowerCase());
+      out.append('(');
+      pos++;
+   }
+
+   /**
+    * <p>
+    * Copies a <code>url()</code> as-is, except the whitespaces surrounding the
+    * URL, which is rewritten if a {@link CssUrlRewriter} has been provided.
+    * </p>
+    */
+   private void url() {
+      out.append('(');
+      pos++;
+      skipWhitespaces();
+      int urlStart = out.length();
+
+      if (pos < length && (in[pos] == '"' || in[pos] == '\'')) {
+         string();
+         skipWhitespaces();
+      }
+      else {
+         int start = pos;
+         int end = pos;
+         while (pos < length && in[pos] != ')') {
+            if (in[pos] == '\\') {
+               pos++;
+            }
+            pos++;
+            if (!isWhitespace(in[pos - 1])) {
+               end = pos;
+            }
+         }
+         out.append(in, start, Math.min(end, length) - start);
+      }
+
+      if (urlRewriter != null && CssUrlRewriter.isRewritable(out, urlStart)) {
+         String url = urlRewriter.rewriteUrlPath(out.substring(urlStart), originalCssPath, newCssPath,
+               contextPath);
+         out.setLength(urlStart);
+         out.append(url);
+      }
+
+      if (pos < length && in[pos] == ')') {
+         out.append(')');
+         pos++;
+      }
+   }
+
+   /**
+    * <p>
+    * Converts <code>rgb(51,102,153)</code> to <code>#336699</code>, and then
+    * tries to shorten it.
+    * </p>
+    * 
+    * @param nameStart
+    *           The output index of the function name.
+    * @return {@code true} if the color has been converted, {@code false} if it
+    *         must be written as-is.
+    */
+   private boolean rgb(int nameStart) {
+      int end = pos + 1;
+      while (end < length && (in[end] == ',' || isWhitespace(in[end]) || (in[end] >= '0' && in[end] <= '9'))) {
+         end++;
+      }
+      if (end >= length || in[end] != ')') {
+         return false;
+      }
+
+      String[] components = new String(in, pos + 1, end - pos - 1).split(",");
+      if (components.length != 3) {
+         return false;
+      }
+
+      StringBuilder hex = new StringBuilder(6);
+      for (String component : components) {
+         String value = component.trim();
+         if (value.length() == 0 || value.length() > 3 || Integer.parseInt(value) > 255) {
+            return false;
+         }
+         int intValue = Integer.parseInt(value);
+         if (intValue < 16) {
+            hex.append('0');
+         }
+         hex.append(Integer.toHexString(intValue));
+      }
+
+      out.setLength(nameStart);
+      out.append('#');
+      appendHexColor(hex.toString());
+      pos = end + 1;
+      return true;
+   }
+
+   /**
+    * <p>
+    * Shortens <code>#AABBCC</code> to <code>#ABC</code>, unless the color is
+    * preceded by a quote or an equal sign (IE filters don't support it).
+    * </p>
+    */
+   private void color() {
+      out.append('#');
+      int start = ++pos;
+      while (pos < length && isNameChar(in[pos])) {
+         pos++;
+      }
+      String hex = new String(in, start, pos - start);
+
+      char previous = ' ';
+      for (int i = out.length() - 2; i >= 0 && previous == ' '; i--) {
+         previous = out.charAt(i);
+      }
+
+      if (hex.length() == 6 && isHex(hex) && previous != '"' && previous != '\'' && previous != '=') {
+         appendHexColor(hex);
+      }
+      else {
+         out.append(hex);
+      }
+   }
+
+   private void appendHexColor(String hex) {
+      if (equalsIgnoreCase(hex.charAt(0), hex.charAt(1)) && equalsIgnoreCase(hex.charAt(2), hex.charAt(3))
+            && equalsIgnoreCase(hex.charAt(4), hex.charAt(5))) {
+         out.append(hex.charAt(0)).append(hex.charAt(2)).append(hex.charAt(4));
+      }
+      else {
+         String namedColor = NAMED_COLORS.get(hex.toUpperCase());
+         if (namedColor != null) {
+            out.setLength(out.length() - 1);
+            out.append(namedColor);
+         }
+         else {
+            out.append(hex);
+         }
+      }
+   }
+
+   /**
+    * <p>
+    * Removes the unit of zero values and the leading zeros of decimals, when
+    * the number is preceded by a colon or a whitespace.
+    * </p>
+    */
+   private void number() {
+      int last = out.length() - 1;
+      boolean valueStartsHere = last >= 0 && (out.charAt(last) == ':' || out.charAt(last) == ' ');
+      if (!valueStartsHere || !isNumberStart()) {
+         out.append(in[pos++]);
+         return;
+      }
+
+      int start = pos;
+      while (pos < length && in[pos] == '0') {
+         pos++;
+      }
+      int zeros = pos - start;
+      if (zeros > 0 && pos + 1 < length && in[pos] == '.' && isDigit(in[pos + 1])) {
+         // 0.6 -> .6
+         start = pos;
+      }
+      else if (zeros == 1) {
+         // 0px -> 0
+         int unitEnd = pos;
+         while (unitEnd < length && (isNameChar(in[unitEnd]) || in[unitEnd] == '%')) {
+            unitEnd++;
+         }
+         if (ZERO_UNITS.contains(new String(in, pos, unitEnd - pos))) {
+            out.append('0');
+            pos = unitEnd;
+            return;
+         }
+      }
+
+      while (pos < length && (isNameChar(in[pos]) || in[pos] == '%' || in[pos] == '.')) {
+         pos++;
+      }
+      out.append(in, start, pos - start);
+   }
+
+   private boolean isNumberStart() {
+      return isDigit(in[pos]) || (pos + 1 < length && isDigit(in[pos + 1]));
+   }
+
+   private boolean isInDeclarationBlock() {
+      return blockDepth > 0 && declarationBlocks[blockDepth - 1];
+   }
+
+   private boolean isGroupingAtRule() {
+      int start = statementStart + 1;
+      int end = start;
+      while (end < out.length() && isNameChar(out.charAt(end))) {
+         end++;
+      }
+      String name = out.substring(start, end).toLowerCase();
+
+      // Strip vendor prefixes, e.g. -webkit-keyframes
+      if (name.startsWith("-") && name.indexOf('-', 1) > 0) {
+         name = name.substring(name.indexOf('-', 1) + 1);
+      }
+      return GROUPING_AT_RULES.contains(name);
+   }
+
+   private boolean isZeros(int start, int end) {
+      for (int i = start; i < end; i++) {
+         char c = out.charAt(i);
+         if ((i - start) % 2 == 0 ? c != '0' : c != ' ') {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private int indexOf(char c1, char c2, int from) {
+      for (int i = from; i < length - 1; i++) {
+         if (in[i] == c1 && in[i + 1] == c2) {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   private void skipWhitespaces() {
+      while (pos < length && isWhitespace(in[pos])) {
+         pos++;
+      }
+   }
+
+   private static boolean isWhitespace(char c) {
+      return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+   }
+
+   private static boolean isDigit(char c) {
+      return c >= '0' && c <= '9';
+   }
+
+   private static boolean isHex(String value) {
+      for (int i = 0; i < value.length(); i++) {
+         if (Character.digit(value.charAt(i), 16) < 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private static boolean isNameChar(char c) {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_'
+            || c > 127;
+   }
+
+   private static boolean equalsIgnoreCase(char c1, char c2) {
+      return Character.toUpperCase(c1) == Character.toUpperCase(c2);
+   }
+}
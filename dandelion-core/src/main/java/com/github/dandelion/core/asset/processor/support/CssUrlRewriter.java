@@ -33,6 +33,7 @@ import java.io.IOException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.github.dandelion.core.cache.support.ConcurrentLruCache;
 import com.github.dandelion.core.util.PathUtils;
 import com.github.dandelion.core.util.StringUtils;
 
@@ -75,9 +76,19 @@ public class CssUrlRewriter {
    /** The pattern to go to the root */
    private static final String ROOT_REPLACE_PATTERN = "../";
 
+   /** The maximum number of rewritten URLs kept in memory */
+   private static final int MAX_REWRITTEN_URLS = 1000;
+
    /** The context path */
    protected String contextPath;
 
+   /**
+    * Rewritten URLs, per context path, original CSS path, new CSS path and
+    * URL. Bounded since the new CSS path changes with each asset version.
+    */
+   private final ConcurrentLruCache<String, String> rewrittenUrls = new ConcurrentLruCache<String, String>(
+         MAX_REWRITTEN_URLS);
+
    public CssUrlRewriter() {
    }
 
@@ -88,18 +99,30 @@ public class CssUrlRewriter {
     *           the contextPath to set
     */
    public void setContextPath(String contextPath) {
-      if (StringUtils.isNotBlank(contextPath)) {
-         if (contextPath.charAt(0) != '/') {
-            contextPath = '/' + contextPath;
-         }
-         if (contextPath.charAt(contextPath.length() - 1) != '/') {
-            contextPath = contextPath + '/';
-         }
-         this.contextPath = contextPath;
+      this.contextPath = normalizeContextPath(contextPath);
+   }
+
+   /**
+    * <p>
+    * Normalizes the given context path, so that it starts and ends with a
+    * <code>/</code>.
+    * </p>
+    * 
+    * @param contextPath
+    *           the context path of the current request.
+    * @return the normalized context path, or {@code null} if blank.
+    */
+   private static String normalizeContextPath(String contextPath) {
+      if (StringUtils.isBlank(contextPath)) {
+         return null;
+      }
+      if (contextPath.charAt(0) != '/') {
+         contextPath = '/' + contextPath;
       }
-      else {
-         this.contextPath = null;
+      if (contextPath.charAt(contextPath.length() - 1) != '/') {
+         contextPath = contextPath + '/';
       }
+      return contextPath;
    }
 
    /**
@@ -116,12 +139,36 @@ public class CssUrlRewriter {
     * @throws IOException
     */
    public StringBuffer rewriteUrl(String originalCssPath, String newCssPath, String originalCssContent) {
+      return rewriteUrl(originalCssPath, newCssPath, originalCssContent, contextPath);
+   }
+
+   /**
+    * <p>
+    * Rewrites all URLs present in the originalCssContent using the newCssPath
+    * and the given context path, which is preferred over
+    * {@link #setContextPath(String)} when the rewriter is shared between
+    * requests.
+    * </p>
+    * 
+    * @param originalCssPath
+    *           the original CSS path.
+    * @param newCssPath
+    *           the new CSS path.
+    * @param originalCssContent
+    *           the original CSS content.
+    * @param contextPath
+    *           the context path of the current request.
+    * @return the new CSS content with URLs rewritten.
+    */
+   public StringBuffer rewriteUrl(String originalCssPath, String newCssPath, String originalCssContent,
+         String contextPath) {
 
+      String normalizedContextPath = normalizeContextPath(contextPath);
       Matcher matcher = URL_PATTERN.matcher(originalCssContent);
       StringBuffer sb = new StringBuffer();
       while (matcher.find()) {
 
-         String url = getUrlPath(matcher.group(), originalCssPath, newCssPath);
+         String url = getUrlPath(matcher.group(), originalCssPath, newCssPath, normalizedContextPath);
          matcher.appendReplacement(sb, adaptReplacementToMatcher(url));
       }
       matcher.appendTail(sb);
@@ -136,15 +183,51 @@ public class CssUrlRewriter {
     *           the matched URL
     * @param newCssPath
     *           the full bundle path
-    * @param status
-    *           the bundle processing status
+    * @param contextPath
+    *           the context path of the current request
     * @return the image URL path
     * @throws IOException
     *            if an IO exception occurs
     */
-   protected String getUrlPath(String matchedUrl, String originalPath, String newCssPath) {
+   protected String getUrlPath(String matchedUrl, String originalPath, String newCssPath, String contextPath) {
 
       String url = matchedUrl.substring(matchedUrl.indexOf('(') + 1, matchedUrl.lastIndexOf(')')).trim();
+      return "url(" + rewriteUrlPath(url, originalPath, newCssPath, contextPath) + ")";
+   }
+
+   /**
+    * <p>
+    * Transforms the content of a <code>url()</code>, quotes included, so it
+    * points to the proper relative path with respect to the given path.
+    * </p>
+    * <p>
+    * The most recently used results are memoized, since the same stylesheet
+    * is usually processed several times with the same locations.
+    * </p>
+    * 
+    * @param url
+    *           the trimmed content of the <code>url()</code>.
+    * @param originalPath
+    *           the original CSS path.
+    * @param newCssPath
+    *           the new CSS path.
+    * @param contextPath
+    *           the context path of the current request.
+    * @return the rewritten content of the <code>url()</code>.
+    */
+   public String rewriteUrlPath(String url, String originalPath, String newCssPath, String contextPath) {
+      String normalizedContextPath = normalizeContextPath(contextPath);
+      String key = normalizedContextPath + '|' + originalPath + '|' + newCssPath + '|' + url;
+
+      String rewrittenUrl = rewrittenUrls.get(key);
+      if (rewrittenUrl == null) {
+         rewrittenUrl = doRewriteUrlPath(url, originalPath, newCssPath, normalizedContextPath);
+         rewrittenUrls.put(key, rewrittenUrl);
+      }
+      return rewrittenUrl;
+   }
+
+   private String doRewriteUrlPath(String url, String originalPath, String newCssPath, String contextPath) {
 
       // To keep quotes as they are, first they are checked and removed.
       String quoteStr = "";
@@ -162,9 +245,7 @@ public class CssUrlRewriter {
       // Check if the URL is absolute, if it is return it as is.
       int firstSlash = url.indexOf('/');
       if (0 == firstSlash || (firstSlash != -1 && url.charAt(++firstSlash) == '/')) {
-         StringBuffer sb = new StringBuffer("url(");
-         sb.append(quoteStr).append(url).append(quoteStr).append(")");
-         return sb.toString();
+         return quoteStr + url + quoteStr;
       }
 
       if (url.startsWith(URL_SEPARATOR)) {
@@ -177,13 +258,43 @@ public class CssUrlRewriter {
       String imgUrl = getRewrittenImagePath(originalPath, newCssPath, url);
 
       // Start rendering the result, starting by the initial quote, if any.
-      String finalUrl = "url(" + quoteStr + imgUrl + quoteStr + ")";
-      Matcher urlMatcher = URL_PATTERN.matcher(finalUrl);
-      if (urlMatcher.find()) { // Normalize only if a real URL
-         finalUrl = PathUtils.normalizePath(finalUrl);
+      // The url() wrapper prevents the normalization from removing the
+      // leading and trailing separators
+      String finalUrl = PathUtils.normalizePath("url(" + quoteStr + imgUrl + quoteStr + ")");
+      return finalUrl.substring(4, finalUrl.length() - 1);
+   }
+
+   /**
+    * <p>
+    * Checks whether the content of a <code>url()</code>, starting at the given
+    * index, points to a resource that can be rewritten, i.e. is not an inline
+    * <code>data:</code>, <code>mhtml:</code> or <code>cid:</code> URL.
+    * </p>
+    * 
+    * @param url
+    *           the characters containing the URL.
+    * @param start
+    *           the index of the URL, quotes included.
+    * @return {@code true} if the URL can be rewritten.
+    */
+   public static boolean isRewritable(CharSequence url, int start) {
+      if (start < url.length() && (url.charAt(start) == '"' || url.charAt(start) == '\'')) {
+         start++;
       }
+      return !regionMatches(url, start, "data:") && !regionMatches(url, start, "mhtml:")
+            && !regionMatches(url, start, "cid:");
+   }
 
-      return finalUrl;
+   private static boolean regionMatches(CharSequence url, int start, String prefix) {
+      if (url.length() - start < prefix.length()) {
+         return false;
+      }
+      for (int i = 0; i < prefix.length(); i++) {
+         if (Character.toLowerCase(url.charAt(start + i)) != prefix.charAt(i)) {
+            return false;
+         }
+      }
+      return true;
    }
 
    /**
@@ -0,0 +1,516 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.asset.processor.support;
+
+import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.asset.processor.vendor.JSMin;
+
+/**
+ * <p>
+ * JavaScript minifier working directly on an array of characters.
+ * </p>
+ * <p>
+ * The minification rules are the ones of {@link JSMin} (and thus the ones of
+ * jsmin.c published by Douglas Crockford), so that both minifiers produce the
+ * same output on regular JavaScript. Compared to {@link JSMin}, this
+ * implementation:
+ * </p>
+ * <ul>
+ * <li>reads characters instead of bytes, so that no encoding round trip is
+ * needed and multi-byte characters can't be split</li>
+ * <li>writes into a single pre-sized buffer instead of a stream</li>
+ * <li>keeps template literals untouched, including the expressions they
+ * embed</li>
+ * <li>recognizes regular expression literals after more operators and
+ * keywords (e.g. <code>return /re/</code>) and handles character classes
+ * containing slashes (e.g. <code>/[/]/</code>)</li>
+ * <li>keeps the line feeds that are required by automatic semicolon insertion
+ * before <code>!</code> and <code>~</code>, as well as the whitespaces between
+ * operators that would otherwise be merged (e.g. <code>a - -b</code>)</li>
+ * </ul>
+ * 
+ * @since 1.1.2
+ */
+public class JsMinifier {
+
+   private static final int EOF = -1;
+
+   /**
+    * Keywords after which a slash starts a regular expression literal.
+    */
+   private static final String[] REGEXP_PRECEDING_KEYWORDS = { "return", "typeof", "instanceof", "case", "do",
+         "else", "in", "new", "delete", "void", "throw", "yield" };
+
+   private final char[] in;
+   private final int length;
+   private final StringBuilder out;
+
+   private int pos;
+   private int line;
+   private int column;
+
+   private int theA;
+   private int theB;
+   private int theX = EOF;
+   private int theY = EOF;
+
+   public JsMinifier(char[] in) {
+      this(in, in.length);
+   }
+
+   public JsMinifier(char[] in, int length) {
+      this.in = in;
+      this.length = length;
+      this.out = new StringBuilder(length);
+   }
+
+   /**
+    * <p>
+    * Convenient method that minifies the given JavaScript source.
+    * </p>
+    * 
+    * @param source
+    *           The JavaScript code to minify.
+    * @return the minified JavaScript code.
+    * @throws DandelionException
+    *            if the source contains an unterminated comment, string,
+    *            template or regular expression literal.
+    */
+   public static String minify(CharSequence source) {
+      return new JsMinifier(source.toString().toCharArray()).minify();
+   }
+
+   /**
+    * <p>
+    * Copies the input to the output, deleting the characters which are
+    * insignificant to JavaScript. Comments will be removed. Tabs will be
+    * replaced with spaces. Carriage returns will be replaced with linefeeds.
+    * Most spaces and linefeeds will be removed.
+    * </p>
+    * 
+    * @return the minified JavaScript code.
+    * @throws DandelionException
+    *            if the source contains an unterminated comment, string,
+    *            template or regular expression literal.
+    */
+   public String minify() {
+
+      // Skip the byte order mark, if any
+      if (peek() == '\uFEFF') {
+         pos++;
+      }
+
+      theA = '\n';
+      action(3);
+      while (theA != EOF) {
+         switch (theA) {
+         case ' ':
+            action(isAlphanum(theB) ? 1 : 2);
+            break;
+         case '\n':
+            switch (theB) {
+            case '{':
+            case '[':
+            case '(':
+            case '+':
+            case '-':
+               action(1);
+               break;
+            case '!':
+            case '~':
+               // No line feed is needed at the very beginning of the output
+               action(out.length() > 0 ? 1 : 2);
+               break;
+            case ' ':
+               action(3);
+               break;
+            default:
+               action(isAlphanum(theB) ? 1 : 2);
+            }
+            break;
+         default:
+            switch (theB) {
+            case ' ':
+               action(isAlphanum(theA) ? 1 : 3);
+               break;
+            case '\n':
+               switch (theA) {
+               case '}':
+               case ']':
+               case ')':
+               case '+':
+               case '-':
+               case '"':
+               case '\'':
+               case '`':
+                  action(1);
+                  break;
+               default:
+                  action(isAlphanum(theA) ? 1 : 3);
+               }
+               break;
+            default:
+               action(1);
+               break;
+            }
+         }
+      }
+      return out.toString();
+   }
+
+   /**
+    * @return {@code true} if the character is a letter, digit, underscore,
+    *         dollar sign, or non-ASCII character.
+    */
+   private static boolean isAlphanum(int c) {
+      return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$'
+            || c == '\\' || c > 126;
+   }
+
+   /**
+    * @return the next character of the input. Control characters are
+    *         translated to a space or a linefeed.
+    */
+   private int get() {
+      if (pos >= length) {
+         return EOF;
+      }
+
+      char c = in[pos++];
+
+      if (c == '\n') {
+         line++;
+         column = 0;
+         return c;
+      }
+
+      column++;
+      if (c >= ' ') {
+         return c;
+      }
+
+      if (c == '\r') {
+         column = 0;
+         return '\n';
+      }
+
+      return ' ';
+   }
+
+   /**
+    * @return the next character of the input without consuming it.
+    */
+   private int peek() {
+      return pos < length ? in[pos] : EOF;
+   }
+
+   /**
+    * @return the next character of the input, excluding comments.
+    */
+   private int next() {
+      int c = get();
+      if (c == '/') {
+         switch (peek()) {
+         case '/':
+            for (;;) {
+               c = get();
+               if (c <= '\n') {
+                  break;
+               }
+            }
+            break;
+
+         case '*':
+            get();
+            for (;;) {
+               int d = get();
+               if (d == '*' && peek() == '/') {
+                  get();
+                  c = ' ';
+                  break;
+               }
+               if (d == EOF) {
+                  throw error("Unterminated comment");
+               }
+            }
+            break;
+
+         default:
+            break;
+         }
+      }
+
+      theY = theX;
+      theX = c;
+      return c;
+   }
+
+   /**
+    * <p>
+    * Does something, depending on the argument:
+    * </p>
+    * <ol>
+    * <li>Output A. Copy B to A. Get the next B.</li>
+    * <li>Copy B to A. Get the next B. (Delete A).</li>
+    * <li>Get the next B. (Delete B).</li>
+    * </ol>
+    * <p>
+    * Strings, template literals and regular expressions are treated as single
+    * characters.
+    * </p>
+    */
+   private void action(int d) {
+      switch (d) {
+      case 1:
+         out.append((char) theA);
+         if ((theY == '\n' || theY == ' ') && isArithmeticOperator(theA) && isArithmeticOperator(theB)) {
+            out.append((char) theY);
+         }
+      case 2:
+         theA = theB;
+
+         if (theA == '`') {
+            copyTemplate();
+            theA = '`';
+         }
+         else if (theA == '\'' || theA == '"') {
+            for (;;) {
+               out.append((char) theA);
+               theA = get();
+               if (theA == theB) {
+                  break;
+               }
+               if (theA <= '\n') {
+                  throw error("Unterminated string literal");
+               }
+               if (theA == '\\') {
+                  out.append((char) theA);
+                  theA = get();
+               }
+            }
+         }
+
+      case 3:
+         theB = next();
+         if (theB == '/' && isRegexpPreceding()) {
+            out.append((char) theA);
+            if (theA == '/' || theA == '*') {
+               out.append(' ');
+            }
+            out.append((char) theB);
+            for (;;) {
+               theA = get();
+               if (theA == '[') {
+                  for (;;) {
+                     out.append((char) theA);
+                     theA = get();
+                     if (theA == ']') {
+                        break;
+                     }
+                     if (theA == '\\') {
+                        out.append((char) theA);
+                        theA = get();
+                     }
+                     if (theA <= '\n') {
+                        throw error("Unterminated set in regular expression");
+                     }
+                  }
+               }
+               else if (theA == '/') {
+                  break;
+               }
+               else if (theA == '\\') {
+                  out.append((char) theA);
+                  theA = get();
+               }
+               if (theA <= '\n') {
+                  throw error("Unterminated regular expression");
+               }
+               out.append((char) theA);
+            }
+            theB = next();
+         }
+      }
+   }
+
+   /**
+    * <p>
+    * Copies a template literal as-is, the opening backquote being the current
+    * character. Embedded expressions are copied as well, including the strings
+    * and nested template literals they may contain. The closing backquote is
+    * left to the caller.
+    * </p>
+    */
+   private void copyTemplate() {
+      out.append('`');
+
+      // Each level is either a template literal (backquote) or an embedded
+      // expression (opening brace)
+      char[] levels = new char[8];
+      int depth = 0;
+      levels[depth++] = '`';
+
+      for (;;) {
+         int c = get();
+         if (c == EOF) {
+            throw error("Unterminated template literal");
+         }
+
+         char level = levels[depth - 1];
+         if (level == '`') {
+            if (c == '`') {
+               depth--;
+               if (depth == 0) {
+                  return;
+               }
+            }
+            else if (c == '\\') {
+               out.append((char) c);
+               c = get();
+            }
+            else if (c == '$' && peek() == '{') {
+               out.append((char) c);
+               c = get();
+               levels = push(levels, depth++, '{');
+            }
+         }
+         else {
+            if (c == '`') {
+               levels = push(levels, depth++, '`');
+            }
+            else if (c == '{') {
+               levels = push(levels, depth++, '{');
+            }
+            else if (c == '}') {
+               depth--;
+            }
+            else if (c == '\'' || c == '"') {
+               int quote = c;
+               out.append((char) c);
+               for (;;) {
+                  c = get();
+                  if (c == quote) {
+                     break;
+                  }
+                  if (c <= '\n') {
+                     throw error("Unterminated string literal");
+                  }
+                  out.append((char) c);
+                  if (c == '\\') {
+                     c = get();
+                     if (c == EOF) {
+                        throw error("Unterminated string literal");
+                     }
+                     out.append((char) c);
+                  }
+               }
+            }
+         }
+
+         if (c == EOF) {
+            throw error("Unterminated template literal");
+         }
+         out.append((char) c);
+      }
+   }
+
+   private static char[] push(char[] levels, int depth, char level) {
+      char[] retval = levels;
+      if (depth == levels.length) {
+         retval = new char[levels.length * 2];
+         System.arraycopy(levels, 0, retval, 0, levels.length);
+      }
+      retval[depth] = level;
+      return retval;
+   }
+
+   /**
+    * @return {@code true} if a slash following the current character A starts
+    *         a regular expression literal rather than a division.
+    */
+   private boolean isRegexpPreceding() {
+      switch (theA) {
+      case '(':
+      case ',':
+      case '=':
+      case ':':
+      case '[':
+      case '!':
+      case '&':
+      case '|':
+      case '?':
+      case '+':
+      case '-':
+      case '~':
+      case '*':
+      case '/':
+      case '{':
+      case '}':
+      case ';':
+         return true;
+      case ' ':
+      case '\n':
+         return isPrecededByRegexpKeyword();
+      default:
+         return false;
+      }
+   }
+
+   /**
+    * @return {@code true} if the last word written to the output is a keyword
+    *         after which an expression is expected.
+    */
+   private boolean isPrecededByRegexpKeyword() {
+      int end = out.length();
+      int start = end;
+      while (start > 0 && isAlphanum(out.charAt(start - 1))) {
+         start--;
+      }
+
+      if (start == end || (start > 0 && out.charAt(start - 1) == '.')) {
+         return false;
+      }
+
+      for (String keyword : REGEXP_PRECEDING_KEYWORDS) {
+         if (keyword.length() == end - start && out.indexOf(keyword, start) == start) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private static boolean isArithmeticOperator(int c) {
+      return c == '+' || c == '-' || c == '*' || c == '/';
+   }
+
+   private DandelionException error(String message) {
+      return new DandelionException(message + " at line " + line + " and column " + column);
+   }
+}
@@ -0,0 +1,76 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.asset.versioning.impl;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.asset.versioning.AbstractAssetVersioningStrategy;
+import com.github.dandelion.core.storage.StorageEntry;
+import com.github.dandelion.core.util.ContentHasher;
+import com.github.dandelion.core.util.StringUtils;
+
+/**
+ * <p>
+ * Versioning strategy that uses the 128-bit non-cryptographic hash of the
+ * contents of the asset, as computed by the {@link ContentHasher}.
+ * </p>
+ * <p>
+ * The hash is computed once, when the contents are stored in the asset
+ * storage, and is then shared with the ETags.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class HashAssetVersioningStrategy extends AbstractAssetVersioningStrategy {
+
+   private static final Logger LOG = LoggerFactory.getLogger(HashAssetVersioningStrategy.class);
+
+   @Override
+   public String getName() {
+      return "hash";
+   }
+
+   @Override
+   public String getAssetVersion(Asset asset) {
+      LOG.debug("Calculating version hash for the asset: {}", asset.toLog());
+      StorageEntry storageEntry = getContext().getAssetStorage().get(asset.getStorageKey());
+
+      if (storageEntry == null || StringUtils.isBlank(storageEntry.getContents())) {
+         LOG.warn("Asset {} has an empty contents. Using a random String for the hash", asset.toLog());
+         return ContentHasher.hash(UUID.randomUUID().toString());
+      }
+
+      return storageEntry.getHash();
+   }
+}
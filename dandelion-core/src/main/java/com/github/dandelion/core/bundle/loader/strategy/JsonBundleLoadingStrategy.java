@@ -34,6 +34,13 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,9 +49,11 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.dandelion.core.Context;
 import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.bundle.loader.support.BundleIndex;
 import com.github.dandelion.core.storage.BundleStorageUnit;
 import com.github.dandelion.core.storage.support.BundleUtils;
 import com.github.dandelion.core.util.BundleStorageLogBuilder;
+import com.github.dandelion.core.util.ClassUtils;
 import com.github.dandelion.core.util.PathUtils;
 import com.github.dandelion.core.util.StringUtils;
 import com.github.dandelion.core.util.scanner.ClasspathResourceScanner;
@@ -76,51 +85,186 @@ public class JsonBundleLoadingStrategy implements LoadingStrategy {
 
    @Override
    public Set<String> getResourcePaths(String bundleLocation, Set<String> excludedPaths) {
+      BundleIndex bundleIndex = context.getBundleIndex();
+      if (bundleIndex != null && bundleIndex.covers(bundleLocation)) {
+         LOG.trace("Reading the bundle paths of \"{}\" from the bundle index", bundleLocation);
+         return bundleIndex.getResourcePaths(bundleLocation, excludedPaths);
+      }
       return ClasspathResourceScanner.findResourcePaths(bundleLocation, excludedPaths, null, ".json");
    }
 
    @Override
    public List<BundleStorageUnit> mapToBundles(Set<String> resourcePaths) {
 
-      List<BundleStorageUnit> bundles = new ArrayList<BundleStorageUnit>();
+      List<String> orderedPaths = new ArrayList<String>(resourcePaths);
+      List<ParsedBundle> parsedBundles;
 
-      ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+      int threads = Math.min(context.getConfiguration().getBundleLoadingThreads(), orderedPaths.size());
+      if (context.getConfiguration().isBundleParallelLoadingEnabled() && threads > 1) {
+         parsedBundles = parseConcurrently(orderedPaths, threads);
+      }
+      else {
+         parsedBundles = new ArrayList<ParsedBundle>(orderedPaths.size());
+         for (String resourcePath : orderedPaths) {
+            parsedBundles.add(parse(resourcePath));
+         }
+      }
 
+      // Results are aggregated in the order of the resource paths, whatever
+      // the order in which they have been parsed
+      List<BundleStorageUnit> bundles = new ArrayList<BundleStorageUnit>();
       BundleStorageLogBuilder bslb = new BundleStorageLogBuilder();
+      for (ParsedBundle parsedBundle : parsedBundles) {
+         if (parsedBundle.log.hasError()) {
+            bslb.merge(parsedBundle.log);
+         }
+         else if (parsedBundle.bsu != null) {
+            bundles.add(parsedBundle.bsu);
+         }
+      }
+
+      if (bslb.hasError()) {
+         throw new DandelionException(bslb.toString());
+      }
+
+      return bundles;
+   }
 
-      for (String resourcePath : resourcePaths) {
+   /**
+    * <p>
+    * Parses the given bundle definitions on a pool bounded to the given number
+    * of threads.
+    * </p>
+    * 
+    * @param resourcePaths
+    *           The ordered resource paths of the bundle definitions.
+    * @param threads
+    *           The number of threads to use.
+    * @return the parsed bundles, in the same order as the resource paths.
+    */
+   private List<ParsedBundle> parseConcurrently(List<String> resourcePaths, int threads) {
 
-         try {
-            InputStream configFileStream = classLoader.getResourceAsStream(resourcePath);
-            BundleStorageUnit bsu = mapper.readValue(configFileStream, BundleStorageUnit.class);
-            bsu.setRelativePath(resourcePath);
+      LOG.debug("Parsing {} bundles using {} threads", resourcePaths.size(), threads);
 
-            // The name of the bundle is extracted from its path if not
-            // specified
-            if (StringUtils.isBlank(bsu.getName())) {
-               String extractedName = PathUtils.extractLowerCasedName(bsu.getRelativePath());
-               bsu.setName(extractedName);
-               LOG.trace("Name of the bundle extracted from its path: \"{}\"", extractedName);
-            }
+      final ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+      ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
 
-            if (BundleUtils.isValid(bsu, bslb)) {
-               BundleUtils.finalize(bsu, context);
-               LOG.trace("Parsed bundle \"{}\" ({})", bsu.getName(), bsu);
-               bundles.add(bsu);
-            }
+         private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+         @Override
+         public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "dandelion-bundle-loading-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
          }
-         catch (IOException e) {
-            StringBuilder error = new StringBuilder("- The file '");
-            error.append(resourcePath);
-            error.append("' is wrongly formatted for the following reason: " + e.getMessage());
-            bslb.error("Wrong bundle format:", error.toString());
+      });
+
+      try {
+         List<Future<ParsedBundle>> futures = new ArrayList<Future<ParsedBundle>>(resourcePaths.size());
+         for (final String resourcePath : resourcePaths) {
+            futures.add(executor.submit(new Callable<ParsedBundle>() {
+
+               @Override
+               public ParsedBundle call() {
+                  return parse(resourcePath);
+               }
+            }));
          }
+
+         List<ParsedBundle> parsedBundles = new ArrayList<ParsedBundle>(futures.size());
+         for (int i = 0; i < futures.size(); i++) {
+            try {
+               parsedBundles.add(futures.get(i).get());
+            }
+            catch (ExecutionException e) {
+               throw new DandelionException("Unable to load the bundle " + resourcePaths.get(i), e.getCause());
+            }
+         }
+         return parsedBundles;
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new DandelionException("Interrupted while loading the bundles", e);
+      }
+      finally {
+         executor.shutdownNow();
       }
+   }
 
-      if (bslb.hasError()) {
-         throw new DandelionException(bslb.toString());
+   /**
+    * <p>
+    * Reads, names, validates and finalizes a single bundle definition. Errors
+    * are collected in a log builder dedicated to this bundle so that bundles
+    * can be parsed concurrently.
+    * </p>
+    * 
+    * @param resourcePath
+    *           The resource path of the bundle definition.
+    * @return the parsed bundle along with its errors.
+    */
+   private ParsedBundle parse(String resourcePath) {
+
+      ParsedBundle parsedBundle = new ParsedBundle();
+      BundleIndex bundleIndex = context.getBundleIndex();
+
+      InputStream configFileStream = null;
+      try {
+         // Indexed bundles have already been validated at build time
+         if (bundleIndex != null && bundleIndex.contains(resourcePath)) {
+            BundleStorageUnit bsu = bundleIndex.getBundle(resourcePath);
+            BundleUtils.finalize(bsu, context);
+            LOG.trace("Read bundle \"{}\" from the bundle index ({})", bsu.getName(), bsu);
+            parsedBundle.bsu = bsu;
+            return parsedBundle;
+         }
+
+         configFileStream = ClassUtils.getDefaultClassLoader().getResourceAsStream(resourcePath);
+         BundleStorageUnit bsu = mapper.readValue(configFileStream, BundleStorageUnit.class);
+         bsu.setRelativePath(resourcePath);
+
+         // The name of the bundle is extracted from its path if not
+         // specified
+         if (StringUtils.isBlank(bsu.getName())) {
+            String extractedName = PathUtils.extractLowerCasedName(bsu.getRelativePath());
+            bsu.setName(extractedName);
+            LOG.trace("Name of the bundle extracted from its path: \"{}\"", extractedName);
+         }
+
+         if (BundleUtils.isValid(bsu, parsedBundle.log)) {
+            BundleUtils.finalize(bsu, context);
+            LOG.trace("Parsed bundle \"{}\" ({})", bsu.getName(), bsu);
+            parsedBundle.bsu = bsu;
+         }
+      }
+      catch (IOException e) {
+         StringBuilder error = new StringBuilder("- The file '");
+         error.append(resourcePath);
+         error.append("' is wrongly formatted for the following reason: " + e.getMessage());
+         parsedBundle.log.error("Wrong bundle format:", error.toString());
+      }
+      finally {
+         if (configFileStream != null) {
+            try {
+               configFileStream.close();
+            }
+            catch (IOException e) {
+               LOG.debug("Unable to close the stream of {}", resourcePath, e);
+            }
+         }
       }
 
-      return bundles;
+      return parsedBundle;
+   }
+
+   /**
+    * <p>
+    * Result of the parsing of a single bundle definition.
+    * </p>
+    */
+   private static class ParsedBundle {
+
+      private BundleStorageUnit bsu;
+      private final BundleStorageLogBuilder log = new BundleStorageLogBuilder();
    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,330 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.bundle.loader.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * <p>
+ * Cache of the discovery performed by the {@link BowerPreLoader}, optionally
+ * persisted in a file so that it survives restarts.
+ * </p>
+ * <p>
+ * It holds:
+ * </p>
+ * <ul>
+ * <li>the location where the {@code bower_components} directory has been
+ * found, so that later loads don't have to walk the web application and the
+ * classpath again</li>
+ * <li>if no {@code bower_components} directory has been found, the state of the
+ * web application and classpath at that time, so that later loads skip the
+ * search as long as this state is unchanged</li>
+ * <li>the parsed Bower manifests, along with the modification date of their
+ * {@code bower.json} file. A manifest is only reused as long as its file is
+ * unchanged.</li>
+ * </ul>
+ * 
+ * @since 1.1.2
+ */
+public class BowerManifestCache {
+
+   private static final Logger LOG = LoggerFactory.getLogger(BowerManifestCache.class);
+
+   /**
+    * Name of the file the cache is persisted in.
+    */
+   public static final String FILE_NAME = "dandelion-bower-manifests.json";
+
+   private static final int FORMAT_VERSION = 2;
+
+   private final File file;
+   private final ObjectMapper mapper;
+
+   private volatile String componentsLocation;
+   private volatile String componentsLocationType;
+
+   /**
+    * State of the web application and classpath when no bower_components
+    * directory has been found, if so.
+    */
+   private volatile String notFoundState;
+
+   /**
+    * Cached manifests, by URL of their bower.json file.
+    */
+   private final ConcurrentMap<String, CachedManifest> manifests = new ConcurrentHashMap<String, CachedManifest>();
+
+   /**
+    * @param file
+    *           The file the cache is persisted in, or {@code null} to keep it
+    *           in memory only.
+    * @param mapper
+    *           The mapper used to read the Bower manifests.
+    */
+   public BowerManifestCache(File file, ObjectMapper mapper) {
+      this.file = file;
+      this.mapper = mapper;
+   }
+
+   public String getComponentsLocation() {
+      return componentsLocation;
+   }
+
+   public String getComponentsLocationType() {
+      return componentsLocationType;
+   }
+
+   public void setComponentsLocation(String componentsLocation, String componentsLocationType) {
+      this.componentsLocation = componentsLocation;
+      this.componentsLocationType = componentsLocationType;
+      this.notFoundState = null;
+   }
+
+   public void clearComponentsLocation() {
+      setComponentsLocation(null, null);
+   }
+
+   /**
+    * <p>
+    * Records that no bower_components directory has been found.
+    * </p>
+    * 
+    * @param state
+    *           The state of the web application and classpath the search has
+    *           been performed against.
+    */
+   public void setNotFound(String state) {
+      setComponentsLocation(null, null);
+      this.notFoundState = state;
+   }
+
+   /**
+    * @param state
+    *           The current state of the web application and classpath.
+    * @return {@code true} if a previous search found no bower_components
+    *         directory against the same state.
+    */
+   public boolean isNotFound(String state) {
+      return notFoundState != null && notFoundState.equals(state);
+   }
+
+   /**
+    * <p>
+    * Reads the Bower manifest at the given URL, reusing the cached one if its
+    * file hasn't been modified since.
+    * </p>
+    * 
+    * @param manifestUrl
+    *           The URL of the bower.json file.
+    * @return the parsed manifest.
+    * @throws IOException
+    *            if the manifest can't be read.
+    */
+   public BowerManifest read(URL manifestUrl) throws IOException {
+
+      String key = manifestUrl.toString();
+      long lastModified = getLastModified(manifestUrl);
+
+      CachedManifest cached = manifests.get(key);
+      if (cached != null && lastModified != 0 && cached.lastModified == lastModified) {
+         LOG.trace("Reusing the cached Bower manifest {}", key);
+         return cached.manifest;
+      }
+
+      BowerManifest manifest = mapper.readValue(manifestUrl, BowerManifest.class);
+      if (lastModified != 0) {
+         manifests.put(key, new CachedManifest(lastModified, manifest));
+      }
+      else {
+         manifests.remove(key);
+      }
+      return manifest;
+   }
+
+   /**
+    * <p>
+    * Loads the cache from its file, if any. A missing or unreadable file
+    * leaves the cache empty.
+    * </p>
+    */
+   public void load() {
+      if (file == null || !file.isFile()) {
+         return;
+      }
+
+      try {
+         JsonNode root = mapper.readTree(file);
+         if (root.path("version").asInt() != FORMAT_VERSION) {
+            LOG.debug("Ignoring the Bower manifest cache {} written in another format", file);
+            return;
+         }
+
+         if (root.hasNonNull("componentsLocation")) {
+            setComponentsLocation(root.get("componentsLocation").asText(), root.path("componentsLocationType")
+                  .asText());
+         }
+         else if (root.hasNonNull("notFoundState")) {
+            setNotFound(root.get("notFoundState").asText());
+         }
+
+         Iterator<Map.Entry<String, JsonNode>> entries = root.path("manifests").fields();
+         while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            manifests.put(entry.getKey(), new CachedManifest(entry.getValue().path("lastModified").asLong(),
+                  mapper.treeToValue(entry.getValue().get("manifest"), BowerManifest.class)));
+         }
+         LOG.debug("{} Bower manifests loaded from {}", manifests.size(), file);
+      }
+      catch (IOException e) {
+         LOG.warn("Unable to read the Bower manifest cache {}, it will be rebuilt", file, e);
+         clearComponentsLocation();
+         manifests.clear();
+      }
+   }
+
+   /**
+    * <p>
+    * Persists the cache in its file.
+    * </p>
+    */
+   public void save() {
+      if (file == null) {
+         return;
+      }
+
+      ObjectNode root = mapper.createObjectNode();
+      root.put("version", FORMAT_VERSION);
+      if (componentsLocation != null) {
+         root.put("componentsLocation", componentsLocation);
+         root.put("componentsLocationType", componentsLocationType);
+      }
+      else if (notFoundState != null) {
+         root.put("notFoundState", notFoundState);
+      }
+      ObjectNode manifestsNode = root.putObject("manifests");
+      for (Map.Entry<String, CachedManifest> entry : new LinkedHashMap<String, CachedManifest>(manifests).entrySet()) {
+         ObjectNode manifestNode = manifestsNode.putObject(entry.getKey());
+         manifestNode.put("lastModified", entry.getValue().lastModified);
+         manifestNode.set("manifest", mapper.valueToTree(entry.getValue().manifest));
+      }
+
+      try {
+         File parent = file.getParentFile();
+         if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create the directory " + parent);
+         }
+         mapper.writeValue(file, root);
+      }
+      catch (IOException e) {
+         LOG.warn("Unable to write the Bower manifest cache {}", file, e);
+      }
+   }
+
+   /**
+    * @return the number of cached manifests.
+    */
+   public int size() {
+      return manifests.size();
+   }
+
+   /**
+    * <p>
+    * Forgets the manifests of the components that have been removed.
+    * </p>
+    * 
+    * @param manifestUrls
+    *           The URLs of the manifests still present.
+    */
+   public void retainAll(Iterable<String> manifestUrls) {
+      Map<String, CachedManifest> retained = new LinkedHashMap<String, CachedManifest>();
+      for (String manifestUrl : manifestUrls) {
+         CachedManifest cached = manifests.get(manifestUrl);
+         if (cached != null) {
+            retained.put(manifestUrl, cached);
+         }
+      }
+      manifests.clear();
+      manifests.putAll(retained);
+   }
+
+   /**
+    * @return the modification date of the resource at the given URL, or 0 if
+    *         it can't be known cheaply.
+    */
+   static long getLastModified(URL url) {
+      try {
+         if ("file".equals(url.getProtocol())) {
+            return new File(url.toURI()).lastModified();
+         }
+         URLConnection connection = url.openConnection();
+         if (connection instanceof JarURLConnection) {
+            return ((JarURLConnection) connection).getJarEntry().getTime();
+         }
+      }
+      catch (IOException e) {
+         LOG.trace("Unable to get the modification date of {}", url, e);
+      }
+      catch (URISyntaxException e) {
+         LOG.trace("Unable to get the modification date of {}", url, e);
+      }
+      catch (IllegalArgumentException e) {
+         LOG.trace("Unable to get the modification date of {}", url, e);
+      }
+      return 0;
+   }
+
+   private static final class CachedManifest {
+
+      private final long lastModified;
+      private final BowerManifest manifest;
+
+      private CachedManifest(long lastModified, BowerManifest manifest) {
+         this.lastModified = lastModified;
+         this.manifest = manifest;
+      }
+   }
+}
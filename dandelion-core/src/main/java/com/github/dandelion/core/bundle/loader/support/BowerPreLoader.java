@@ -29,20 +29,28 @@
  */
 package com.github.dandelion.core.bundle.loader.support;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+
+import javax.servlet.ServletContext;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dandelion.core.Context;
 import com.github.dandelion.core.asset.AssetType;
 import com.github.dandelion.core.asset.locator.impl.ClasspathLocator;
 import com.github.dandelion.core.asset.locator.impl.FileLocator;
@@ -54,6 +62,7 @@ import com.github.dandelion.core.storage.BundleStorageUnit;
 import com.github.dandelion.core.storage.support.BundleUtils;
 import com.github.dandelion.core.util.AssetUtils;
 import com.github.dandelion.core.util.ClassUtils;
+import com.github.dandelion.core.util.ContentHasher;
 import com.github.dandelion.core.util.PathUtils;
 import com.github.dandelion.core.util.StringUtils;
 import com.github.dandelion.core.util.scanner.ClasspathResourceScanner;
@@ -69,6 +78,17 @@ import com.github.dandelion.core.util.scanner.WebResourceScanner;
  * Note that bower.json files that do not contain a {@code main} parameter won't
  * be loaded.
  * </p>
+ * <p>
+ * When no location is configured, the {@code bower_components} directory is
+ * searched level by level within the web application, down to
+ * {@link DandelionConfig#BOWER_COMPONENTS_SCAN_DEPTH} and skipping the
+ * directories known to be heavy, then the same way within the directories of
+ * the classpath. Unless {@link DandelionConfig#BOWER_COMPONENTS_CACHE} is
+ * disabled, the found location, or the fact that none has been found, and the
+ * parsed manifests are kept in a {@link BowerManifestCache}, persisted in the
+ * temporary directory of the web application, so that later loads and
+ * restarts skip the search.
+ * </p>
  * 
  * @author Thibault Duchateau
  * @since 1.1.0
@@ -82,14 +102,48 @@ public class BowerPreLoader extends AbstractBundlePreLoader {
 
    public static final String PRELOADER_NAME = "bower";
 
+   /**
+    * Directories never searched for the bower_components directory, by name,
+    * or by path when starting with a slash.
+    */
+   private static final Set<String> EXCLUDED_DIRECTORIES = Collections.unmodifiableSet(new HashSet<String>(Arrays
+         .asList("node_modules", ".git", ".svn", ".hg", "/WEB-INF/lib/", "/WEB-INF/classes/")));
+
+   private static final String LOCATION_TYPE_WEBAPP = "webapp";
+   private static final String LOCATION_TYPE_CLASSPATH = "classpath";
+
    /**
     * The mapper used to read Bower manifests (bower.json).
     */
    private final ObjectMapper mapper;
 
+   /**
+    * Cache of the found bower_components location and of the parsed
+    * manifests.
+    */
+   private BowerManifestCache manifestCache;
+
    public BowerPreLoader() {
       this.mapper = new ObjectMapper();
       this.mapper.configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
+      this.manifestCache = new BowerManifestCache(null, mapper);
+   }
+
+   @Override
+   public void init(Context context) {
+      super.init(context);
+
+      if (context.getConfiguration().isBowerComponentsCacheEnabled()) {
+         File tempDir = context.getFilterConfig() != null ? (File) context.getFilterConfig().getServletContext()
+               .getAttribute(ServletContext.TEMPDIR) : null;
+         this.manifestCache = new BowerManifestCache(tempDir != null ? new File(tempDir,
+               BowerManifestCache.FILE_NAME) : null, mapper);
+         this.manifestCache.load();
+      }
+   }
+
+   public BowerManifestCache getManifestCache() {
+      return manifestCache;
    }
 
    @Override
@@ -121,29 +175,83 @@ public class BowerPreLoader extends AbstractBundlePreLoader {
             break;
          }
       }
-      // If no location is specified, first scan for the "bower_components"
-      // folder within the root directory of the web application
-      else {
-         LOG.debug("Searching for a \"{}\" directory within the web application...", BOWER_COMPONENTS_FOLDER);
-         String bowerFolder = WebResourceScanner.findResourcePath(this.context.getFilterConfig().getServletContext(),
-               "/", BOWER_COMPONENTS_FOLDER);
-         if (StringUtils.isNotBlank(bowerFolder)) {
-            LOG.debug("Scanning for Bower components within \"{}\"", bowerFolder);
-            extraBundles.addAll(getBundlesFromWebapp(bowerFolder));
+      // If no location is specified, reuse the location found by a previous
+      // load, as long as it still exists
+      else if (isCachedLocationValid()) {
+         String cachedLocation = manifestCache.getComponentsLocation();
+         LOG.debug("Scanning for Bower components within the previously found \"{}\"", cachedLocation);
+         if (LOCATION_TYPE_WEBAPP.equals(manifestCache.getComponentsLocationType())) {
+            extraBundles.addAll(getBundlesFromWebapp(cachedLocation));
          }
-         // If no "bower_components" folder is found within the web app, try
-         // within the classpath
          else {
-            LOG.debug("No \"{}\" directory found within the web application directory. Trying in the classpath...",
+            extraBundles.addAll(getBundlesFromClasspath(cachedLocation));
+         }
+      }
+      // Otherwise, search for the "bower_components" folder, unless a previous
+      // search found nothing in the same web application and classpath
+      else {
+         String scanState = getScanState();
+         if (manifestCache.isNotFound(scanState)) {
+            LOG.debug("No \"{}\" directory found by a previous load, and the web application is unchanged",
                   BOWER_COMPONENTS_FOLDER);
-            bowerFolder = ClasspathResourceScanner.findResourcePath("", BOWER_COMPONENTS_FOLDER);
-            extraBundles.addAll(getBundlesFromClasspath(bowerFolder));
+         }
+         else {
+            extraBundles.addAll(searchBundles(scanState));
          }
       }
 
+      Set<String> manifestUrls = new LinkedHashSet<String>();
+      for (BundleStorageUnit bsu : extraBundles) {
+         manifestUrls.add(bsu.getRelativePath());
+      }
+      manifestCache.retainAll(manifestUrls);
+      manifestCache.save();
+
       return extraBundles;
    }
 
+   /**
+    * <p>
+    * Searches for the bower_components directory, first within the web
+    * application, then within the classpath, and records the result in the
+    * {@link BowerManifestCache}.
+    * </p>
+    * 
+    * @param scanState
+    *           The current state of the web application and classpath.
+    * @return the bundles of the found Bower components.
+    */
+   private List<BundleStorageUnit> searchBundles(String scanState) {
+      manifestCache.clearComponentsLocation();
+
+      int scanDepth = this.context.getConfiguration().getBowerComponentsScanDepth();
+      LOG.debug("Searching for a \"{}\" directory within the web application...", BOWER_COMPONENTS_FOLDER);
+      String bowerFolder = WebResourceScanner.findResourcePath(this.context.getFilterConfig().getServletContext(),
+            "/", BOWER_COMPONENTS_FOLDER, EXCLUDED_DIRECTORIES, scanDepth, this.context.getConfiguration()
+                  .getBundleLoadingThreads());
+      if (StringUtils.isNotBlank(bowerFolder)) {
+         LOG.debug("Scanning for Bower components within \"{}\"", bowerFolder);
+         manifestCache.setComponentsLocation(bowerFolder, LOCATION_TYPE_WEBAPP);
+         return getBundlesFromWebapp(bowerFolder);
+      }
+
+      // If no "bower_components" folder is found within the web app, try
+      // within the directories of the classpath, down to the same depth
+      LOG.debug("No \"{}\" directory found within the web application directory. Trying in the classpath...",
+            BOWER_COMPONENTS_FOLDER);
+      bowerFolder = ClasspathResourceScanner.findDirectoryPath(BOWER_COMPONENTS_FOLDER, EXCLUDED_DIRECTORIES,
+            scanDepth);
+      if (bowerFolder != null) {
+         bowerFolder = ClasspathResourceScanner.PREFIX + bowerFolder;
+         LOG.debug("Scanning for Bower components within \"{}\"", bowerFolder);
+         manifestCache.setComponentsLocation(bowerFolder, LOCATION_TYPE_CLASSPATH);
+         return getBundlesFromClasspath(bowerFolder);
+      }
+
+      manifestCache.setNotFound(scanState);
+      return new ArrayList<BundleStorageUnit>();
+   }
+
    public List<BundleStorageUnit> getBundlesFromFilesystem(String rootLocation) {
 
       List<BundleStorageUnit> bundles = new ArrayList<BundleStorageUnit>();
@@ -154,7 +262,7 @@ public class BowerPreLoader extends AbstractBundlePreLoader {
       for (String bowerManifest : resourcePaths) {
          try {
             URL bowerManifestUrl = new URL(FileSystemResourceScanner.PREFIX + bowerManifest);
-            BowerManifest bowerConf = mapper.readValue(bowerManifestUrl, BowerManifest.class);
+            BowerManifest bowerConf = manifestCache.read(bowerManifestUrl);
 
             if (bowerConf.getMain() != null) {
                LOG.debug("Bower component found: \"{}\"", bowerConf.getName());
@@ -192,7 +300,7 @@ public class BowerPreLoader extends AbstractBundlePreLoader {
       for (String bowerManifest : resourcePaths) {
          try {
             URL bowerManifestUrl = classLoader.getResource(bowerManifest);
-            BowerManifest bowerConf = mapper.readValue(bowerManifestUrl, BowerManifest.class);
+            BowerManifest bowerConf = manifestCache.read(bowerManifestUrl);
 
             if (bowerConf.getMain() != null) {
                LOG.debug("Bower component found: \"{}\"", bowerConf.getName());
@@ -218,12 +326,14 @@ public class BowerPreLoader extends AbstractBundlePreLoader {
 
       List<BundleStorageUnit> bundles = new ArrayList<BundleStorageUnit>();
       Set<String> resourcePaths = null;
+      // Bower installs all components directly under bower_components
       resourcePaths = WebResourceScanner.findResourcePaths(this.context.getFilterConfig().getServletContext(),
-            rootLocation, BOWER_MANIFEST_FILENAME);
+            rootLocation, BOWER_MANIFEST_FILENAME, EXCLUDED_DIRECTORIES, 2, this.context.getConfiguration()
+                  .getBundleLoadingThreads());
       for (String bowerManifest : resourcePaths) {
          try {
             URL bowerManifestUrl = this.context.getFilterConfig().getServletContext().getResource(bowerManifest);
-            BowerManifest bowerConf = mapper.readValue(bowerManifestUrl, BowerManifest.class);
+            BowerManifest bowerConf = manifestCache.read(bowerManifestUrl);
 
             if (bowerConf.getMain() != null) {
                LOG.debug("Bower component found: \"{}\"", bowerConf.getName());
@@ -245,6 +355,79 @@ public class BowerPreLoader extends AbstractBundlePreLoader {
       return bundles;
    }
 
+   /**
+    * @return {@code true} if a previous load found the bower_components
+    *         directory at a location that still exists.
+    */
+   private boolean isCachedLocationValid() {
+      String cachedLocation = manifestCache.getComponentsLocation();
+      if (cachedLocation == null) {
+         return false;
+      }
+
+      if (LOCATION_TYPE_WEBAPP.equals(manifestCache.getComponentsLocationType())) {
+         Set<String> paths = this.context.getFilterConfig().getServletContext().getResourcePaths(cachedLocation);
+         return paths != null && !paths.isEmpty();
+      }
+      return ClassUtils.getDefaultClassLoader().getResource(
+            cachedLocation.replace(ClasspathResourceScanner.PREFIX, "")) != null;
+   }
+
+   /**
+    * <p>
+    * Computes the state of the web application and classpath that a search
+    * for the bower_components directory depends on: the scan depth, the
+    * entries at the root of the web application and the classpath roots,
+    * along with the modification date of their directories. Creating a
+    * bower_components directory at one of the first two levels changes it.
+    * </p>
+    * 
+    * @return the hash of the state.
+    */
+   String getScanState() {
+      StringBuilder state = new StringBuilder();
+      state.append(this.context.getConfiguration().getBowerComponentsScanDepth()).append('\n');
+
+      ServletContext servletContext = this.context.getFilterConfig().getServletContext();
+      Set<String> rootPaths = servletContext.getResourcePaths("/");
+      if (rootPaths != null) {
+         for (String rootPath : new TreeSet<String>(rootPaths)) {
+            state.append(rootPath);
+            String realPath = rootPath.endsWith("/") ? servletContext.getRealPath(rootPath) : null;
+            if (realPath != null) {
+               state.append(' ').append(new File(realPath).lastModified());
+            }
+            state.append('\n');
+         }
+      }
+
+      try {
+         for (URL root : Collections.list(ClassUtils.getDefaultClassLoader().getResources(""))) {
+            state.append(root);
+            if ("file".equals(root.getProtocol())) {
+               File rootDirectory = new File(PathUtils.toFilePath(root));
+               state.append(' ').append(rootDirectory.lastModified());
+               File[] children = rootDirectory.listFiles();
+               if (children != null) {
+                  Arrays.sort(children);
+                  for (File child : children) {
+                     if (child.isDirectory()) {
+                        state.append(' ').append(child.getName()).append(' ').append(child.lastModified());
+                     }
+                  }
+               }
+            }
+            state.append('\n');
+         }
+      }
+      catch (IOException e) {
+         LOG.debug("Unable to list the classpath roots", e);
+         state.append(System.nanoTime());
+      }
+
+      return ContentHasher.hash(state.toString());
+   }
+
    public BundleStorageUnit mapToBundle(BowerManifest bowerConf, String bowerComponentsLocation) {
 
       Set<AssetStorageUnit> asus = new HashSet<AssetStorageUnit>();
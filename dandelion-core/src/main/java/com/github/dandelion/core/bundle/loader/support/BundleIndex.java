@@ -0,0 +1,329 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.bundle.loader.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.config.DandelionConfig;
+import com.github.dandelion.core.storage.BundleStorageUnit;
+
+/**
+ * <p>
+ * Index of the JSON bundle definitions available in the classpath, generated
+ * at build time by the {@link BundleIndexGenerator} and stored under
+ * {@value #INDEX_LOCATION}.
+ * </p>
+ * <p>
+ * The index holds the list of classpath locations that were scanned at build
+ * time and, for each bundle definition found in these locations, its resource
+ * path and its validated and normalized descriptor. As long as a location is
+ * covered by the index, the JSON loading strategy reads the bundles from the
+ * index instead of scanning the classpath and parsing each file.
+ * </p>
+ * 
+ * @since 1.1.2
+ * @see DandelionConfig#BUNDLE_INDEX
+ */
+public class BundleIndex {
+
+   private static final Logger LOG = LoggerFactory.getLogger(BundleIndex.class);
+
+   /**
+    * Classpath location of the index.
+    */
+   public static final String INDEX_LOCATION = "META-INF/dandelion/bundles.idx";
+
+   /**
+    * Version of the index format.
+    */
+   public static final int FORMAT_VERSION = 1;
+
+   private static final ObjectMapper mapper;
+
+   static {
+      mapper = new ObjectMapper();
+      mapper.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+      mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
+      mapper.configure(JsonParser.Feature.ALLOW_BACKSLASH_ESCAPING_ANY_CHARACTER, true);
+   }
+
+   /**
+    * The classpath locations scanned when the index was generated.
+    */
+   private final Set<String> locations;
+
+   /**
+    * The normalized bundle descriptors, indexed by resource path.
+    */
+   private final Map<String, JsonNode> bundles;
+
+   public BundleIndex(Set<String> locations) {
+      this.locations = new LinkedHashSet<String>(locations);
+      this.bundles = new LinkedHashMap<String, JsonNode>();
+   }
+
+   /**
+    * <p>
+    * Loads the bundle index available in the classpath of the given
+    * {@link ClassLoader}.
+    * </p>
+    * <p>
+    * An index can only replace the classpath scanning if it describes the whole
+    * classpath. If several indexes are found, for example because a library
+    * ships its own one, none of them is used.
+    * </p>
+    * 
+    * @param classLoader
+    *           The class loader used to look up the index.
+    * @return the bundle index or {@code null} if no usable index is found.
+    */
+   public static BundleIndex load(ClassLoader classLoader) {
+
+      List<URL> indexUrls;
+      try {
+         indexUrls = Collections.list(classLoader.getResources(INDEX_LOCATION));
+      }
+      catch (IOException e) {
+         throw new DandelionException("Unable to look up the bundle index " + INDEX_LOCATION, e);
+      }
+
+      if (indexUrls.isEmpty()) {
+         return null;
+      }
+      if (indexUrls.size() > 1) {
+         LOG.warn("Several bundle indexes found ({}), falling back to the classpath scanning", indexUrls);
+         return null;
+      }
+
+      InputStream indexStream = null;
+      try {
+         indexStream = indexUrls.get(0).openStream();
+         return read(indexStream);
+      }
+      catch (IOException e) {
+         throw new DandelionException("Unable to read the bundle index " + indexUrls.get(0), e);
+      }
+      finally {
+         closeQuietly(indexStream);
+      }
+   }
+
+   /**
+    * <p>
+    * Reads a bundle index from the given stream.
+    * </p>
+    * 
+    * @param indexStream
+    *           The stream to read.
+    * @return the bundle index.
+    * @throws IOException
+    *            if the stream can't be read or parsed.
+    */
+   public static BundleIndex read(InputStream indexStream) throws IOException {
+
+      JsonNode root = mapper.readTree(indexStream);
+      if (root == null || root.path("version").asInt() != FORMAT_VERSION) {
+         throw new DandelionException("Unsupported bundle index format, the index must be regenerated");
+      }
+
+      Set<String> locations = new LinkedHashSet<String>();
+      for (JsonNode location : root.path("locations")) {
+         locations.add(location.asText());
+      }
+
+      BundleIndex index = new BundleIndex(locations);
+      Iterator<Map.Entry<String, JsonNode>> entries = root.path("bundles").fields();
+      while (entries.hasNext()) {
+         Map.Entry<String, JsonNode> entry = entries.next();
+         index.bundles.put(entry.getKey(), entry.getValue());
+      }
+
+      return index;
+   }
+
+   /**
+    * <p>
+    * Writes the index to the given stream.
+    * </p>
+    * 
+    * @param out
+    *           The stream to write to.
+    * @throws IOException
+    *            if the index can't be written.
+    */
+   public void write(OutputStream out) throws IOException {
+
+      ObjectNode root = mapper.createObjectNode();
+      root.put("version", FORMAT_VERSION);
+      ArrayNode locationsNode = root.putArray("locations");
+      for (String location : locations) {
+         locationsNode.add(location);
+      }
+      ObjectNode bundlesNode = root.putObject("bundles");
+      for (Map.Entry<String, JsonNode> entry : bundles.entrySet()) {
+         bundlesNode.set(entry.getKey(), entry.getValue());
+      }
+
+      mapper.writeValue(out, root);
+   }
+
+   /**
+    * @param resourcePath
+    *           The resource path of a bundle definition.
+    * @param descriptor
+    *           Its normalized descriptor.
+    */
+   public void addBundle(String resourcePath, JsonNode descriptor) {
+      bundles.put(resourcePath, descriptor);
+   }
+
+   /**
+    * @param location
+    *           A classpath location.
+    * @return {@code true} if the given location was scanned when generating the
+    *         index, {@code false} otherwise.
+    */
+   public boolean covers(String location) {
+      for (String indexedLocation : locations) {
+         if (indexedLocation.isEmpty() || location.equals(indexedLocation)
+               || location.startsWith(indexedLocation + "/")) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * <p>
+    * Returns the resource paths of the indexed bundles stored under the given
+    * location, with the same semantics as a classpath scanning of this
+    * location.
+    * </p>
+    * 
+    * @param location
+    *           The location in which the bundles are searched.
+    * @param excludedPaths
+    *           The paths to exclude, may be {@code null}.
+    * @return the matching resource paths.
+    */
+   public Set<String> getResourcePaths(String location, Set<String> excludedPaths) {
+
+      Set<String> resourcePaths = new LinkedHashSet<String>();
+      String prefix = location.isEmpty() ? location : location + "/";
+
+      for (String resourcePath : bundles.keySet()) {
+         if (resourcePath.startsWith(prefix) && !isExcluded(resourcePath, excludedPaths)) {
+            resourcePaths.add(resourcePath);
+         }
+      }
+
+      return resourcePaths;
+   }
+
+   /**
+    * @param resourcePath
+    *           The resource path of a bundle definition.
+    * @return {@code true} if the bundle definition is indexed.
+    */
+   public boolean contains(String resourcePath) {
+      return bundles.containsKey(resourcePath);
+   }
+
+   /**
+    * <p>
+    * Maps the indexed descriptor of the given resource path to a new
+    * {@link BundleStorageUnit}.
+    * </p>
+    * 
+    * @param resourcePath
+    *           The resource path of an indexed bundle definition.
+    * @return a new {@link BundleStorageUnit}.
+    * @throws IOException
+    *            if the indexed descriptor can't be mapped.
+    */
+   public BundleStorageUnit getBundle(String resourcePath) throws IOException {
+      BundleStorageUnit bsu = mapper.treeToValue(bundles.get(resourcePath), BundleStorageUnit.class);
+      bsu.setRelativePath(resourcePath);
+      return bsu;
+   }
+
+   public Set<String> getLocations() {
+      return Collections.unmodifiableSet(locations);
+   }
+
+   public int size() {
+      return bundles.size();
+   }
+
+   static ObjectMapper getMapper() {
+      return mapper;
+   }
+
+   private static boolean isExcluded(String resourcePath, Set<String> excludedPaths) {
+      if (excludedPaths != null) {
+         for (String excludedPath : excludedPaths) {
+            if (resourcePath.startsWith(excludedPath)) {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
+   private static void closeQuietly(InputStream stream) {
+      if (stream != null) {
+         try {
+            stream.close();
+         }
+         catch (IOException e) {
+            LOG.debug("Unable to close the bundle index stream", e);
+         }
+      }
+   }
+}
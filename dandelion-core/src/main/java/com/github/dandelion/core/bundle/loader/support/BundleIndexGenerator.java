@@ -0,0 +1,247 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.bundle.loader.support;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.asset.AssetType;
+import com.github.dandelion.core.storage.BundleStorageUnit;
+import com.github.dandelion.core.storage.support.BundleUtils;
+import com.github.dandelion.core.util.BundleStorageLogBuilder;
+import com.github.dandelion.core.util.ClassUtils;
+import com.github.dandelion.core.util.PathUtils;
+import com.github.dandelion.core.util.StringUtils;
+import com.github.dandelion.core.util.scanner.ClasspathResourceScanner;
+
+/**
+ * <p>
+ * Build-time generator of the {@link BundleIndex}.
+ * </p>
+ * <p>
+ * All JSON bundle definitions available in the given classpath locations are
+ * parsed and validated exactly as they would be at startup. The name of the
+ * bundles and the name and type of their assets are resolved, so that only the
+ * context-dependent part of the bundle finalization remains at runtime.
+ * </p>
+ * <p>
+ * The generator is intended to be run once the classes of the application are
+ * compiled, with the runtime classpath of the application, for example using
+ * the {@code exec-maven-plugin}:
+ * </p>
+ * 
+ * <pre>
+ * java com.github.dandelion.core.bundle.loader.support.BundleIndexGenerator &lt;outputDirectory&gt; [location...]
+ * </pre>
+ * 
+ * @since 1.1.2
+ */
+public class BundleIndexGenerator {
+
+   private static final Logger LOG = LoggerFactory.getLogger(BundleIndexGenerator.class);
+
+   /**
+    * Location scanned when none is specified.
+    */
+   public static final String DEFAULT_LOCATION = "dandelion";
+
+   private final Set<String> locations;
+
+   public BundleIndexGenerator(Set<String> locations) {
+      this.locations = locations;
+   }
+
+   /**
+    * <p>
+    * Scans the locations, validates and normalizes all bundle definitions
+    * found in them.
+    * </p>
+    * 
+    * @return the generated index.
+    * @throws DandelionException
+    *            if any bundle definition is invalid.
+    */
+   public BundleIndex generate() {
+
+      BundleIndex index = new BundleIndex(locations);
+      BundleStorageLogBuilder bslb = new BundleStorageLogBuilder();
+      ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+
+      for (String location : locations) {
+
+         // Sorted for the generated index to be reproducible
+         Set<String> resourcePaths = new TreeSet<String>(ClasspathResourceScanner.findResourcePaths(location, null,
+               null, ".json"));
+
+         for (String resourcePath : resourcePaths) {
+            if (index.contains(resourcePath)) {
+               continue;
+            }
+
+            InputStream configFileStream = null;
+            try {
+               configFileStream = classLoader.getResourceAsStream(resourcePath);
+               JsonNode descriptor = BundleIndex.getMapper().readTree(configFileStream);
+               BundleStorageUnit bsu = BundleIndex.getMapper().treeToValue(descriptor, BundleStorageUnit.class);
+               bsu.setRelativePath(resourcePath);
+
+               // The name of the bundle is extracted from its path if not
+               // specified
+               if (StringUtils.isBlank(bsu.getName())) {
+                  bsu.setName(PathUtils.extractLowerCasedName(bsu.getRelativePath()));
+               }
+
+               if (BundleUtils.isValid(bsu, bslb)) {
+                  BundleUtils.finalize(bsu, null);
+                  index.addBundle(resourcePath, normalize((ObjectNode) descriptor, bsu));
+                  LOG.debug("Indexed bundle \"{}\" ({})", bsu.getName(), resourcePath);
+               }
+            }
+            catch (IOException e) {
+               StringBuilder error = new StringBuilder("- The file '");
+               error.append(resourcePath);
+               error.append("' is wrongly formatted for the following reason: " + e.getMessage());
+               bslb.error("Wrong bundle format:", error.toString());
+            }
+            finally {
+               if (configFileStream != null) {
+                  try {
+                     configFileStream.close();
+                  }
+                  catch (IOException e) {
+                     LOG.debug("Unable to close {}", resourcePath, e);
+                  }
+               }
+            }
+         }
+      }
+
+      if (bslb.hasError()) {
+         throw new DandelionException(bslb.toString());
+      }
+
+      return index;
+   }
+
+   /**
+    * <p>
+    * Generates the index and writes it under the given output directory.
+    * </p>
+    * 
+    * @param outputDirectory
+    *           The root directory of the compiled classes.
+    * @return the written index file.
+    * @throws IOException
+    *            if the index can't be written.
+    */
+   public File generate(File outputDirectory) throws IOException {
+
+      BundleIndex index = generate();
+
+      File indexFile = new File(outputDirectory, BundleIndex.INDEX_LOCATION);
+      if (!indexFile.getParentFile().isDirectory() && !indexFile.getParentFile().mkdirs()) {
+         throw new IOException("Unable to create the directory " + indexFile.getParentFile());
+      }
+
+      OutputStream out = new FileOutputStream(indexFile);
+      try {
+         index.write(out);
+      }
+      finally {
+         out.close();
+      }
+
+      LOG.info("{} bundles indexed in {}", index.size(), indexFile);
+      return indexFile;
+   }
+
+   /**
+    * <p>
+    * Writes back the names and types resolved during the finalization into the
+    * original descriptor.
+    * </p>
+    */
+   private static JsonNode normalize(ObjectNode descriptor, BundleStorageUnit bsu) {
+
+      descriptor.put("bundle", bsu.getName());
+
+      JsonNode assets = descriptor.get("assets");
+      if (assets != null && assets.isArray()) {
+         for (JsonNode asset : assets) {
+            if (asset.isObject() && asset.hasNonNull("locations")) {
+               ObjectNode assetNode = (ObjectNode) asset;
+               String firstFoundLocation = asset.get("locations").elements().next().asText();
+               if (StringUtils.isBlank(asset.path("name").asText())) {
+                  assetNode.put("name", PathUtils.extractLowerCasedName(firstFoundLocation));
+               }
+               if (!asset.hasNonNull("type")) {
+                  AssetType type = AssetType.extractFromAssetLocation(firstFoundLocation);
+                  if (type != null) {
+                     assetNode.put("type", type.name());
+                  }
+               }
+            }
+         }
+      }
+
+      return descriptor;
+   }
+
+   public static void main(String[] args) throws IOException {
+
+      if (args.length < 1) {
+         System.err.println("Usage: BundleIndexGenerator <outputDirectory> [location...]");
+         System.exit(1);
+      }
+
+      Set<String> locations = new LinkedHashSet<String>();
+      if (args.length > 1) {
+         locations.addAll(Arrays.asList(args).subList(1, args.length));
+      }
+      else {
+         locations.add(DEFAULT_LOCATION);
+      }
+
+      new BundleIndexGenerator(locations).generate(new File(args[0]));
+   }
+}
@@ -29,17 +29,32 @@
  */
 package com.github.dandelion.core.cache;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 
 import com.github.dandelion.core.Context;
+import com.github.dandelion.core.cache.support.ConcurrentLruCache;
+import com.github.dandelion.core.monitoring.Counter;
+import com.github.dandelion.core.monitoring.MetricRegistry;
 
 /**
  * <p>
  * Abstract base class for all implemenations of {@link RequestCache}.
  * </p>
+ * <p>
+ * Besides the access statistics, when the JMX monitoring is enabled, the
+ * number of hits of each key is tracked in a map bounded by the maximum size
+ * of the cache, so that the hottest keys can be reported. The counts are
+ * approximate: concurrent first hits on the same key may be lost.
+ * </p>
  * 
  * @author Thibault Duchateau
  * @since 0.10.0
@@ -51,6 +66,18 @@ public abstract class AbstractRequestCache implements RequestCache {
    private AtomicLong putCount;
    private AtomicLong hitCount;
    private AtomicLong missCount;
+   private AtomicLong evictionCount;
+
+   /**
+    * Hits by key, only tracked when the JMX monitoring is enabled since it's
+    * the only way to report them.
+    */
+   private ConcurrentLruCache<String, KeyHits> hitsByKey;
+   private Counter getMetric;
+   private Counter putMetric;
+   private Counter hitMetric;
+   private Counter missMetric;
+   private Counter evictionMetric;
 
    @Override
    public void initCache(Context context) {
@@ -59,6 +86,16 @@ public abstract class AbstractRequestCache implements RequestCache {
       this.putCount = new AtomicLong(0);
       this.hitCount = new AtomicLong(0);
       this.missCount = new AtomicLong(0);
+      this.evictionCount = new AtomicLong(0);
+      this.hitsByKey = context.getConfiguration().isMonitoringJmxEnabled() ? new ConcurrentLruCache<String, KeyHits>(
+            context.getConfiguration().getCacheMaxSize()) : null;
+
+      MetricRegistry registry = MetricRegistry.of(context);
+      this.getMetric = registry.counter("cache.gets");
+      this.putMetric = registry.counter("cache.puts");
+      this.hitMetric = registry.counter("cache.hits");
+      this.missMetric = registry.counter("cache.misses");
+      this.evictionMetric = registry.counter("cache.evictions");
    }
 
    /**
@@ -70,25 +107,59 @@ public abstract class AbstractRequestCache implements RequestCache {
    public CacheEntry get(String cacheKey) {
 
       this.getCount.incrementAndGet();
+      this.getMetric.increment();
       CacheEntry assets = doGet(cacheKey);
 
       if (assets == null) {
          this.missCount.incrementAndGet();
+         this.missMetric.increment();
          getLogger().trace("Cache miss for key \"{}\"", cacheKey);
          return null;
       }
 
       this.hitCount.incrementAndGet();
+      this.hitMetric.increment();
+      if (this.hitsByKey != null) {
+         KeyHits keyHits = this.hitsByKey.get(cacheKey);
+         if (keyHits == null) {
+            this.hitsByKey.put(cacheKey, new KeyHits(assets.getRequestUri()));
+         }
+         else {
+            keyHits.hits.incrementAndGet();
+         }
+      }
       getLogger().trace("Cache hit for key \"{}\"", cacheKey);
       return assets;
    }
 
    protected abstract CacheEntry doGet(String cacheKey);
 
+   /**
+    * <p>
+    * To be called by implementations each time an entry is evicted from the
+    * underlying cache, e.g. because of its size limit, so that the
+    * {@link CacheManager} stops referencing it.
+    * </p>
+    * 
+    * @param cacheKey
+    *           The key of the evicted entry.
+    * @param cacheElement
+    *           The evicted entry.
+    */
+   protected void recordEviction(String cacheKey, CacheEntry cacheElement) {
+      this.evictionCount.incrementAndGet();
+      this.evictionMetric.increment();
+      CacheManager cacheManager = context.getCacheManager();
+      if (cacheManager != null) {
+         cacheManager.unindex(cacheKey, cacheElement);
+      }
+   }
+
    @Override
    public void put(String cacheKey, CacheEntry cacheElement) {
 
       this.putCount.incrementAndGet();
+      this.putMetric.increment();
       int newSize = doPut(cacheKey, cacheElement);
       getLogger().trace("Added cache entry for key \"{}\". New size is {}.", cacheKey, newSize);
    }
@@ -102,6 +173,39 @@ public abstract class AbstractRequestCache implements RequestCache {
 
    protected abstract int doPut(String cacheKey, CacheEntry cacheElement);
 
+   /**
+    * <p>
+    * Removes the entry stored under the given key, if any.
+    * </p>
+    * 
+    * @param cacheKey
+    *           The key of the entry to remove.
+    */
+   public void remove(String cacheKey) {
+      doRemove(cacheKey);
+      if (this.hitsByKey != null) {
+         this.hitsByKey.remove(cacheKey);
+      }
+      getLogger().trace("Removed cache entry for key \"{}\"", cacheKey);
+   }
+
+   /**
+    * <p>
+    * Removes a single entry from the underlying cache.
+    * </p>
+    * <p>
+    * Implementations that can't remove a single entry may keep this default
+    * behaviour, which clears the whole cache.
+    * </p>
+    * 
+    * @param cacheKey
+    *           The key of the entry to remove.
+    */
+   protected void doRemove(String cacheKey) {
+      getLogger().debug("Single entry removal not supported by {}, clearing the whole cache", getCacheName());
+      doClear();
+   }
+
    @Override
    public void clear() {
       getLogger().trace("Clearing cache");
@@ -109,6 +213,10 @@ public abstract class AbstractRequestCache implements RequestCache {
       this.putCount = new AtomicLong(0);
       this.hitCount = new AtomicLong(0);
       this.missCount = new AtomicLong(0);
+      this.evictionCount = new AtomicLong(0);
+      if (this.hitsByKey != null) {
+         this.hitsByKey.clear();
+      }
       doClear();
    }
 
@@ -129,4 +237,61 @@ public abstract class AbstractRequestCache implements RequestCache {
    public AtomicLong getMissCount() {
       return missCount;
    }
+
+   public AtomicLong getEvictionCount() {
+      return evictionCount;
+   }
+
+   /**
+    * <p>
+    * Returns the keys that were the most often hit, identified by their
+    * request URI.
+    * </p>
+    * 
+    * @param limit
+    *           The maximum number of keys to return.
+    * @return the request URIs of the hottest keys, mapped to their number of
+    *         hits, by decreasing number of hits, or an empty map if the JMX
+    *         monitoring is disabled.
+    */
+   public Map<String, Long> getHottestKeys(int limit) {
+
+      if (this.hitsByKey == null) {
+         return Collections.emptyMap();
+      }
+
+      List<KeyHits> allKeyHits = new ArrayList<KeyHits>(this.hitsByKey.snapshot().values());
+      Collections.sort(allKeyHits, new Comparator<KeyHits>() {
+
+         @Override
+         public int compare(KeyHits k1, KeyHits k2) {
+            long h1 = k1.hits.get();
+            long h2 = k2.hits.get();
+            return h1 < h2 ? 1 : (h1 == h2 ? 0 : -1);
+         }
+      });
+
+      Map<String, Long> hottestKeys = new LinkedHashMap<String, Long>();
+      for (KeyHits keyHits : allKeyHits) {
+         if (hottestKeys.size() >= limit) {
+            break;
+         }
+         hottestKeys.put(keyHits.requestUri, keyHits.hits.get());
+      }
+      return hottestKeys;
+   }
+
+   /**
+    * Number of hits of a key.
+    */
+   private static final class KeyHits {
+
+      private final String requestUri;
+      private final AtomicLong hits;
+
+      private KeyHits(String requestUri) {
+         this.requestUri = requestUri;
+         this.hits = new AtomicLong(1);
+      }
+   }
 }
\ No newline at end of file
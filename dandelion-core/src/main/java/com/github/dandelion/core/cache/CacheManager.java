@@ -29,9 +29,21 @@
  */
 package com.github.dandelion.core.cache;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import javax.servlet.http.HttpServletRequest;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.storage.StorageEntry;
 import com.github.dandelion.core.util.DigestUtils;
 import com.github.dandelion.core.util.UrlUtils;
 
@@ -40,6 +52,14 @@ import com.github.dandelion.core.util.UrlUtils;
  * System in charge of manipulating the selected implementation of
  * {@link RequestCache} .
  * </p>
+ * <p>
+ * The manager maintains reverse indexes from bundle names and asset storage
+ * keys to the keys of the cache entries that contain them, so that a change
+ * affecting a single bundle or asset only evicts the pages that depend on it.
+ * The keys of the entries evicted by the {@link RequestCache} are removed from
+ * these indexes, provided the implementation extends
+ * {@link AbstractRequestCache}.
+ * </p>
  * 
  * @author Romain Lespinasse
  * @author Thibault Duchateau
@@ -47,13 +67,27 @@ import com.github.dandelion.core.util.UrlUtils;
  */
 public class CacheManager {
 
+   private static final Logger LOG = LoggerFactory.getLogger(CacheManager.class);
+
    /**
     * The Dandelion context.
     */
    private final Context context;
 
+   /**
+    * Request cache keys, by bundle name.
+    */
+   private final ConcurrentMap<String, Set<String>> cacheKeysByBundle;
+
+   /**
+    * Request cache keys, by asset storage key.
+    */
+   private final ConcurrentMap<String, Set<String>> cacheKeysByStorageKey;
+
    public CacheManager(Context context) {
       this.context = context;
+      this.cacheKeysByBundle = new ConcurrentHashMap<String, Set<String>>();
+      this.cacheKeysByStorageKey = new ConcurrentHashMap<String, Set<String>>();
    }
 
    public String generateRequestCacheKey(HttpServletRequest request) {
@@ -67,6 +101,13 @@ public class CacheManager {
 
    public CacheEntry storeAssets(String key, CacheEntry cacheElement) {
       context.getCache().put(key, cacheElement);
+
+      if (cacheElement.getAssets() != null) {
+         for (Asset asset : cacheElement.getAssets()) {
+            index(cacheKeysByBundle, asset.getBundle(), key);
+            index(cacheKeysByStorageKey, asset.getStorageKey(), key);
+         }
+      }
       return cacheElement;
    }
 
@@ -75,6 +116,133 @@ public class CacheManager {
    }
 
    public void clearCache() {
-      context.getCache();
+      context.getCache().clear();
+      cacheKeysByBundle.clear();
+      cacheKeysByStorageKey.clear();
+   }
+
+   /**
+    * <p>
+    * Evicts all request cache entries that contain an asset of the given
+    * bundle, along with the stored contents of the assets of this bundle.
+    * </p>
+    * 
+    * @param bundleName
+    *           The name of the bundle.
+    * @return the number of evicted request cache entries.
+    */
+   public int invalidateBundle(String bundleName) {
+
+      List<String> storageKeys = new ArrayList<String>();
+      for (StorageEntry storageEntry : context.getAssetStorage().getAll()) {
+         if (bundleName.equals(storageEntry.getAsset().getBundle())) {
+            storageKeys.add(storageEntry.getAsset().getStorageKey());
+         }
+      }
+      for (String storageKey : storageKeys) {
+         context.getAssetStorage().remove(storageKey);
+         cacheKeysByStorageKey.remove(storageKey);
+      }
+
+      int evicted = evict(cacheKeysByBundle.remove(bundleName));
+      LOG.debug("Bundle \"{}\" invalidated: {} cache entries and {} stored assets evicted", bundleName, evicted,
+            storageKeys.size());
+      return evicted;
+   }
+
+   /**
+    * <p>
+    * Evicts all request cache entries that contain the asset stored under the
+    * given key, along with its stored contents.
+    * </p>
+    * 
+    * @param storageKey
+    *           The storage key of the asset.
+    * @return the number of evicted request cache entries.
+    */
+   public int invalidateAsset(String storageKey) {
+
+      context.getAssetStorage().remove(storageKey);
+
+      int evicted = evict(cacheKeysByStorageKey.remove(storageKey));
+      LOG.debug("Asset \"{}\" invalidated: {} cache entries evicted", storageKey, evicted);
+      return evicted;
+   }
+
+   /**
+    * <p>
+    * Removes the key of an entry evicted from the {@link RequestCache} from the
+    * reverse indexes.
+    * </p>
+    * 
+    * @param cacheKey
+    *           The key of the evicted entry.
+    * @param cacheElement
+    *           The evicted entry.
+    */
+   public void unindex(String cacheKey, CacheEntry cacheElement) {
+      if (cacheElement == null || cacheElement.getAssets() == null) {
+         return;
+      }
+      for (Asset asset : cacheElement.getAssets()) {
+         unindex(cacheKeysByBundle, asset.getBundle(), cacheKey);
+         unindex(cacheKeysByStorageKey, asset.getStorageKey(), cacheKey);
+      }
+   }
+
+   private int evict(Set<String> cacheKeys) {
+      if (cacheKeys == null) {
+         return 0;
+      }
+
+      RequestCache cache = context.getCache();
+      if (!(cache instanceof AbstractRequestCache)) {
+         LOG.debug("Single entry removal not supported by {}, clearing the whole cache", cache.getCacheName());
+         clearCache();
+         return cacheKeys.size();
+      }
+
+      for (String cacheKey : cacheKeys) {
+         ((AbstractRequestCache) cache).remove(cacheKey);
+      }
+      return cacheKeys.size();
+   }
+
+   private static void index(ConcurrentMap<String, Set<String>> index, String key, String cacheKey) {
+      if (key == null) {
+         return;
+      }
+      while (true) {
+         Set<String> cacheKeys = index.get(key);
+         if (cacheKeys == null) {
+            Set<String> newCacheKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            cacheKeys = index.putIfAbsent(key, newCacheKeys);
+            if (cacheKeys == null) {
+               cacheKeys = newCacheKeys;
+            }
+         }
+         synchronized (cacheKeys) {
+            // The set may have been dropped by unindex() once emptied
+            if (index.get(key) == cacheKeys) {
+               cacheKeys.add(cacheKey);
+               return;
+            }
+         }
+      }
+   }
+
+   private static void unindex(ConcurrentMap<String, Set<String>> index, String key, String cacheKey) {
+      if (key == null) {
+         return;
+      }
+      Set<String> cacheKeys = index.get(key);
+      if (cacheKeys != null) {
+         synchronized (cacheKeys) {
+            cacheKeys.remove(cacheKey);
+            if (cacheKeys.isEmpty()) {
+               index.remove(key, cacheKeys);
+            }
+         }
+      }
    }
-}
\ No newline at end of file
+}
@@ -69,7 +69,15 @@ public class MemoryRequestCache extends AbstractRequestCache {
    @Override
    public void initCache(Context context) {
       super.initCache(context);
-      mapRequestAssets = new ConcurrentLruCache<String, CacheEntry>(context.getConfiguration().getCacheMaxSize());
+      mapRequestAssets = new ConcurrentLruCache<String, CacheEntry>(context.getConfiguration().getCacheMaxSize()) {
+
+         private static final long serialVersionUID = -3094472836578014453L;
+
+         @Override
+         protected void onEviction(Map.Entry<String, CacheEntry> eldest) {
+            recordEviction(eldest.getKey(), eldest.getValue());
+         }
+      };
    }
 
    @Override
@@ -93,6 +101,11 @@ public class MemoryRequestCache extends AbstractRequestCache {
       return this.mapRequestAssets.size();
    }
 
+   @Override
+   protected void doRemove(String cacheKey) {
+      mapRequestAssets.remove(cacheKey);
+   }
+
    @Override
    public void doClear() {
       mapRequestAssets.clear();
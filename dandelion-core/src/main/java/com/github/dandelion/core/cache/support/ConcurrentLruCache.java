@@ -47,7 +47,17 @@ public class ConcurrentLruCache<K, V> extends LinkedHashMap<K, V> {
 
    @Override
    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-      return super.size() > maxEntries && isRemovable(eldest);
+      if (super.size() > maxEntries && isRemovable(eldest)) {
+         onEviction(eldest);
+         return true;
+      }
+      return false;
+   }
+
+   /**
+    * Called while the write lock is held, before the given entry is evicted.
+    */
+   protected void onEviction(Map.Entry<K, V> eldest) {
    }
 
    protected boolean isRemovable(Map.Entry<K, V> eldest) {
@@ -75,4 +85,28 @@ public class ConcurrentLruCache<K, V> extends LinkedHashMap<K, V> {
          lock.writeLock().unlock();
       }
    }
-}
\ No newline at end of file
+
+   /**
+    * @return a copy of all entries, in insertion order.
+    */
+   public Map<K, V> snapshot() {
+      try {
+         lock.readLock().lock();
+         return new LinkedHashMap<K, V>(this);
+      }
+      finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   @Override
+   public V remove(Object key) {
+      try {
+         lock.writeLock().lock();
+         return super.remove(key);
+      }
+      finally {
+         lock.writeLock().unlock();
+      }
+   }
+}
@@ -79,10 +79,16 @@ public class Configuration {
    private List<String> assetLocationsResolutionStrategy;
    private List<String> assetProcessors;
    private boolean assetJsProcessingEnabled;
+   private String assetJsProcessingFlashStore;
+   private int assetJsProcessingFlashMaxSize;
+   private int assetJsProcessingFlashTtl;
+   private List<String> assetJsProcessingFlashSerializablePackages;
    private List<String> assetJsExcludes;
    private List<String> assetCssExcludes;
    private String assetUrlPattern;
    private String assetStorage;
+   private int assetMappingThreads;
+   private boolean assetInjectionTemplateEnabled;
 
    // Asset versioning configurations
    private String assetVersioningMode;
@@ -102,6 +108,8 @@ public class Configuration {
    private List<String> bundleIncludes;
    private List<String> bundleExcludes;
    private boolean bundlePreLoaderEnabled;
+   private boolean bundleIndexEnabled;
+   private int bundleLoadingThreads;
 
    // Tooling-related configurations
    private boolean toolDebuggerEnabled;
@@ -109,14 +117,21 @@ public class Configuration {
    private ReportingType toolAlertReportingMode;
    private boolean toolAssetPrettyPrintingEnabled;
    private boolean toolBundleReloadingEnabled;
+   private boolean toolFileWatcherEnabled;
+   private int toolFileWatcherInterval;
    private boolean toolGzipEnabled;
    private Set<String> toolGzipMimeTypes;
 
    // Monitoring configuration
    private boolean monitoringJmxEnabled;
+   private boolean monitoringMetricsEnabled;
+   private boolean monitoringServerTimingEnabled;
+   private int monitoringServerTimingSampling;
 
    // Package manager configurations
    private String bowerComponentsLocation;
+   private int bowerComponentsScanDepth;
+   private boolean bowerComponentsCacheEnabled;
 
    // Misc configurations
    private String encoding;
@@ -142,6 +157,15 @@ public class Configuration {
       this.bundleIncludes = PropertiesUtils.propertyAsList(readConfig(DandelionConfig.BUNDLE_INCLUDES));
       this.bundleExcludes = PropertiesUtils.propertyAsList(readConfig(DandelionConfig.BUNDLE_EXCLUDES));
       this.bundlePreLoaderEnabled = Boolean.parseBoolean(readConfig(DandelionConfig.BUNDLE_PRE_LOADERS));
+      this.bundleIndexEnabled = Boolean.parseBoolean(readConfig(DandelionConfig.BUNDLE_INDEX));
+      try {
+         this.bundleLoadingThreads = Integer.parseInt(readConfig(DandelionConfig.BUNDLE_LOADING_THREADS));
+      }
+      catch (NumberFormatException e) {
+         LOG.warn("The '{}' property is incorrectly configured. Falling back to the default value ({})",
+               DandelionConfig.BUNDLE_LOADING_THREADS.getName(), DandelionConfig.BUNDLE_LOADING_THREADS.defaultDevValue());
+         this.bundleLoadingThreads = Integer.parseInt(DandelionConfig.BUNDLE_LOADING_THREADS.defaultDevValue());
+      }
 
       // Component-related configurations
       this.componentsStandalone = PropertiesUtils.propertyAsList(readConfig(DandelionConfig.COMPONENTS_STANDALONE));
@@ -152,10 +176,42 @@ public class Configuration {
             .propertyAsList(readConfig(DandelionConfig.ASSET_LOCATIONS_RESOLUTION_STRATEGY));
       this.assetProcessors = PropertiesUtils.propertyAsList(readConfig(DandelionConfig.ASSET_PROCESSORS));
       this.assetJsProcessingEnabled = Boolean.parseBoolean(readConfig(DandelionConfig.ASSET_JS_PROCESSING));
+      this.assetJsProcessingFlashStore = readConfig(DandelionConfig.ASSET_JS_PROCESSING_FLASH_STORE);
+      try {
+         this.assetJsProcessingFlashMaxSize = Integer.parseInt(readConfig(DandelionConfig.ASSET_JS_PROCESSING_FLASH_MAX_SIZE));
+      }
+      catch (NumberFormatException e) {
+         LOG.warn("The '{}' property is incorrectly configured. Falling back to the default value ({})",
+               DandelionConfig.ASSET_JS_PROCESSING_FLASH_MAX_SIZE.getName(),
+               DandelionConfig.ASSET_JS_PROCESSING_FLASH_MAX_SIZE.defaultDevValue());
+         this.assetJsProcessingFlashMaxSize = Integer.parseInt(DandelionConfig.ASSET_JS_PROCESSING_FLASH_MAX_SIZE
+               .defaultDevValue());
+      }
+      try {
+         this.assetJsProcessingFlashTtl = Integer.parseInt(readConfig(DandelionConfig.ASSET_JS_PROCESSING_FLASH_TTL));
+      }
+      catch (NumberFormatException e) {
+         LOG.warn("The '{}' property is incorrectly configured. Falling back to the default value ({})",
+               DandelionConfig.ASSET_JS_PROCESSING_FLASH_TTL.getName(),
+               DandelionConfig.ASSET_JS_PROCESSING_FLASH_TTL.defaultDevValue());
+         this.assetJsProcessingFlashTtl = Integer.parseInt(DandelionConfig.ASSET_JS_PROCESSING_FLASH_TTL
+               .defaultDevValue());
+      }
+      this.assetJsProcessingFlashSerializablePackages = PropertiesUtils
+            .propertyAsList(readConfig(DandelionConfig.ASSET_JS_PROCESSING_FLASH_SERIALIZABLE_PACKAGES));
       this.assetJsExcludes = PropertiesUtils.propertyAsList(readConfig(DandelionConfig.ASSET_JS_EXCLUDES));
       this.assetCssExcludes = PropertiesUtils.propertyAsList(readConfig(DandelionConfig.ASSET_CSS_EXCLUDES));
       this.assetUrlPattern = getProcessedAssetUrlPattern(readConfig(DandelionConfig.ASSET_URL_PATTERN));
       this.assetStorage = readConfig(DandelionConfig.ASSET_STORAGE);
+      try {
+         this.assetMappingThreads = Integer.parseInt(readConfig(DandelionConfig.ASSET_MAPPING_THREADS));
+      }
+      catch (NumberFormatException e) {
+         LOG.warn("The '{}' property is incorrectly configured. Falling back to the default value ({})",
+               DandelionConfig.ASSET_MAPPING_THREADS.getName(), DandelionConfig.ASSET_MAPPING_THREADS.defaultDevValue());
+         this.assetMappingThreads = Integer.parseInt(DandelionConfig.ASSET_MAPPING_THREADS.defaultDevValue());
+      }
+      this.assetInjectionTemplateEnabled = Boolean.parseBoolean(readConfig(DandelionConfig.ASSET_INJECTION_TEMPLATE));
 
       // Asset versioning
       this.assetVersioningMode = readConfig(DandelionConfig.ASSET_VERSIONING_MODE);
@@ -186,14 +242,50 @@ public class Configuration {
       this.toolAssetPrettyPrintingEnabled = Boolean
             .parseBoolean(readConfig(DandelionConfig.TOOL_ASSET_PRETTY_PRINTING));
       this.toolBundleReloadingEnabled = Boolean.parseBoolean(readConfig(DandelionConfig.TOOL_BUNDLE_RELOADING));
+      this.toolFileWatcherEnabled = Boolean.parseBoolean(readConfig(DandelionConfig.TOOL_FILE_WATCHER));
+      try {
+         this.toolFileWatcherInterval = Integer.parseInt(readConfig(DandelionConfig.TOOL_FILE_WATCHER_INTERVAL));
+      }
+      catch (NumberFormatException e) {
+         LOG.warn("The '{}' property is incorrectly configured. Falling back to the default value ({})",
+               DandelionConfig.TOOL_FILE_WATCHER_INTERVAL.getName(),
+               DandelionConfig.TOOL_FILE_WATCHER_INTERVAL.defaultDevValue());
+         this.toolFileWatcherInterval = Integer.parseInt(DandelionConfig.TOOL_FILE_WATCHER_INTERVAL.defaultDevValue());
+      }
       this.toolGzipEnabled = Boolean.parseBoolean(readConfig(DandelionConfig.TOOL_GZIP));
       this.toolGzipMimeTypes = PropertiesUtils.propertyAsSet(readConfig(DandelionConfig.TOOL_GZIP_MIME_TYPES));
 
       // Package manager configurations
       this.bowerComponentsLocation = readConfig(DandelionConfig.BOWER_COMPONENTS_LOCATION);
+      try {
+         this.bowerComponentsScanDepth = Integer.parseInt(readConfig(DandelionConfig.BOWER_COMPONENTS_SCAN_DEPTH));
+      }
+      catch (NumberFormatException e) {
+         LOG.warn("The '{}' property is incorrectly configured. Falling back to the default value ({})",
+               DandelionConfig.BOWER_COMPONENTS_SCAN_DEPTH.getName(),
+               DandelionConfig.BOWER_COMPONENTS_SCAN_DEPTH.defaultDevValue());
+         this.bowerComponentsScanDepth = Integer.parseInt(DandelionConfig.BOWER_COMPONENTS_SCAN_DEPTH
+               .defaultDevValue());
+      }
+      this.bowerComponentsCacheEnabled = Boolean.parseBoolean(readConfig(DandelionConfig.BOWER_COMPONENTS_CACHE));
 
       // Monitoring configurations
       this.monitoringJmxEnabled = Boolean.parseBoolean(readConfig(DandelionConfig.MONITORING_JMX));
+      this.monitoringMetricsEnabled = Boolean.parseBoolean(readConfig(DandelionConfig.MONITORING_METRICS));
+      this.monitoringServerTimingEnabled = Boolean.parseBoolean(readConfig(DandelionConfig.MONITORING_SERVER_TIMING));
+      try {
+         this.monitoringServerTimingSampling = Integer.parseInt(readConfig(DandelionConfig.MONITORING_SERVER_TIMING_SAMPLING));
+         if (this.monitoringServerTimingSampling < 1) {
+            throw new NumberFormatException();
+         }
+      }
+      catch (NumberFormatException e) {
+         LOG.warn("The '{}' property is incorrectly configured. Falling back to the default value ({})",
+               DandelionConfig.MONITORING_SERVER_TIMING_SAMPLING.getName(),
+               DandelionConfig.MONITORING_SERVER_TIMING_SAMPLING.defaultDevValue());
+         this.monitoringServerTimingSampling = Integer.parseInt(DandelionConfig.MONITORING_SERVER_TIMING_SAMPLING
+               .defaultDevValue());
+      }
 
       // Misc configuration
       this.encoding = readConfig(DandelionConfig.ENCODING);
@@ -313,6 +405,22 @@ public class Configuration {
       return this.toolBundleReloadingEnabled;
    }
 
+   /**
+    * @return {@code true} if the files of bundles and assets are watched for
+    *         changes, {@code false} otherwise.
+    */
+   public boolean isToolFileWatcherEnabled() {
+      return this.toolFileWatcherEnabled;
+   }
+
+   /**
+    * @return the interval, in milliseconds, between two checks of the watched
+    *         files.
+    */
+   public int getToolFileWatcherInterval() {
+      return this.toolFileWatcherInterval;
+   }
+
    /**
     * @return {@code true} if caching is enabled, {@code false} otherwise.
     */
@@ -343,6 +451,39 @@ public class Configuration {
       return assetJsProcessingEnabled;
    }
 
+   /**
+    * @return the name of the store of the request flash data kept for the
+    *         processing of JavaScript assets. (Thymeleaf only).
+    */
+   public String getAssetJsProcessingFlashStore() {
+      return assetJsProcessingFlashStore;
+   }
+
+   /**
+    * @return the maximum number of request flash data kept for the processing
+    *         of JavaScript assets. (Thymeleaf only).
+    */
+   public int getAssetJsProcessingFlashMaxSize() {
+      return assetJsProcessingFlashMaxSize;
+   }
+
+   /**
+    * @return the time to live, in seconds, of the request flash data kept for
+    *         the processing of JavaScript assets. (Thymeleaf only).
+    */
+   public int getAssetJsProcessingFlashTtl() {
+      return assetJsProcessingFlashTtl;
+   }
+
+   /**
+    * @return the packages, besides the JDK ones, whose classes can be
+    *         deserialized from the request flash data shared between several
+    *         nodes. (Thymeleaf only).
+    */
+   public List<String> getAssetJsProcessingFlashSerializablePackages() {
+      return assetJsProcessingFlashSerializablePackages;
+   }
+
    /**
     * @return the list of all excluded JavaScript assets.
     */
@@ -405,6 +546,18 @@ public class Configuration {
       return this.monitoringJmxEnabled;
    }
 
+   public boolean isMonitoringMetricsEnabled() {
+      return this.monitoringMetricsEnabled;
+   }
+
+   public boolean isMonitoringServerTimingEnabled() {
+      return this.monitoringServerTimingEnabled;
+   }
+
+   public int getMonitoringServerTimingSampling() {
+      return this.monitoringServerTimingSampling;
+   }
+
    public String getAssetVersioningStrategy() {
       return assetVersioningStrategy;
    }
@@ -413,6 +566,18 @@ public class Configuration {
       return assetStorage;
    }
 
+   public int getAssetMappingThreads() {
+      return assetMappingThreads;
+   }
+
+   public boolean isAssetInjectionTemplateEnabled() {
+      return assetInjectionTemplateEnabled;
+   }
+
+   public boolean isAssetParallelMappingEnabled() {
+      return assetMappingThreads > 1;
+   }
+
    public String getCacheName() {
       return this.cacheName;
    }
@@ -470,7 +635,27 @@ public class Configuration {
       return bowerComponentsLocation;
    }
 
+   public int getBowerComponentsScanDepth() {
+      return bowerComponentsScanDepth;
+   }
+
+   public boolean isBowerComponentsCacheEnabled() {
+      return bowerComponentsCacheEnabled;
+   }
+
    public boolean isBundlePreLoaderEnabled() {
       return bundlePreLoaderEnabled;
    }
+
+   public boolean isBundleIndexEnabled() {
+      return bundleIndexEnabled;
+   }
+
+   public int getBundleLoadingThreads() {
+      return bundleLoadingThreads;
+   }
+
+   public boolean isBundleParallelLoadingEnabled() {
+      return bundleLoadingThreads > 1;
+   }
 }
\ No newline at end of file
@@ -53,10 +53,16 @@ public enum DandelionConfig {
    ASSET_LOCATIONS_RESOLUTION_STRATEGY("asset.locations.resolution.strategy", "webapp,webjar,classpath,jar,file,remote", "webapp,webjar,classpath,jar,file,remote"), 
    ASSET_PROCESSORS("asset.processors", "cssurlrewriting,jsmin,cssmin", "cssurlrewriting,jsmin,cssmin"),
    ASSET_JS_PROCESSING("asset.js.processing", "true", "true"),
+   ASSET_JS_PROCESSING_FLASH_STORE("asset.js.processing.flash.store", "memory", "memory"),
+   ASSET_JS_PROCESSING_FLASH_MAX_SIZE("asset.js.processing.flash.max.size", "1000", "1000"),
+   ASSET_JS_PROCESSING_FLASH_TTL("asset.js.processing.flash.ttl", "60", "60"),
+   ASSET_JS_PROCESSING_FLASH_SERIALIZABLE_PACKAGES("asset.js.processing.flash.serializable.packages", "", ""),
    ASSET_JS_EXCLUDES("asset.js.excludes", "", ""), 
    ASSET_CSS_EXCLUDES("asset.css.excludes", "", ""), 
    ASSET_URL_PATTERN("asset.url.pattern", DandelionServlet.DANDELION_ASSETS_URL, DandelionServlet.DANDELION_ASSETS_URL), 
    ASSET_STORAGE("asset.storage", "memory", "memory"),
+   ASSET_MAPPING_THREADS("asset.mapping.threads", "1", "1"),
+   ASSET_INJECTION_TEMPLATE("asset.injection.template", "false", "false"),
 
    // Asset versioning
    ASSET_VERSIONING_MODE("asset.versioning.mode", "auto", "auto"), 
@@ -76,6 +82,8 @@ public enum DandelionConfig {
    BUNDLE_INCLUDES("bundle.includes", "", ""), 
    BUNDLE_EXCLUDES("bundle.excludes", "", ""),
    BUNDLE_PRE_LOADERS("bundle.pre.loaders", "true", "true"),
+   BUNDLE_INDEX("bundle.index", "false", "true"),
+   BUNDLE_LOADING_THREADS("bundle.loading.threads", "1", "1"),
    
    // Tooling-related configurations
    TOOL_GZIP("tool.gzip", "false", "true"), 
@@ -85,13 +93,20 @@ public enum DandelionConfig {
    TOOL_ALERT_REPORTING_MODE("tool.alert.reporting.mode", "all", "all"),
    TOOL_ASSET_PRETTY_PRINTING("tool.asset.pretty.printing", "true", "false"), 
    TOOL_BUNDLE_RELOADING("tool.bundle.reloading", "true", "false"),
+   TOOL_FILE_WATCHER("tool.file.watcher", "false", "false"),
+   TOOL_FILE_WATCHER_INTERVAL("tool.file.watcher.interval", "1000", "1000"),
 
    // Moniroting configurations
    @Beta
    MONITORING_JMX("monitoring.jmx", "false", "false"),
+   MONITORING_METRICS("monitoring.metrics", "true", "true"),
+   MONITORING_SERVER_TIMING("monitoring.server.timing", "false", "false"),
+   MONITORING_SERVER_TIMING_SAMPLING("monitoring.server.timing.sampling", "1", "100"),
 
    // Package manager configurations
    BOWER_COMPONENTS_LOCATION("bower.components.location", "", ""),
+   BOWER_COMPONENTS_SCAN_DEPTH("bower.components.scan.depth", "4", "4"),
+   BOWER_COMPONENTS_CACHE("bower.components.cache", "true", "true"),
    
    // Misc configurations
    ENCODING("encoding", "UTF-8", "UTF-8");
@@ -0,0 +1,125 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.flash;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.web.RequestFlashData;
+
+/**
+ * <p>
+ * SPI for the stores of the {@link RequestFlashData} captured during the
+ * rendering of a page, until the JavaScript assets of this page are requested.
+ * </p>
+ * <p>
+ * The JavaScript assets of a page may be requested on another node than the
+ * page itself. Implementations backed by a store shared between all nodes
+ * allow to scale out without session affinity. Such implementations should use
+ * the {@link com.github.dandelion.core.flash.support.FlashDataSerializer} to
+ * transport the flash data.
+ * </p>
+ * <p>
+ * The implementation to use is selected with the
+ * {@code asset.js.processing.flash.store} configuration option.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public interface FlashDataStore {
+
+   /**
+    * @return the name of the implementation of {@link FlashDataStore}.
+    */
+   String getName();
+
+   /**
+    * <p>
+    * Initializes the store.
+    * </p>
+    * 
+    * @param context
+    *           The Dandelion context.
+    */
+   void init(Context context);
+
+   /**
+    * <p>
+    * Stores the flash data of a request.
+    * </p>
+    * 
+    * @param requestKey
+    *           The key of the request.
+    * @param requestFlashData
+    *           The flash data to store.
+    */
+   void put(String requestKey, RequestFlashData requestFlashData);
+
+   /**
+    * <p>
+    * Reads the flash data of a request. As all JavaScript assets of a page
+    * share the same flash data, a read must not remove the entry right away,
+    * but implementations may shorten its remaining time to live.
+    * </p>
+    * 
+    * @param requestKey
+    *           The key of the request.
+    * @return the flash data of the request, or {@code null} if none is stored
+    *         or if it has expired.
+    */
+   RequestFlashData get(String requestKey);
+
+   /**
+    * <p>
+    * Removes the flash data of a request.
+    * </p>
+    * 
+    * @param requestKey
+    *           The key of the request.
+    */
+   void remove(String requestKey);
+
+   /**
+    * <p>
+    * Clears the underlying store.
+    * </p>
+    */
+   void clear();
+
+   /**
+    * @return the number of stored entries.
+    */
+   int size();
+
+   /**
+    * <p>
+    * Releases the resources held by the store.
+    * </p>
+    */
+   void destroy();
+}
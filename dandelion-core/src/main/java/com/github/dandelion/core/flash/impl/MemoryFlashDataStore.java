@@ -0,0 +1,395 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.flash.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.flash.FlashDataStore;
+import com.github.dandelion.core.web.RequestFlashData;
+
+/**
+ * <p>
+ * Default service provider for {@link FlashDataStore}, that keeps a bounded
+ * number of {@link RequestFlashData} in memory.
+ * </p>
+ * <p>
+ * Expiration is handled by a hashed timer wheel: each entry is scheduled in the
+ * bucket of its deadline and a background tick only visits the bucket of the
+ * current tick, so that neither the requests nor the tick ever iterate over all
+ * stored entries. When the store is full, the oldest entries are evicted first,
+ * using a queue kept in insertion order.
+ * </p>
+ * <p>
+ * Since all JavaScript assets of a page share the same flash data, a read
+ * doesn't remove the entry right away but shortens its remaining time to live
+ * to a few seconds, leaving enough time for the other assets of the page to be
+ * requested.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class MemoryFlashDataStore implements FlashDataStore, Runnable {
+
+   private static final Logger LOG = LoggerFactory.getLogger(MemoryFlashDataStore.class);
+
+   public static final String NAME = "memory";
+
+   /**
+    * Number of buckets of the wheel. Must be a power of two.
+    */
+   static final int WHEEL_SIZE = 64;
+
+   /**
+    * Minimum duration, in milliseconds, between two ticks.
+    */
+   static final long MIN_TICK_DURATION = 100;
+
+   /**
+    * Time, in milliseconds, an entry is still kept once read.
+    */
+   static final long READ_GRACE_PERIOD = 5000;
+
+   private int maxSize;
+   private long timeToLive;
+   private long tickDuration;
+   private long startTime;
+
+   private final ConcurrentMap<String, Timeout> entries = new ConcurrentHashMap<String, Timeout>();
+
+   /**
+    * Buckets of the wheel, only accessed while holding the lock of the store.
+    */
+   private final List<Queue<Timeout>> wheel;
+
+   /**
+    * All scheduled entries, oldest first, including those that have since been
+    * cancelled or expired, which are skipped and pruned from the head.
+    */
+   private final Queue<Timeout> insertionOrder = new ConcurrentLinkedQueue<Timeout>();
+
+   /**
+    * The next tick to be processed, only accessed while holding the lock of the
+    * store.
+    */
+   private long tick;
+
+   private ScheduledExecutorService scheduler;
+
+   public MemoryFlashDataStore() {
+      this.wheel = new ArrayList<Queue<Timeout>>(WHEEL_SIZE);
+      for (int i = 0; i < WHEEL_SIZE; i++) {
+         this.wheel.add(new ArrayDeque<Timeout>());
+      }
+   }
+
+   @Override
+   public String getName() {
+      return NAME;
+   }
+
+   @Override
+   public void init(Context context) {
+      configure(context.getConfiguration().getAssetJsProcessingFlashMaxSize(), context.getConfiguration()
+            .getAssetJsProcessingFlashTtl());
+      start();
+   }
+
+   /**
+    * @param maxSize
+    *           The maximum number of stored entries.
+    * @param timeToLive
+    *           The time to live, in seconds, of the stored entries.
+    */
+   void configure(int maxSize, int timeToLive) {
+      this.maxSize = maxSize;
+      this.timeToLive = TimeUnit.SECONDS.toMillis(timeToLive);
+      this.tickDuration = Math.max(MIN_TICK_DURATION, this.timeToLive / WHEEL_SIZE);
+      this.startTime = currentTimeMillis();
+   }
+
+   /**
+    * <p>
+    * Starts the background tick expiring the entries.
+    * </p>
+    */
+   synchronized void start() {
+      scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+         @Override
+         public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "dandelion-flash-data-expiry");
+            thread.setDaemon(true);
+            return thread;
+         }
+      });
+      scheduler.scheduleAtFixedRate(this, tickDuration, tickDuration, TimeUnit.MILLISECONDS);
+   }
+
+   @Override
+   public synchronized void destroy() {
+      if (scheduler != null) {
+         scheduler.shutdownNow();
+         scheduler = null;
+      }
+   }
+
+   @Override
+   public void run() {
+      try {
+         expire();
+      }
+      catch (RuntimeException e) {
+         // A failing tick must not stop the next ones
+         LOG.warn("Unable to expire the request flash data", e);
+      }
+   }
+
+   /**
+    * <p>
+    * Stores the flash data of a request, evicting the oldest entries if the
+    * store is full.
+    * </p>
+    * 
+    * @param requestKey
+    *           The key of the request.
+    * @param requestFlashData
+    *           The flash data to store.
+    */
+   @Override
+   public void put(String requestKey, RequestFlashData requestFlashData) {
+      Timeout timeout = new Timeout(requestKey, requestFlashData, currentTimeMillis() + timeToLive, false);
+      Timeout previous = entries.put(requestKey, timeout);
+      if (previous != null) {
+         previous.cancelled = true;
+      }
+      schedule(timeout);
+
+      while (entries.size() > maxSize && evictOne()) {
+         // Keep evicting until the store is back under its capacity
+      }
+   }
+
+   /**
+    * <p>
+    * Reads the flash data of a request. The first read shortens the time to
+    * live of the entry to {@link #READ_GRACE_PERIOD}.
+    * </p>
+    * 
+    * @param requestKey
+    *           The key of the request.
+    * @return the flash data of the request, or {@code null} if none is stored
+    *         or if it has expired.
+    */
+   @Override
+   public RequestFlashData get(String requestKey) {
+      if (requestKey == null) {
+         return null;
+      }
+
+      Timeout timeout = entries.get(requestKey);
+      if (timeout == null) {
+         return null;
+      }
+
+      long now = currentTimeMillis();
+      if (timeout.deadline <= now) {
+         remove(timeout);
+         return null;
+      }
+
+      if (!timeout.read && now + READ_GRACE_PERIOD < timeout.deadline) {
+         Timeout shortened = new Timeout(requestKey, timeout.data, now + READ_GRACE_PERIOD, true);
+         if (entries.replace(requestKey, timeout, shortened)) {
+            timeout.cancelled = true;
+            schedule(shortened);
+         }
+      }
+
+      return timeout.data;
+   }
+
+   /**
+    * <p>
+    * Removes the flash data of a request.
+    * </p>
+    * 
+    * @param requestKey
+    *           The key of the request.
+    */
+   @Override
+   public void remove(String requestKey) {
+      Timeout timeout = entries.remove(requestKey);
+      if (timeout != null) {
+         timeout.cancelled = true;
+      }
+   }
+
+   @Override
+   public synchronized void clear() {
+      entries.clear();
+      insertionOrder.clear();
+      for (Queue<Timeout> bucket : wheel) {
+         bucket.clear();
+      }
+   }
+
+   @Override
+   public int size() {
+      return entries.size();
+   }
+
+   /**
+    * <p>
+    * Processes all the ticks elapsed since the last call, removing the entries
+    * whose deadline is reached.
+    * </p>
+    * 
+    * @return the number of expired entries.
+    */
+   synchronized int expire() {
+      int expired = 0;
+      long now = currentTimeMillis();
+      while (startTime + tick * tickDuration <= now) {
+         Iterator<Timeout> iterator = wheel.get((int) (tick & (WHEEL_SIZE - 1))).iterator();
+         while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.cancelled) {
+               iterator.remove();
+            }
+            else if (timeout.remainingRounds > 0) {
+               timeout.remainingRounds--;
+            }
+            else {
+               iterator.remove();
+               if (entries.remove(timeout.key, timeout)) {
+                  expired++;
+               }
+            }
+         }
+         tick++;
+      }
+
+      // Prune the entries that are no longer stored from the head of the
+      // insertion order
+      Timeout oldest;
+      while ((oldest = insertionOrder.peek()) != null && !isLive(oldest)) {
+         insertionOrder.remove(oldest);
+      }
+
+      if (expired > 0) {
+         LOG.trace("{} request flash data expired", expired);
+      }
+      return expired;
+   }
+
+   /**
+    * <p>
+    * Schedules the given entry in the bucket of its deadline. The deadline tick
+    * is computed under the same lock as {@link #expire()}, so that an entry is
+    * never added to a bucket whose tick has already been processed.
+    * </p>
+    */
+   private void schedule(Timeout timeout) {
+      synchronized (this) {
+         long deadlineTick = Math.max(tick, (timeout.deadline - startTime + tickDuration - 1) / tickDuration);
+         timeout.remainingRounds = (deadlineTick - tick) / WHEEL_SIZE;
+         wheel.get((int) (deadlineTick & (WHEEL_SIZE - 1))).add(timeout);
+      }
+      insertionOrder.add(timeout);
+   }
+
+   /**
+    * <p>
+    * Evicts the oldest stored entry. Cancelled entries are left in their wheel
+    * bucket, which drops them on its next tick.
+    * </p>
+    */
+   private boolean evictOne() {
+      Timeout timeout;
+      while ((timeout = insertionOrder.poll()) != null) {
+         if (remove(timeout)) {
+            LOG.debug("Request flash data store full, evicting the data of the request {}", timeout.key);
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private boolean isLive(Timeout timeout) {
+      return !timeout.cancelled && entries.get(timeout.key) == timeout;
+   }
+
+   private boolean remove(Timeout timeout) {
+      if (timeout.cancelled) {
+         return false;
+      }
+      timeout.cancelled = true;
+      return entries.remove(timeout.key, timeout);
+   }
+
+   /**
+    * Overridable for testing purpose.
+    */
+   protected long currentTimeMillis() {
+      return System.currentTimeMillis();
+   }
+
+   private static final class Timeout {
+
+      private final String key;
+      private final RequestFlashData data;
+      private final long deadline;
+      private final boolean read;
+      private long remainingRounds;
+      private volatile boolean cancelled;
+
+      private Timeout(String key, RequestFlashData data, long deadline, boolean read) {
+         this.key = key;
+         this.data = data;
+         this.deadline = deadline;
+         this.read = read;
+      }
+   }
+}
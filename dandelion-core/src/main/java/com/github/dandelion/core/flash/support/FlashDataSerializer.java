@@ -0,0 +1,602 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.flash.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.util.ClassUtils;
+import com.github.dandelion.core.web.RequestFlashData;
+
+/**
+ * <p>
+ * Compact binary serializer of the attributes of a {@link RequestFlashData},
+ * intended for the {@link com.github.dandelion.core.flash.FlashDataStore}s
+ * that share the flash data between several nodes.
+ * </p>
+ * <p>
+ * Strings, primitive wrappers, dates, collections, maps and arrays are written
+ * with a one-byte type tag followed by their value. {@link ArrayList},
+ * {@link LinkedList}, {@link HashSet}, {@link LinkedHashSet}, {@link HashMap},
+ * {@link LinkedHashMap} and the naturally ordered sorted sets and maps keep
+ * their type, other lists, sets and maps are read back as {@link ArrayList},
+ * {@link LinkedHashSet} and {@link LinkedHashMap}, in the same order. Arrays
+ * keep their component type.
+ * </p>
+ * <p>
+ * Other values fall back to the Java serialization. As the serialized data may
+ * come from another node, they are only deserialized if all their classes
+ * belong to the {@code java.lang}, {@code java.math}, {@code java.util},
+ * {@code java.sql} or {@code java.time} packages, or to one of the packages
+ * allowed by the caller.
+ * </p>
+ * <p>
+ * Attributes whose value can't be serialized or deserialized are skipped.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public final class FlashDataSerializer {
+
+   private static final Logger LOG = LoggerFactory.getLogger(FlashDataSerializer.class);
+
+   private static final byte FORMAT_VERSION = 2;
+
+   private static final byte NULL = 0;
+   private static final byte STRING = 1;
+   private static final byte BOOLEAN = 2;
+   private static final byte INTEGER = 3;
+   private static final byte LONG = 4;
+   private static final byte DOUBLE = 5;
+   private static final byte FLOAT = 6;
+   private static final byte SHORT = 7;
+   private static final byte BYTE = 8;
+   private static final byte CHARACTER = 9;
+   private static final byte DATE = 10;
+   private static final byte LIST = 11;
+   private static final byte SET = 12;
+   private static final byte MAP = 13;
+   private static final byte ARRAY = 14;
+   private static final byte SERIALIZED = 15;
+   private static final byte LINKED_LIST = 16;
+   private static final byte HASH_SET = 17;
+   private static final byte SORTED_SET = 18;
+   private static final byte HASH_MAP = 19;
+   private static final byte SORTED_MAP = 20;
+
+   /**
+    * Packages whose classes can always be deserialized. Their subpackages are
+    * not included.
+    */
+   private static final Set<String> SERIALIZABLE_PACKAGES = new HashSet<String>(Arrays.asList("java.lang",
+         "java.math", "java.util", "java.sql", "java.time"));
+
+   /**
+    * <p>
+    * Serializes the attributes of the provided flash data.
+    * </p>
+    * 
+    * @param requestFlashData
+    *           The flash data to serialize.
+    * @return the serialized attributes.
+    */
+   public static byte[] serialize(RequestFlashData requestFlashData) {
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      try {
+         // Each attribute is written apart so that a value that can't be
+         // serialized only skips its own attribute
+         Map<String, byte[]> attributes = new LinkedHashMap<String, byte[]>();
+         for (Map.Entry<String, Object> attribute : requestFlashData.getAttributes().entrySet()) {
+            ByteArrayOutputStream value = new ByteArrayOutputStream();
+            try {
+               writeValue(new DataOutputStream(value), attribute.getValue(),
+                     Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>()));
+               attributes.put(attribute.getKey(), value.toByteArray());
+            }
+            catch (Exception e) {
+               LOG.debug("The request attribute \"{}\" can't be serialized and won't be available in the assets ({})",
+                     attribute.getKey(), e.toString());
+            }
+         }
+
+         out.writeByte(FORMAT_VERSION);
+         writeSize(out, attributes.size());
+         for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+            writeString(out, attribute.getKey());
+            writeSize(out, attribute.getValue().length);
+            out.write(attribute.getValue());
+         }
+         out.flush();
+      }
+      catch (IOException e) {
+         throw new DandelionException("Unable to serialize the request flash data", e);
+      }
+
+      return bytes.toByteArray();
+   }
+
+   /**
+    * <p>
+    * Deserializes flash data previously serialized with
+    * {@link #serialize(RequestFlashData)}, only allowing the classes of the
+    * JDK packages to be deserialized.
+    * </p>
+    * 
+    * @param serialized
+    *           The serialized attributes.
+    * @return the deserialized flash data.
+    */
+   public static RequestFlashData deserialize(byte[] serialized) {
+      return deserialize(serialized, Collections.<String> emptyList());
+   }
+
+   /**
+    * <p>
+    * Deserializes flash data previously serialized with
+    * {@link #serialize(RequestFlashData)}.
+    * </p>
+    * 
+    * @param serialized
+    *           The serialized attributes.
+    * @param serializablePackages
+    *           Packages, including their subpackages, whose classes can be
+    *           deserialized in addition to the ones of the JDK packages.
+    * @return the deserialized flash data.
+    */
+   public static RequestFlashData deserialize(byte[] serialized, List<String> serializablePackages) {
+
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(serialized));
+      try {
+         byte version = in.readByte();
+         if (version != FORMAT_VERSION) {
+            throw new DandelionException("Unsupported request flash data format: " + version);
+         }
+
+         int size = readSize(in);
+         Map<String, Object> attributes = new LinkedHashMap<String, Object>(size * 2);
+         for (int i = 0; i < size; i++) {
+            String name = readString(in);
+            byte[] value = new byte[readSize(in)];
+            in.readFully(value);
+            try {
+               attributes.put(name,
+                     readValue(new DataInputStream(new ByteArrayInputStream(value)), serializablePackages));
+            }
+            catch (Exception e) {
+               LOG.debug("The request attribute \"{}\" can't be deserialized and won't be available in the assets ({})",
+                     name, e.toString());
+            }
+         }
+         return new RequestFlashData(attributes);
+      }
+      catch (IOException e) {
+         throw new DandelionException("Unable to deserialize the request flash data", e);
+      }
+   }
+
+   private static void writeValue(DataOutputStream out, Object value, Set<Object> ancestors) throws IOException {
+
+      if (value == null) {
+         out.writeByte(NULL);
+      }
+      else if (value instanceof String) {
+         out.writeByte(STRING);
+         writeString(out, (String) value);
+      }
+      else if (value instanceof Boolean) {
+         out.writeByte(BOOLEAN);
+         out.writeBoolean((Boolean) value);
+      }
+      else if (value instanceof Integer) {
+         out.writeByte(INTEGER);
+         writeVarLong(out, (Integer) value);
+      }
+      else if (value instanceof Long) {
+         out.writeByte(LONG);
+         writeVarLong(out, (Long) value);
+      }
+      else if (value instanceof Double) {
+         out.writeByte(DOUBLE);
+         out.writeDouble((Double) value);
+      }
+      else if (value instanceof Float) {
+         out.writeByte(FLOAT);
+         out.writeFloat((Float) value);
+      }
+      else if (value instanceof Short) {
+         out.writeByte(SHORT);
+         out.writeShort((Short) value);
+      }
+      else if (value instanceof Byte) {
+         out.writeByte(BYTE);
+         out.writeByte((Byte) value);
+      }
+      else if (value instanceof Character) {
+         out.writeByte(CHARACTER);
+         out.writeChar((Character) value);
+      }
+      else if (value.getClass() == Date.class) {
+         out.writeByte(DATE);
+         writeVarLong(out, ((Date) value).getTime());
+      }
+      else if (value instanceof Collection || value instanceof Map || value instanceof Object[]) {
+         // The containers are walked recursively, a container holding itself
+         // would never end
+         if (!ancestors.add(value)) {
+            throw new NotSerializableException("Cyclic reference to a " + value.getClass().getName());
+         }
+         if (value instanceof Collection) {
+            writeCollection(out, (Collection<?>) value, ancestors);
+         }
+         else if (value instanceof Map) {
+            writeMap(out, (Map<?, ?>) value, ancestors);
+         }
+         else {
+            Object[] array = (Object[]) value;
+            out.writeByte(ARRAY);
+            writeString(out, array.getClass().getComponentType().getName());
+            writeSize(out, array.length);
+            for (Object element : array) {
+               writeValue(out, element, ancestors);
+            }
+         }
+         ancestors.remove(value);
+      }
+      else {
+         ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+         ObjectOutputStream oos = new ObjectOutputStream(serialized);
+         oos.writeObject(value);
+         oos.close();
+         out.writeByte(SERIALIZED);
+         writeSize(out, serialized.size());
+         serialized.writeTo(out);
+      }
+   }
+
+   private static void writeCollection(DataOutputStream out, Collection<?> collection, Set<Object> ancestors)
+         throws IOException {
+
+      if (collection.getClass() == LinkedList.class) {
+         out.writeByte(LINKED_LIST);
+      }
+      else if (collection.getClass() == HashSet.class) {
+         out.writeByte(HASH_SET);
+      }
+      else if (collection instanceof SortedSet && ((SortedSet<?>) collection).comparator() == null) {
+         out.writeByte(SORTED_SET);
+      }
+      else {
+         out.writeByte(collection instanceof Set ? SET : LIST);
+      }
+      writeSize(out, collection.size());
+      for (Object element : collection) {
+         writeValue(out, element, ancestors);
+      }
+   }
+
+   private static void writeMap(DataOutputStream out, Map<?, ?> map, Set<Object> ancestors) throws IOException {
+
+      if (map.getClass() == HashMap.class) {
+         out.writeByte(HASH_MAP);
+      }
+      else if (map instanceof SortedMap && ((SortedMap<?, ?>) map).comparator() == null) {
+         out.writeByte(SORTED_MAP);
+      }
+      else {
+         out.writeByte(MAP);
+      }
+      writeSize(out, map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+         writeValue(out, entry.getKey(), ancestors);
+         writeValue(out, entry.getValue(), ancestors);
+      }
+   }
+
+   private static Object readValue(DataInputStream in, List<String> serializablePackages) throws IOException,
+         ClassNotFoundException {
+
+      byte type = in.readByte();
+      switch (type) {
+      case NULL:
+         return null;
+      case STRING:
+         return readString(in);
+      case BOOLEAN:
+         return in.readBoolean();
+      case INTEGER:
+         return (int) readVarLong(in);
+      case LONG:
+         return readVarLong(in);
+      case DOUBLE:
+         return in.readDouble();
+      case FLOAT:
+         return in.readFloat();
+      case SHORT:
+         return in.readShort();
+      case BYTE:
+         return in.readByte();
+      case CHARACTER:
+         return in.readChar();
+      case DATE:
+         return new Date(readVarLong(in));
+      case LIST:
+      case LINKED_LIST:
+      case SET:
+      case HASH_SET:
+      case SORTED_SET:
+         int collectionSize = readSize(in);
+         Collection<Object> collection = newCollection(type, collectionSize);
+         for (int i = 0; i < collectionSize; i++) {
+            collection.add(readValue(in, serializablePackages));
+         }
+         return collection;
+      case MAP:
+      case HASH_MAP:
+      case SORTED_MAP:
+         int mapSize = readSize(in);
+         Map<Object, Object> map = newMap(type, mapSize);
+         for (int i = 0; i < mapSize; i++) {
+            Object key = readValue(in, serializablePackages);
+            map.put(key, readValue(in, serializablePackages));
+         }
+         return map;
+      case ARRAY:
+         Class<?> componentType = resolveClass(readString(in), serializablePackages);
+         Object[] array = (Object[]) Array.newInstance(componentType, readSize(in));
+         for (int i = 0; i < array.length; i++) {
+            array[i] = readValue(in, serializablePackages);
+         }
+         return array;
+      case SERIALIZED:
+         byte[] serialized = new byte[readSize(in)];
+         in.readFully(serialized);
+         ObjectInputStream ois = new RestrictedObjectInputStream(new ByteArrayInputStream(serialized),
+               serializablePackages);
+         try {
+            return ois.readObject();
+         }
+         finally {
+            ois.close();
+         }
+      default:
+         throw new IOException("Unknown value type: " + type);
+      }
+   }
+
+   private static Collection<Object> newCollection(byte type, int size) {
+      switch (type) {
+      case LINKED_LIST:
+         return new LinkedList<Object>();
+      case SET:
+         return new LinkedHashSet<Object>(size * 2);
+      case HASH_SET:
+         return new HashSet<Object>(size * 2);
+      case SORTED_SET:
+         return new TreeSet<Object>();
+      default:
+         return new ArrayList<Object>(size);
+      }
+   }
+
+   private static Map<Object, Object> newMap(byte type, int size) {
+      switch (type) {
+      case HASH_MAP:
+         return new HashMap<Object, Object>(size * 2);
+      case SORTED_MAP:
+         return new TreeMap<Object, Object>();
+      default:
+         return new LinkedHashMap<Object, Object>(size * 2);
+      }
+   }
+
+   /**
+    * <p>
+    * Loads the class with the class loader of the web application, once
+    * checked that it belongs to one of the serializable packages.
+    * </p>
+    */
+   private static Class<?> resolveClass(String className, List<String> serializablePackages)
+         throws ClassNotFoundException {
+
+      if (!isSerializable(className, serializablePackages)) {
+         throw new ClassNotFoundException("The class " + className + " is not allowed to be deserialized");
+      }
+      return Class.forName(className, false, ClassUtils.getDefaultClassLoader());
+   }
+
+   static boolean isSerializable(String className, List<String> serializablePackages) {
+
+      // Arrays are checked against their element type
+      String elementName = className;
+      int dimensions = 0;
+      while (dimensions < elementName.length() && elementName.charAt(dimensions) == '[') {
+         dimensions++;
+      }
+      if (dimensions > 0) {
+         elementName = elementName.substring(dimensions);
+         if (elementName.length() == 1) {
+            // Array of primitives
+            return true;
+         }
+         if (elementName.startsWith("L") && elementName.endsWith(";")) {
+            elementName = elementName.substring(1, elementName.length() - 1);
+         }
+      }
+
+      int lastDot = elementName.lastIndexOf('.');
+      if (lastDot == -1) {
+         return false;
+      }
+      String packageName = elementName.substring(0, lastDot);
+      if (SERIALIZABLE_PACKAGES.contains(packageName)) {
+         return true;
+      }
+      for (String serializablePackage : serializablePackages) {
+         if (packageName.equals(serializablePackage) || packageName.startsWith(serializablePackage + ".")) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private static void writeString(DataOutputStream out, String value) throws IOException {
+      byte[] bytes = value.getBytes("UTF-8");
+      writeSize(out, bytes.length);
+      out.write(bytes);
+   }
+
+   private static String readString(DataInputStream in) throws IOException {
+      byte[] bytes = new byte[readSize(in)];
+      in.readFully(bytes);
+      return new String(bytes, "UTF-8");
+   }
+
+   private static void writeSize(DataOutputStream out, int size) throws IOException {
+      writeVarLong(out, size);
+   }
+
+   private static int readSize(DataInputStream in) throws IOException {
+      long size = readVarLong(in);
+      if (size < 0 || size > in.available()) {
+         throw new IOException("Invalid size: " + size);
+      }
+      return (int) size;
+   }
+
+   /**
+    * <p>
+    * Writes a zigzag-encoded variable-length long, so that small values,
+    * positive or negative, only take one or two bytes.
+    * </p>
+    */
+   private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+      long zigzag = (value << 1) ^ (value >> 63);
+      while ((zigzag & ~0x7FL) != 0) {
+         out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+         zigzag >>>= 7;
+      }
+      out.writeByte((int) zigzag);
+   }
+
+   private static long readVarLong(DataInputStream in) throws IOException {
+      long zigzag = 0;
+      int shift = 0;
+      byte b;
+      do {
+         if (shift > 63) {
+            throw new IOException("Malformed variable-length long");
+         }
+         b = in.readByte();
+         zigzag |= (long) (b & 0x7F) << shift;
+         shift += 7;
+      }
+      while ((b & 0x80) != 0);
+      return (zigzag >>> 1) ^ -(zigzag & 1);
+   }
+
+   /**
+    * <p>
+    * {@link ObjectInputStream} resolving classes with the class loader of the
+    * web application rather than the one of Dandelion, and refusing the
+    * classes that don't belong to the serializable packages as well as the
+    * proxies.
+    * </p>
+    */
+   private static class RestrictedObjectInputStream extends ObjectInputStream {
+
+      private final List<String> serializablePackages;
+
+      private RestrictedObjectInputStream(InputStream in, List<String> serializablePackages) throws IOException {
+         super(in);
+         this.serializablePackages = serializablePackages;
+      }
+
+      @Override
+      protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+         if (!isSerializable(desc.getName(), serializablePackages)) {
+            throw new InvalidClassException(desc.getName(), "Not allowed to be deserialized");
+         }
+         try {
+            return Class.forName(desc.getName(), false, ClassUtils.getDefaultClassLoader());
+         }
+         catch (ClassNotFoundException e) {
+            return super.resolveClass(desc);
+         }
+      }
+
+      @Override
+      protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+         throw new InvalidClassException("Proxies are not allowed to be deserialized");
+      }
+   }
+
+   /**
+    * <p>
+    * Suppress default constructor for noninstantiability.
+    * </p>
+    */
+   private FlashDataSerializer() {
+      throw new AssertionError();
+   }
+}
@@ -0,0 +1,115 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.jmx;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.storage.AbstractAssetStorage;
+import com.github.dandelion.core.storage.AssetStorage;
+import com.github.dandelion.core.storage.StorageEntry;
+
+/**
+ * <p>
+ * Exposes the statistics of the {@link AssetStorage} of a {@link Context}.
+ * </p>
+ * <p>
+ * The contents footprint is estimated from the number of characters of the
+ * stored contents, each one taking two bytes.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class AssetStorageMonitor implements AssetStorageMonitorMBean {
+
+   private final Context context;
+
+   public AssetStorageMonitor(Context context) {
+      this.context = context;
+   }
+
+   @Override
+   public String getStorageName() {
+      return context.getAssetStorage().getName();
+   }
+
+   @Override
+   public int getSize() {
+      return context.getAssetStorage().size();
+   }
+
+   @Override
+   public long getContentsFootprint() {
+      long footprint = 0;
+      for (StorageEntry storageEntry : context.getAssetStorage().getAll()) {
+         if (storageEntry.getContents() != null) {
+            footprint += 2L * storageEntry.getContents().length();
+         }
+      }
+      return footprint;
+   }
+
+   @Override
+   public long getGetCount() {
+      AbstractAssetStorage storage = getStorage();
+      return storage != null ? storage.getGetCount().get() : 0;
+   }
+
+   @Override
+   public long getPutCount() {
+      AbstractAssetStorage storage = getStorage();
+      return storage != null ? storage.getPutCount().get() : 0;
+   }
+
+   @Override
+   public long getHitCount() {
+      AbstractAssetStorage storage = getStorage();
+      return storage != null ? storage.getHitCount().get() : 0;
+   }
+
+   @Override
+   public long getMissCount() {
+      AbstractAssetStorage storage = getStorage();
+      return storage != null ? storage.getMissCount().get() : 0;
+   }
+
+   @Override
+   public double getHitRatio() {
+      return RequestCacheMonitor.ratio(getHitCount(), getGetCount());
+   }
+
+   @Override
+   public int invalidateAsset(String storageKey) {
+      return context.getCacheManager().invalidateAsset(storageKey);
+   }
+
+   private AbstractAssetStorage getStorage() {
+      AssetStorage assetStorage = context.getAssetStorage();
+      return assetStorage instanceof AbstractAssetStorage ? (AbstractAssetStorage) assetStorage : null;
+   }
+}
@@ -0,0 +1,72 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.jmx;
+
+/**
+ * <p>
+ * Statistics and operations of the asset storage.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public interface AssetStorageMonitorMBean {
+
+   public String getStorageName();
+
+   public int getSize();
+
+   /**
+    * @return the estimated number of bytes held by the stored contents.
+    */
+   public long getContentsFootprint();
+
+   public long getGetCount();
+
+   public long getPutCount();
+
+   public long getHitCount();
+
+   public long getMissCount();
+
+   /**
+    * @return the ratio of hits among all gets, between 0 and 1.
+    */
+   public double getHitRatio();
+
+   /**
+    * Evicts the cached pages that use the asset stored under the given key,
+    * along with its stored contents.
+    * 
+    * @param storageKey
+    *           The storage key of the asset.
+    * @return the number of evicted cache entries.
+    */
+   public int invalidateAsset(String storageKey);
+}
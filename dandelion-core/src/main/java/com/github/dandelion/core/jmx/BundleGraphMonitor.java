@@ -0,0 +1,129 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.jmx;
+
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.asset.AssetMapper;
+import com.github.dandelion.core.storage.AssetStorageUnit;
+import com.github.dandelion.core.storage.BundleStorage;
+import com.github.dandelion.core.storage.BundleStorageUnit;
+
+/**
+ * <p>
+ * Exposes the statistics of the {@link BundleStorage} of a {@link Context}.
+ * </p>
+ * <p>
+ * Bundles are warmed by mapping their assets against a synthetic request on
+ * the root of the web application. Assets whose storage key depends on the
+ * request, such as the ones served by the {@code api} locator, are therefore
+ * not warmed in a meaningful way.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class BundleGraphMonitor implements BundleGraphMonitorMBean {
+
+   private static final Logger LOG = LoggerFactory.getLogger(BundleGraphMonitor.class);
+
+   private final Context context;
+
+   public BundleGraphMonitor(Context context) {
+      this.context = context;
+   }
+
+   @Override
+   public int getBundleCount() {
+      return context.getBundleStorage().getBundleDag().getVertexMap().size();
+   }
+
+   @Override
+   public int getAssetCount() {
+      int assetCount = 0;
+      for (BundleStorageUnit bsu : context.getBundleStorage().getBundleDag().getVerticies()) {
+         if (bsu.getAssetStorageUnits() != null) {
+            assetCount += bsu.getAssetStorageUnits().size();
+         }
+      }
+      return assetCount;
+   }
+
+   @Override
+   public String[] getBundleNames() {
+      Set<String> bundleNames = context.getBundleStorage().getBundleDag().getBundleNames();
+      return bundleNames.toArray(new String[bundleNames.size()]);
+   }
+
+   @Override
+   public int warmBundle(String bundleName) {
+
+      Set<BundleStorageUnit> bundles = context.getBundleStorage().bundlesFor(bundleName);
+      if (bundles.isEmpty()) {
+         LOG.warn("The bundle \"{}\" can't be warmed as it doesn't exist", bundleName);
+         return 0;
+      }
+
+      HttpServletRequest request = WarmupRequest.create(context);
+      AssetMapper assetMapper = new AssetMapper(context, request);
+
+      int warmed = 0;
+      for (BundleStorageUnit bsu : bundles) {
+         if (bsu.getAssetStorageUnits() == null) {
+            continue;
+         }
+         for (AssetStorageUnit asu : bsu.getAssetStorageUnits()) {
+            try {
+               Asset asset = assetMapper.mapToAsset(asu);
+               if (context.getAssetStorage().contains(asset.getStorageKey())) {
+                  warmed++;
+               }
+            }
+            catch (RuntimeException e) {
+               LOG.warn("Unable to warm the asset {}", asu.toLog(), e);
+            }
+         }
+      }
+
+      LOG.debug("Bundle \"{}\" warmed: {} assets stored", bundleName, warmed);
+      return warmed;
+   }
+
+   @Override
+   public int invalidateBundle(String bundleName) {
+      return context.getCacheManager().invalidateBundle(bundleName);
+   }
+}
@@ -0,0 +1,66 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.jmx;
+
+/**
+ * <p>
+ * Statistics and operations of the bundle graph.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public interface BundleGraphMonitorMBean {
+
+   public int getBundleCount();
+
+   public int getAssetCount();
+
+   public String[] getBundleNames();
+
+   /**
+    * Maps all assets of the given bundle and of its dependencies, so that their
+    * contents are loaded, processed and stored before being first requested.
+    * 
+    * @param bundleName
+    *           The name of the bundle.
+    * @return the number of assets whose contents are now stored.
+    */
+   public int warmBundle(String bundleName);
+
+   /**
+    * Evicts the cached pages that use the given bundle, along with the stored
+    * contents of its assets.
+    * 
+    * @param bundleName
+    *           The name of the bundle.
+    * @return the number of evicted cache entries.
+    */
+   public int invalidateBundle(String bundleName);
+}
@@ -29,6 +29,9 @@
  */
 package com.github.dandelion.core.jmx;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import javax.servlet.FilterConfig;
 
 import com.github.dandelion.core.Beta;
@@ -63,7 +66,22 @@ public class DandelionRuntime implements DandelionRuntimeMBean {
    @Override
    public void clearCache() {
       LOG.debug("Clearing all cache");
-      context.getCache().clear();
+      context.getCacheManager().clearCache();
       LOG.debug("All caches cleared");
    }
+
+   @Override
+   public int invalidateBundle(String bundleName) {
+      return context.getCacheManager().invalidateBundle(bundleName);
+   }
+
+   @Override
+   public int invalidateAsset(String storageKey) {
+      return context.getCacheManager().invalidateAsset(storageKey);
+   }
+
+   @Override
+   public Map<String, Long> getStartupTimings() {
+      return new LinkedHashMap<String, Long>(context.getStartupTimings());
+   }
 }
@@ -29,6 +29,8 @@
  */
 package com.github.dandelion.core.jmx;
 
+import java.util.Map;
+
 import com.github.dandelion.core.Beta;
 
 /**
@@ -42,4 +44,30 @@ public interface DandelionRuntimeMBean {
    public void reloadBundles();
 
    public void clearCache();
+
+   /**
+    * Evicts the cached pages that use the given bundle, along with the stored
+    * contents of its assets.
+    * 
+    * @param bundleName
+    *           The name of the bundle.
+    * @return the number of evicted cache entries.
+    */
+   public int invalidateBundle(String bundleName);
+
+   /**
+    * Evicts the cached pages that use the asset stored under the given key,
+    * along with its stored contents.
+    * 
+    * @param storageKey
+    *           The storage key of the asset.
+    * @return the number of evicted cache entries.
+    */
+   public int invalidateAsset(String storageKey);
+
+   /**
+    * @return the duration of each phase of the last startup of the context, in
+    *         milliseconds.
+    */
+   public Map<String, Long> getStartupTimings();
 }
@@ -0,0 +1,186 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.jmx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ReflectionException;
+
+import com.github.dandelion.core.monitoring.Counter;
+import com.github.dandelion.core.monitoring.MetricRegistry;
+import com.github.dandelion.core.monitoring.Timer;
+
+/**
+ * <p>
+ * Exposes a group of metrics of the {@link MetricRegistry}, i.e. all metrics
+ * whose name starts with a given prefix, e.g. {@code handler.}.
+ * </p>
+ * <p>
+ * Attributes are computed from the registry each time they are requested, so
+ * that metrics created after the registration of the MBean are exposed as
+ * well. Each counter is exposed as a single attribute while each timer is
+ * exposed as {@code <name>.count}, {@code <name>.mean}, {@code <name>.p50},
+ * {@code <name>.p99} and {@code <name>.max}, all durations being expressed in
+ * microseconds.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class MetricsMonitor implements DynamicMBean {
+
+   private static final String[] TIMER_STATS = { "count", "mean", "p50", "p99", "max" };
+
+   private final MetricRegistry registry;
+   private final String prefix;
+
+   public MetricsMonitor(MetricRegistry registry, String prefix) {
+      this.registry = registry;
+      this.prefix = prefix;
+   }
+
+   @Override
+   public Object getAttribute(String attribute) throws AttributeNotFoundException {
+
+      Counter counter = registry.getCounters().get(prefix + attribute);
+      if (counter != null) {
+         return counter.sum();
+      }
+
+      int lastDot = attribute.lastIndexOf('.');
+      if (lastDot > 0) {
+         Timer timer = registry.getTimers().get(prefix + attribute.substring(0, lastDot));
+         if (timer != null) {
+            String stat = attribute.substring(lastDot + 1);
+            if ("count".equals(stat)) {
+               return timer.getCount();
+            }
+            else if ("mean".equals(stat)) {
+               return toMicros(timer.getMeanTime());
+            }
+            else if ("p50".equals(stat)) {
+               return toMicros(timer.getPercentile(0.5));
+            }
+            else if ("p99".equals(stat)) {
+               return toMicros(timer.getPercentile(0.99));
+            }
+            else if ("max".equals(stat)) {
+               return toMicros(timer.getMaxTime());
+            }
+         }
+      }
+
+      throw new AttributeNotFoundException(attribute);
+   }
+
+   @Override
+   public AttributeList getAttributes(String[] attributes) {
+      AttributeList list = new AttributeList();
+      for (String attribute : attributes) {
+         try {
+            list.add(new Attribute(attribute, getAttribute(attribute)));
+         }
+         catch (AttributeNotFoundException e) {
+            // Unknown attributes are omitted, as required by the contract
+         }
+      }
+      return list;
+   }
+
+   @Override
+   public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+      throw new AttributeNotFoundException("All attributes are read-only: " + attribute.getName());
+   }
+
+   @Override
+   public AttributeList setAttributes(AttributeList attributes) {
+      return new AttributeList();
+   }
+
+   @Override
+   public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+      if ("reset".equals(actionName)) {
+         for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+               entry.getValue().reset();
+            }
+         }
+         for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+               entry.getValue().reset();
+            }
+         }
+         return null;
+      }
+      throw new ReflectionException(new NoSuchMethodException(actionName));
+   }
+
+   @Override
+   public MBeanInfo getMBeanInfo() {
+
+      List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+      for (String name : registry.getCounters().keySet()) {
+         if (name.startsWith(prefix)) {
+            attributes.add(new MBeanAttributeInfo(name.substring(prefix.length()), Long.class.getName(), name, true,
+                  false, false));
+         }
+      }
+      for (String name : registry.getTimers().keySet()) {
+         if (name.startsWith(prefix)) {
+            for (String stat : TIMER_STATS) {
+               attributes.add(new MBeanAttributeInfo(name.substring(prefix.length()) + "." + stat, Long.class
+                     .getName(), name + " (" + stat + ("count".equals(stat) ? ")" : ", in microseconds)"), true,
+                     false, false));
+            }
+         }
+      }
+
+      MBeanOperationInfo reset = new MBeanOperationInfo("reset", "Resets all metrics of the group",
+            new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+
+      return new MBeanInfo(getClass().getName(), "Dandelion metrics: " + prefix + "*",
+            attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null,
+            new MBeanOperationInfo[] { reset }, null);
+   }
+
+   private static long toMicros(long nanos) {
+      return TimeUnit.NANOSECONDS.toMicros(nanos);
+   }
+}
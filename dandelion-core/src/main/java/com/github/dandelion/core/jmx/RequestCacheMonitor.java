@@ -0,0 +1,118 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.jmx;
+
+import java.util.Map;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.cache.AbstractRequestCache;
+import com.github.dandelion.core.cache.RequestCache;
+
+/**
+ * <p>
+ * Exposes the statistics of the {@link RequestCache} of a {@link Context}.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class RequestCacheMonitor implements RequestCacheMonitorMBean {
+
+   private final Context context;
+
+   public RequestCacheMonitor(Context context) {
+      this.context = context;
+   }
+
+   @Override
+   public String getCacheName() {
+      return context.getCache().getCacheName();
+   }
+
+   @Override
+   public int getSize() {
+      return context.getCache().getAll().size();
+   }
+
+   @Override
+   public long getGetCount() {
+      return context.getCache().getGetCount().get();
+   }
+
+   @Override
+   public long getPutCount() {
+      return context.getCache().getPutCount().get();
+   }
+
+   @Override
+   public long getHitCount() {
+      return context.getCache().getHitCount().get();
+   }
+
+   @Override
+   public long getMissCount() {
+      return context.getCache().getMissCount().get();
+   }
+
+   @Override
+   public double getHitRatio() {
+      return ratio(getHitCount(), getGetCount());
+   }
+
+   @Override
+   public long getEvictionCount() {
+      RequestCache cache = context.getCache();
+      return cache instanceof AbstractRequestCache ? ((AbstractRequestCache) cache).getEvictionCount().get() : 0;
+   }
+
+   @Override
+   public String[] dumpHottestKeys(int limit) {
+      RequestCache cache = context.getCache();
+      if (!(cache instanceof AbstractRequestCache)) {
+         return new String[0];
+      }
+
+      Map<String, Long> hottestKeys = ((AbstractRequestCache) cache).getHottestKeys(limit);
+      String[] dump = new String[hottestKeys.size()];
+      int i = 0;
+      for (Map.Entry<String, Long> entry : hottestKeys.entrySet()) {
+         dump[i++] = entry.getValue() + " " + entry.getKey();
+      }
+      return dump;
+   }
+
+   @Override
+   public void clear() {
+      context.getCacheManager().clearCache();
+   }
+
+   static double ratio(long part, long total) {
+      return total == 0 ? 0 : (double) part / total;
+   }
+}
@@ -0,0 +1,164 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.jmx;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.web.WebConstants;
+
+/**
+ * <p>
+ * Synthetic GET request on the root of the web application, used to map
+ * assets outside of any actual request, e.g. when a bundle is warmed through
+ * JMX.
+ * </p>
+ * <p>
+ * Only the attributes, the servlet context and the URI-related methods are
+ * backed by actual values. All other methods return {@code null} or the
+ * default value of their return type.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+final class WarmupRequest implements InvocationHandler {
+
+   private final ServletContext servletContext;
+   private final Map<String, Object> attributes;
+
+   private WarmupRequest(ServletContext servletContext) {
+      this.servletContext = servletContext;
+      this.attributes = new ConcurrentHashMap<String, Object>();
+   }
+
+   /**
+    * @param context
+    *           The Dandelion context.
+    * @return a new synthetic request bound to the given context.
+    */
+   static HttpServletRequest create(Context context) {
+      ServletContext servletContext = context.getFilterConfig().getServletContext();
+      HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(WarmupRequest.class.getClassLoader(),
+            new Class<?>[] { HttpServletRequest.class }, new WarmupRequest(servletContext));
+      request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, context);
+      return request;
+   }
+
+   @Override
+   public Object invoke(Object proxy, Method method, Object[] args) {
+
+      String name = method.getName();
+      String contextPath = servletContext.getContextPath();
+
+      if ("getAttribute".equals(name)) {
+         return attributes.get(args[0]);
+      }
+      else if ("setAttribute".equals(name)) {
+         if (args[1] == null) {
+            attributes.remove(args[0]);
+         }
+         else {
+            attributes.put((String) args[0], args[1]);
+         }
+         return null;
+      }
+      else if ("removeAttribute".equals(name)) {
+         attributes.remove(args[0]);
+         return null;
+      }
+      else if ("getAttributeNames".equals(name)) {
+         return Collections.enumeration(attributes.keySet());
+      }
+      else if ("getServletContext".equals(name)) {
+         return servletContext;
+      }
+      else if ("getContextPath".equals(name)) {
+         return contextPath;
+      }
+      else if ("getRequestURI".equals(name)) {
+         return contextPath + "/";
+      }
+      else if ("getRequestURL".equals(name)) {
+         return new StringBuffer("http://localhost").append(contextPath).append("/");
+      }
+      else if ("getServletPath".equals(name)) {
+         return "/";
+      }
+      else if ("getMethod".equals(name)) {
+         return "GET";
+      }
+      else if ("getScheme".equals(name)) {
+         return "http";
+      }
+      else if ("getLocale".equals(name)) {
+         return Locale.getDefault();
+      }
+      else if ("getParameterMap".equals(name)) {
+         return Collections.emptyMap();
+      }
+      else if ("getHeaders".equals(name) || "getHeaderNames".equals(name) || "getParameterNames".equals(name)
+            || "getLocales".equals(name)) {
+         return Collections.enumeration(Collections.emptyList());
+      }
+      else if ("hashCode".equals(name)) {
+         return System.identityHashCode(proxy);
+      }
+      else if ("equals".equals(name)) {
+         return proxy == args[0];
+      }
+      else if ("toString".equals(name)) {
+         return "WarmupRequest[" + contextPath + "/]";
+      }
+
+      return defaultValue(method.getReturnType());
+   }
+
+   private static Object defaultValue(Class<?> type) {
+      if (type == boolean.class) {
+         return Boolean.FALSE;
+      }
+      else if (type == int.class) {
+         return 0;
+      }
+      else if (type == long.class) {
+         return 0L;
+      }
+      return null;
+   }
+}
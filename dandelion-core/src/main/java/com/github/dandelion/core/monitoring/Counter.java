@@ -0,0 +1,149 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Monotonic counter optimized for concurrent updates.
+ * </p>
+ * <p>
+ * Updates are spread over several cells, selected using the identifier of the
+ * current thread, so that threads updating the same counter rarely contend on
+ * the same memory location. Each cell is padded to its own cache line. The
+ * value of the counter is the sum of all cells. Updates never allocate.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public final class Counter {
+
+   /**
+    * Shared counter returned when metrics are disabled, that ignores all
+    * updates.
+    */
+   public static final Counter DISABLED = new Counter(false);
+
+   /**
+    * Number of longs between two cells, so that each cell lives in its own
+    * 64-byte cache line.
+    */
+   private static final int PADDING = 8;
+
+   /**
+    * Maximum number of cells of a counter.
+    */
+   private static final int MAX_CELLS = 64;
+
+   private static final int CELL_COUNT;
+
+   static {
+      int target = Math.min(Runtime.getRuntime().availableProcessors() * 2, MAX_CELLS);
+      int cellCount = 1;
+      while (cellCount < target) {
+         cellCount <<= 1;
+      }
+      CELL_COUNT = cellCount;
+   }
+
+   private final boolean enabled;
+   private final AtomicLongArray cells;
+
+   public Counter() {
+      this(true);
+   }
+
+   private Counter(boolean enabled) {
+      this.enabled = enabled;
+      this.cells = new AtomicLongArray(enabled ? CELL_COUNT * PADDING : 0);
+   }
+
+   /**
+    * <p>
+    * Increments the counter by one.
+    * </p>
+    */
+   public void increment() {
+      add(1);
+   }
+
+   /**
+    * <p>
+    * Increments the counter by the given amount.
+    * </p>
+    * 
+    * @param delta
+    *           The amount to add.
+    */
+   public void add(long delta) {
+      if (enabled) {
+         cells.getAndAdd(cellIndex(), delta);
+      }
+   }
+
+   /**
+    * @return the current value of the counter, i.e. the sum of all cells. The
+    *         sum is not an atomic snapshot when updates are concurrent.
+    */
+   public long sum() {
+      long sum = 0;
+      for (int i = 0; i < cells.length(); i += PADDING) {
+         sum += cells.get(i);
+      }
+      return sum;
+   }
+
+   /**
+    * <p>
+    * Resets all cells to zero.
+    * </p>
+    */
+   public void reset() {
+      for (int i = 0; i < cells.length(); i += PADDING) {
+         cells.set(i, 0);
+      }
+   }
+
+   public boolean isEnabled() {
+      return enabled;
+   }
+
+   private static int cellIndex() {
+      long id = Thread.currentThread().getId();
+      int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+      return ((hash ^ (hash >>> 16)) & (CELL_COUNT - 1)) * PADDING;
+   }
+
+   @Override
+   public String toString() {
+      return String.valueOf(sum());
+   }
+}
@@ -0,0 +1,165 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.monitoring;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.dandelion.core.Context;
+
+/**
+ * <p>
+ * Registry of all the {@link Counter}s and {@link Timer}s of a Dandelion
+ * {@link Context}.
+ * </p>
+ * <p>
+ * Metrics are created on first access and then shared. As the lookup relies
+ * on a name, instrumented components are expected to resolve their metrics
+ * once, typically during their initialization, and keep a reference on them.
+ * </p>
+ * <p>
+ * When metrics are disabled, the registry hands out the shared
+ * {@link Counter#DISABLED} and {@link Timer#DISABLED} instances, which ignore
+ * all updates, and stays empty.
+ * </p>
+ * 
+ * @since 1.1.2
+ * @see MetricsReporter
+ */
+public final class MetricRegistry {
+
+   /**
+    * Registry used when metrics are disabled.
+    */
+   public static final MetricRegistry DISABLED = new MetricRegistry(false);
+
+   private final boolean enabled;
+   private final ConcurrentMap<String, Counter> counters;
+   private final ConcurrentMap<String, Timer> timers;
+
+   public MetricRegistry(boolean enabled) {
+      this.enabled = enabled;
+      this.counters = new ConcurrentHashMap<String, Counter>();
+      this.timers = new ConcurrentHashMap<String, Timer>();
+   }
+
+   /**
+    * <p>
+    * Returns the registry of the given context, or the {@link #DISABLED} one
+    * if the context doesn't have any, e.g. while it is being initialized.
+    * </p>
+    * 
+    * @param context
+    *           The Dandelion context.
+    * @return the registry to use, never {@code null}.
+    */
+   public static MetricRegistry of(Context context) {
+      MetricRegistry registry = context != null ? context.getMetricRegistry() : null;
+      return registry != null ? registry : DISABLED;
+   }
+
+   /**
+    * @param name
+    *           The name of the counter.
+    * @return the counter registered under the given name, created if needed.
+    */
+   public Counter counter(String name) {
+      if (!enabled) {
+         return Counter.DISABLED;
+      }
+
+      Counter counter = counters.get(name);
+      if (counter == null) {
+         Counter newCounter = new Counter();
+         counter = counters.putIfAbsent(name, newCounter);
+         if (counter == null) {
+            counter = newCounter;
+         }
+      }
+      return counter;
+   }
+
+   /**
+    * @param name
+    *           The name of the timer.
+    * @return the timer registered under the given name, created if needed.
+    */
+   public Timer timer(String name) {
+      if (!enabled) {
+         return Timer.DISABLED;
+      }
+
+      Timer timer = timers.get(name);
+      if (timer == null) {
+         Timer newTimer = new Timer();
+         timer = timers.putIfAbsent(name, newTimer);
+         if (timer == null) {
+            timer = newTimer;
+         }
+      }
+      return timer;
+   }
+
+   /**
+    * @return all registered counters, sorted by name.
+    */
+   public SortedMap<String, Counter> getCounters() {
+      return Collections.unmodifiableSortedMap(new TreeMap<String, Counter>(counters));
+   }
+
+   /**
+    * @return all registered timers, sorted by name.
+    */
+   public SortedMap<String, Timer> getTimers() {
+      return Collections.unmodifiableSortedMap(new TreeMap<String, Timer>(timers));
+   }
+
+   /**
+    * <p>
+    * Resets all registered metrics, which remain registered.
+    * </p>
+    */
+   public void reset() {
+      for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+         entry.getValue().reset();
+      }
+      for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+         entry.getValue().reset();
+      }
+   }
+
+   public boolean isEnabled() {
+      return enabled;
+   }
+}
@@ -0,0 +1,76 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.monitoring;
+
+import com.github.dandelion.core.Context;
+
+/**
+ * <p>
+ * SPI allowing to bridge the Dandelion metrics to an external monitoring
+ * system.
+ * </p>
+ * <p>
+ * All implementations available in the classpath, declared in a
+ * {@code META-INF/services/com.github.dandelion.core.monitoring.MetricsReporter}
+ * file, are started once the {@link Context} is initialized, provided that
+ * metrics are enabled, and stopped when the context is destroyed.
+ * Implementations typically either register the metrics of the
+ * {@link MetricRegistry} as gauges of the target system or periodically poll
+ * and publish them.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public interface MetricsReporter {
+
+   /**
+    * @return the name of the reporter, used for logging.
+    */
+   String getName();
+
+   /**
+    * <p>
+    * Starts reporting the metrics of the given registry.
+    * </p>
+    * 
+    * @param registry
+    *           The registry holding all metrics.
+    * @param context
+    *           The Dandelion context.
+    */
+   void start(MetricRegistry registry, Context context);
+
+   /**
+    * <p>
+    * Stops reporting and releases all resources held by the reporter.
+    * </p>
+    */
+   void stop();
+}
@@ -0,0 +1,247 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Latency histogram with fixed buckets.
+ * </p>
+ * <p>
+ * Durations are recorded in nanoseconds in buckets whose bounds are powers of
+ * two of microseconds: the first bucket holds the durations under 1&micro;s,
+ * the bucket {@code i} the durations between 2<sup>i-1</sup> and
+ * 2<sup>i</sup>&micro;s and the last one all the durations above
+ * 2<sup>{@value #BUCKET_COUNT}-2</sup>&micro;s (about a minute). Percentiles
+ * are therefore approximated by the upper bound of the bucket they fall in.
+ * Recording never allocates.
+ * </p>
+ * <p>
+ * Typical usage:
+ * </p>
+ * 
+ * <pre>
+ * long start = timer.start();
+ * try {
+ *    // timed code
+ * }
+ * finally {
+ *    timer.stop(start);
+ * }
+ * </pre>
+ * 
+ * @since 1.1.2
+ */
+public final class Timer {
+
+   /**
+    * Shared timer returned when metrics are disabled, that ignores all
+    * recordings.
+    */
+   public static final Timer DISABLED = new Timer(false);
+
+   /**
+    * Number of buckets of the histogram.
+    */
+   public static final int BUCKET_COUNT = 28;
+
+   private final boolean enabled;
+   private final AtomicLongArray buckets;
+   private final Counter count;
+   private final Counter totalTime;
+   private final AtomicLong maxTime;
+
+   public Timer() {
+      this(true);
+   }
+
+   private Timer(boolean enabled) {
+      this.enabled = enabled;
+      this.buckets = new AtomicLongArray(BUCKET_COUNT);
+      this.count = new Counter();
+      this.totalTime = new Counter();
+      this.maxTime = new AtomicLong();
+   }
+
+   /**
+    * @return the start time to pass to {@link #stop(long)}, or {@code 0} if the
+    *         timer is disabled.
+    */
+   public long start() {
+      return enabled ? System.nanoTime() : 0L;
+   }
+
+   /**
+    * <p>
+    * Records the time elapsed since the given start time.
+    * </p>
+    * 
+    * @param start
+    *           The value returned by {@link #start()}.
+    */
+   public void stop(long start) {
+      if (enabled) {
+         record(System.nanoTime() - start);
+      }
+   }
+
+   /**
+    * <p>
+    * Records a duration.
+    * </p>
+    * 
+    * @param nanos
+    *           The duration to record, in nanoseconds.
+    */
+   public void record(long nanos) {
+      if (!enabled || nanos < 0) {
+         return;
+      }
+
+      buckets.incrementAndGet(bucketIndex(nanos));
+      count.increment();
+      totalTime.add(nanos);
+
+      long max = maxTime.get();
+      while (nanos > max && !maxTime.compareAndSet(max, nanos)) {
+         max = maxTime.get();
+      }
+   }
+
+   /**
+    * @return the number of recorded durations.
+    */
+   public long getCount() {
+      return count.sum();
+   }
+
+   /**
+    * @return the sum of all recorded durations, in nanoseconds.
+    */
+   public long getTotalTime() {
+      return totalTime.sum();
+   }
+
+   /**
+    * @return the longest recorded duration, in nanoseconds.
+    */
+   public long getMaxTime() {
+      return maxTime.get();
+   }
+
+   /**
+    * @return the mean of all recorded durations, in nanoseconds.
+    */
+   public long getMeanTime() {
+      long c = getCount();
+      return c == 0 ? 0 : getTotalTime() / c;
+   }
+
+   /**
+    * <p>
+    * Approximates the given percentile of the recorded durations using the
+    * upper bound of the bucket it falls in, never above the longest recorded
+    * duration.
+    * </p>
+    * 
+    * @param percentile
+    *           The percentile, between 0 and 1, e.g. {@code 0.99}.
+    * @return the approximated percentile, in nanoseconds.
+    */
+   public long getPercentile(double percentile) {
+      long[] counts = getBucketCounts();
+      long total = 0;
+      for (long c : counts) {
+         total += c;
+      }
+      if (total == 0) {
+         return 0;
+      }
+
+      long rank = Math.max(1, (long) Math.ceil(percentile * total));
+      long cumulated = 0;
+      for (int i = 0; i < counts.length; i++) {
+         cumulated += counts[i];
+         if (cumulated >= rank) {
+            return Math.min(getBucketUpperBound(i), getMaxTime());
+         }
+      }
+      return getMaxTime();
+   }
+
+   /**
+    * @return a copy of the number of durations recorded in each bucket.
+    */
+   public long[] getBucketCounts() {
+      long[] counts = new long[BUCKET_COUNT];
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+         counts[i] = buckets.get(i);
+      }
+      return counts;
+   }
+
+   /**
+    * <p>
+    * Resets the histogram.
+    * </p>
+    */
+   public void reset() {
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+         buckets.set(i, 0);
+      }
+      count.reset();
+      totalTime.reset();
+      maxTime.set(0);
+   }
+
+   public boolean isEnabled() {
+      return enabled;
+   }
+
+   /**
+    * @param index
+    *           The index of a bucket.
+    * @return the exclusive upper bound of the bucket, in nanoseconds.
+    */
+   public static long getBucketUpperBound(int index) {
+      if (index >= BUCKET_COUNT - 1) {
+         return Long.MAX_VALUE;
+      }
+      return (1L << index) * 1000L;
+   }
+
+   static int bucketIndex(long nanos) {
+      long micros = nanos / 1000L;
+      int index = 64 - Long.numberOfLeadingZeros(micros);
+      return Math.min(index, BUCKET_COUNT - 1);
+   }
+}
@@ -33,13 +33,18 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 
+import com.github.dandelion.core.monitoring.Counter;
+import com.github.dandelion.core.monitoring.MetricRegistry;
+
 /**
  * <p>
  * Abstract asset storage in charge of manipulating actual implementations of
  * {@link AssetStorage}.
  * </p>
  * <p>
- * This class also handles logging and access statistics.
+ * This class also handles logging and access statistics, which are also
+ * reported to the {@link MetricRegistry} once
+ * {@link #initMetrics(MetricRegistry)} has been called.
  * </p>
  * <p>
  * Custom implementations should extends this class instead of implementing
@@ -55,6 +60,10 @@ public abstract class AbstractAssetStorage implements AssetStorage {
    private AtomicLong putCount;
    private AtomicLong hitCount;
    private AtomicLong missCount;
+   private Counter getMetric = Counter.DISABLED;
+   private Counter putMetric = Counter.DISABLED;
+   private Counter hitMetric = Counter.DISABLED;
+   private Counter missMetric = Counter.DISABLED;
 
    public AbstractAssetStorage() {
       super();
@@ -64,21 +73,39 @@ public abstract class AbstractAssetStorage implements AssetStorage {
       this.missCount = new AtomicLong(0);
    }
 
+   /**
+    * <p>
+    * Binds the access statistics of the storage to the given registry.
+    * </p>
+    * 
+    * @param registry
+    *           The registry of the Dandelion context.
+    */
+   public void initMetrics(MetricRegistry registry) {
+      this.getMetric = registry.counter("storage.gets");
+      this.putMetric = registry.counter("storage.puts");
+      this.hitMetric = registry.counter("storage.hits");
+      this.missMetric = registry.counter("storage.misses");
+   }
+
    protected abstract Logger getLogger();
 
    @Override
    public StorageEntry get(String cacheKey) {
 
       this.getCount.incrementAndGet();
+      this.getMetric.increment();
       StorageEntry element = doGet(cacheKey);
 
       if (element == null) {
          this.missCount.incrementAndGet();
+         this.missMetric.increment();
          getLogger().trace("Storage miss for key \"{}\"", cacheKey);
          return null;
       }
 
       this.hitCount.incrementAndGet();
+      this.hitMetric.increment();
       getLogger().trace("Storage hit for key \"{}\"", cacheKey);
       return element;
    }
@@ -86,6 +113,7 @@ public abstract class AbstractAssetStorage implements AssetStorage {
    @Override
    public void put(String cacheKey, StorageEntry element) {
       this.putCount.incrementAndGet();
+      this.putMetric.increment();
       int newSize = doPut(cacheKey, element);
       getLogger().trace("Added storage entry for key \"{}\". New size is {}.", cacheKey, newSize);
    }
@@ -110,4 +138,20 @@ public abstract class AbstractAssetStorage implements AssetStorage {
    protected abstract void doRemove(String cacheKey);
 
    protected abstract void doClear();
+
+   public AtomicLong getGetCount() {
+      return getCount;
+   }
+
+   public AtomicLong getPutCount() {
+      return putCount;
+   }
+
+   public AtomicLong getHitCount() {
+      return hitCount;
+   }
+
+   public AtomicLong getMissCount() {
+      return missCount;
+   }
 }
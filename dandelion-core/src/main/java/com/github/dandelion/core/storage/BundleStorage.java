@@ -29,28 +29,28 @@
  */
 package com.github.dandelion.core.storage;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.cache.support.ConcurrentLruCache;
 import com.github.dandelion.core.reporting.Alert;
 import com.github.dandelion.core.reporting.Alert.AlertType;
 import com.github.dandelion.core.reporting.Suggestion;
 import com.github.dandelion.core.storage.support.BundleDag;
-import com.github.dandelion.core.storage.support.BundleUtils;
+import com.github.dandelion.core.storage.support.BundleSuggestionIndex;
 import com.github.dandelion.core.storage.support.TopologicalSorter;
-import com.github.dandelion.core.util.JsonUtils;
-import com.github.dandelion.core.util.ResourceUtils;
-import com.github.dandelion.core.util.scanner.ClasspathResourceScanner;
 
 /**
  * <p>
@@ -65,6 +65,12 @@ import com.github.dandelion.core.util.scanner.ClasspathResourceScanner;
  * <li>query the {@link BundleDag} on the lookout for bundles</li>
  * <li>query the {@link BundleDag} on the lookout for alerts</li>
  * </ul>
+ * <p>
+ * A bundle storage is filled once, then {@link #freeze() frozen} before being
+ * published by the {@link com.github.dandelion.core.Context}. Reloading bundles
+ * builds a new storage aside and replaces the published one, so that readers
+ * never see a partially built storage.
+ * </p>
  * 
  * @author Thibault Duchateau
  * @since 0.10.0
@@ -75,8 +81,34 @@ public class BundleStorage {
 
    private final BundleDag bundleDag;
 
+   /**
+    * Index of all assets stored in the {@link BundleDag}, by lower-cased name
+    * and type, used to resolve asset overrides.
+    */
+   private final Map<String, IndexedAsset> assetIndex;
+
+   /**
+    * Maximum number of distinct sets of requested bundles whose alerts are
+    * cached.
+    */
+   private static final int ALERTS_CACHE_SIZE = 500;
+
+   /**
+    * Alerts already computed once the storage is frozen, by set of requested
+    * bundles.
+    */
+   private final ConcurrentLruCache<String, Set<Alert>> alertsCache;
+
+   /**
+    * Index of the bundle definitions used to build suggestions, created on
+    * first use if not provided.
+    */
+   private volatile BundleSuggestionIndex suggestionIndex;
+
    public BundleStorage() {
+      this.assetIndex = new HashMap<String, IndexedAsset>();
       this.bundleDag = new BundleDag();
+      this.alertsCache = new ConcurrentLruCache<String, Set<Alert>>(ALERTS_CACHE_SIZE);
    }
 
    /**
@@ -93,6 +125,8 @@ public class BundleStorage {
     */
    public BundleDag storeBundles(List<BundleStorageUnit> bundleStorageUnits) {
 
+      checkNotFrozen();
+
       for (BundleStorageUnit bsu : bundleStorageUnits) {
 
          BundleStorageUnit bsuToAdd = bundleDag.addVertexIfNeeded(bsu);
@@ -114,47 +148,38 @@ public class BundleStorage {
          // Let's see if each asset already exists in any bundle
          for (AssetStorageUnit asu : bsu.getAssetStorageUnits()) {
 
-            boolean assetAlreadyExists = false;
-            for (BundleStorageUnit existingBundle : bundleDag.getVerticies()) {
-               for (AssetStorageUnit existingAsu : existingBundle.getAssetStorageUnits()) {
-
-                  // If the asset has both the same name
-                  // (case-insensitive) and type, the old one is simply
-                  // overriden
-                  if (existingAsu.getName().equalsIgnoreCase(asu.getName())
-                        && existingAsu.getType().equals(asu.getType())) {
-
-                     LOG.trace(
-                           "Replacing asset '{}' ({}) from the bundle '{}' by the asset {} ({}) from the bundle {}.",
-                           existingAsu.getName(), existingAsu.getVersion(), existingBundle.getName(), asu.getName(),
-                           asu.getVersion(), bsuToAdd.getName());
-
-                     existingAsu.setVersion(asu.getVersion());
-                     existingAsu.setLocations(asu.getLocations());
-                     existingAsu.setDom(asu.getDom());
-                     existingAsu.setBundle(existingBundle.getName());
-                     existingAsu.setType(asu.getType());
-                     existingAsu.setAttributes(asu.getAttributes());
-                     existingAsu.setAttributesOnlyName(asu.getAttributesOnlyName());
-                     existingAsu.setCondition(asu.getCondition());
-                     existingAsu.setGeneratorUid(asu.getGeneratorUid());
-                     assetAlreadyExists = true;
-                     break;
-                  }
-               }
-
-               if (assetAlreadyExists) {
-                  break;
-               }
+            String assetKey = assetKey(asu);
+            IndexedAsset indexedAsset = assetIndex.get(assetKey);
+
+            // If the asset has both the same name (case-insensitive) and type,
+            // the old one is simply overriden
+            if (indexedAsset != null) {
+               AssetStorageUnit existingAsu = indexedAsset.asu;
+               BundleStorageUnit existingBundle = indexedAsset.bundle;
+
+               LOG.trace("Replacing asset '{}' ({}) from the bundle '{}' by the asset {} ({}) from the bundle {}.",
+                     existingAsu.getName(), existingAsu.getVersion(), existingBundle.getName(), asu.getName(),
+                     asu.getVersion(), bsuToAdd.getName());
+
+               existingAsu.setVersion(asu.getVersion());
+               existingAsu.setLocations(asu.getLocations());
+               existingAsu.setDom(asu.getDom());
+               existingAsu.setBundle(existingBundle.getName());
+               existingAsu.setType(asu.getType());
+               existingAsu.setAttributes(asu.getAttributes());
+               existingAsu.setAttributesOnlyName(asu.getAttributesOnlyName());
+               existingAsu.setCondition(asu.getCondition());
+               existingAsu.setGeneratorUid(asu.getGeneratorUid());
             }
 
             // If the asset doesn't already exist, we just add it to the
             // current bundle
-            if (!assetAlreadyExists) {
+            else {
 
                LOG.trace("Adding {} '{}' ({}) to the bundle '{}'", asu.getType(), asu.getName(), asu.getVersion(),
                      bsuToAdd.getName());
                bsuToAdd.getAssetStorageUnits().add(asu);
+               assetIndex.put(assetKey, new IndexedAsset(bsuToAdd, asu));
             }
          }
       }
@@ -191,15 +216,50 @@ public class BundleStorage {
       return Collections.emptySet();
    }
 
+   /**
+    * <p>
+    * Computes the alerts related to the given requested bundles.
+    * </p>
+    * <p>
+    * Once the storage is frozen, the alerts only depend on the requested
+    * bundles, regardless of their order. They are thus computed once per set
+    * of requested bundles and cached.
+    * </p>
+    * 
+    * @param requestedBundleNames
+    *           The names of the bundles requested for the current request.
+    * @return an unmodifiable set of alerts, possibly empty.
+    */
    public Set<Alert> alertsFor(String... requestedBundleNames) {
 
+      String cacheKey = null;
+      if (isFrozen()) {
+         cacheKey = alertsCacheKey(requestedBundleNames);
+         Set<Alert> cachedAlerts = alertsCache.get(cacheKey);
+         if (cachedAlerts != null) {
+            return cachedAlerts;
+         }
+      }
+
       Set<Alert> errors = new HashSet<Alert>();
 
       for (String requestedBundleName : requestedBundleNames) {
          errors.addAll(alertsFor(requestedBundleName, requestedBundleNames));
       }
 
-      return errors;
+      Set<Alert> alerts = errors.isEmpty() ? Collections.<Alert> emptySet() : Collections.unmodifiableSet(errors);
+      if (cacheKey != null) {
+         alertsCache.put(cacheKey, alerts);
+      }
+      return alerts;
+   }
+
+   private static String alertsCacheKey(String... requestedBundleNames) {
+      StringBuilder cacheKey = new StringBuilder();
+      for (String requestedBundleName : new TreeSet<String>(Arrays.asList(requestedBundleNames))) {
+         cacheKey.append(requestedBundleName).append(',');
+      }
+      return cacheKey.toString();
    }
 
    public Set<Alert> alertsFor(String requestedBundleName, String... requestedBundleNames) {
@@ -227,49 +287,46 @@ public class BundleStorage {
    public Set<Alert> findSuggestion(Alert alert, Set<Alert> existingAlerts, String bundleName,
          String... requestedBundleNames) {
 
-      LOG.trace("Scanning classpath for any suggestions with the name \"{}\" (exact match)", bundleName + ".json");
-      Set<String> suggestions = ClasspathResourceScanner.findResourcePaths("dandelion", null, bundleName + ".json");
+      LOG.trace("Looking for any suggestions with the name \"{}\" (exact match)", bundleName + ".json");
+      for (Suggestion sug : getSuggestionIndex().suggestionsFor(bundleName)) {
 
-      if (suggestions != null) {
-         for (String suggestion : suggestions) {
+         alert.addSuggestion(sug);
 
-            try {
-               Suggestion sug = new Suggestion();
-               String json = ResourceUtils.getContentFromInputStream(Thread.currentThread().getContextClassLoader()
-                     .getResourceAsStream(suggestion));
-
-               sug.setSuggestedRawBundle(json);
-
-               ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-               InputStream configFileStream = classLoader.getResourceAsStream(suggestion);
-               BundleStorageUnit suggestedBsu = null;
-               suggestedBsu = JsonUtils.read(configFileStream, BundleStorageUnit.class);
-               suggestedBsu.setRelativePath(suggestion);
-               BundleUtils.finalize(suggestedBsu, null);
-
-               sug.setSuggestedBundle(suggestedBsu);
-               alert.addSuggestion(sug);
-
-               if (suggestedBsu != null && suggestedBsu.getDependencies() != null) {
-                  for (String dependency : suggestedBsu.getDependencies()) {
-                     if (!Arrays.asList(requestedBundleNames).contains(dependency)) {
-                        existingAlerts.addAll(alertsFor(dependency, requestedBundleNames));
-                     }
-                  }
+         BundleStorageUnit suggestedBsu = sug.getSuggestedBundle();
+         if (suggestedBsu != null && suggestedBsu.getDependencies() != null) {
+            for (String dependency : suggestedBsu.getDependencies()) {
+               if (!Arrays.asList(requestedBundleNames).contains(dependency)) {
+                  existingAlerts.addAll(alertsFor(dependency, requestedBundleNames));
                }
             }
-            catch (IOException e) {
-               throw new DandelionException("Unable to read JSON file at " + suggestion, e);
-            }
          }
       }
-      else {
-         LOG.trace("No suggestion found");
-      }
 
       return existingAlerts;
    }
 
+   /**
+    * @return the index used to build suggestions, created by scanning the
+    *         classpath if none has been set yet.
+    */
+   public BundleSuggestionIndex getSuggestionIndex() {
+      BundleSuggestionIndex index = suggestionIndex;
+      if (index == null) {
+         synchronized (this) {
+            index = suggestionIndex;
+            if (index == null) {
+               index = BundleSuggestionIndex.scan();
+               suggestionIndex = index;
+            }
+         }
+      }
+      return index;
+   }
+
+   public void setSuggestionIndex(BundleSuggestionIndex suggestionIndex) {
+      this.suggestionIndex = suggestionIndex;
+   }
+
    public Set<BundleStorageUnit> bundlesFor(String... bundleNames) {
 
       Set<BundleStorageUnit> retval = new LinkedHashSet<BundleStorageUnit>();
@@ -289,19 +346,97 @@ public class BundleStorage {
 
    public void consolidateBundles(List<BundleStorageUnit> allBundles) {
 
+      checkNotFrozen();
+
+      // The first raw bundle of a given name (case-insensitive) wins
+      Map<String, BundleStorageUnit> rawBundlesByName = new HashMap<String, BundleStorageUnit>(allBundles.size());
+      for (BundleStorageUnit rawBsu : allBundles) {
+         String bundleKey = rawBsu.getName().toLowerCase(Locale.ROOT);
+         if (!rawBundlesByName.containsKey(bundleKey)) {
+            rawBundlesByName.put(bundleKey, rawBsu);
+         }
+      }
+
       for (BundleStorageUnit bsu : bundleDag.getVerticies()) {
 
-         for (BundleStorageUnit rawBsu : allBundles) {
-            if (rawBsu.getName().equalsIgnoreCase(bsu.getName())) {
+         BundleStorageUnit rawBsu = rawBundlesByName.get(bsu.getName().toLowerCase(Locale.ROOT));
+         if (rawBsu != null) {
+
+            bsu.setDependencies(rawBsu.getDependencies());
+            bsu.setAssetStorageUnits(rawBsu.getAssetStorageUnits());
+            bsu.setRelativePath(rawBsu.getRelativePath());
+            bsu.setBundleLoaderOrigin(rawBsu.getBundleLoaderOrigin());
+            bsu.setVendor(rawBsu.isVendor());
+         }
+      }
+
+      // The asset sets of the bundles have been replaced
+      reindexAssets();
+   }
 
-               bsu.setDependencies(rawBsu.getDependencies());
-               bsu.setAssetStorageUnits(rawBsu.getAssetStorageUnits());
-               bsu.setRelativePath(rawBsu.getRelativePath());
-               bsu.setBundleLoaderOrigin(rawBsu.getBundleLoaderOrigin());
-               bsu.setVendor(rawBsu.isVendor());
-               break;
+   /**
+    * <p>
+    * Makes this storage read-only. The asset index, only needed while storing
+    * bundles, is released.
+    * </p>
+    */
+   public void freeze() {
+      bundleDag.freeze();
+      assetIndex.clear();
+   }
+
+   public boolean isFrozen() {
+      return bundleDag.isFrozen();
+   }
+
+   private void checkNotFrozen() {
+      if (bundleDag.isFrozen()) {
+         throw new IllegalStateException("The bundle storage is frozen and can't be modified");
+      }
+   }
+
+   /**
+    * <p>
+    * Rebuilds the asset index from the current content of the
+    * {@link BundleDag}, the first asset found for a given key being indexed.
+    * </p>
+    */
+   private void reindexAssets() {
+      assetIndex.clear();
+      for (BundleStorageUnit bsu : bundleDag.getVerticies()) {
+         if (bsu.getAssetStorageUnits() != null) {
+            for (AssetStorageUnit asu : bsu.getAssetStorageUnits()) {
+               String assetKey = assetKey(asu);
+               if (!assetIndex.containsKey(assetKey)) {
+                  assetIndex.put(assetKey, new IndexedAsset(bsu, asu));
+               }
             }
          }
       }
    }
+
+   /**
+    * @return the key under which an asset is indexed: its lower-cased name and
+    *         its type.
+    */
+   private static String assetKey(AssetStorageUnit asu) {
+      return asu.getName().toLowerCase(Locale.ROOT) + '|' + asu.getType();
+   }
+
+   /**
+    * <p>
+    * Asset stored in the {@link BundleDag}, along with the bundle it belongs
+    * to.
+    * </p>
+    */
+   private static class IndexedAsset {
+
+      private final BundleStorageUnit bundle;
+      private final AssetStorageUnit asu;
+
+      private IndexedAsset(BundleStorageUnit bundle, AssetStorageUnit asu) {
+         this.bundle = bundle;
+         this.asu = asu;
+      }
+   }
 }
@@ -32,6 +32,7 @@ package com.github.dandelion.core.storage;
 import java.io.Serializable;
 
 import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.util.ContentHasher;
 
 /**
  * <p>
@@ -59,6 +60,11 @@ public class StorageEntry implements Serializable {
     */
    private final String contents;
 
+   /**
+    * The hash of the asset contents, computed by the {@link ContentHasher}.
+    */
+   private String hash;
+
    /**
     * <p>
     * Creates a new storage entry.
@@ -70,9 +76,29 @@ public class StorageEntry implements Serializable {
     *           The asset contents.
     */
    public StorageEntry(Asset asset, String contents) {
+      this(asset, contents, null);
+   }
+
+   /**
+    * <p>
+    * Creates a new storage entry whose contents hash has already been
+    * computed, e.g. while the contents were written.
+    * </p>
+    * 
+    * @param asset
+    *           The asset metadata.
+    * @param contents
+    *           The asset contents.
+    * @param hash
+    *           The hash of the asset contents, computed by the
+    *           {@link ContentHasher}, or {@code null} to compute it when
+    *           first needed.
+    */
+   public StorageEntry(Asset asset, String contents, String hash) {
       super();
       this.asset = asset;
       this.contents = contents;
+      this.hash = hash;
    }
 
    /**
@@ -97,4 +123,19 @@ public class StorageEntry implements Serializable {
       return contents;
    }
 
+   /**
+    * <p>
+    * Retrieves the hash of the asset contents, shared by the versioning
+    * strategies and the ETags.
+    * </p>
+    * 
+    * @return the hash of the asset contents, as a 32 characters hex string.
+    */
+   public String getHash() {
+      if (hash == null && contents != null) {
+         hash = ContentHasher.hash(contents);
+      }
+      return hash;
+   }
+
 }
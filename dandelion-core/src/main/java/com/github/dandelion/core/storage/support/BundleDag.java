@@ -30,6 +30,7 @@
 package com.github.dandelion.core.storage.support;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -58,6 +59,26 @@ public class BundleDag {
 
    private Map<String, BundleStorageUnit> vertexMap = new HashMap<String, BundleStorageUnit>();
    private List<BundleStorageUnit> vertexList = new ArrayList<BundleStorageUnit>();
+   private boolean frozen;
+
+   /**
+    * <p>
+    * Makes the graph read-only. Once frozen, the graph can be safely shared
+    * between threads as long as it is published through a volatile reference,
+    * since it will never be modified again.
+    * </p>
+    */
+   public void freeze() {
+      if (!frozen) {
+         vertexMap = Collections.unmodifiableMap(new HashMap<String, BundleStorageUnit>(vertexMap));
+         vertexList = Collections.unmodifiableList(new ArrayList<BundleStorageUnit>(vertexList));
+         frozen = true;
+      }
+   }
+
+   public boolean isFrozen() {
+      return frozen;
+   }
 
    public List<BundleStorageUnit> getVerticies() {
       return vertexList;
@@ -74,6 +95,11 @@ public class BundleDag {
    public BundleStorageUnit addVertexIfNeeded(String bundleName) {
       BundleStorageUnit retValue = null;
 
+      if (frozen && !vertexMap.containsKey(bundleName)) {
+         throw new IllegalStateException("The bundle graph is frozen, the bundle \"" + bundleName
+               + "\" can't be added");
+      }
+
       // Check if vertex is already in the DAG
       if (vertexMap.containsKey(bundleName)) {
          retValue = vertexMap.get(bundleName);
@@ -89,6 +115,10 @@ public class BundleDag {
 
    public void addEdge(BundleStorageUnit from, BundleStorageUnit to) {
 
+      if (frozen) {
+         throw new IllegalStateException("The bundle graph is frozen, no edge can be added");
+      }
+
       from.addEdgeTo(to);
       to.addEdgeFrom(from);
 
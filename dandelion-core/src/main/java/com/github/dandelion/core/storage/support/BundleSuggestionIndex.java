@@ -0,0 +1,203 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.storage.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.reporting.Suggestion;
+import com.github.dandelion.core.storage.BundleStorageUnit;
+import com.github.dandelion.core.util.ClassUtils;
+import com.github.dandelion.core.util.JsonUtils;
+import com.github.dandelion.core.util.ResourceUtils;
+import com.github.dandelion.core.util.scanner.ClasspathResourceScanner;
+
+/**
+ * <p>
+ * Index of all JSON bundle definitions available in the classpath, used to
+ * suggest a bundle definition when a requested bundle is missing.
+ * </p>
+ * <p>
+ * The classpath is scanned once, when the index is created. Each candidate
+ * bundle definition is then read and parsed the first time it is suggested
+ * only, and the resulting {@link Suggestion} is reused afterwards.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class BundleSuggestionIndex {
+
+   private static final Logger LOG = LoggerFactory.getLogger(BundleSuggestionIndex.class);
+
+   /**
+    * Classpath location scanned for bundle definitions.
+    */
+   public static final String LOCATION = "dandelion";
+
+   private static final String JSON_EXTENSION = ".json";
+
+   /**
+    * Paths of the bundle definitions, by lower-cased file name.
+    */
+   private final Map<String, List<String>> resourcePathsByName;
+
+   /**
+    * Suggestions already built, by resource path.
+    */
+   private final ConcurrentMap<String, Suggestion> suggestionsByPath;
+
+   /**
+    * @param resourcePaths
+    *           Classpath paths of the JSON bundle definitions to index.
+    */
+   public BundleSuggestionIndex(Set<String> resourcePaths) {
+      this.resourcePathsByName = new HashMap<String, List<String>>();
+      this.suggestionsByPath = new ConcurrentHashMap<String, Suggestion>();
+
+      // Sorted for the suggestions to be listed in a stable order
+      for (String resourcePath : new TreeSet<String>(resourcePaths)) {
+         String name = resourcePath.substring(resourcePath.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+         List<String> paths = resourcePathsByName.get(name);
+         if (paths == null) {
+            paths = new ArrayList<String>(1);
+            resourcePathsByName.put(name, paths);
+         }
+         paths.add(resourcePath);
+      }
+   }
+
+   /**
+    * <p>
+    * Scans the {@value #LOCATION} classpath location for all JSON bundle
+    * definitions.
+    * </p>
+    * 
+    * @return a new index.
+    */
+   public static BundleSuggestionIndex scan() {
+      Set<String> resourcePaths = ClasspathResourceScanner.findResourcePaths(LOCATION, null, null, JSON_EXTENSION);
+      LOG.debug("{} bundle definitions indexed for suggestions", resourcePaths.size());
+      return new BundleSuggestionIndex(resourcePaths);
+   }
+
+   /**
+    * @param bundleName
+    *           The name of a missing bundle.
+    * @return the suggestions built from all bundle definitions whose file name
+    *         matches the given bundle name (case-insensitive), possibly empty.
+    * @throws DandelionException
+    *            if a matching bundle definition can't be read.
+    */
+   public List<Suggestion> suggestionsFor(String bundleName) {
+      List<String> paths = resourcePathsByName.get((bundleName + JSON_EXTENSION).toLowerCase(Locale.ROOT));
+      if (paths == null) {
+         LOG.trace("No suggestion found for the bundle \"{}\"", bundleName);
+         return Collections.emptyList();
+      }
+
+      List<Suggestion> suggestions = new ArrayList<Suggestion>(paths.size());
+      for (String path : paths) {
+         Suggestion suggestion = suggestionsByPath.get(path);
+         if (suggestion == null) {
+            suggestion = createSuggestion(path);
+            Suggestion existing = suggestionsByPath.putIfAbsent(path, suggestion);
+            if (existing != null) {
+               suggestion = existing;
+            }
+         }
+         suggestions.add(suggestion);
+      }
+      return suggestions;
+   }
+
+   /**
+    * @return the number of indexed bundle definitions.
+    */
+   public int size() {
+      int size = 0;
+      for (List<String> paths : resourcePathsByName.values()) {
+         size += paths.size();
+      }
+      return size;
+   }
+
+   private static Suggestion createSuggestion(String resourcePath) {
+
+      LOG.trace("Reading the suggested bundle definition {}", resourcePath);
+      ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+      InputStream rawStream = null;
+      InputStream configFileStream = null;
+      try {
+         Suggestion suggestion = new Suggestion();
+         rawStream = classLoader.getResourceAsStream(resourcePath);
+         suggestion.setSuggestedRawBundle(ResourceUtils.getContentFromInputStream(rawStream));
+
+         configFileStream = classLoader.getResourceAsStream(resourcePath);
+         BundleStorageUnit suggestedBsu = JsonUtils.read(configFileStream, BundleStorageUnit.class);
+         suggestedBsu.setRelativePath(resourcePath);
+         BundleUtils.finalize(suggestedBsu, null);
+         suggestion.setSuggestedBundle(suggestedBsu);
+
+         return suggestion;
+      }
+      catch (IOException e) {
+         throw new DandelionException("Unable to read JSON file at " + resourcePath, e);
+      }
+      finally {
+         closeQuietly(rawStream);
+         closeQuietly(configFileStream);
+      }
+   }
+
+   private static void closeQuietly(InputStream stream) {
+      if (stream != null) {
+         try {
+            stream.close();
+         }
+         catch (IOException e) {
+            // Nothing to do
+         }
+      }
+   }
+}
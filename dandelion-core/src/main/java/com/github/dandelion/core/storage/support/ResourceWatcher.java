@@ -0,0 +1,310 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.storage.support;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.asset.locator.impl.ClasspathLocator;
+import com.github.dandelion.core.asset.locator.impl.FileLocator;
+import com.github.dandelion.core.asset.locator.impl.WebappLocator;
+import com.github.dandelion.core.config.DandelionConfig;
+import com.github.dandelion.core.storage.AssetStorage;
+import com.github.dandelion.core.storage.BundleStorage;
+import com.github.dandelion.core.storage.BundleStorageUnit;
+import com.github.dandelion.core.storage.StorageEntry;
+import com.github.dandelion.core.util.ClassUtils;
+import com.github.dandelion.core.util.PathUtils;
+import com.github.dandelion.core.util.StringUtils;
+
+/**
+ * <p>
+ * Watches the files backing the loaded bundles and the stored assets, and
+ * refreshes Dandelion as soon as one of them changes.
+ * </p>
+ * <ul>
+ * <li>When the JSON definition of a bundle changes, a new bundle storage is
+ * built and published, and the request cache is cleared since the bundle graph
+ * may have changed.</li>
+ * <li>When the file of an asset changes, only the storage entry of this asset
+ * and the cached pages that use it are evicted, so that it is reprocessed the
+ * next time it is requested.</li>
+ * </ul>
+ * <p>
+ * Only resources that can be resolved to a file are watched: bundles and
+ * assets located in classpath directories (not JARs), assets of the
+ * {@code webapp} locator in an exploded webapp, and assets of the {@code file}
+ * locator. Files are polled at a fixed interval, from a single daemon thread.
+ * </p>
+ * 
+ * @since 1.1.2
+ * @see DandelionConfig#TOOL_FILE_WATCHER
+ */
+public class ResourceWatcher implements Runnable {
+
+   private static final Logger LOG = LoggerFactory.getLogger(ResourceWatcher.class);
+
+   private final Context context;
+
+   /**
+    * Last modification date of the bundle files, by file.
+    */
+   private final Map<File, Long> bundleFiles = new HashMap<File, Long>();
+
+   /**
+    * Watched file and last modification date of the stored assets, by storage
+    * key.
+    */
+   private final Map<String, WatchedFile> assetFiles = new HashMap<String, WatchedFile>();
+
+   /**
+    * The bundle storage the bundle files have been collected from.
+    */
+   private BundleStorage bundleStorage;
+
+   private ScheduledExecutorService scheduler;
+
+   public ResourceWatcher(Context context) {
+      this.context = context;
+   }
+
+   /**
+    * <p>
+    * Takes a first snapshot of the watched files and starts polling them.
+    * </p>
+    * 
+    * @param interval
+    *           The interval, in milliseconds, between two checks.
+    */
+   public synchronized void start(long interval) {
+      check();
+      scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+         @Override
+         public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "dandelion-resource-watcher");
+            thread.setDaemon(true);
+            return thread;
+         }
+      });
+      scheduler.scheduleWithFixedDelay(this, interval, interval, TimeUnit.MILLISECONDS);
+   }
+
+   public synchronized void stop() {
+      if (scheduler != null) {
+         scheduler.shutdownNow();
+         scheduler = null;
+      }
+   }
+
+   @Override
+   public void run() {
+      try {
+         check();
+      }
+      catch (RuntimeException e) {
+         // A failing check must not stop the next ones
+         LOG.warn("Unable to refresh the modified bundles and assets", e);
+      }
+   }
+
+   /**
+    * <p>
+    * Checks all watched files once and refreshes what depends on the modified
+    * ones.
+    * </p>
+    * 
+    * @return {@code true} if a change has been detected, {@code false}
+    *         otherwise.
+    */
+   public synchronized boolean check() {
+      boolean bundlesChanged = checkBundles();
+      if (bundlesChanged) {
+         context.getCacheManager().clearCache();
+      }
+      boolean assetsChanged = checkAssets();
+
+      return bundlesChanged || assetsChanged;
+   }
+
+   private boolean checkBundles() {
+
+      if (bundleStorage != context.getBundleStorage()) {
+         // Bundles have been loaded or reloaded since the last check
+         snapshotBundleFiles();
+         return false;
+      }
+
+      List<File> modifiedFiles = new ArrayList<File>();
+      for (Map.Entry<File, Long> bundleFile : bundleFiles.entrySet()) {
+         if (bundleFile.getKey().lastModified() != bundleFile.getValue()) {
+            modifiedFiles.add(bundleFile.getKey());
+         }
+      }
+
+      if (!modifiedFiles.isEmpty()) {
+         LOG.info("Bundle files modified: {}. Reloading bundles...", modifiedFiles);
+         context.initBundleStorage();
+         snapshotBundleFiles();
+         return true;
+      }
+      return false;
+   }
+
+   private void snapshotBundleFiles() {
+      bundleStorage = context.getBundleStorage();
+      bundleFiles.clear();
+      for (BundleStorageUnit bsu : bundleStorage.getBundleDag().getVerticies()) {
+         File file = getClasspathFile(bsu.getRelativePath());
+         if (file != null) {
+            bundleFiles.put(file, file.lastModified());
+         }
+      }
+   }
+
+   private boolean checkAssets() {
+
+      AssetStorage assetStorage = context.getAssetStorage();
+      Set<String> storedKeys = new HashSet<String>();
+      List<String> staleKeys = new ArrayList<String>();
+
+      for (StorageEntry storageEntry : new ArrayList<StorageEntry>(assetStorage.getAll())) {
+         Asset asset = storageEntry.getAsset();
+         String storageKey = asset.getStorageKey();
+         if (storageKey == null) {
+            continue;
+         }
+         storedKeys.add(storageKey);
+
+         WatchedFile watchedFile = assetFiles.get(storageKey);
+         if (watchedFile == null) {
+            File file = getAssetFile(asset);
+            if (file != null) {
+               assetFiles.put(storageKey, new WatchedFile(file));
+            }
+         }
+         else if (watchedFile.isModified()) {
+            staleKeys.add(storageKey);
+         }
+      }
+
+      // Forget the assets that are no longer stored
+      assetFiles.keySet().retainAll(storedKeys);
+
+      for (String staleKey : staleKeys) {
+         LOG.info("Asset file modified: {}. The asset will be reprocessed", assetFiles.get(staleKey).file);
+         context.getCacheManager().invalidateAsset(staleKey);
+         assetFiles.remove(staleKey);
+      }
+
+      return !staleKeys.isEmpty();
+   }
+
+   /**
+    * @return the file backing the given asset, or {@code null} if the asset
+    *         can't be resolved to a file.
+    */
+   private File getAssetFile(Asset asset) {
+
+      String location = asset.getConfigLocation();
+      if (StringUtils.isBlank(location)) {
+         return null;
+      }
+
+      if (FileLocator.LOCATION_KEY.equals(asset.getConfigLocationKey())) {
+         return new File(location);
+      }
+      else if (ClasspathLocator.LOCATION_KEY.equals(asset.getConfigLocationKey())) {
+         return getClasspathFile(location);
+      }
+      else if (WebappLocator.LOCATION_KEY.equals(asset.getConfigLocationKey())) {
+         ServletContext servletContext = context.getFilterConfig().getServletContext();
+         String realPath = servletContext != null ? servletContext.getRealPath(location) : null;
+         return realPath != null ? new File(realPath) : null;
+      }
+      return null;
+   }
+
+   /**
+    * @return the file of the given classpath resource, or {@code null} if the
+    *         resource doesn't exist or isn't stored in a directory.
+    */
+   private static File getClasspathFile(String resourcePath) {
+
+      if (StringUtils.isBlank(resourcePath)) {
+         return null;
+      }
+
+      String path = resourcePath.startsWith("/") ? resourcePath.substring(1) : resourcePath;
+      URL url = ClassUtils.getDefaultClassLoader().getResource(path);
+      if (url != null && "file".equals(url.getProtocol())) {
+         return new File(PathUtils.toFilePath(url));
+      }
+      return null;
+   }
+
+   /**
+    * <p>
+    * A watched file along with the modification date it had when the watching
+    * started.
+    * </p>
+    */
+   private static class WatchedFile {
+
+      private final File file;
+      private final long lastModified;
+
+      private WatchedFile(File file) {
+         this.file = file;
+         this.lastModified = file.lastModified();
+      }
+
+      private boolean isModified() {
+         return file.lastModified() != lastModified;
+      }
+   }
+}
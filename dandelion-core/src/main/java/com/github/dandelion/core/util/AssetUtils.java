@@ -308,7 +308,7 @@ public final class AssetUtils {
     * 
     * @param asset
     *           The asset holding information used to generate the hash.
-    * @return a MD5 hash.
+    * @return a 128-bit hash, computed by the {@link ContentHasher}.
     */
    public static String generateStorageKey(Asset asset, HttpServletRequest request) {
 
@@ -323,7 +323,7 @@ public final class AssetUtils {
          keyContext.append(UrlUtils.getCurrentUri(request));
       }
 
-      return DigestUtils.md5Digest(keyContext.toString());
+      return ContentHasher.hash(keyContext);
    }
 
    public static AssetLocator getAssetLocator(Asset asset, Context context) {
@@ -29,8 +29,8 @@
  */
 package com.github.dandelion.core.util;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -51,7 +51,7 @@ public class BundleStorageLogBuilder extends LogBuilder {
 
    public BundleStorageLogBuilder() {
       super();
-      this.errorMap = new HashMap<String, Set<String>>();
+      this.errorMap = new LinkedHashMap<String, Set<String>>();
    }
 
    public void error(String errorType, String errorMessage) {
@@ -59,7 +59,7 @@ public class BundleStorageLogBuilder extends LogBuilder {
          errorMap.get(errorType).add(errorMessage);
       }
       else {
-         Set<String> errorMessages = new HashSet<String>();
+         Set<String> errorMessages = new LinkedHashSet<String>();
          errorMessages.add(errorMessage);
          errorMap.put(errorType, errorMessages);
       }
@@ -75,12 +75,32 @@ public class BundleStorageLogBuilder extends LogBuilder {
          errorMap.get(errorType).add(error.toString());
       }
       else {
-         Set<String> errorMessages = new HashSet<String>();
+         Set<String> errorMessages = new LinkedHashSet<String>();
          errorMessages.add(error.toString());
          errorMap.put(errorType, errorMessages);
       }
    }
 
+   /**
+    * <p>
+    * Appends all errors of the given log builder to this one, preserving their
+    * order.
+    * </p>
+    * 
+    * @param other
+    *           The log builder whose errors are appended.
+    */
+   public void merge(BundleStorageLogBuilder other) {
+      for (Map.Entry<String, Set<String>> entry : other.errorMap.entrySet()) {
+         if (errorMap.containsKey(entry.getKey())) {
+            errorMap.get(entry.getKey()).addAll(entry.getValue());
+         }
+         else {
+            errorMap.put(entry.getKey(), new LinkedHashSet<String>(entry.getValue()));
+         }
+      }
+   }
+
    @Override
    public String toString() {
 
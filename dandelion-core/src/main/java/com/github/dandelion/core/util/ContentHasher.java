@@ -0,0 +1,235 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.util;
+
+/**
+ * <p>
+ * Streaming implementation of the 128-bit x64 variant of the MurmurHash3
+ * non-cryptographic hash function.
+ * </p>
+ * <p>
+ * Unlike {@link DigestUtils}, contents can be hashed as they are produced,
+ * without being gathered nor encoded first. Characters are hashed as their two
+ * UTF-16 bytes, in little-endian order.
+ * </p>
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public final class ContentHasher {
+
+   private static final long C1 = 0x87c37b91114253d5L;
+   private static final long C2 = 0x4cf5ad432745937fL;
+
+   private static final char[] HEX_CHARS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e',
+         'f' };
+
+   private long h1;
+   private long h2;
+
+   // Current block, filled byte after byte
+   private long k1;
+   private long k2;
+   private int blockLength;
+
+   private long length;
+
+   /**
+    * <p>
+    * Convenient method that hashes the given characters.
+    * </p>
+    * 
+    * @param contents
+    *           The characters to hash.
+    * @return the 128-bit hash, as a 32 characters hex string.
+    */
+   public static String hash(CharSequence contents) {
+      return new ContentHasher().update(contents).toHexString();
+   }
+
+   /**
+    * <p>
+    * Convenient method that hashes the given bytes.
+    * </p>
+    * 
+    * @param bytes
+    *           The bytes to hash.
+    * @return the 128-bit hash, as a 32 characters hex string.
+    */
+   public static String hash(byte[] bytes) {
+      return new ContentHasher().update(bytes, 0, bytes.length).toHexString();
+   }
+
+   public ContentHasher update(char c) {
+      if (blockLength < 7) {
+         k1 |= (c & 0xffffL) << (blockLength << 3);
+         blockLength += 2;
+      }
+      else if (blockLength < 15 && blockLength != 7) {
+         k2 |= (c & 0xffffL) << ((blockLength - 8) << 3);
+         blockLength += 2;
+      }
+      else {
+         update((byte) c);
+         update((byte) (c >>> 8));
+         return this;
+      }
+      length += 2;
+      if (blockLength == 16) {
+         processBlock();
+      }
+      return this;
+   }
+
+   public ContentHasher update(char[] chars, int offset, int count) {
+      for (int i = offset; i < offset + count; i++) {
+         update(chars[i]);
+      }
+      return this;
+   }
+
+   public ContentHasher update(CharSequence chars) {
+      for (int i = 0; i < chars.length(); i++) {
+         update(chars.charAt(i));
+      }
+      return this;
+   }
+
+   public ContentHasher update(byte b) {
+      if (blockLength < 8) {
+         k1 |= (b & 0xffL) << (blockLength << 3);
+      }
+      else {
+         k2 |= (b & 0xffL) << ((blockLength - 8) << 3);
+      }
+      length++;
+      if (++blockLength == 16) {
+         processBlock();
+      }
+      return this;
+   }
+
+   public ContentHasher update(byte[] bytes, int offset, int count) {
+      for (int i = offset; i < offset + count; i++) {
+         update(bytes[i]);
+      }
+      return this;
+   }
+
+   /**
+    * @return the lower 64 bits of the hash of the contents hashed so far.
+    */
+   public long hash64() {
+      return finish()[0];
+   }
+
+   /**
+    * @return the hash of the contents hashed so far, as a 32 characters hex
+    *         string.
+    */
+   public String toHexString() {
+      long[] hash = finish();
+      char[] chars = new char[32];
+      for (int i = 0; i < 16; i++) {
+         long value = hash[i >>> 3] >>> ((i & 7) << 3);
+         chars[i << 1] = HEX_CHARS[(int) (value >>> 4) & 0xf];
+         chars[(i << 1) + 1] = HEX_CHARS[(int) value & 0xf];
+      }
+      return new String(chars);
+   }
+
+   private void processBlock() {
+      h1 ^= mixK1(k1);
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+
+      h2 ^= mixK2(k2);
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+
+      k1 = 0;
+      k2 = 0;
+      blockLength = 0;
+   }
+
+   /**
+    * Computes the final hash without altering the current state, so that more
+    * contents can still be hashed.
+    */
+   private long[] finish() {
+      long f1 = h1;
+      long f2 = h2;
+
+      if (blockLength > 8) {
+         f2 ^= mixK2(k2);
+      }
+      if (blockLength > 0) {
+         f1 ^= mixK1(k1);
+      }
+
+      f1 ^= length;
+      f2 ^= length;
+      f1 += f2;
+      f2 += f1;
+      f1 = fmix64(f1);
+      f2 = fmix64(f2);
+      f1 += f2;
+      f2 += f1;
+
+      return new long[] { f1, f2 };
+   }
+
+   private static long mixK1(long k) {
+      k *= C1;
+      k = Long.rotateLeft(k, 31);
+      k *= C2;
+      return k;
+   }
+
+   private static long mixK2(long k) {
+      k *= C2;
+      k = Long.rotateLeft(k, 33);
+      k *= C1;
+      return k;
+   }
+
+   private static long fmix64(long k) {
+      k ^= k >>> 33;
+      k *= 0xff51afd7ed558ccdL;
+      k ^= k >>> 33;
+      k *= 0xc4ceb9fe1a85ec53L;
+      k ^= k >>> 33;
+      return k;
+   }
+}
@@ -0,0 +1,87 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <p>
+ * {@link Writer} that hashes the characters written through it with a
+ * {@link ContentHasher} before passing them to the underlying writer.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class HashingWriter extends Writer {
+
+   private final Writer writer;
+   private final ContentHasher hasher = new ContentHasher();
+
+   public HashingWriter(Writer writer) {
+      this.writer = writer;
+   }
+
+   @Override
+   public void write(int c) throws IOException {
+      hasher.update((char) c);
+      writer.write(c);
+   }
+
+   @Override
+   public void write(char[] cbuf, int off, int len) throws IOException {
+      hasher.update(cbuf, off, len);
+      writer.write(cbuf, off, len);
+   }
+
+   @Override
+   public void write(String str, int off, int len) throws IOException {
+      hasher.update(str.subSequence(off, off + len));
+      writer.write(str, off, len);
+   }
+
+   @Override
+   public void flush() throws IOException {
+      writer.flush();
+   }
+
+   @Override
+   public void close() throws IOException {
+      writer.close();
+   }
+
+   /**
+    * @return the hash of all the characters written so far, as a 32
+    *         characters hex string.
+    */
+   public String getHash() {
+      return hasher.toHexString();
+   }
+}
@@ -30,6 +30,8 @@
 
 package com.github.dandelion.core.util;
 
+import java.util.Collection;
+
 import com.github.dandelion.core.asset.Asset;
 import com.github.dandelion.core.html.AbstractHtmlTag;
 import com.github.dandelion.core.html.HtmlLink;
@@ -64,6 +66,25 @@ public final class HtmlUtils {
       return tag;
    }
 
+   /**
+    * <p>
+    * Renders the HTML tags of the given assets, one per line.
+    * </p>
+    * 
+    * @param assets
+    *           The assets to render.
+    * @return the HTML tags of the assets.
+    */
+   public static StringBuilder toHtml(Collection<Asset> assets) {
+      StringBuilder html = new StringBuilder();
+      for (Asset asset : assets) {
+         AbstractHtmlTag tag = transformAsset(asset);
+         html.append(tag.toHtml());
+         html.append('\n');
+      }
+      return html;
+   }
+
    /**
     * <p>
     * Suppress default constructor for noninstantiability.
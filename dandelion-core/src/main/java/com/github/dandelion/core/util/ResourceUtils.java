@@ -32,6 +32,7 @@ package com.github.dandelion.core.util;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.net.URL;
 
@@ -72,12 +73,28 @@ public final class ResourceUtils {
    }
 
    public static String getContentFromInputStream(InputStream input) throws IOException {
+      return getContentFromReader(new InputStreamReader(input));
+   }
+
+   /**
+    * <p>
+    * Reads the whole content of the given {@link Reader}, as-is. Unlike
+    * {@link StringBuilderUtils#toStringBuilder(Reader)}, line terminators are
+    * left untouched.
+    * </p>
+    * 
+    * @param reader
+    *           The reader to consume.
+    * @return the content of the reader.
+    * @throws IOException
+    *            if the reader can't be read.
+    */
+   public static String getContentFromReader(Reader reader) throws IOException {
       StringWriter sw = new StringWriter();
-      InputStreamReader in = new InputStreamReader(input);
 
       char[] buffer = new char[DEFAULT_BUFFER_SIZE];
       int n;
-      while (-1 != (n = in.read(buffer))) {
+      while (-1 != (n = reader.read(buffer))) {
          sw.write(buffer, 0, n);
       }
 
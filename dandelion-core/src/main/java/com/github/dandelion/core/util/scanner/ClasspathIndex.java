@@ -0,0 +1,214 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.util.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.util.PathUtils;
+
+/**
+ * <p>
+ * Index of the classpath shared by all the scans performed by the thread
+ * initializing a {@link com.github.dandelion.core.Context}.
+ * </p>
+ * <p>
+ * Each JAR file is walked only once, the first time one of its locations is
+ * scanned, and all its entries are kept in a {@link ResourceTrie}. Directories
+ * are walked once per scanned location, subsequent scans of the same location
+ * or of one of its subfolders being served by the index too. The URLs returned
+ * by {@link ClassLoader#getResources(String)} are also kept per location.
+ * </p>
+ * 
+ * @since 1.1.2
+ * @see ClasspathResourceScanner#openIndex()
+ */
+public final class ClasspathIndex {
+
+   private static final Logger LOG = LoggerFactory.getLogger(ClasspathIndex.class);
+
+   private static final String JAR_URL_SEPARATOR = "!/";
+
+   /**
+    * The class loader whose resources are indexed.
+    */
+   private final ClassLoader classLoader;
+
+   /**
+    * URLs of the classpath roots containing a location, per location.
+    */
+   private final Map<String, List<URL>> resourceUrls = new HashMap<String, List<URL>>();
+
+   /**
+    * Indexed resource paths, per JAR file or classpath directory.
+    */
+   private final Map<String, ResourceTrie> roots = new HashMap<String, ResourceTrie>();
+
+   private int walkedJarCount;
+   private int walkedDirectoryCount;
+
+   ClasspathIndex(ClassLoader classLoader) {
+      this.classLoader = classLoader;
+   }
+
+   /**
+    * @param classLoader
+    *           A class loader.
+    * @return {@code true} if this index holds the resources of the given class
+    *         loader.
+    */
+   boolean isBoundTo(ClassLoader classLoader) {
+      return this.classLoader == classLoader;
+   }
+
+   /**
+    * <p>
+    * Returns the URLs of all the classpath roots containing the given location.
+    * </p>
+    * 
+    * @param location
+    *           The classpath location.
+    * @return the URLs of the location in each classpath root.
+    * @throws IOException
+    *            if the class loader fails to find the resources.
+    */
+   public synchronized List<URL> getResources(String location) throws IOException {
+      List<URL> urls = resourceUrls.get(location);
+      if (urls == null) {
+         urls = Collections.list(classLoader.getResources(location));
+         resourceUrls.put(location, urls);
+      }
+      return urls;
+   }
+
+   /**
+    * <p>
+    * Finds the paths of all resources located under the given location, in the
+    * classpath root represented by the given resolved URL.
+    * </p>
+    * 
+    * @param location
+    *           The classpath location.
+    * @param resolvedUrl
+    *           The standard URL of the location in a classpath root.
+    * @return the resource paths, or {@code null} if the URL protocol cannot be
+    *         indexed.
+    * @throws IOException
+    *            if the classpath root cannot be read.
+    */
+   public synchronized Set<String> findResourcePaths(String location, URL resolvedUrl) throws IOException {
+
+      String protocol = resolvedUrl.getProtocol();
+      ResourceTrie trie;
+
+      if ("file".equals(protocol)) {
+         String resourcePath = PathUtils.toFilePath(resolvedUrl);
+         String normalizedLocation = location.endsWith("/") ? location.substring(0, location.length() - 1)
+               : location;
+         String classpathPhysicalRoot = resourcePath.substring(0, resourcePath.length() - normalizedLocation.length());
+
+         trie = getTrie(classpathPhysicalRoot);
+         if (!trie.isComplete(normalizedLocation)) {
+            LOG.trace("Indexing the directory {}", resourcePath);
+            FileSystemLocationResourceScanner scanner = new FileSystemLocationResourceScanner();
+            for (String path : scanner.scanForResourcePathsInFileSystem(new File(resourcePath), classpathPhysicalRoot)) {
+               trie.add(path);
+            }
+            trie.markComplete(normalizedLocation);
+            walkedDirectoryCount++;
+         }
+      }
+      else if ("jar".equals(protocol) || "zip".equals(protocol) || "wsjar".equals(protocol)) {
+         String url = resolvedUrl.toString();
+         int separatorIndex = url.indexOf(JAR_URL_SEPARATOR);
+         String jarUrl = separatorIndex == -1 ? url : url.substring(0, separatorIndex);
+
+         trie = getTrie(jarUrl);
+         if (!trie.isComplete("")) {
+            LOG.trace("Indexing the JAR file {}", jarUrl);
+            JarFile jarFile = new JarLocationResourceScanner().getJarFromUrl(resolvedUrl);
+            try {
+               Enumeration<JarEntry> entries = jarFile.entries();
+               while (entries.hasMoreElements()) {
+                  trie.add(entries.nextElement().getName());
+               }
+            }
+            finally {
+               jarFile.close();
+            }
+            trie.markComplete("");
+            walkedJarCount++;
+         }
+      }
+      else {
+         return null;
+      }
+
+      Set<String> resourcePaths = new HashSet<String>();
+      trie.collect(location, resourcePaths);
+      return resourcePaths;
+   }
+
+   /**
+    * @return the number of JAR files walked so far.
+    */
+   public synchronized int getWalkedJarCount() {
+      return walkedJarCount;
+   }
+
+   /**
+    * @return the number of directories walked so far.
+    */
+   public synchronized int getWalkedDirectoryCount() {
+      return walkedDirectoryCount;
+   }
+
+   private ResourceTrie getTrie(String root) {
+      ResourceTrie trie = roots.get(root);
+      if (trie == null) {
+         trie = new ResourceTrie();
+         roots.put(root, trie);
+      }
+      return trie;
+   }
+}
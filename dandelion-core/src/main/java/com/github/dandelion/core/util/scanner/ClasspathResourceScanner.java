@@ -29,10 +29,14 @@
  */
 package com.github.dandelion.core.util.scanner;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
-import java.util.Enumeration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -41,6 +45,7 @@ import org.slf4j.LoggerFactory;
 import com.github.dandelion.core.DandelionException;
 import com.github.dandelion.core.util.ClassUtils;
 import com.github.dandelion.core.util.LibraryDetector;
+import com.github.dandelion.core.util.PathUtils;
 import com.github.dandelion.core.util.StringUtils;
 import com.github.dandelion.core.util.scanner.jboss.JBossVFS2UrlResolver;
 import com.github.dandelion.core.util.scanner.jboss.JBossVFS3LocationResourceScanner;
@@ -61,6 +66,55 @@ public final class ClasspathResourceScanner {
 
    public final static String PREFIX = "classpath:";
 
+   /**
+    * The index used by the scans of the current thread, if any.
+    */
+   private static final ThreadLocal<ClasspathIndex> INDEX = new ThreadLocal<ClasspathIndex>();
+
+   /**
+    * <p>
+    * Opens a new {@link ClasspathIndex} that will be used by all subsequent
+    * scans performed by the current thread, until {@link #closeIndex()} is
+    * called by the same thread.
+    * </p>
+    * <p>
+    * Intended to be used while the {@link com.github.dandelion.core.Context} is
+    * being initialized, when the same classpath roots are scanned many times.
+    * Since the index is bound to the current thread and to its context
+    * {@link ClassLoader}, contexts initialized concurrently, e.g. by several
+    * web applications, each use their own index.
+    * </p>
+    * 
+    * @return the opened index.
+    */
+   public static ClasspathIndex openIndex() {
+      ClasspathIndex classpathIndex = new ClasspathIndex(ClassUtils.getDefaultClassLoader());
+      INDEX.set(classpathIndex);
+      return classpathIndex;
+   }
+
+   /**
+    * <p>
+    * Discards the {@link ClasspathIndex} of the current thread, if any.
+    * Subsequent scans walk the classpath again.
+    * </p>
+    */
+   public static void closeIndex() {
+      INDEX.remove();
+   }
+
+   /**
+    * @return the index of the current thread, if any and if it has been opened
+    *         with the current context {@link ClassLoader}.
+    */
+   private static ClasspathIndex currentIndex() {
+      ClasspathIndex classpathIndex = INDEX.get();
+      if (classpathIndex != null && !classpathIndex.isBoundTo(ClassUtils.getDefaultClassLoader())) {
+         return null;
+      }
+      return classpathIndex;
+   }
+
    /**
     * <p>
     * Finds the logical path of the first resource that matches the given
@@ -88,6 +142,80 @@ public final class ClasspathResourceScanner {
       }
    }
 
+   /**
+    * <p>
+    * Finds the logical path of the shallowest directory with the given name
+    * by scanning the directories of the classpath roots level by level,
+    * without going deeper than {@code maxDepth}.
+    * </p>
+    * <p>
+    * Unlike {@link #findResourcePath(String, String)}, only the directories
+    * needed to reach {@code maxDepth} are listed, and the classpath roots
+    * packaged as JAR files are not scanned.
+    * </p>
+    * 
+    * @param directoryName
+    *           The name of the directory to look for.
+    * @param excludedDirectories
+    *           Directories that are not scanned, either by name (e.g.
+    *           {@code node_modules}) or by path when starting with a slash
+    *           (e.g. {@code /META-INF/}).
+    * @param maxDepth
+    *           The maximum depth to scan, the children of the classpath roots
+    *           being at depth 1.
+    * @return The logical path of the directory, ending with a slash, or
+    *         {@code null} if none is found.
+    */
+   public static String findDirectoryPath(String directoryName, Set<String> excludedDirectories, int maxDepth) {
+
+      List<File> level = new ArrayList<File>();
+      List<String> levelPaths = new ArrayList<String>();
+      try {
+         for (URL url : Collections.list(ClassUtils.getDefaultClassLoader().getResources(""))) {
+            URL resolvedUrl = createUrlResolver(url.getProtocol()).toStandardUrl(url);
+            if ("file".equals(resolvedUrl.getProtocol())) {
+               level.add(new File(PathUtils.toFilePath(resolvedUrl)));
+               levelPaths.add("");
+            }
+         }
+      }
+      catch (IOException e) {
+         LOG.warn("Unable to list the classpath roots");
+         return null;
+      }
+
+      for (int depth = 1; depth <= maxDepth && !level.isEmpty(); depth++) {
+         LOG.trace("Scanning {} classpath directories at depth {}", level.size(), depth);
+
+         List<File> nextLevel = new ArrayList<File>();
+         List<String> nextLevelPaths = new ArrayList<String>();
+         for (int i = 0; i < level.size(); i++) {
+            File[] children = level.get(i).listFiles();
+            if (children == null) {
+               continue;
+            }
+            Arrays.sort(children);
+            for (File child : children) {
+               if (!child.isDirectory() || !child.canRead()) {
+                  continue;
+               }
+               String childPath = levelPaths.get(i) + child.getName() + "/";
+               if (directoryName.equalsIgnoreCase(child.getName())) {
+                  return childPath;
+               }
+               if (!isDirectoryExcluded(childPath, child.getName(), excludedDirectories)) {
+                  nextLevel.add(child);
+                  nextLevelPaths.add(childPath);
+               }
+            }
+         }
+         level = nextLevel;
+         levelPaths = nextLevelPaths;
+      }
+
+      return null;
+   }
+
    /**
     * <p>
     * Finds the virtual path of all resources that match the given conditions by
@@ -158,13 +286,12 @@ public final class ClasspathResourceScanner {
       LOG.trace("Scanning for resources at '{}'...", location);
 
       Set<String> resourcePaths = new HashSet<String>();
+      ClasspathIndex classpathIndex = currentIndex();
 
-      Enumeration<URL> urls;
       try {
-         urls = ClassUtils.getDefaultClassLoader().getResources(location);
-         while (urls.hasMoreElements()) {
-
-            URL url = urls.nextElement();
+         List<URL> urls = classpathIndex != null ? classpathIndex.getResources(location) : Collections
+               .list(ClassUtils.getDefaultClassLoader().getResources(location));
+         for (URL url : urls) {
             LOG.trace("Found URL: {} (protocol:{})", url.getPath(), url.getProtocol());
 
             UrlResolver urlResolver = createUrlResolver(url.getProtocol());
@@ -174,10 +301,19 @@ public final class ClasspathResourceScanner {
             URL resolvedUrl = urlResolver.toStandardUrl(url);
             LOG.trace("Resolved URL: \"{}\"", resolvedUrl.getPath());
 
-            String protocol = resolvedUrl.getProtocol();
-            LocationResourceScanner classPathLocationScanner = createLocationScanner(protocol);
+            Set<String> indexedPaths = null;
+            if (classpathIndex != null) {
+               indexedPaths = classpathIndex.findResourcePaths(location, resolvedUrl);
+            }
 
-            resourcePaths.addAll(classPathLocationScanner.findResourcePaths(location, resolvedUrl));
+            if (indexedPaths != null) {
+               resourcePaths.addAll(indexedPaths);
+            }
+            else {
+               String protocol = resolvedUrl.getProtocol();
+               LocationResourceScanner classPathLocationScanner = createLocationScanner(protocol);
+               resourcePaths.addAll(classPathLocationScanner.findResourcePaths(location, resolvedUrl));
+            }
          }
       }
       catch (IOException e) {
@@ -188,6 +324,19 @@ public final class ClasspathResourceScanner {
       return filterResourcePaths(location, resourcePaths, excludedPaths, nameFilter, prefixFilter, suffixFilter);
    }
 
+   private static boolean isDirectoryExcluded(String directoryPath, String directoryName,
+         Set<String> excludedDirectories) {
+      if (excludedDirectories != null) {
+         for (String excludedDirectory : excludedDirectories) {
+            if (excludedDirectory.startsWith("/") ? ("/" + directoryPath).startsWith(excludedDirectory)
+                  : excludedDirectory.equals(directoryName)) {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
    /**
     * <p>
     * Tests whether the given {@code path} is authorized according to the passed
@@ -81,7 +81,7 @@ public class FileSystemLocationResourceScanner implements LocationResourceScanne
     * @throws IOException
     *            if something goes wrong during the scanning.
     */
-   private Set<String> scanForResourcePathsInFileSystem(File folder, String classpathPhysicalRoot) throws IOException {
+   Set<String> scanForResourcePathsInFileSystem(File folder, String classpathPhysicalRoot) throws IOException {
 
       Set<String> extractedResourcePaths = new HashSet<String>();
 
@@ -78,7 +78,7 @@ public class JarLocationResourceScanner implements LocationResourceScanner {
     * @throws IOException
     *            when the jar could not be resolved.
     */
-   private JarFile getJarFromUrl(URL locationUrl) throws IOException {
+   JarFile getJarFromUrl(URL locationUrl) throws IOException {
 
       URLConnection con = locationUrl.openConnection();
       if (con instanceof JarURLConnection) {
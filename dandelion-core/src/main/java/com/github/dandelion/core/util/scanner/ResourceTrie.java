@@ -0,0 +1,184 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.util.scanner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * Prefix tree of the resource paths found in a classpath root (a JAR file or
+ * a directory), split on the path separator.
+ * </p>
+ * <p>
+ * A node is <i>complete</i> once all the resources located under it have been
+ * added, so that they can be retrieved without scanning the root again.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+final class ResourceTrie {
+
+   private final Node root = new Node();
+
+   /**
+    * <p>
+    * Adds a resource path. Paths ending with a separator are directory
+    * entries, as found in JAR files.
+    * </p>
+    * 
+    * @param path
+    *           The resource path to add.
+    */
+   void add(String path) {
+      Node node = root;
+      int start = 0;
+      int end;
+      while ((end = path.indexOf('/', start)) >= 0) {
+         if (end > start) {
+            node = node.child(path.substring(start, end));
+         }
+         start = end + 1;
+      }
+
+      if (start < path.length()) {
+         node.child(path.substring(start)).resource = true;
+      }
+      else {
+         node.directoryEntry = true;
+      }
+   }
+
+   /**
+    * <p>
+    * Marks the given location as complete.
+    * </p>
+    * 
+    * @param location
+    *           The location whose resources have all been added.
+    */
+   void markComplete(String location) {
+      Node node = root;
+      for (String segment : location.split("/")) {
+         if (segment.length() > 0) {
+            node = node.child(segment);
+         }
+      }
+      node.complete = true;
+   }
+
+   /**
+    * @param location
+    *           The location to test.
+    * @return {@code true} if all the resources under the given location have
+    *         been added.
+    */
+   boolean isComplete(String location) {
+      Node node = root;
+      for (String segment : location.split("/")) {
+         if (node.complete) {
+            return true;
+         }
+         if (segment.length() > 0) {
+            node = node.children == null ? null : node.children.get(segment);
+            if (node == null) {
+               return false;
+            }
+         }
+      }
+      return node.complete;
+   }
+
+   /**
+    * <p>
+    * Collects all the resource paths located under the given location.
+    * </p>
+    * 
+    * @param location
+    *           The location to look under.
+    * @param resourcePaths
+    *           The set to which the resource paths are added.
+    */
+   void collect(String location, Set<String> resourcePaths) {
+      Node node = root;
+      StringBuilder path = new StringBuilder();
+      for (String segment : location.split("/")) {
+         if (segment.length() > 0) {
+            node = node.children == null ? null : node.children.get(segment);
+            if (node == null) {
+               return;
+            }
+            path.append(segment).append('/');
+         }
+      }
+      collect(node, path, resourcePaths);
+   }
+
+   private void collect(Node node, StringBuilder path, Set<String> resourcePaths) {
+      if (node.directoryEntry && path.length() > 0) {
+         resourcePaths.add(path.toString());
+      }
+      if (node.children == null) {
+         return;
+      }
+
+      int length = path.length();
+      for (Map.Entry<String, Node> child : node.children.entrySet()) {
+         path.append(child.getKey());
+         if (child.getValue().resource) {
+            resourcePaths.add(path.toString());
+         }
+         path.append('/');
+         collect(child.getValue(), path, resourcePaths);
+         path.setLength(length);
+      }
+   }
+
+   private static final class Node {
+
+      private Map<String, Node> children;
+      private boolean resource;
+      private boolean directoryEntry;
+      private boolean complete;
+
+      private Node child(String name) {
+         if (children == null) {
+            children = new HashMap<String, Node>();
+         }
+         Node child = children.get(name);
+         if (child == null) {
+            child = new Node();
+            children.put(name, child);
+         }
+         return child;
+      }
+   }
+}
@@ -29,15 +29,27 @@
  */
 package com.github.dandelion.core.util.scanner;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.ServletContext;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.dandelion.core.DandelionException;
 import com.github.dandelion.core.util.StringUtils;
 
 /**
@@ -121,6 +133,187 @@ public final class WebResourceScanner {
       return scanForResourcePaths(servletContext, rootLocation, nameFilter, excludedPaths);
    }
 
+   /**
+    * <p>
+    * Finds the path of the shallowest resource with the given name by scanning
+    * the web application level by level, starting from the given
+    * {@code rootLocation}, and without going deeper than {@code maxDepth}.
+    * </p>
+    * 
+    * @param servletContext
+    *           The context of the web application.
+    * @param rootLocation
+    *           The location where to start scanning.
+    * @param nameFilter
+    *           The name of the resource to look for.
+    * @param excludedDirectories
+    *           Directories that are not scanned, either by name (e.g.
+    *           {@code node_modules}) or by path when starting with a slash
+    *           (e.g. {@code /WEB-INF/lib/}).
+    * @param maxDepth
+    *           The maximum depth to scan, the children of the root location
+    *           being at depth 1.
+    * @param threads
+    *           The number of threads used to list the directories of a same
+    *           level.
+    * @return The first path, in alphabetical order, of the shallowest
+    *         resources that match, or {@code null} if none is found.
+    */
+   public static String findResourcePath(ServletContext servletContext, String rootLocation, String nameFilter,
+         Set<String> excludedDirectories, int maxDepth, int threads) {
+      Set<String> resourcePaths = scanLevels(servletContext, rootLocation, nameFilter, excludedDirectories, maxDepth,
+            threads, true);
+      return resourcePaths.isEmpty() ? null : resourcePaths.iterator().next();
+   }
+
+   /**
+    * <p>
+    * Finds the path of all resources with the given name by scanning the web
+    * application level by level, starting from the given {@code rootLocation},
+    * and without going deeper than {@code maxDepth}.
+    * </p>
+    * 
+    * @param servletContext
+    *           The context of the web application.
+    * @param rootLocation
+    *           The location where to start scanning.
+    * @param nameFilter
+    *           The name of the resources to look for.
+    * @param excludedDirectories
+    *           Directories that are not scanned, either by name or by path.
+    * @param maxDepth
+    *           The maximum depth to scan, the children of the root location
+    *           being at depth 1.
+    * @param threads
+    *           The number of threads used to list the directories of a same
+    *           level.
+    * @return The sorted set of resource paths that match.
+    */
+   public static Set<String> findResourcePaths(ServletContext servletContext, String rootLocation,
+         String nameFilter, Set<String> excludedDirectories, int maxDepth, int threads) {
+      return scanLevels(servletContext, rootLocation, nameFilter, excludedDirectories, maxDepth, threads, false);
+   }
+
+   /**
+    * <p>
+    * Breadth-first scan of the web application. Matching directories are not
+    * scanned further.
+    * </p>
+    */
+   private static Set<String> scanLevels(ServletContext servletContext, String rootLocation, String nameFilter,
+         Set<String> excludedDirectories, int maxDepth, int threads, boolean stopAtFirstMatch) {
+
+      Set<String> matches = new TreeSet<String>();
+      List<String> level = Collections.singletonList(rootLocation);
+      ExecutorService executor = threads > 1 ? newExecutor(threads) : null;
+
+      try {
+         for (int depth = 1; depth <= maxDepth && !level.isEmpty(); depth++) {
+            LOG.trace("Scanning {} directories at depth {}", level.size(), depth);
+
+            List<String> nextLevel = new ArrayList<String>();
+            for (Set<String> paths : listDirectories(servletContext, level, executor)) {
+               if (paths == null) {
+                  continue;
+               }
+               for (String resourcePath : new TreeSet<String>(paths)) {
+                  String resourceName = getResourceName(resourcePath);
+                  if (nameFilter.equalsIgnoreCase(resourceName)) {
+                     matches.add(resourcePath);
+                  }
+                  else if (resourcePath.endsWith("/")
+                        && !isDirectoryExcluded(resourcePath, resourceName, excludedDirectories)) {
+                     nextLevel.add(resourcePath);
+                  }
+               }
+            }
+
+            if (stopAtFirstMatch && !matches.isEmpty()) {
+               break;
+            }
+            level = nextLevel;
+         }
+      }
+      finally {
+         if (executor != null) {
+            executor.shutdownNow();
+         }
+      }
+
+      return matches;
+   }
+
+   private static List<Set<String>> listDirectories(final ServletContext servletContext, List<String> directories,
+         ExecutorService executor) {
+
+      List<Set<String>> listings = new ArrayList<Set<String>>(directories.size());
+      if (executor == null || directories.size() < 2) {
+         for (String directory : directories) {
+            listings.add(servletContext.getResourcePaths(directory));
+         }
+         return listings;
+      }
+
+      List<Future<Set<String>>> futures = new ArrayList<Future<Set<String>>>(directories.size());
+      for (final String directory : directories) {
+         futures.add(executor.submit(new Callable<Set<String>>() {
+
+            @Override
+            public Set<String> call() {
+               return servletContext.getResourcePaths(directory);
+            }
+         }));
+      }
+      try {
+         for (Future<Set<String>> future : futures) {
+            listings.add(future.get());
+         }
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new DandelionException("Interrupted while scanning the web application", e);
+      }
+      catch (ExecutionException e) {
+         throw new DandelionException("Unable to scan the web application", e.getCause());
+      }
+      return listings;
+   }
+
+   private static ExecutorService newExecutor(int threads) {
+      return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+
+         private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+         @Override
+         public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "dandelion-web-scanning-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+         }
+      });
+   }
+
+   private static boolean isDirectoryExcluded(String directoryPath, String directoryName,
+         Set<String> excludedDirectories) {
+      if (excludedDirectories != null) {
+         for (String excludedDirectory : excludedDirectories) {
+            if (excludedDirectory.startsWith("/") ? directoryPath.startsWith(excludedDirectory) : excludedDirectory
+                  .equals(directoryName)) {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
+   private static String getResourceName(String resourcePath) {
+      if (resourcePath.endsWith("/")) {
+         String directoryName = resourcePath.substring(0, resourcePath.length() - 1);
+         return directoryName.substring(directoryName.lastIndexOf("/") + 1);
+      }
+      return resourcePath.substring(resourcePath.lastIndexOf("/") + 1);
+   }
+
    /**
     * <p>
     * Actually scans for all resource paths within the given
@@ -34,14 +34,20 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
 
 import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.asset.AssetDomPosition;
 import com.github.dandelion.core.asset.generator.AssetContentGenerator;
 import com.github.dandelion.core.storage.BundleStorageUnit;
 import com.github.dandelion.core.util.StringUtils;
@@ -125,6 +131,22 @@ public class AssetRequestContext {
     */
    private String jsPlaceholder;
 
+   /**
+    * Positions whose assets have been rendered while the page was generated.
+    */
+   private Set<AssetDomPosition> renderedPositions;
+
+   /**
+    * Assets rendered while the page was generated.
+    */
+   private Set<Asset> renderedAssets;
+
+   /**
+    * Template nodes to replace by the assets of their position while the page
+    * is generated.
+    */
+   private Map<AssetDomPosition, Object> placeholderNodes;
+
    /**
     * Private constructor.
     */
@@ -135,6 +157,9 @@ public class AssetRequestContext {
       this.excludedCss = new ArrayList<String>();
       this.parameters = new HashMap<String, Map<String, Object>>();
       this.generators = new HashMap<String, AssetContentGenerator>();
+      this.renderedPositions = EnumSet.noneOf(AssetDomPosition.class);
+      this.renderedAssets = new LinkedHashSet<Asset>();
+      this.placeholderNodes = new EnumMap<AssetDomPosition, Object>(AssetDomPosition.class);
    }
 
    /**
@@ -531,6 +556,73 @@ public class AssetRequestContext {
       return this.cssPlaceholder;
    }
 
+   /**
+    * <p>
+    * Records that the assets of the given position have been rendered while
+    * the page was being generated, e.g. by an inline placeholder, so that they
+    * are not injected again once the response is complete.
+    * </p>
+    * 
+    * @param assetDomPosition
+    *           The position whose assets have been rendered.
+    * @param assets
+    *           The rendered assets.
+    * @return the current instance of {@link AssetRequestContext}.
+    */
+   public AssetRequestContext addRenderedAssets(AssetDomPosition assetDomPosition, Collection<Asset> assets) {
+      this.renderedPositions.add(assetDomPosition);
+      this.renderedAssets.addAll(assets);
+      return this;
+   }
+
+   /**
+    * @param assetDomPosition
+    *           The position to check.
+    * @return {@code true} if the assets of the given position have already
+    *         been rendered in the page.
+    */
+   public boolean isRendered(AssetDomPosition assetDomPosition) {
+      return this.renderedPositions.contains(assetDomPosition);
+   }
+
+   /**
+    * @return all assets already rendered in the page.
+    */
+   public Set<Asset> getRenderedAssets() {
+      return Collections.unmodifiableSet(this.renderedAssets);
+   }
+
+   /**
+    * <p>
+    * Registers the template node to replace by the assets of the given
+    * position while the page is generated.
+    * </p>
+    * 
+    * @param assetDomPosition
+    *           The position of the assets to render in place of the node.
+    * @param placeholderNode
+    *           The placeholder node of the template engine.
+    * @return the current instance of {@link AssetRequestContext}.
+    */
+   public AssetRequestContext setPlaceholderNode(AssetDomPosition assetDomPosition, Object placeholderNode) {
+      this.placeholderNodes.put(assetDomPosition, placeholderNode);
+      return this;
+   }
+
+   /**
+    * <p>
+    * Removes the template node registered for the given position, so that the
+    * request doesn't hold it anymore once the assets are rendered.
+    * </p>
+    * 
+    * @param assetDomPosition
+    *           The position of the assets.
+    * @return the placeholder node, or {@code null} if none was registered.
+    */
+   public Object removePlaceholderNode(AssetDomPosition assetDomPosition) {
+      return this.placeholderNodes.remove(assetDomPosition);
+   }
+
    /**
     * Get the parameters for a asset name
     * 
@@ -44,8 +44,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.dandelion.core.Context;
+import com.github.dandelion.core.monitoring.Counter;
+import com.github.dandelion.core.monitoring.MetricRegistry;
+import com.github.dandelion.core.monitoring.Timer;
 import com.github.dandelion.core.web.handler.HandlerChain;
 import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.HandlerPlans;
 
 /**
  * <p>
@@ -90,10 +94,25 @@ public class DandelionFilter implements Filter {
     */
    private Context context;
 
+   private Timer preHandlersTimer = Timer.DISABLED;
+   private Timer chainTimer = Timer.DISABLED;
+   private Timer bufferingTimer = Timer.DISABLED;
+   private Timer postHandlersTimer = Timer.DISABLED;
+   private Counter bytesIn = Counter.DISABLED;
+   private Counter bytesOut = Counter.DISABLED;
+
    @Override
    public void init(FilterConfig filterConfig) throws ServletException {
       LOG.info("Initializing the Dandelion context");
       context = new Context(filterConfig);
+
+      MetricRegistry registry = context.getMetricRegistry();
+      preHandlersTimer = registry.timer("filter.prehandlers");
+      chainTimer = registry.timer("filter.chain");
+      bufferingTimer = registry.timer("filter.buffering");
+      postHandlersTimer = registry.timer("filter.posthandlers");
+      bytesIn = registry.counter("filter.bytes.in");
+      bytesOut = registry.counter("filter.bytes.out");
       LOG.info("Dandelion context initialized");
    }
 
@@ -117,15 +136,32 @@ public class DandelionFilter implements Filter {
       request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, context);
 
       // Pre-filtering handlers processing
+      HandlerPlans handlerPlans = context.getHandlerPlans();
       HandlerChain preHandlerChain = context.getPreHandlerChain();
-      if (preHandlerChain != null) {
-         HandlerContext preHandlerContext = new HandlerContext(context, request, response, null);
+      HandlerContext preHandlerContext = new HandlerContext(context, request, response, null);
+      long start = preHandlersTimer.start();
+      if (handlerPlans != null) {
+         handlerPlans.execute(false, preHandlerContext);
+      }
+      else if (preHandlerChain != null) {
          preHandlerChain.doHandle(preHandlerContext);
       }
+      preHandlersTimer.stop(start);
+
+      // Only bound to the requests sampled by the pre-handlers
+      boolean serverTimingEnabled = context.getConfiguration().isMonitoringServerTimingEnabled();
+      ServerTiming serverTiming = serverTimingEnabled ? ServerTiming.get(request) : null;
+      if (serverTiming != null) {
+         serverTiming.add("prehandlers", System.nanoTime() - serverTiming.getStartTime());
+      }
 
       // Wraps the response before applying the filter chain
       ByteArrayResponseWrapper wrappedResponse = new ByteArrayResponseWrapper(response);
+      start = chainTimer.start();
+      long serverTimingStart = serverTiming != null ? System.nanoTime() : 0L;
       filterChain.doFilter(request, wrappedResponse);
+      ServerTiming.stop(request, "app", serverTimingStart);
+      chainTimer.stop(start);
 
       // In case of a redirect, no need to process the response. Moreover,
       // getWritter may have allready been called.
@@ -135,23 +171,34 @@ public class DandelionFilter implements Filter {
       
       // Extracts the response as a byte array so that it can be passed to the
       // post-handlers chain
+      start = bufferingTimer.start();
+      serverTimingStart = serverTiming != null ? System.nanoTime() : 0L;
       byte[] finalResponse = wrappedResponse.toByteArray();
+      ServerTiming.stop(request, "buffering", serverTimingStart);
+      bufferingTimer.stop(start);
+      bytesIn.add(finalResponse.length);
 
       // Post-filtering handlers processing
       HandlerChain postHandlerChain = context.getPostHandlerChain();
-      HandlerContext postHandlerContext = null;
-      if (postHandlerChain != null) {
-         postHandlerContext = new HandlerContext(context, request, response, finalResponse);
+      HandlerContext postHandlerContext = new HandlerContext(context, request, response, finalResponse);
+      postHandlerContext.setRequestProfile(preHandlerContext.getRequestProfile());
+      start = postHandlersTimer.start();
+      if (handlerPlans != null) {
+         handlerPlans.execute(true, postHandlerContext);
+      }
+      else if (postHandlerChain != null) {
          postHandlerChain.doHandle(postHandlerContext);
       }
+      postHandlersTimer.stop(start);
 
       // The response may have been set to null by one of the handlers
-      if (postHandlerContext != null && postHandlerContext.getResponseAsBytes() == null) {
+      if (postHandlerContext.getResponseAsBytes() == null) {
          return;
       }
 
       response.setContentLength(postHandlerContext.getResponseAsBytes().length);
       response.getOutputStream().write(postHandlerContext.getResponseAsBytes());
+      bytesOut.add(postHandlerContext.getResponseAsBytes().length);
    }
 
    @Override
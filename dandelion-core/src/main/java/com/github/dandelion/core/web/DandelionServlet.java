@@ -43,6 +43,7 @@ import org.slf4j.LoggerFactory;
 import com.github.dandelion.core.Context;
 import com.github.dandelion.core.asset.AssetType;
 import com.github.dandelion.core.cache.RequestCache;
+import com.github.dandelion.core.storage.StorageEntry;
 import com.github.dandelion.core.util.AssetUtils;
 
 /**
@@ -76,9 +77,19 @@ public class DandelionServlet extends HttpServlet {
 
       response.setContentType(assetType.getContentType() == null ? "text/plain" : assetType.getContentType());
 
+      // The hash of the stored contents is reused by the ETag post-handler
+      StorageEntry storageEntry = context.getAssetStorage().get(cacheKey);
+      if (storageEntry == null) {
+         // The asset may have been evicted, e.g. after its file was modified
+         LOG.debug("No stored contents found for the cache key {}", cacheKey);
+         response.sendError(HttpServletResponse.SC_NOT_FOUND);
+         return;
+      }
+      request.setAttribute(WebConstants.DANDELION_ASSET_HASH, storageEntry.getHash());
+
       // Write the asset content
       PrintWriter writer = response.getWriter();
-      writer.write(context.getAssetStorage().get(cacheKey).getContents());
+      writer.write(storageEntry.getContents());
 
       // The response is explicitely closed here instead of setting a
       // Content-Length header
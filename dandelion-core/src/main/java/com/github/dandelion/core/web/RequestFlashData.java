@@ -30,6 +30,7 @@
 package com.github.dandelion.core.web;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
@@ -53,20 +54,58 @@ public class RequestFlashData implements Serializable {
    private final int timeToLive;
 
    public RequestFlashData(HttpServletRequest request) {
+      this(request, null);
+   }
 
-      this.expirationStartTime = System.currentTimeMillis();
-      this.timeToLive = 60;
+   /**
+    * <p>
+    * Captures the provided request attributes only.
+    * </p>
+    * 
+    * @param request
+    *           The current request.
+    * @param attributeNames
+    *           The names of the attributes to capture, or {@code null} to
+    *           capture all of them.
+    */
+   public RequestFlashData(HttpServletRequest request, Collection<String> attributeNames) {
 
       Map<String, Object> currentAttributes = new HashMap<String, Object>();
-      Enumeration<String> attrs = request.getAttributeNames();
-      while (attrs.hasMoreElements()) {
-         String attributeName = (String) attrs.nextElement();
-         currentAttributes.put(attributeName, request.getAttribute(attributeName));
+      if (attributeNames == null) {
+         Enumeration<String> attrs = request.getAttributeNames();
+         while (attrs.hasMoreElements()) {
+            String attributeName = (String) attrs.nextElement();
+            currentAttributes.put(attributeName, request.getAttribute(attributeName));
+         }
+      }
+      else {
+         for (String attributeName : attributeNames) {
+            Object attribute = request.getAttribute(attributeName);
+            if (attribute != null) {
+               currentAttributes.put(attributeName, attribute);
+            }
+         }
       }
 
+      this.expirationStartTime = System.currentTimeMillis();
+      this.timeToLive = 60;
       this.attributes = currentAttributes;
    }
 
+   /**
+    * <p>
+    * Wraps already captured attributes, e.g. read back from a shared store.
+    * </p>
+    * 
+    * @param attributes
+    *           The captured attributes.
+    */
+   public RequestFlashData(Map<String, Object> attributes) {
+      this.expirationStartTime = System.currentTimeMillis();
+      this.timeToLive = 60;
+      this.attributes = attributes;
+   }
+
    public Map<String, Object> getAttributes() {
       return attributes;
    }
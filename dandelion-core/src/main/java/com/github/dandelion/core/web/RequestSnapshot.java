@@ -0,0 +1,278 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.web;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * <p>
+ * Copy of the parts of an {@link HttpServletRequest} used while mapping and
+ * processing assets, which can be read from other threads than the one
+ * handling the request.
+ * </p>
+ * <p>
+ * The attributes, parameters, headers, paths and locale of the request are
+ * copied when the snapshot is taken, and are then served without accessing the
+ * original request, which is not thread-safe. Attributes set on the snapshot
+ * are not propagated to the original request. The {@link ServerTiming} of the
+ * request is not copied, so that the stages are only timed by the thread
+ * handling the request.
+ * </p>
+ * <p>
+ * Other methods are still delegated to the original request and must not be
+ * used by the code running on other threads.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public final class RequestSnapshot extends HttpServletRequestWrapper {
+
+   private final Map<String, Object> attributes;
+   private final Map<String, String[]> parameters;
+   private final Map<String, List<String>> headers;
+   private final String contextPath;
+   private final String servletPath;
+   private final String pathInfo;
+   private final String requestURI;
+   private final String requestURL;
+   private final String queryString;
+   private final String method;
+   private final String scheme;
+   private final String serverName;
+   private final int serverPort;
+   private final boolean secure;
+   private final String characterEncoding;
+   private final Locale locale;
+   private final ServletContext servletContext;
+
+   private RequestSnapshot(HttpServletRequest request) {
+      super(request);
+
+      this.attributes = new ConcurrentHashMap<String, Object>();
+      Enumeration<String> attributeNames = request.getAttributeNames();
+      while (attributeNames.hasMoreElements()) {
+         String name = attributeNames.nextElement();
+         Object value = request.getAttribute(name);
+         if (value != null && !WebConstants.DANDELION_SERVER_TIMING.equals(name)) {
+            this.attributes.put(name, value);
+         }
+      }
+
+      Map<String, String[]> parameters = new LinkedHashMap<String, String[]>();
+      for (Map.Entry<String, String[]> parameter : request.getParameterMap().entrySet()) {
+         parameters.put(parameter.getKey(), parameter.getValue().clone());
+      }
+      this.parameters = Collections.unmodifiableMap(parameters);
+
+      Map<String, List<String>> headers = new HashMap<String, List<String>>();
+      Enumeration<String> headerNames = request.getHeaderNames();
+      while (headerNames != null && headerNames.hasMoreElements()) {
+         String name = headerNames.nextElement();
+         headers.put(name.toLowerCase(Locale.ENGLISH), Collections.list(request.getHeaders(name)));
+      }
+      this.headers = Collections.unmodifiableMap(headers);
+
+      this.contextPath = request.getContextPath();
+      this.servletPath = request.getServletPath();
+      this.pathInfo = request.getPathInfo();
+      this.requestURI = request.getRequestURI();
+      StringBuffer requestURL = request.getRequestURL();
+      this.requestURL = requestURL != null ? requestURL.toString() : null;
+      this.queryString = request.getQueryString();
+      this.method = request.getMethod();
+      this.scheme = request.getScheme();
+      this.serverName = request.getServerName();
+      this.serverPort = request.getServerPort();
+      this.secure = request.isSecure();
+      this.characterEncoding = request.getCharacterEncoding();
+      this.locale = request.getLocale();
+      this.servletContext = request.getServletContext();
+   }
+
+   /**
+    * <p>
+    * Takes a snapshot of the provided request. Must be called by the thread
+    * handling the request.
+    * </p>
+    * 
+    * @param request
+    *           The current request.
+    * @return the snapshot of the request.
+    */
+   public static RequestSnapshot of(HttpServletRequest request) {
+      return new RequestSnapshot(request);
+   }
+
+   @Override
+   public Object getAttribute(String name) {
+      return attributes.get(name);
+   }
+
+   @Override
+   public Enumeration<String> getAttributeNames() {
+      return Collections.enumeration(new ArrayList<String>(attributes.keySet()));
+   }
+
+   @Override
+   public void setAttribute(String name, Object value) {
+      if (value == null) {
+         attributes.remove(name);
+      }
+      else {
+         attributes.put(name, value);
+      }
+   }
+
+   @Override
+   public void removeAttribute(String name) {
+      attributes.remove(name);
+   }
+
+   @Override
+   public String getParameter(String name) {
+      String[] values = parameters.get(name);
+      return values != null && values.length > 0 ? values[0] : null;
+   }
+
+   @Override
+   public String[] getParameterValues(String name) {
+      String[] values = parameters.get(name);
+      return values != null ? values.clone() : null;
+   }
+
+   @Override
+   public Enumeration<String> getParameterNames() {
+      return Collections.enumeration(parameters.keySet());
+   }
+
+   @Override
+   public Map<String, String[]> getParameterMap() {
+      return parameters;
+   }
+
+   @Override
+   public String getHeader(String name) {
+      List<String> values = headers.get(name.toLowerCase(Locale.ENGLISH));
+      return values != null && !values.isEmpty() ? values.get(0) : null;
+   }
+
+   @Override
+   public Enumeration<String> getHeaders(String name) {
+      List<String> values = headers.get(name.toLowerCase(Locale.ENGLISH));
+      return Collections.enumeration(values != null ? values : Collections.<String> emptyList());
+   }
+
+   @Override
+   public Enumeration<String> getHeaderNames() {
+      return Collections.enumeration(headers.keySet());
+   }
+
+   @Override
+   public String getContextPath() {
+      return contextPath;
+   }
+
+   @Override
+   public String getServletPath() {
+      return servletPath;
+   }
+
+   @Override
+   public String getPathInfo() {
+      return pathInfo;
+   }
+
+   @Override
+   public String getRequestURI() {
+      return requestURI;
+   }
+
+   @Override
+   public StringBuffer getRequestURL() {
+      return requestURL != null ? new StringBuffer(requestURL) : null;
+   }
+
+   @Override
+   public String getQueryString() {
+      return queryString;
+   }
+
+   @Override
+   public String getMethod() {
+      return method;
+   }
+
+   @Override
+   public String getScheme() {
+      return scheme;
+   }
+
+   @Override
+   public String getServerName() {
+      return serverName;
+   }
+
+   @Override
+   public int getServerPort() {
+      return serverPort;
+   }
+
+   @Override
+   public boolean isSecure() {
+      return secure;
+   }
+
+   @Override
+   public String getCharacterEncoding() {
+      return characterEncoding;
+   }
+
+   @Override
+   public Locale getLocale() {
+      return locale;
+   }
+
+   @Override
+   public ServletContext getServletContext() {
+      return servletContext;
+   }
+}
@@ -0,0 +1,188 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.ServletRequest;
+
+import com.github.dandelion.core.config.Configuration;
+import com.github.dandelion.core.web.handler.impl.ServerTimingPostHandler;
+import com.github.dandelion.core.web.handler.impl.ServerTimingPreHandler;
+
+/**
+ * <p>
+ * Request-scoped durations of the stages of the Dandelion processing, sent
+ * back to the client in a {@code Server-Timing} response header.
+ * </p>
+ * <p>
+ * An instance is only bound to the requests sampled by the
+ * {@link ServerTimingPreHandler}, so that instrumented code can cheaply skip
+ * the measurement for all other requests. When the header is disabled, which
+ * is the default, the request isn't even looked up:
+ * </p>
+ * 
+ * <pre>
+ * long start = ServerTiming.start(configuration, request);
+ * try {
+ *    // timed code
+ * }
+ * finally {
+ *    ServerTiming.stop(request, &quot;mapping&quot;, start);
+ * }
+ * </pre>
+ * <p>
+ * Durations recorded several times under the same name, possibly from
+ * several threads when assets are mapped in parallel, are summed. Stages may
+ * be nested, e.g. the asset mapping is part of the asset query.
+ * </p>
+ * 
+ * @since 1.1.2
+ * @see ServerTimingPostHandler
+ */
+public class ServerTiming {
+
+   private final long startTime;
+   private final Map<String, Long> durations;
+
+   public ServerTiming() {
+      this.startTime = System.nanoTime();
+      this.durations = new LinkedHashMap<String, Long>();
+   }
+
+   /**
+    * @param request
+    *           The current request.
+    * @return the durations bound to the request, or {@code null} if the
+    *         request is not sampled.
+    */
+   public static ServerTiming get(ServletRequest request) {
+      Object attribute = request.getAttribute(WebConstants.DANDELION_SERVER_TIMING);
+      return attribute instanceof ServerTiming ? (ServerTiming) attribute : null;
+   }
+
+   /**
+    * @param request
+    *           The current request.
+    * @return the start time to pass to
+    *         {@link #stop(ServletRequest, String, long)}, or {@code 0} if the
+    *         request is not sampled.
+    */
+   public static long start(ServletRequest request) {
+      return get(request) != null ? System.nanoTime() : 0L;
+   }
+
+   /**
+    * @param configuration
+    *           The current configuration.
+    * @param request
+    *           The current request.
+    * @return the start time to pass to
+    *         {@link #stop(ServletRequest, String, long)}, or {@code 0} if the
+    *         {@code Server-Timing} header is disabled or if the request is not
+    *         sampled.
+    */
+   public static long start(Configuration configuration, ServletRequest request) {
+      return configuration.isMonitoringServerTimingEnabled() ? start(request) : 0L;
+   }
+
+   /**
+    * <p>
+    * Records the time elapsed since the given start time under the given name,
+    * if the request is sampled. Nothing is looked up if the start time is
+    * {@code 0}.
+    * </p>
+    * 
+    * @param request
+    *           The current request.
+    * @param name
+    *           The name of the stage.
+    * @param start
+    *           The value returned by {@link #start(ServletRequest)}.
+    */
+   public static void stop(ServletRequest request, String name, long start) {
+      if (start != 0L) {
+         ServerTiming serverTiming = get(request);
+         if (serverTiming != null) {
+            serverTiming.add(name, System.nanoTime() - start);
+         }
+      }
+   }
+
+   /**
+    * <p>
+    * Adds a duration to the given stage.
+    * </p>
+    * 
+    * @param name
+    *           The name of the stage, which must be a valid HTTP token.
+    * @param nanos
+    *           The duration, in nanoseconds.
+    */
+   public synchronized void add(String name, long nanos) {
+      Long duration = durations.get(name);
+      durations.put(name, duration != null ? duration + nanos : nanos);
+   }
+
+   /**
+    * @param name
+    *           The name of the stage.
+    * @return the total duration of the stage, in nanoseconds, or {@code 0} if
+    *         it has not been recorded.
+    */
+   public synchronized long getDuration(String name) {
+      Long duration = durations.get(name);
+      return duration != null ? duration : 0L;
+   }
+
+   /**
+    * @return the time at which the request was sampled, as returned by
+    *         {@link System#nanoTime()}.
+    */
+   public long getStartTime() {
+      return startTime;
+   }
+
+   /**
+    * @return the value of the {@code Server-Timing} header, all durations
+    *         being expressed in milliseconds.
+    */
+   public synchronized String toHeaderValue() {
+      StringBuilder header = new StringBuilder();
+      for (Map.Entry<String, Long> entry : durations.entrySet()) {
+         if (header.length() > 0) {
+            header.append(", ");
+         }
+         header.append(entry.getKey()).append(";dur=").append(entry.getValue() / 1000 / 1000.0);
+      }
+      return header.toString();
+   }
+}
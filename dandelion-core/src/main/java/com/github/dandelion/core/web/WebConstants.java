@@ -49,6 +49,9 @@ public final class WebConstants {
     */
    public static final String DANDELION_CONTEXT_ATTRIBUTE = "dandelionContext";
    public static final String DANDELION_REQUEST_KEY = "dandelionRequestKey";
+   public static final String DANDELION_ASSET_HASH = "dandelionAssetHash";
+   public static final String DANDELION_BUNDLE_STORAGE = "dandelionBundleStorage";
+   public static final String DANDELION_SERVER_TIMING = "dandelionServerTiming";
 
    /**
     * Request parameters
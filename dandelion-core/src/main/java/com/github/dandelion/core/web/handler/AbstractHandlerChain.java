@@ -31,6 +31,10 @@ package com.github.dandelion.core.web.handler;
 
 import org.slf4j.Logger;
 
+import com.github.dandelion.core.config.Configuration;
+import com.github.dandelion.core.monitoring.Timer;
+import com.github.dandelion.core.web.ServerTiming;
+
 /**
  * <p>
  * Abstract base class for handlers.
@@ -50,22 +54,48 @@ public abstract class AbstractHandlerChain implements HandlerChain {
     */
    private HandlerChain nextHandler;
 
+   /**
+    * The timer measuring the executions of the handler.
+    */
+   private Timer timer = Timer.DISABLED;
+
+   /**
+    * Whether the executions of the handler are reported in the
+    * {@link ServerTiming}.
+    */
+   private boolean serverTimingEnabled;
+
+   /**
+    * The name under which the executions of the handler are reported in the
+    * {@link ServerTiming}.
+    */
+   private final String serverTimingName = getClass().getSimpleName().replaceFirst("(Pre|Post)?Handler$", "");
+
    @Override
    public void setNext(HandlerChain nextHandler) {
       this.nextHandler = nextHandler;
    }
 
+   public void setTimer(Timer timer) {
+      this.timer = timer;
+   }
+
+   public void setServerTimingEnabled(boolean serverTimingEnabled) {
+      this.serverTimingEnabled = serverTimingEnabled;
+   }
+
    @Override
    public final void doHandle(HandlerContext context) {
 
       boolean shouldContinue = true;
 
-      getLogger().trace("Checking applicability of {}", this.getClass().getSimpleName());
       boolean isApplicable = isApplicable(context);
-      getLogger().trace("Handler {} is applicable: {}", this.getClass().getSimpleName(), isApplicable);
+      if (getLogger().isTraceEnabled()) {
+         getLogger().trace("Handler {} is applicable: {}", this.getClass().getSimpleName(), isApplicable);
+      }
 
       if (isApplicable) {
-         shouldContinue = this.handle(context);
+         shouldContinue = timedHandle(context);
          getLogger().trace("Handler chain continues: {}", shouldContinue);
       }
 
@@ -74,6 +104,67 @@ public abstract class AbstractHandlerChain implements HandlerChain {
       }
    }
 
+   /**
+    * <p>
+    * Invokes {@link #handle(HandlerContext)}, measuring its execution time.
+    * </p>
+    */
+   boolean timedHandle(HandlerContext context) {
+      long start = timer.start();
+      long serverTimingStart = serverTimingEnabled ? ServerTiming.start(context.getRequest()) : 0L;
+      try {
+         return handle(context);
+      }
+      finally {
+         ServerTiming.stop(context.getRequest(), serverTimingName, serverTimingStart);
+         timer.stop(start);
+      }
+   }
+
+   /**
+    * <p>
+    * Whether the handler may apply to the requests of the given profile, used
+    * to compute the {@link HandlerPlans execution plans}.
+    * </p>
+    * <p>
+    * The result may only depend on the profile and on the configuration, and
+    * must be {@code true} whenever {@link #isApplicable(HandlerContext)} may
+    * return {@code true} for a request of this profile. The default
+    * implementation always returns {@code true}.
+    * </p>
+    * 
+    * @param profile
+    *           The profile of the requests.
+    * @param configuration
+    *           The current configuration.
+    * @return {@code false} if the handler never applies to the requests of the
+    *         given profile.
+    */
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return true;
+   }
+
+   /**
+    * <p>
+    * Whether the handler applies to the current request, knowing that it
+    * belongs to the {@link HandlerPlans execution plan} of the profile of the
+    * request, i.e. that {@link #isApplicableTo(RequestProfile, Configuration)}
+    * returned {@code true}.
+    * </p>
+    * <p>
+    * Only the conditions that the profile doesn't cover need to be checked.
+    * The default implementation checks all of them, using
+    * {@link #isApplicable(HandlerContext)}.
+    * </p>
+    * 
+    * @param context
+    *           The context in which the handler is executed.
+    * @return {@code true} if the handler applies to the current request.
+    */
+   public boolean isApplicableInPlan(HandlerContext context) {
+      return isApplicable(context);
+   }
+
    /**
     * @return the actual logger of the handler.
     */
@@ -50,6 +50,18 @@ public final class HandlerContext {
    private final HttpServletResponse response;
    private byte[] responseAsBytes;
 
+   /**
+    * Whether the response has been replaced by a handler since the filter
+    * chain completed.
+    */
+   private boolean responseModified;
+
+   /**
+    * The profile of the request, computed by the {@link HandlerPlans} during
+    * the pre-filtering phase.
+    */
+   private RequestProfile requestProfile;
+
    public HandlerContext(Context context, HttpServletRequest request, HttpServletResponse response,
          byte[] responseAsBytes) {
       super();
@@ -71,11 +83,28 @@ public final class HandlerContext {
       return response;
    }
 
+   public RequestProfile getRequestProfile() {
+      return requestProfile;
+   }
+
+   public void setRequestProfile(RequestProfile requestProfile) {
+      this.requestProfile = requestProfile;
+   }
+
    public byte[] getResponseAsBytes() {
       return responseAsBytes;
    }
 
    public void setResponseAsBytes(byte[] responseAsBytes) {
       this.responseAsBytes = responseAsBytes;
+      this.responseModified = true;
+   }
+
+   /**
+    * @return {@code true} if a handler has replaced the response written by
+    *         the filter chain, {@code false} otherwise.
+    */
+   public boolean isResponseModified() {
+      return responseModified;
    }
 }
@@ -0,0 +1,285 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.web.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.config.Configuration;
+
+/**
+ * <p>
+ * Execution plans of the pre and post handlers.
+ * </p>
+ * <p>
+ * A plan is the ordered array of the handlers that may apply to the requests
+ * of a given {@link RequestProfile}, according to
+ * {@link AbstractHandlerChain#isApplicableTo(RequestProfile, Configuration)}.
+ * The profile of a request is computed once from its URI and kept in the
+ * {@link HandlerContext}. The plans of the pre-filtering phase are computed
+ * upfront, those of the post-filtering phase on first use for each content
+ * type, so that handling a request only requires a lookup and a loop over the
+ * handlers of the plan, each one only checking what its profile doesn't
+ * cover, in {@link AbstractHandlerChain#isApplicableInPlan(HandlerContext)}.
+ * </p>
+ * <p>
+ * Plans are only available when all handlers extend
+ * {@link AbstractHandlerChain}. Otherwise, the linked chains of handlers are
+ * used as before.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class HandlerPlans {
+
+   private static final Logger LOG = LoggerFactory.getLogger(HandlerPlans.class);
+
+   /**
+    * Maximum number of cached plans per request profile, bounding the memory
+    * used when responses use many distinct content types.
+    */
+   private static final int MAX_PLANS = 256;
+
+   private final AbstractHandlerChain[] preHandlers;
+   private final AbstractHandlerChain[] postHandlers;
+   private final Configuration configuration;
+   private final String assetUrlPattern;
+
+   /**
+    * The profiles of the pre-filtering phase, indexed by their asset and
+    * debugger flags.
+    */
+   private final RequestProfile[] requestProfiles;
+
+   /**
+    * The plans of the pre-filtering phase, by profile index.
+    */
+   private final AbstractHandlerChain[][] prePlans;
+
+   /**
+    * The plans of the post-filtering phase of the responses without content
+    * type, by profile index.
+    */
+   private final AbstractHandlerChain[][] postPlansWithoutContentType;
+
+   /**
+    * The plans of the post-filtering phase, by profile index and by content
+    * type of the response.
+    */
+   private final List<ConcurrentMap<String, AbstractHandlerChain[]>> postPlans;
+
+   private HandlerPlans(AbstractHandlerChain[] preHandlers, AbstractHandlerChain[] postHandlers,
+         Configuration configuration) {
+      this.preHandlers = preHandlers;
+      this.postHandlers = postHandlers;
+      this.configuration = configuration;
+      this.assetUrlPattern = configuration.getAssetUrlPattern().replaceAll("/\\*", "");
+
+      this.requestProfiles = new RequestProfile[4];
+      this.prePlans = new AbstractHandlerChain[4][];
+      this.postPlansWithoutContentType = new AbstractHandlerChain[4][];
+      this.postPlans = new ArrayList<ConcurrentMap<String, AbstractHandlerChain[]>>(4);
+      for (int index = 0; index < 4; index++) {
+         RequestProfile requestProfile = new RequestProfile(false, null, (index & 2) != 0, (index & 1) != 0);
+         requestProfiles[index] = requestProfile;
+         prePlans[index] = computePlan(requestProfile);
+         postPlansWithoutContentType[index] = computePlan(requestProfile.afterChaining(null));
+         postPlans.add(new ConcurrentHashMap<String, AbstractHandlerChain[]>());
+      }
+   }
+
+   /**
+    * <p>
+    * Creates the execution plans of the given handlers.
+    * </p>
+    * 
+    * @param preHandlers
+    *           The pre-filtering handlers, sorted by rank.
+    * @param postHandlers
+    *           The post-filtering handlers, sorted by rank.
+    * @param configuration
+    *           The configuration the applicability of the handlers depends on.
+    * @return the execution plans, or {@code null} if one of the handlers
+    *         doesn't extend {@link AbstractHandlerChain}.
+    */
+   public static HandlerPlans create(List<HandlerChain> preHandlers, List<HandlerChain> postHandlers,
+         Configuration configuration) {
+      AbstractHandlerChain[] pre = toArray(preHandlers);
+      AbstractHandlerChain[] post = toArray(postHandlers);
+      if (pre == null || post == null) {
+         return null;
+      }
+      return new HandlerPlans(pre, post, configuration);
+   }
+
+   private static AbstractHandlerChain[] toArray(List<HandlerChain> handlers) {
+      AbstractHandlerChain[] array = new AbstractHandlerChain[handlers.size()];
+      for (int i = 0; i < array.length; i++) {
+         if (!(handlers.get(i) instanceof AbstractHandlerChain)) {
+            LOG.info("The handler {} doesn't extend {}, execution plans disabled", handlers.get(i).getClass()
+                  .getName(), AbstractHandlerChain.class.getSimpleName());
+            return null;
+         }
+         array[i] = (AbstractHandlerChain) handlers.get(i);
+      }
+      return array;
+   }
+
+   /**
+    * <p>
+    * Executes the plan of the given phase matching the current request.
+    * </p>
+    * <p>
+    * The profile of the request is taken from the given context if already
+    * computed, typically by the pre-filtering phase, and stored in it
+    * otherwise.
+    * </p>
+    * 
+    * @param afterChaining
+    *           {@code true} to execute the post-filtering handlers.
+    * @param context
+    *           The context in which the handlers are executed.
+    */
+   public void execute(boolean afterChaining, HandlerContext context) {
+
+      RequestProfile requestProfile = context.getRequestProfile();
+      if (requestProfile == null) {
+         requestProfile = getRequestProfile(context.getRequest());
+         context.setRequestProfile(requestProfile);
+      }
+
+      AbstractHandlerChain[] plan = afterChaining ? getPostPlan(requestProfile, context.getResponse()
+            .getContentType()) : getPrePlan(requestProfile);
+      for (AbstractHandlerChain handler : plan) {
+         boolean isApplicable = handler.isApplicableInPlan(context);
+         if (handler.getLogger().isTraceEnabled()) {
+            handler.getLogger().trace("Handler {} is applicable: {}", handler.getClass().getSimpleName(),
+                  isApplicable);
+         }
+
+         if (isApplicable && !handler.timedHandle(context)) {
+            handler.getLogger().trace("Handler chain stopped");
+            break;
+         }
+      }
+   }
+
+   /**
+    * <p>
+    * Computes the profile of the given request, from its URI only.
+    * </p>
+    * 
+    * @param request
+    *           The current request.
+    * @return the shared profile of the pre-filtering phase of the request.
+    */
+   public RequestProfile getRequestProfile(HttpServletRequest request) {
+      String requestUri = request.getRequestURI();
+      return requestProfiles[indexOf(requestUri.contains(assetUrlPattern), requestUri.contains("ddl-debugger"))];
+   }
+
+   /**
+    * @param requestProfile
+    *           The profile of the request, as returned by
+    *           {@link #getRequestProfile(HttpServletRequest)}.
+    * @return the pre-filtering handlers that may apply to the request, ordered
+    *         by rank.
+    */
+   public AbstractHandlerChain[] getPrePlan(RequestProfile requestProfile) {
+      return prePlans[indexOf(requestProfile)];
+   }
+
+   /**
+    * @param requestProfile
+    *           The profile of the request, as returned by
+    *           {@link #getRequestProfile(HttpServletRequest)}.
+    * @param contentType
+    *           The content type of the response.
+    * @return the post-filtering handlers that may apply to the request, ordered
+    *         by rank.
+    */
+   public AbstractHandlerChain[] getPostPlan(RequestProfile requestProfile, String contentType) {
+
+      int index = indexOf(requestProfile);
+      if (contentType == null) {
+         return postPlansWithoutContentType[index];
+      }
+
+      ConcurrentMap<String, AbstractHandlerChain[]> plans = postPlans.get(index);
+      AbstractHandlerChain[] plan = plans.get(contentType);
+      if (plan == null) {
+         plan = computePlan(requestProfiles[index].afterChaining(contentType));
+         if (plans.size() < MAX_PLANS) {
+            plans.putIfAbsent(contentType, plan);
+         }
+      }
+      return plan;
+   }
+
+   private AbstractHandlerChain[] computePlan(RequestProfile profile) {
+
+      List<AbstractHandlerChain> plan = new ArrayList<AbstractHandlerChain>();
+      for (AbstractHandlerChain handler : profile.isAfterChaining() ? postHandlers : preHandlers) {
+         if (handler.isApplicableTo(profile, configuration)) {
+            plan.add(handler);
+         }
+      }
+
+      LOG.debug("Execution plan computed for {}: {} handlers", profile, plan.size());
+      return plan.toArray(new AbstractHandlerChain[plan.size()]);
+   }
+
+   private static int indexOf(RequestProfile requestProfile) {
+      return indexOf(requestProfile.isAssetRequest(), requestProfile.isDebuggerRequest());
+   }
+
+   private static int indexOf(boolean assetRequest, boolean debuggerRequest) {
+      return (assetRequest ? 2 : 0) + (debuggerRequest ? 1 : 0);
+   }
+
+   /**
+    * @return the number of cached plans of the post-filtering phase, by
+    *         content type.
+    */
+   public int size() {
+      int size = 0;
+      for (ConcurrentMap<String, AbstractHandlerChain[]> plans : postPlans) {
+         size += plans.size();
+      }
+      return size;
+   }
+}
@@ -0,0 +1,157 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.web.handler;
+
+/**
+ * <p>
+ * Description of a request and of its response limited to what the
+ * applicability of most handlers depends on: the phase, the content type of
+ * the response and the kind of request.
+ * </p>
+ * <p>
+ * Requests sharing the same profile are handled by the same
+ * {@link HandlerPlans execution plan}. The profile of a request is computed
+ * once by the {@link HandlerPlans} and kept in the {@link HandlerContext} for
+ * both phases.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public final class RequestProfile {
+
+   private final boolean afterChaining;
+
+   /**
+    * Content type of the response, without its parameters, or {@code null} if
+    * the response has no content type or isn't generated yet.
+    */
+   private final String mimeType;
+
+   /**
+    * Whether the full content type of the response contains
+    * {@code text/html}.
+    */
+   private final boolean htmlResponse;
+
+   /**
+    * Whether the requested URL matches the URL pattern of the assets.
+    */
+   private final boolean assetRequest;
+
+   /**
+    * Whether the requested URI is one of the debugger.
+    */
+   private final boolean debuggerRequest;
+
+   public RequestProfile(boolean afterChaining, String contentType, boolean assetRequest, boolean debuggerRequest) {
+      this.afterChaining = afterChaining;
+      this.mimeType = normalize(contentType);
+      this.htmlResponse = contentType != null && contentType.contains("text/html");
+      this.assetRequest = assetRequest;
+      this.debuggerRequest = debuggerRequest;
+   }
+
+   /**
+    * <p>
+    * Returns the profile of the post-filtering phase of the same request.
+    * </p>
+    * 
+    * @param contentType
+    *           The content type of the response.
+    * @return the profile of the request once its response is generated.
+    */
+   public RequestProfile afterChaining(String contentType) {
+      return new RequestProfile(true, contentType, assetRequest, debuggerRequest);
+   }
+
+   private static String normalize(String contentType) {
+      if (contentType == null) {
+         return null;
+      }
+      int separator = contentType.indexOf(';');
+      return (separator >= 0 ? contentType.substring(0, separator) : contentType).trim();
+   }
+
+   public boolean isAfterChaining() {
+      return afterChaining;
+   }
+
+   public String getMimeType() {
+      return mimeType;
+   }
+
+   public boolean hasContentType() {
+      return mimeType != null;
+   }
+
+   public boolean isHtmlResponse() {
+      return htmlResponse;
+   }
+
+   public boolean isAssetRequest() {
+      return assetRequest;
+   }
+
+   public boolean isDebuggerRequest() {
+      return debuggerRequest;
+   }
+
+   @Override
+   public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + (afterChaining ? 1231 : 1237);
+      result = prime * result + ((mimeType == null) ? 0 : mimeType.hashCode());
+      result = prime * result + (htmlResponse ? 1231 : 1237);
+      result = prime * result + (assetRequest ? 1231 : 1237);
+      result = prime * result + (debuggerRequest ? 1231 : 1237);
+      return result;
+   }
+
+   @Override
+   public boolean equals(Object obj) {
+      if (this == obj) {
+         return true;
+      }
+      if (obj == null || getClass() != obj.getClass()) {
+         return false;
+      }
+      RequestProfile other = (RequestProfile) obj;
+      return afterChaining == other.afterChaining && htmlResponse == other.htmlResponse
+            && assetRequest == other.assetRequest && debuggerRequest == other.debuggerRequest
+            && (mimeType == null ? other.mimeType == null : mimeType.equals(other.mimeType));
+   }
+
+   @Override
+   public String toString() {
+      return "RequestProfile [afterChaining=" + afterChaining + ", mimeType=" + mimeType + ", htmlResponse="
+            + htmlResponse + ", assetRequest=" + assetRequest + ", debuggerRequest=" + debuggerRequest + "]";
+   }
+}
@@ -29,13 +29,8 @@
  */
 package com.github.dandelion.core.web.handler.cache;
 
-import java.io.UnsupportedEncodingException;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.github.dandelion.core.config.Configuration;
-import com.github.dandelion.core.util.DigestUtils;
+import com.github.dandelion.core.util.ContentHasher;
+import com.github.dandelion.core.web.WebConstants;
 import com.github.dandelion.core.web.handler.HandlerContext;
 
 /**
@@ -48,12 +43,15 @@ import com.github.dandelion.core.web.handler.HandlerContext;
  */
 public final class HttpHeaderUtils {
 
-   private static final Logger LOG = LoggerFactory.getLogger(HttpHeaderUtils.class);
-
    /**
     * <p>
-    * Computes a MD5 hash of the provided response. This hash is used as an ETag
-    * value.
+    * Computes a hash of the provided response, using the {@link ContentHasher}.
+    * This hash is used as an ETag value.
+    * </p>
+    * <p>
+    * When the response is an asset served from the asset storage, and no
+    * handler has modified it since, the hash computed when the asset was stored
+    * is reused.
     * </p>
     * <p>
     * The ETag is wrapped with {@code "} as suggested in the RFC 2616, section
@@ -64,27 +62,22 @@ public final class HttpHeaderUtils {
     *           The response from which the ETag is computed.
     * @param context
     *           The context in which the ETag must be computed.
-    * @return a MD5 hash of the provided response, used as an ETag.
+    * @return a hash of the provided response, used as an ETag.
     */
    public static String computeETag(byte[] response, HandlerContext context) {
 
-      Configuration configuration = context.getContext().getConfiguration();
-
       StringBuilder etagValue = new StringBuilder();
 
       if (response == null || response.length == 0) {
          return etagValue.toString();
       }
 
-      try {
-         etagValue.append("\"");
-         etagValue.append(DigestUtils.md5Digest(new String(response, configuration.getEncoding())));
-         etagValue.append("\"");
-      }
-      catch (UnsupportedEncodingException e) {
-         LOG.warn("Unable to calculte the ETag of the resource corresponding to the request URL: {}", context
-               .getRequest().getRequestURL());
-      }
+      Object assetHash = context.isResponseModified() ? null : context.getRequest().getAttribute(
+            WebConstants.DANDELION_ASSET_HASH);
+
+      etagValue.append("\"");
+      etagValue.append(assetHash != null ? assetHash : ContentHasher.hash(response));
+      etagValue.append("\"");
 
       return etagValue.toString();
    }
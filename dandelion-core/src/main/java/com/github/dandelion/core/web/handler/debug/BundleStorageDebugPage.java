@@ -92,7 +92,7 @@ public class BundleStorageDebugPage extends AbstractDebugPage {
                .create());
       }
 
-      pageContext.put("number", context.getContext().getBundleStorage().getBundleDag().getVerticies().size());
+      pageContext.put("number", bundleStorage.getBundleDag().getVerticies().size());
       pageContext.put("bundles", bundles);
 
       return pageContext;
@@ -92,10 +92,16 @@ public class OptionsDebugPage extends AbstractDebugPage {
             conf.getAssetLocationsResolutionStrategy()));
       options.add(option(DandelionConfig.ASSET_PROCESSORS.getName(), conf.getAssetProcessors()));
       options.add(option(DandelionConfig.ASSET_JS_PROCESSING.getName() + " (Thymeleaf only)", conf.isAssetJsProcessingEnabled()));
+      options.add(option(DandelionConfig.ASSET_JS_PROCESSING_FLASH_STORE.getName() + " (Thymeleaf only)", conf.getAssetJsProcessingFlashStore()));
+      options.add(option(DandelionConfig.ASSET_JS_PROCESSING_FLASH_MAX_SIZE.getName() + " (Thymeleaf only)", conf.getAssetJsProcessingFlashMaxSize()));
+      options.add(option(DandelionConfig.ASSET_JS_PROCESSING_FLASH_TTL.getName() + " (Thymeleaf only)", conf.getAssetJsProcessingFlashTtl()));
+      options.add(option(DandelionConfig.ASSET_JS_PROCESSING_FLASH_SERIALIZABLE_PACKAGES.getName() + " (Thymeleaf only)", conf.getAssetJsProcessingFlashSerializablePackages()));
       options.add(option(DandelionConfig.ASSET_JS_EXCLUDES.getName(), conf.getAssetJsExcludes()));
       options.add(option(DandelionConfig.ASSET_CSS_EXCLUDES.getName(), conf.getAssetCssExcludes()));
       options.add(option(DandelionConfig.ASSET_URL_PATTERN.getName(), conf.getAssetUrlPattern()));
       options.add(option(DandelionConfig.ASSET_STORAGE.getName(), conf.getAssetStorage()));
+      options.add(option(DandelionConfig.ASSET_MAPPING_THREADS.getName(), conf.getAssetMappingThreads()));
+      options.add(option(DandelionConfig.ASSET_INJECTION_TEMPLATE.getName(), conf.isAssetInjectionTemplateEnabled()));
 
       // Versioning-related options
       options.add(option(DandelionConfig.ASSET_VERSIONING_MODE.getName(), conf.getAssetVersioningMode()));
@@ -116,6 +122,8 @@ public class OptionsDebugPage extends AbstractDebugPage {
       options.add(option(DandelionConfig.BUNDLE_LOCATION.getName(), conf.getBundleLocation()));
       options.add(option(DandelionConfig.BUNDLE_INCLUDES.getName(), conf.getBundleIncludes()));
       options.add(option(DandelionConfig.BUNDLE_EXCLUDES.getName(), conf.getBundleExcludes()));
+      options.add(option(DandelionConfig.BUNDLE_INDEX.getName(), conf.isBundleIndexEnabled()));
+      options.add(option(DandelionConfig.BUNDLE_LOADING_THREADS.getName(), conf.getBundleLoadingThreads()));
 
       // Tooling-related options
       options.add(option(DandelionConfig.TOOL_GZIP.getName(), conf.isToolGzipEnabled()));
@@ -124,9 +132,20 @@ public class OptionsDebugPage extends AbstractDebugPage {
       options.add(option(DandelionConfig.TOOL_ALERT_REPORTING.getName(), conf.isToolAlertReportingEnabled()));
       options.add(option(DandelionConfig.TOOL_ALERT_REPORTING_MODE.getName(), conf.getToolAlertReportingMode()));
       options.add(option(DandelionConfig.TOOL_BUNDLE_RELOADING.getName(), conf.isToolBundleReloadingEnabled()));
+      options.add(option(DandelionConfig.TOOL_FILE_WATCHER.getName(), conf.isToolFileWatcherEnabled()));
+      options.add(option(DandelionConfig.TOOL_FILE_WATCHER_INTERVAL.getName(), conf.getToolFileWatcherInterval()));
+
+      // Package manager options
+      options.add(option(DandelionConfig.BOWER_COMPONENTS_LOCATION.getName(), conf.getBowerComponentsLocation()));
+      options.add(option(DandelionConfig.BOWER_COMPONENTS_SCAN_DEPTH.getName(), conf.getBowerComponentsScanDepth()));
+      options.add(option(DandelionConfig.BOWER_COMPONENTS_CACHE.getName(), conf.isBowerComponentsCacheEnabled()));
 
       // Monitoring-related options
       options.add(option(DandelionConfig.MONITORING_JMX.getName(), conf.isMonitoringJmxEnabled()));
+      options.add(option(DandelionConfig.MONITORING_METRICS.getName(), conf.isMonitoringMetricsEnabled()));
+      options.add(option(DandelionConfig.MONITORING_SERVER_TIMING.getName(), conf.isMonitoringServerTimingEnabled()));
+      options.add(option(DandelionConfig.MONITORING_SERVER_TIMING_SAMPLING.getName(),
+            conf.getMonitoringServerTimingSampling()));
 
       // Misc options
       options.add(option(DandelionConfig.ENCODING.getName(), conf.getEncoding()));
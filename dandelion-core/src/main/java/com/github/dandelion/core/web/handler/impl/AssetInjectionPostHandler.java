@@ -30,6 +30,7 @@
 package com.github.dandelion.core.web.handler.impl;
 
 import java.io.UnsupportedEncodingException;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
@@ -42,7 +43,7 @@ import com.github.dandelion.core.DandelionException;
 import com.github.dandelion.core.asset.Asset;
 import com.github.dandelion.core.asset.AssetDomPosition;
 import com.github.dandelion.core.asset.AssetQuery;
-import com.github.dandelion.core.html.AbstractHtmlTag;
+import com.github.dandelion.core.config.Configuration;
 import com.github.dandelion.core.storage.BundleStorage;
 import com.github.dandelion.core.util.HtmlUtils;
 import com.github.dandelion.core.util.StringUtils;
@@ -50,6 +51,7 @@ import com.github.dandelion.core.web.AssetRequestContext;
 import com.github.dandelion.core.web.WebConstants;
 import com.github.dandelion.core.web.handler.AbstractHandlerChain;
 import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.RequestProfile;
 
 /**
  * <p>
@@ -86,34 +88,61 @@ public class AssetInjectionPostHandler extends AbstractHandlerChain {
       return 20;
    }
 
+   @Override
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return profile.isHtmlResponse() && !profile.isDebuggerRequest();
+   }
+
    @Override
    public boolean isApplicable(HandlerContext handlerContext) {
 
       HttpServletRequest request = handlerContext.getRequest();
       HttpServletResponse wrappedResponse = handlerContext.getResponse();
-      boolean retval = true;
 
       // Not applicable in non-HTML resources
       if (wrappedResponse.getContentType() == null || !wrappedResponse.getContentType().contains("text/html")) {
-         retval = false;
+         return false;
+      }
+
+      // Not applicable when browsing the debug pages
+      if (request.getRequestURI().contains("ddl-debugger")) {
+         return false;
       }
 
-      // Also check whether the asset injection has been explicitely disabled
-      // (possibly by other components) either from a request attribute...
+      return isInjectionEnabled(request);
+   }
+
+   @Override
+   public boolean isApplicableInPlan(HandlerContext handlerContext) {
+      return isInjectionEnabled(handlerContext.getRequest());
+   }
+
+   /**
+    * <p>
+    * Checks whether the asset injection has been explicitely disabled
+    * (possibly by other components) either from a request attribute or from a
+    * request parameter.
+    * </p>
+    * 
+    * @param request
+    *           The current request.
+    * @return {@code false} if the asset injection has been disabled.
+    */
+   private boolean isInjectionEnabled(HttpServletRequest request) {
+
+      boolean retval = true;
+
       if (request.getAttribute(WebConstants.DANDELION_ASSET_FILTER_STATE) != null) {
-         retval = retval
-               && Boolean.parseBoolean(String.valueOf(request.getAttribute(WebConstants.DANDELION_ASSET_FILTER_STATE)));
+         retval = Boolean.parseBoolean(String.valueOf(request.getAttribute(WebConstants.DANDELION_ASSET_FILTER_STATE)));
 
          if (!retval) {
             LOG.debug("Asset injection explicitely disabled by the {} attribute for the request '{}'",
                   WebConstants.DANDELION_ASSET_FILTER_STATE, request.getRequestURI());
          }
       }
-      // ... or from a request parameter
       else if (request.getParameter(WebConstants.DANDELION_ASSET_FILTER_STATE) != null) {
 
-         retval = retval
-               && Boolean.parseBoolean(String.valueOf(request.getParameter(WebConstants.DANDELION_ASSET_FILTER_STATE)));
+         retval = Boolean.parseBoolean(String.valueOf(request.getParameter(WebConstants.DANDELION_ASSET_FILTER_STATE)));
 
          if (!retval) {
             LOG.debug("Asset injection explicitely disabled by the {} parameter for the request '{}'",
@@ -121,11 +150,6 @@ public class AssetInjectionPostHandler extends AbstractHandlerChain {
          }
       }
 
-      // Not applicable when browsing the debug pages
-      if (request.getRequestURI().contains("ddl-debugger")) {
-         retval = false;
-      }
-
       return retval;
    }
 
@@ -135,21 +159,22 @@ public class AssetInjectionPostHandler extends AbstractHandlerChain {
       // Retrieve the AssetRequestContext from the request
       AssetRequestContext arc = AssetRequestContext.get(handlerContext.getRequest());
 
+      Set<Asset> assetsHead = getAssetsToInject(handlerContext, arc, AssetDomPosition.head);
+      Set<Asset> assetsBody = getAssetsToInject(handlerContext, arc, AssetDomPosition.body);
+
+      // Nothing left to inject, typically because all assets have been
+      // rendered by inline placeholders: the response is left untouched
+      if (assetsHead.isEmpty() && assetsBody.isEmpty()) {
+         return true;
+      }
+
       // Convert the response to a String in order to perform easier
       // replacements
       String html = new String(handlerContext.getResponseAsBytes());
 
-      // Get all assets to be injected in the <head> section
-      Set<Asset> assetsHead = new AssetQuery(handlerContext.getRequest(), handlerContext.getContext())
-            .atPosition(AssetDomPosition.head).perform();
-
+      // Inject the assets in the <head> section
       if (!assetsHead.isEmpty()) {
-         StringBuilder htmlHead = new StringBuilder();
-         for (Asset asset : assetsHead) {
-            AbstractHtmlTag tag = HtmlUtils.transformAsset(asset);
-            htmlHead.append(tag.toHtml());
-            htmlHead.append('\n');
-         }
+         StringBuilder htmlHead = HtmlUtils.toHtml(assetsHead);
 
          String cssPlaceholder = arc.getCssPlaceholder();
 
@@ -165,17 +190,9 @@ public class AssetInjectionPostHandler extends AbstractHandlerChain {
          }
       }
 
-      // Get all assets to be injected in the <body> section
-      Set<Asset> assetsBody = new AssetQuery(handlerContext.getRequest(), handlerContext.getContext())
-            .atPosition(AssetDomPosition.body).perform();
-
+      // Inject the assets in the <body> section
       if (!assetsBody.isEmpty()) {
-         StringBuilder htmlBody = new StringBuilder();
-         for (Asset asset : assetsBody) {
-            AbstractHtmlTag tag = HtmlUtils.transformAsset(asset);
-            htmlBody.append(tag.toHtml());
-            htmlBody.append('\n');
-         }
+         StringBuilder htmlBody = HtmlUtils.toHtml(assetsBody);
 
          String jsPlaceholder = arc.getJsPlaceholder();
 
@@ -207,4 +224,32 @@ public class AssetInjectionPostHandler extends AbstractHandlerChain {
       handlerContext.setResponseAsBytes(updatedResponse);
       return true;
    }
+
+   /**
+    * <p>
+    * Queries the assets of the given position, leaving out those already
+    * rendered while the page was being generated.
+    * </p>
+    * <p>
+    * Assets declared after an inline placeholder couldn't be rendered by it
+    * and are injected at the default position instead.
+    * </p>
+    */
+   private Set<Asset> getAssetsToInject(HandlerContext handlerContext, AssetRequestContext arc,
+         AssetDomPosition assetDomPosition) {
+
+      Set<Asset> assets = new AssetQuery(handlerContext.getRequest(), handlerContext.getContext()).atPosition(
+            assetDomPosition).perform();
+
+      if (arc.isRendered(assetDomPosition)) {
+         assets = new LinkedHashSet<Asset>(assets);
+         assets.removeAll(arc.getRenderedAssets());
+         if (!assets.isEmpty()) {
+            LOG.warn("The assets {} are declared after the inline placeholder of the request '{}' and will be "
+                  + "injected at the end of the <{}> section", assets, handlerContext.getRequest().getRequestURI(),
+                  assetDomPosition);
+         }
+      }
+      return assets;
+   }
 }
\ No newline at end of file
@@ -33,9 +33,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.dandelion.core.cache.RequestCache;
+import com.github.dandelion.core.config.Configuration;
 import com.github.dandelion.core.web.WebConstants;
 import com.github.dandelion.core.web.handler.AbstractHandlerChain;
 import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.RequestProfile;
 
 /**
  * <p>
@@ -66,15 +68,25 @@ public class ClearCachePreHandler extends AbstractHandlerChain {
       return 0;
    }
 
+   @Override
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return configuration.isToolDebuggerEnabled();
+   }
+
    @Override
    public boolean isApplicable(HandlerContext handlerContext) {
       return handlerContext.getContext().getConfiguration().isToolDebuggerEnabled()
             && handlerContext.getRequest().getParameter(WebConstants.DANDELION_CLEAR_CACHE) != null;
    }
 
+   @Override
+   public boolean isApplicableInPlan(HandlerContext handlerContext) {
+      return handlerContext.getRequest().getParameter(WebConstants.DANDELION_CLEAR_CACHE) != null;
+   }
+
    @Override
    public boolean handle(HandlerContext handlerContext) {
-      handlerContext.getContext().getCache().clear();
+      handlerContext.getContext().getCacheManager().clearCache();
       LOG.info("Cleared configured cache");
       return true;
    }
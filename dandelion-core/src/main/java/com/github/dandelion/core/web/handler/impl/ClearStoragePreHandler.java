@@ -32,10 +32,12 @@ package com.github.dandelion.core.web.handler.impl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.dandelion.core.config.Configuration;
 import com.github.dandelion.core.storage.AssetStorage;
 import com.github.dandelion.core.web.WebConstants;
 import com.github.dandelion.core.web.handler.AbstractHandlerChain;
 import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.RequestProfile;
 
 /**
  * <p>
@@ -66,12 +68,22 @@ public class ClearStoragePreHandler extends AbstractHandlerChain {
       return 0;
    }
 
+   @Override
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return configuration.isToolDebuggerEnabled();
+   }
+
    @Override
    public boolean isApplicable(HandlerContext handlerContext) {
       return handlerContext.getContext().getConfiguration().isToolDebuggerEnabled()
             && handlerContext.getRequest().getParameter(WebConstants.DANDELION_CLEAR_STORAGE) != null;
    }
 
+   @Override
+   public boolean isApplicableInPlan(HandlerContext handlerContext) {
+      return handlerContext.getRequest().getParameter(WebConstants.DANDELION_CLEAR_STORAGE) != null;
+   }
+
    @Override
    public boolean handle(HandlerContext handlerContext) {
       handlerContext.getContext().getAssetStorage().clear();
@@ -39,11 +39,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.config.Configuration;
 import com.github.dandelion.core.util.StringUtils;
 import com.github.dandelion.core.util.UrlUtils;
 import com.github.dandelion.core.web.WebConstants;
 import com.github.dandelion.core.web.handler.AbstractHandlerChain;
 import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.RequestProfile;
 import com.github.dandelion.core.web.handler.debug.AssetsDebugPage;
 import com.github.dandelion.core.web.handler.debug.DebugPage;
 
@@ -80,6 +82,11 @@ public class DebuggerPostHandler extends AbstractHandlerChain {
       return 50;
    }
 
+   @Override
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return configuration.isToolDebuggerEnabled() && profile.isHtmlResponse();
+   }
+
    /**
     * The debugger is only accessible from a HTML page.
     */
@@ -91,6 +98,11 @@ public class DebuggerPostHandler extends AbstractHandlerChain {
             && handlerContext.getRequest().getParameter(WebConstants.DANDELION_DEBUGGER) != null;
    }
 
+   @Override
+   public boolean isApplicableInPlan(HandlerContext handlerContext) {
+      return handlerContext.getRequest().getParameter(WebConstants.DANDELION_DEBUGGER) != null;
+   }
+
    @Override
    public boolean handle(HandlerContext handlerContext) {
 
@@ -34,9 +34,11 @@ import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.dandelion.core.config.Configuration;
 import com.github.dandelion.core.util.StringUtils;
 import com.github.dandelion.core.web.handler.AbstractHandlerChain;
 import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.RequestProfile;
 import com.github.dandelion.core.web.handler.cache.HttpHeader;
 import com.github.dandelion.core.web.handler.cache.HttpHeaderUtils;
 
@@ -59,12 +61,22 @@ public class ETagPostHandler extends AbstractHandlerChain {
       return 10;
    }
 
+   @Override
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return profile.hasContentType() && !profile.isHtmlResponse();
+   }
+
    @Override
    public boolean isApplicable(HandlerContext handlerContext) {
       return handlerContext.getResponse().getContentType() != null
             && !handlerContext.getResponse().getContentType().contains("text/html");
    }
 
+   @Override
+   public boolean isApplicableInPlan(HandlerContext handlerContext) {
+      return true;
+   }
+
    @Override
    public boolean handle(HandlerContext handlerContext) {
 
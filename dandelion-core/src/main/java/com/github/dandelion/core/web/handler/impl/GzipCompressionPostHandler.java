@@ -46,9 +46,11 @@ import org.slf4j.LoggerFactory;
 
 import com.github.dandelion.core.Context;
 import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.config.Configuration;
 import com.github.dandelion.core.util.UrlUtils;
 import com.github.dandelion.core.web.handler.AbstractHandlerChain;
 import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.RequestProfile;
 import com.github.dandelion.core.web.handler.cache.HttpHeader;
 
 /**
@@ -95,6 +97,11 @@ public class GzipCompressionPostHandler extends AbstractHandlerChain {
       return 30;
    }
 
+   @Override
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return configuration.isToolGzipEnabled() && profile.hasContentType();
+   }
+
    @Override
    public boolean isApplicable(HandlerContext handlerContext) {
 
@@ -115,6 +122,13 @@ public class GzipCompressionPostHandler extends AbstractHandlerChain {
       return gzipEnabled && requestNotIncluded && browserAcceptsGzip && responseNotCommited && compatibleMimeType;
    }
 
+   @Override
+   public boolean isApplicableInPlan(HandlerContext handlerContext) {
+      return !isIncluded(handlerContext.getRequest()) && acceptsGzip(handlerContext.getRequest())
+            && !handlerContext.getResponse().isCommitted()
+            && getSupportedMimeTypes(handlerContext.getContext()).contains(handlerContext.getResponse().getContentType());
+   }
+
    @Override
    public boolean handle(HandlerContext handlerContext) {
 
@@ -40,6 +40,7 @@ import org.slf4j.LoggerFactory;
 
 import com.github.dandelion.core.DandelionException;
 import com.github.dandelion.core.asset.AssetQuery;
+import com.github.dandelion.core.config.Configuration;
 import com.github.dandelion.core.config.DandelionConfig;
 import com.github.dandelion.core.html.AbstractHtmlTag;
 import com.github.dandelion.core.html.HtmlLink;
@@ -49,6 +50,7 @@ import com.github.dandelion.core.reporting.ReportingType;
 import com.github.dandelion.core.util.UrlUtils;
 import com.github.dandelion.core.web.handler.AbstractHandlerChain;
 import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.RequestProfile;
 
 /**
  * <p>
@@ -91,6 +93,11 @@ public class ReportAlertPostHandler extends AbstractHandlerChain {
       return 30;
    }
 
+   @Override
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return configuration.isToolAlertReportingEnabled() && profile.isHtmlResponse() && !profile.isDebuggerRequest();
+   }
+
    @Override
    public boolean isApplicable(HandlerContext handlerContext) {
 
@@ -113,6 +120,11 @@ public class ReportAlertPostHandler extends AbstractHandlerChain {
       }
    }
 
+   @Override
+   public boolean isApplicableInPlan(HandlerContext handlerContext) {
+      return new AssetQuery(handlerContext.getRequest(), handlerContext.getContext()).alerts().size() > 0;
+   }
+
    @Override
    public boolean handle(HandlerContext handlerContext) {
 
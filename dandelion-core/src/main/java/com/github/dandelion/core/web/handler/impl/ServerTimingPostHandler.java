@@ -0,0 +1,111 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.web.handler.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.config.Configuration;
+import com.github.dandelion.core.web.DandelionFilter;
+import com.github.dandelion.core.web.ServerTiming;
+import com.github.dandelion.core.web.handler.AbstractHandlerChain;
+import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.RequestProfile;
+
+/**
+ * <p>
+ * Post-handler intended to send the durations recorded in the
+ * {@link ServerTiming} of the sampled requests back to the client in a
+ * {@code Server-Timing} response header.
+ * </p>
+ * <p>
+ * Besides the stages recorded so far, the header contains a {@code total}
+ * entry, i.e. the time elapsed since the request was sampled, and a
+ * {@code dandelion} entry, i.e. the same time minus the time spent in the rest
+ * of the filter chain ({@code app}), which approximates the overhead of the
+ * {@link DandelionFilter}.
+ * </p>
+ * 
+ * @since 1.1.2
+ * @see ServerTimingPreHandler
+ */
+public class ServerTimingPostHandler extends AbstractHandlerChain {
+
+   private static final Logger LOG = LoggerFactory.getLogger(ServerTimingPostHandler.class);
+
+   public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+   @Override
+   protected Logger getLogger() {
+      return LOG;
+   }
+
+   @Override
+   public boolean isAfterChaining() {
+      return true;
+   }
+
+   /**
+    * Executed after all other post-handlers, so that their durations are
+    * included.
+    */
+   @Override
+   public int getRank() {
+      return 100;
+   }
+
+   @Override
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return configuration.isMonitoringServerTimingEnabled();
+   }
+
+   @Override
+   public boolean isApplicable(HandlerContext handlerContext) {
+      return handlerContext.getContext().getConfiguration().isMonitoringServerTimingEnabled()
+            && isApplicableInPlan(handlerContext);
+   }
+
+   @Override
+   public boolean isApplicableInPlan(HandlerContext handlerContext) {
+      return ServerTiming.get(handlerContext.getRequest()) != null;
+   }
+
+   @Override
+   protected boolean handle(HandlerContext handlerContext) {
+      ServerTiming serverTiming = ServerTiming.get(handlerContext.getRequest());
+
+      long total = System.nanoTime() - serverTiming.getStartTime();
+      serverTiming.add("dandelion", total - serverTiming.getDuration("app"));
+      serverTiming.add("total", total);
+
+      handlerContext.getResponse().setHeader(SERVER_TIMING_HEADER, serverTiming.toHeaderValue());
+      return true;
+   }
+}
@@ -0,0 +1,101 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.web.handler.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.config.Configuration;
+import com.github.dandelion.core.web.ServerTiming;
+import com.github.dandelion.core.web.WebConstants;
+import com.github.dandelion.core.web.handler.AbstractHandlerChain;
+import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.RequestProfile;
+
+/**
+ * <p>
+ * Pre-handler intended to bind a {@link ServerTiming} to the sampled requests,
+ * i.e. one request out of {@link Configuration#getMonitoringServerTimingSampling()}
+ * , when the {@code Server-Timing} header is enabled.
+ * </p>
+ * 
+ * @since 1.1.2
+ * @see ServerTimingPostHandler
+ */
+public class ServerTimingPreHandler extends AbstractHandlerChain {
+
+   private static final Logger LOG = LoggerFactory.getLogger(ServerTimingPreHandler.class);
+
+   private final AtomicLong requestCount = new AtomicLong();
+
+   @Override
+   protected Logger getLogger() {
+      return LOG;
+   }
+
+   @Override
+   public boolean isAfterChaining() {
+      return false;
+   }
+
+   /**
+    * Executed before any other pre-handler.
+    */
+   @Override
+   public int getRank() {
+      return -10;
+   }
+
+   @Override
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return configuration.isMonitoringServerTimingEnabled();
+   }
+
+   @Override
+   public boolean isApplicable(HandlerContext handlerContext) {
+      return handlerContext.getContext().getConfiguration().isMonitoringServerTimingEnabled();
+   }
+
+   @Override
+   public boolean isApplicableInPlan(HandlerContext handlerContext) {
+      return true;
+   }
+
+   @Override
+   protected boolean handle(HandlerContext handlerContext) {
+      int sampling = handlerContext.getContext().getConfiguration().getMonitoringServerTimingSampling();
+      if (requestCount.getAndIncrement() % sampling == 0) {
+         handlerContext.getRequest().setAttribute(WebConstants.DANDELION_SERVER_TIMING, new ServerTiming());
+      }
+      return true;
+   }
+}
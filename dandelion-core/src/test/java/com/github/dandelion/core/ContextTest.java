@@ -33,6 +33,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.springframework.mock.web.MockFilterConfig;
 
+import com.github.dandelion.core.storage.BundleStorage;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class ContextTest {
@@ -58,4 +60,19 @@ public class ContextTest {
       assertThat(context.getProcessorManager()).isNotNull();
       assertThat(context.getCacheManager()).isNotNull();
    }
+
+   @Test
+   public void should_publish_a_new_frozen_bundle_storage_when_reloading_bundles() {
+
+      Context context = new Context(new MockFilterConfig());
+      BundleStorage previousStorage = context.getBundleStorage();
+      int previousSize = previousStorage.getBundleDag().getVerticies().size();
+
+      context.initBundleStorage();
+
+      assertThat(context.getBundleStorage()).isNotSameAs(previousStorage);
+      assertThat(context.getBundleStorage().isFrozen()).isTrue();
+      assertThat(previousStorage.isFrozen()).isTrue();
+      assertThat(previousStorage.getBundleDag().getVerticies()).hasSize(previousSize);
+   }
 }
@@ -29,9 +29,13 @@
  */
 package com.github.dandelion.core.asset;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -250,4 +254,140 @@ public class AssetMapperTest {
       assertThat(asset.getFinalLocation()).matches(
             "/context/dandelion-assets/[a-f0-9]{32}/[a-f0-9]{32}/js/asset-name-[a-f0-9]{32}.js");
    }
+
+   @Test
+   public void should_map_asus_in_parallel_and_keep_their_order() {
+
+      MockFilterConfig filterConfig = new MockFilterConfig();
+      filterConfig.addInitParameter(DandelionConfig.ASSET_MAPPING_THREADS.getName(), "3");
+      filterConfig.addInitParameter(DandelionConfig.ASSET_MINIFICATION.getName(), "true");
+      context = new Context(filterConfig);
+      request = new MockHttpServletRequest();
+      request.setContextPath("/context");
+      request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, context);
+      request.setAttribute(WebConstants.DANDELION_REQUEST_KEY, DigestUtils.md5Digest("anystring"));
+      assetMapper = new AssetMapper(context, request);
+
+      Set<AssetStorageUnit> asus = new LinkedHashSet<AssetStorageUnit>();
+      for (int i = 4; i > 0; i--) {
+         AssetStorageUnit asu = new AssetStorageUnit();
+         asu.setName("test" + i);
+         asu.setBundle("any-bundle");
+         asu.setType(AssetType.css);
+         asu.setVersion("1.0.0");
+         asu.setLocations(singletonMap("classpath", "locator/test" + i + ".css"));
+         asus.add(asu);
+      }
+
+      try {
+         List<String> names = new ArrayList<String>();
+         for (Asset asset : assetMapper.mapToAssets(asus)) {
+            names.add(asset.getName());
+            assertThat(context.getAssetStorage().get(asset.getStorageKey())).isNotNull();
+         }
+         assertThat(names).containsExactly("test4", "test3", "test2", "test1");
+      }
+      finally {
+         context.destroy();
+      }
+   }
+
+   @Test
+   public void should_propagate_the_originating_asset_when_mapping_in_parallel() {
+
+      MockFilterConfig filterConfig = new MockFilterConfig();
+      filterConfig.addInitParameter(DandelionConfig.ASSET_MAPPING_THREADS.getName(), "2");
+      context = new Context(filterConfig);
+      request = new MockHttpServletRequest();
+      request.setContextPath("/context");
+      request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, context);
+      assetMapper = new AssetMapper(context, request);
+
+      Set<AssetStorageUnit> asus = new LinkedHashSet<AssetStorageUnit>();
+      AssetStorageUnit valid = new AssetStorageUnit();
+      valid.setName("test1");
+      valid.setBundle("any-bundle");
+      valid.setType(AssetType.css);
+      valid.setVersion("1.0.0");
+      valid.setLocations(singletonMap("classpath", "locator/test1.css"));
+      asus.add(valid);
+      AssetStorageUnit invalid = new AssetStorageUnit();
+      invalid.setName("asset-name");
+      invalid.setBundle("any-bundle");
+      invalid.setType(AssetType.js);
+      invalid.setVersion("1.0.0");
+      asus.add(invalid);
+
+      exception.expect(DandelionException.class);
+      exception.expectMessage("Unable to map the asset 'asset-name' (js, v1.0.0) of the bundle \"any-bundle\"");
+
+      try {
+         assetMapper.mapToAssets(asus);
+      }
+      finally {
+         context.destroy();
+      }
+   }
+
+   @Test
+   public void should_only_access_the_request_from_the_calling_thread() {
+
+      MockFilterConfig filterConfig = new MockFilterConfig();
+      filterConfig.addInitParameter(DandelionConfig.ASSET_MAPPING_THREADS.getName(), "3");
+      filterConfig.addInitParameter(DandelionConfig.ASSET_MINIFICATION.getName(), "true");
+      context = new Context(filterConfig);
+      final Thread callingThread = Thread.currentThread();
+      final List<String> foreignAccesses = Collections.synchronizedList(new ArrayList<String>());
+      request = new MockHttpServletRequest() {
+
+         @Override
+         public Object getAttribute(String name) {
+            checkThread("getAttribute(" + name + ")");
+            return super.getAttribute(name);
+         }
+
+         @Override
+         public String getContextPath() {
+            checkThread("getContextPath()");
+            return super.getContextPath();
+         }
+
+         @Override
+         public String getRequestURI() {
+            checkThread("getRequestURI()");
+            return super.getRequestURI();
+         }
+
+         private void checkThread(String method) {
+            if (Thread.currentThread() != callingThread) {
+               foreignAccesses.add(method);
+            }
+         }
+      };
+      request.setContextPath("/context");
+      request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, context);
+      request.setAttribute(WebConstants.DANDELION_REQUEST_KEY, DigestUtils.md5Digest("anystring"));
+      assetMapper = new AssetMapper(context, request);
+
+      Set<AssetStorageUnit> asus = new LinkedHashSet<AssetStorageUnit>();
+      for (int i = 1; i <= 4; i++) {
+         AssetStorageUnit asu = new AssetStorageUnit();
+         asu.setName("test" + i);
+         asu.setBundle("any-bundle");
+         asu.setType(AssetType.css);
+         asu.setVersion("1.0.0");
+         asu.setLocations(singletonMap("classpath", "locator/test" + i + ".css"));
+         asus.add(asu);
+      }
+
+      try {
+         Set<Asset> assets = assetMapper.mapToAssets(asus);
+         assertThat(assets).hasSize(4);
+         assertThat(assets.iterator().next().getFinalLocation()).startsWith("/context/dandelion-assets/");
+         assertThat(foreignAccesses).isEmpty();
+      }
+      finally {
+         context.destroy();
+      }
+   }
 }
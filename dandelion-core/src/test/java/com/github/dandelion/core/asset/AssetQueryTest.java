@@ -41,6 +41,7 @@ import org.springframework.mock.web.MockHttpServletRequest;
 
 import com.github.dandelion.core.Context;
 import com.github.dandelion.core.GlobalOptionsRule;
+import com.github.dandelion.core.config.DandelionConfig;
 import com.github.dandelion.core.config.StandardConfigurationLoader;
 import com.github.dandelion.core.web.AssetRequestContext;
 import com.github.dandelion.core.web.WebConstants;
@@ -145,4 +146,32 @@ public class AssetQueryTest {
       assertThat(assets).extracting("name").containsExactly("a7_1", "a7_2", "a7_3");
       assertThat(assets).extracting("type").containsExactly(AssetType.js, AssetType.css, AssetType.js);
    }
+
+   @Test
+   public void should_bypass_the_request_cache() {
+
+      System.setProperty(DandelionConfig.CACHE.getName(), "true");
+      try {
+         Context cachingContext = new Context(new MockFilterConfig());
+         request.setRequestURI("/context/page");
+         request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, cachingContext);
+         AssetRequestContext.get(request).addBundles("bundle5");
+         new AssetQuery(request, cachingContext).perform();
+
+         // Same URL, but only the assets declared so far in the page
+         MockHttpServletRequest partialRequest = new MockHttpServletRequest();
+         partialRequest.setContextPath("/context");
+         partialRequest.setRequestURI("/context/page");
+         partialRequest.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, cachingContext);
+         AssetRequestContext.get(partialRequest).addBundles("bundle7");
+
+         Set<Asset> assets = new AssetQuery(partialRequest, cachingContext).withRequestCache(false).perform();
+         assertThat(assets).extracting("name").containsExactly("a7_1", "a7_2", "a7_3");
+         assertThat(new AssetQuery(partialRequest, cachingContext).perform()).extracting("name").containsExactly(
+               "a5_1", "a5_2", "a5_3", "a5_4", "a5_5");
+      }
+      finally {
+         System.clearProperty(DandelionConfig.CACHE.getName());
+      }
+   }
 }
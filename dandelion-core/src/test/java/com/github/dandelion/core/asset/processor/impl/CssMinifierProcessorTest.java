@@ -0,0 +1,103 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.asset.processor.impl;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.dandelion.core.GlobalOptionsRule;
+import com.github.dandelion.core.asset.processor.AssetProcessor;
+import com.github.dandelion.core.util.ResourceUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CssMinifierProcessorTest extends AbstractProcessorTest {
+
+   private AssetProcessor assetProcessor = new CssMinifierProcessor();
+   private AssetProcessor cssMinProcessor = new CssMinProcessor();
+
+   @Rule
+   public GlobalOptionsRule options = new GlobalOptionsRule();
+
+   @Test
+   public void should_minify_css() {
+      assertThat(minify("body {\n\tpadding-top: 60px;\n padding-bottom: 40px; \n}")).isEqualTo(
+            "body{padding-top:60px;padding-bottom:40px}");
+   }
+
+   @Test
+   public void should_produce_the_same_output_as_cssmin() {
+      String source = ResourceUtils.getFileContentFromClasspath("processor/css-minifier/source.css");
+
+      Writer cssMinWriter = new StringWriter();
+      cssMinProcessor.process(new StringReader(source), cssMinWriter, processingContext);
+
+      assertThat(minify(source)).isEqualTo(cssMinWriter.toString());
+   }
+
+   @Test
+   public void should_keep_strings_and_urls_untouched() {
+      assertThat(minify("a:after { content: \" ( \" attr(href) \" ) \"; font-family: 'Open  Sans'; }")).isEqualTo(
+            "a:after{content:\" ( \" attr(href) \" ) \";font-family:'Open  Sans'}");
+      assertThat(minify(".c { background: url( 'img/a b.png' ) no-repeat; }")).isEqualTo(
+            ".c{background:url('img/a b.png') no-repeat}");
+   }
+
+   @Test
+   public void should_keep_significant_whitespaces() {
+      assertThat(minify(".a { width: calc(100% - (2 * 10px)); }")).isEqualTo(".a{width:calc(100% - (2 * 10px))}");
+      assertThat(minify("@media screen and (max-width: 767px) { .a { color: red; } }")).isEqualTo(
+            "@media screen and (max-width:767px){.a{color:red}}");
+      assertThat(minify("a :hover { color: red; }")).isEqualTo("a :hover{color:red}");
+   }
+
+   @Test
+   public void should_remove_empty_rules() {
+      assertThat(minify(".a { } @media print { .b { } } .c { color: red; }")).isEqualTo(".c{color:red}");
+   }
+
+   @Test
+   public void should_shorten_colors_and_zeros() {
+      assertThat(minify(".a { color: #FF0000; border: 1px solid #C0C0C0; margin: 0px 0em 0% 0in; }")).isEqualTo(
+            ".a{color:#F00;border:1px solid silver;margin:0}");
+      assertThat(minify(".a { transform-origin: 0 0; background-position: 0 0 0 0; }")).isEqualTo(
+            ".a{transform-origin:0 0;background-position:0 0}");
+   }
+
+   private String minify(String source) {
+      Writer writer = new StringWriter();
+      assetProcessor.process(new StringReader(source), writer, processingContext);
+      return writer.toString();
+   }
+}
@@ -0,0 +1,86 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.asset.processor.impl;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.dandelion.core.GlobalOptionsRule;
+import com.github.dandelion.core.asset.processor.AssetProcessor;
+import com.github.dandelion.core.util.ResourceUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CssUrlRewritingMinifierProcessorTest extends AbstractProcessorTest {
+
+   private AssetProcessor assetProcessor = new CssUrlRewritingMinifierProcessor();
+   private AssetProcessor urlRewritingProcessor = new CssUrlRewritingProcessor();
+   private AssetProcessor minifierProcessor = new CssMinifierProcessor();
+
+   @Rule
+   public GlobalOptionsRule options = new GlobalOptionsRule();
+
+   @Test
+   public void should_produce_the_same_output_as_cssurlrewriting_then_cssminifier() {
+      String source = ResourceUtils.getFileContentFromClasspath("processor/css-url-rewriter/source.css");
+
+      Writer rewritten = new StringWriter();
+      urlRewritingProcessor.process(new StringReader(source), rewritten, processingContext);
+      Writer minified = new StringWriter();
+      minifierProcessor.process(new StringReader(rewritten.toString()), minified, processingContext);
+
+      assertThat(process(source)).isEqualTo(minified.toString());
+   }
+
+   @Test
+   public void should_rewrite_image_url_in_css() {
+      assertThat(process(".a { background: url( '../images/my-image.png' ) no-repeat; }")).isEqualTo(
+            ".a{background:url('../../netdna.bootstrapcdn.com/twitter-bootstrap/2.3.2/images/my-image.png') no-repeat}");
+      assertThat(process("@import url(theme.css);")).isEqualTo(
+            "@import url(../../netdna.bootstrapcdn.com/twitter-bootstrap/2.3.2/css/theme.css);");
+   }
+
+   @Test
+   public void should_not_rewrite_absolute_and_data_urls() {
+      assertThat(process(".a { background: url(//cdn.com/a.png); }")).isEqualTo(".a{background:url(//cdn.com/a.png)}");
+      assertThat(process(".a { background: url(\"data:image/png;base64,AAA=\"); }")).isEqualTo(
+            ".a{background:url(\"data:image/png;base64,AAA=\")}");
+   }
+
+   private String process(String source) {
+      Writer writer = new StringWriter();
+      assetProcessor.process(new StringReader(source), writer, processingContext);
+      return writer.toString();
+   }
+}
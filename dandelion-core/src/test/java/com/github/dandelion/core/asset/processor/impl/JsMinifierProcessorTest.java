@@ -0,0 +1,92 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.asset.processor.impl;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.dandelion.core.GlobalOptionsRule;
+import com.github.dandelion.core.asset.processor.AssetProcessor;
+import com.github.dandelion.core.util.ResourceUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsMinifierProcessorTest extends AbstractProcessorTest {
+
+   private AssetProcessor assetProcessor = new JsMinifierProcessor();
+   private AssetProcessor jsMinProcessor = new JsMinProcessor();
+
+   @Rule
+   public GlobalOptionsRule options = new GlobalOptionsRule();
+
+   @Test
+   public void should_minifiy_js() {
+      assertThat(minify("var b = new Array()//commentaire\nfunction v(){}")).isEqualTo(
+            "\nvar b=new Array()\nfunction v(){}");
+   }
+
+   @Test
+   public void should_produce_the_same_output_as_jsmin() {
+      String source = ResourceUtils.getFileContentFromClasspath("processor/js-minifier/source.js");
+
+      Writer jsMinWriter = new StringWriter();
+      jsMinProcessor.process(new StringReader(source), jsMinWriter, processingContext);
+
+      assertThat(minify(source)).isEqualTo(jsMinWriter.toString());
+   }
+
+   @Test
+   public void should_keep_template_literals_untouched() {
+      assertThat(minify("var a = `x  ${ b + `y  ${c}` }\n  z`;")).isEqualTo("\nvar a=`x  ${ b + `y  ${c}` }\n  z`;");
+   }
+
+   @Test
+   public void should_handle_regexp_literals() {
+      assertThat(minify("function f(s) {\n  return /[/]  x/.test(s);\n}")).isEqualTo(
+            "\nfunction f(s){return /[/]  x/.test(s);}");
+      assertThat(minify("var r = a / b / c;")).isEqualTo("\nvar r=a/b/c;");
+   }
+
+   @Test
+   public void should_keep_significant_whitespaces() {
+      assertThat(minify("var a = b - -c;")).isEqualTo("\nvar a=b- -c;");
+      assertThat(minify("a = b\n!c")).isEqualTo("\na=b\n!c");
+   }
+
+   private String minify(String source) {
+      Writer writer = new StringWriter();
+      assetProcessor.process(new StringReader(source), writer, processingContext);
+      return writer.toString();
+   }
+}
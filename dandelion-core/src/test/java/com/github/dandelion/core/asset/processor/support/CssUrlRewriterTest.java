@@ -0,0 +1,71 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.asset.processor.support;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CssUrlRewriterTest {
+
+   private static final String ORIGINAL_PATH = "/ctx/assets/css/app.css";
+   private static final String NEW_PATH = "/ctx/dandelion-assets/sha1/css/app.css";
+
+   private CssUrlRewriter urlRewriter = new CssUrlRewriter();
+
+   @Test
+   public void should_use_the_given_context_path_for_each_call() {
+      String css = ".a{background:url(/ctx/img/a.png)}";
+
+      assertThat(urlRewriter.rewriteUrl(ORIGINAL_PATH, NEW_PATH, css, "/ctx").toString()).isEqualTo(
+            ".a{background:url(../../../../img/a.png)}");
+      assertThat(urlRewriter.rewriteUrl(ORIGINAL_PATH, NEW_PATH, css, "/other").toString()).isEqualTo(
+            ".a{background:url(/ctx/img/a.png)}");
+      assertThat(urlRewriter.rewriteUrl(ORIGINAL_PATH, NEW_PATH, css, "ctx").toString()).isEqualTo(
+            ".a{background:url(../../../../img/a.png)}");
+   }
+
+   @Test
+   public void should_not_depend_on_the_context_path_set_by_another_request() {
+      urlRewriter.setContextPath("/other");
+      assertThat(urlRewriter.rewriteUrlPath("/ctx/img/a.png", ORIGINAL_PATH, NEW_PATH, "/ctx")).isEqualTo("../../../../img/a.png");
+      assertThat(urlRewriter.rewriteUrlPath("/ctx/img/a.png", ORIGINAL_PATH, NEW_PATH, "/other")).isEqualTo(
+            "/ctx/img/a.png");
+   }
+
+   @Test
+   public void should_keep_rewriting_once_the_cache_is_full() {
+      for (int version = 0; version < 2000; version++) {
+         String newPath = "/ctx/dandelion-assets/" + version + "/css/app.css";
+         assertThat(urlRewriter.rewriteUrlPath("'../img/a.png'", ORIGINAL_PATH, newPath, "/ctx")).isEqualTo(
+               "'../../../assets/img/a.png'");
+      }
+   }
+}
@@ -0,0 +1,158 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.bundle.loader.support;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BowerManifestCacheTest {
+
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder();
+
+   private ObjectMapper mapper;
+   private File manifestFile;
+   private URL manifestUrl;
+
+   @Before
+   public void before() throws IOException {
+      mapper = new ObjectMapper();
+      mapper.configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
+      manifestFile = new File(folder.newFolder("jquery"), "bower.json");
+      write(manifestFile, "2.1.4");
+      manifestUrl = manifestFile.toURI().toURL();
+   }
+
+   @Test
+   public void should_persist_the_location_and_the_manifests() throws IOException {
+
+      File cacheFile = new File(folder.getRoot(), BowerManifestCache.FILE_NAME);
+      BowerManifestCache cache = new BowerManifestCache(cacheFile, mapper);
+      cache.setComponentsLocation("/bower_components/", "webapp");
+      cache.read(manifestUrl);
+      cache.save();
+
+      BowerManifestCache reloaded = new BowerManifestCache(cacheFile, mapper);
+      reloaded.load();
+
+      assertThat(reloaded.getComponentsLocation()).isEqualTo("/bower_components/");
+      assertThat(reloaded.getComponentsLocationType()).isEqualTo("webapp");
+      assertThat(reloaded.size()).isEqualTo(1);
+      BowerManifest manifest = reloaded.read(manifestUrl);
+      assertThat(manifest.getName()).isEqualTo("jquery");
+      assertThat(manifest.getVersion()).isEqualTo("2.1.4");
+      assertThat(manifest.getMain()).containsExactly("dist/jquery.js");
+   }
+
+   @Test
+   public void should_persist_that_no_location_has_been_found() throws IOException {
+
+      File cacheFile = new File(folder.getRoot(), BowerManifestCache.FILE_NAME);
+      BowerManifestCache cache = new BowerManifestCache(cacheFile, mapper);
+      cache.setNotFound("state");
+      cache.save();
+
+      BowerManifestCache reloaded = new BowerManifestCache(cacheFile, mapper);
+      reloaded.load();
+
+      assertThat(reloaded.getComponentsLocation()).isNull();
+      assertThat(reloaded.isNotFound("state")).isTrue();
+      assertThat(reloaded.isNotFound("other state")).isFalse();
+
+      reloaded.setComponentsLocation("/bower_components/", "webapp");
+      assertThat(reloaded.isNotFound("state")).isFalse();
+   }
+
+   @Test
+   public void should_reparse_a_modified_manifest() throws IOException {
+
+      BowerManifestCache cache = new BowerManifestCache(null, mapper);
+      assertThat(cache.read(manifestUrl).getVersion()).isEqualTo("2.1.4");
+
+      write(manifestFile, "2.1.5");
+      assertThat(manifestFile.setLastModified(manifestFile.lastModified() + 2000)).isTrue();
+
+      assertThat(cache.read(manifestUrl).getVersion()).isEqualTo("2.1.5");
+   }
+
+   @Test
+   public void should_forget_the_removed_manifests() throws IOException {
+
+      BowerManifestCache cache = new BowerManifestCache(null, mapper);
+      cache.read(manifestUrl);
+      assertThat(cache.size()).isEqualTo(1);
+
+      cache.retainAll(Collections.<String> emptySet());
+      assertThat(cache.size()).isEqualTo(0);
+   }
+
+   @Test
+   public void should_ignore_an_unreadable_cache_file() throws IOException {
+
+      File cacheFile = folder.newFile(BowerManifestCache.FILE_NAME);
+      Writer writer = new FileWriter(cacheFile);
+      try {
+         writer.write("{ not json");
+      }
+      finally {
+         writer.close();
+      }
+
+      BowerManifestCache cache = new BowerManifestCache(cacheFile, mapper);
+      cache.load();
+
+      assertThat(cache.getComponentsLocation()).isNull();
+      assertThat(cache.size()).isEqualTo(0);
+   }
+
+   private static void write(File file, String version) throws IOException {
+      Writer writer = new FileWriter(file);
+      try {
+         writer.write("{\"name\": \"jquery\", \"version\": \"" + version + "\", \"main\": \"dist/jquery.js\"}");
+      }
+      finally {
+         writer.close();
+      }
+   }
+}
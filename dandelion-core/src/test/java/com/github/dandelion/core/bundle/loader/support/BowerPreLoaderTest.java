@@ -29,12 +29,20 @@
  */
 package com.github.dandelion.core.bundle.loader.support;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
+import javax.servlet.ServletContext;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockServletContext;
 
 import com.github.dandelion.core.Context;
 import com.github.dandelion.core.GlobalOptionsRule;
@@ -52,6 +60,9 @@ public class BowerPreLoaderTest {
    @Rule
    public GlobalOptionsRule options = new GlobalOptionsRule();
 
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder();
+
    @Before
    public void before() {
       MockFilterConfig filterConfig = new MockFilterConfig();
@@ -78,4 +89,40 @@ public class BowerPreLoaderTest {
       assertThat(asu.getLocations()).containsKey("webapp");
       assertThat(asu.getLocations()).containsValue("/pre-loaderjquery/dist/jquery.js");
    }
+
+   @Test
+   public void should_skip_the_search_until_the_web_application_changes() throws IOException {
+
+      File webapp = folder.newFolder("webapp");
+      MockServletContext servletContext = new MockServletContext("file:" + webapp.getAbsolutePath());
+      servletContext.setAttribute(ServletContext.TEMPDIR, folder.newFolder("tmp"));
+      MockFilterConfig filterConfig = new MockFilterConfig(servletContext);
+      // Keeps the classpath pre-loader/bower/bower_components out of reach
+      filterConfig.addInitParameter(DandelionConfig.BOWER_COMPONENTS_SCAN_DEPTH.getName(), "2");
+      Context webappContext = new Context(filterConfig);
+
+      BowerPreLoader bower = new BowerPreLoader();
+      bower.init(webappContext);
+      assertThat(bower.getExtraBundles()).isEmpty();
+
+      BowerPreLoader restarted = new BowerPreLoader();
+      restarted.init(webappContext);
+      assertThat(restarted.getManifestCache().isNotFound(restarted.getScanState())).isTrue();
+      assertThat(restarted.getExtraBundles()).isEmpty();
+
+      File jquery = new File(webapp, "bower_components/jquery");
+      assertThat(jquery.mkdirs()).isTrue();
+      Writer writer = new FileWriter(new File(jquery, "bower.json"));
+      try {
+         writer.write("{\"name\": \"jquery\", \"version\": \"2.1.4\", \"main\": \"dist/jquery.js\"}");
+      }
+      finally {
+         writer.close();
+      }
+
+      assertThat(restarted.getManifestCache().isNotFound(restarted.getScanState())).isFalse();
+      List<BundleStorageUnit> bsus = restarted.getExtraBundles();
+      assertThat(bsus).extracting("name").containsExactly("jquery");
+      assertThat(restarted.getManifestCache().getComponentsLocation()).isEqualTo("/bower_components/");
+   }
 }
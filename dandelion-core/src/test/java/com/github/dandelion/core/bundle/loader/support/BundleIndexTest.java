@@ -0,0 +1,132 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.bundle.loader.support;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.asset.AssetType;
+import com.github.dandelion.core.bundle.loader.strategy.JsonBundleLoadingStrategy;
+import com.github.dandelion.core.bundle.loader.strategy.LoadingStrategy;
+import com.github.dandelion.core.storage.AssetStorageUnit;
+import com.github.dandelion.core.storage.BundleStorageUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BundleIndexTest {
+
+   private static final String LOCATION = "bundle-loader/loading-vendor-user";
+
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder();
+
+   @Rule
+   public ExpectedException exception = ExpectedException.none();
+
+   private BundleIndex generateAndLoad() throws Exception {
+      File outputDirectory = folder.newFolder();
+      File indexFile = new BundleIndexGenerator(Collections.singleton(LOCATION)).generate(outputDirectory);
+      assertThat(indexFile).exists();
+
+      URLClassLoader classLoader = new URLClassLoader(new URL[] { outputDirectory.toURI().toURL() }, null);
+      return BundleIndex.load(classLoader);
+   }
+
+   @Test
+   public void should_return_null_when_no_index_is_present() {
+      assertThat(BundleIndex.load(new URLClassLoader(new URL[0], null))).isNull();
+   }
+
+   @Test
+   public void should_generate_and_load_the_index() throws Exception {
+      BundleIndex index = generateAndLoad();
+
+      assertThat(index.size()).isEqualTo(3);
+      assertThat(index.covers(LOCATION + "/dandelion")).isTrue();
+      assertThat(index.covers("bundle-loader/json-strategy")).isFalse();
+   }
+
+   @Test
+   public void should_filter_resource_paths_like_the_classpath_scanning() throws Exception {
+      BundleIndex index = generateAndLoad();
+
+      Set<String> regularPaths = index.getResourcePaths(LOCATION + "/dandelion",
+            Collections.singleton(LOCATION + "/dandelion/vendor"));
+      assertThat(regularPaths).containsOnly(LOCATION + "/dandelion/regular-bundle1.json",
+            LOCATION + "/dandelion/regular-bundle2.json");
+
+      Set<String> vendorPaths = index.getResourcePaths(LOCATION + "/dandelion/vendor", null);
+      assertThat(vendorPaths).containsOnly(LOCATION + "/dandelion/vendor/vendor-bundle1.json");
+   }
+
+   @Test
+   public void should_store_normalized_descriptors() throws Exception {
+      BundleIndex index = generateAndLoad();
+
+      BundleStorageUnit bsu = index.getBundle(LOCATION + "/dandelion/regular-bundle1.json");
+      assertThat(bsu.getName()).isEqualTo("regular-bundle1");
+      assertThat(bsu.getRelativePath()).isEqualTo(LOCATION + "/dandelion/regular-bundle1.json");
+
+      AssetStorageUnit asu = bsu.getAssetStorageUnits().iterator().next();
+      assertThat(asu.getName()).isEqualTo("asset1");
+      assertThat(asu.getType()).isEqualTo(AssetType.js);
+   }
+
+   @Test
+   public void should_load_bundles_from_the_index_instead_of_scanning() throws Exception {
+      BundleIndex index = generateAndLoad();
+      Context context = Mockito.mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+      Mockito.when(context.getBundleIndex()).thenReturn(index);
+      LoadingStrategy loadingStrategy = new JsonBundleLoadingStrategy(context);
+
+      Set<String> resourcePaths = loadingStrategy.getResourcePaths(LOCATION + "/dandelion/vendor", null);
+      List<BundleStorageUnit> bundles = loadingStrategy.mapToBundles(resourcePaths);
+
+      assertThat(bundles).extracting("name").containsExactly("vendor-bundle1");
+   }
+
+   @Test
+   public void should_fail_the_generation_when_a_bundle_is_invalid() throws Exception {
+      exception.expect(DandelionException.class);
+      new BundleIndexGenerator(Collections.singleton("bundle-loader/consistency-check")).generate(folder.newFolder());
+   }
+}
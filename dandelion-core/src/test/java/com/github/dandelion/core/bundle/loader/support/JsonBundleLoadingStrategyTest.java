@@ -42,6 +42,7 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import com.github.dandelion.core.Context;
@@ -99,4 +100,42 @@ public class JsonBundleLoadingStrategyTest {
       loadingStrategy.mapToBundles(new HashSet<String>(Arrays
             .asList("bundle-loader/wrong-format/dandelion/bundle-wrong-format1.json")));
    }
+
+   @Test
+   public void should_map_to_bundles_concurrently_in_the_same_order() {
+      Set<String> resourcePaths = loadingStrategy.getResourcePaths("bundle-loader/loading-vendor-user", null);
+      List<BundleStorageUnit> sequentialBundles = loadingStrategy.mapToBundles(resourcePaths);
+
+      Mockito.when(context.getConfiguration().getBundleLoadingThreads()).thenReturn(4);
+      Mockito.when(context.getConfiguration().isBundleParallelLoadingEnabled()).thenReturn(true);
+      List<BundleStorageUnit> parallelBundles = loadingStrategy.mapToBundles(resourcePaths);
+
+      assertThat(parallelBundles).hasSize(3);
+      assertThat(parallelBundles).extracting("name").containsExactly(
+            sequentialBundles.get(0).getName(), sequentialBundles.get(1).getName(), sequentialBundles.get(2).getName());
+   }
+
+   @Test
+   public void should_aggregate_errors_the_same_way_when_mapping_concurrently() {
+      Set<String> resourcePaths = loadingStrategy.getResourcePaths("bundle-loader/wrong-format", null);
+      String sequentialError = mapToBundlesError(resourcePaths);
+
+      Mockito.when(context.getConfiguration().getBundleLoadingThreads()).thenReturn(4);
+      Mockito.when(context.getConfiguration().isBundleParallelLoadingEnabled()).thenReturn(true);
+      String parallelError = mapToBundlesError(resourcePaths);
+
+      assertThat(parallelError).contains("bundle-wrong-format1.json", "bundle-wrong-format2.json");
+      assertThat(parallelError).isEqualTo(sequentialError);
+   }
+
+   private String mapToBundlesError(Set<String> resourcePaths) {
+      try {
+         loadingStrategy.mapToBundles(resourcePaths);
+      }
+      catch (DandelionException e) {
+         // Strips the identity of the parsed streams
+         return e.getMessage().replaceAll("@[0-9a-f]+", "");
+      }
+      return null;
+   }
 }
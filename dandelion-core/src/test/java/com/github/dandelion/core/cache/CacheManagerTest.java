@@ -0,0 +1,186 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.cache;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.asset.AssetType;
+import com.github.dandelion.core.cache.impl.MemoryRequestCache;
+import com.github.dandelion.core.storage.StorageEntry;
+import com.github.dandelion.core.storage.impl.MemoryAssetStorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CacheManagerTest {
+
+   private MemoryRequestCache requestCache;
+   private MemoryAssetStorage assetStorage;
+   private CacheManager cacheManager;
+   private Context context;
+
+   private Asset jquery;
+   private Asset app;
+   private Asset other;
+
+   @Before
+   public void setup() {
+      context = Mockito.mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+      Mockito.when(context.getConfiguration().getCacheMaxSize()).thenReturn(10);
+      Mockito.when(context.getConfiguration().isMonitoringJmxEnabled()).thenReturn(true);
+      requestCache = new MemoryRequestCache();
+      requestCache.initCache(context);
+      assetStorage = new MemoryAssetStorage();
+      Mockito.when(context.getCache()).thenReturn(requestCache);
+      Mockito.when(context.getAssetStorage()).thenReturn(assetStorage);
+      cacheManager = new CacheManager(context);
+      Mockito.when(context.getCacheManager()).thenReturn(cacheManager);
+
+      jquery = asset("jquery", "jquery", "jquery-key");
+      app = asset("app", "app", "app-key");
+      other = asset("other", "other", "other-key");
+
+      cacheManager.storeAssets("page1", entry("/page1", jquery, app));
+      cacheManager.storeAssets("page2", entry("/page2", jquery));
+      cacheManager.storeAssets("page3", entry("/page3", other));
+   }
+
+   private Asset asset(String name, String bundle, String storageKey) {
+      Asset asset = new Asset(name, "1.0", AssetType.js);
+      asset.setBundle(bundle);
+      asset.setStorageKey(storageKey);
+      assetStorage.put(storageKey, new StorageEntry(asset, "var " + name + ";"));
+      return asset;
+   }
+
+   private static CacheEntry entry(String requestUri, Asset... assets) {
+      return new CacheEntry(requestUri, new LinkedHashSet<Asset>(Arrays.asList(assets)));
+   }
+
+   @Test
+   public void should_evict_only_the_pages_using_the_invalidated_asset() {
+      assertThat(cacheManager.invalidateAsset("app-key")).isEqualTo(1);
+
+      assertThat(requestCache.get("page1")).isNull();
+      assertThat(requestCache.get("page2")).isNotNull();
+      assertThat(requestCache.get("page3")).isNotNull();
+      assertThat(assetStorage.contains("app-key")).isFalse();
+      assertThat(assetStorage.contains("jquery-key")).isTrue();
+   }
+
+   @Test
+   public void should_evict_only_the_pages_using_the_invalidated_bundle() {
+      assertThat(cacheManager.invalidateBundle("jquery")).isEqualTo(2);
+
+      assertThat(requestCache.get("page1")).isNull();
+      assertThat(requestCache.get("page2")).isNull();
+      assertThat(requestCache.get("page3")).isNotNull();
+      assertThat(assetStorage.contains("jquery-key")).isFalse();
+      assertThat(assetStorage.contains("app-key")).isTrue();
+   }
+
+   @Test
+   public void should_evict_nothing_for_an_unknown_bundle_or_asset() {
+      assertThat(cacheManager.invalidateBundle("unknown")).isEqualTo(0);
+      assertThat(cacheManager.invalidateAsset("unknown")).isEqualTo(0);
+      assertThat(requestCache.getAll()).hasSize(3);
+   }
+
+   @Test
+   public void should_forget_the_indexes_when_clearing_the_cache() {
+      cacheManager.clearCache();
+      assertThat(requestCache.getAll()).isEmpty();
+      assertThat(cacheManager.invalidateBundle("jquery")).isEqualTo(0);
+   }
+
+   @Test
+   public void should_report_the_hottest_keys() {
+      for (int i = 0; i < 3; i++) {
+         requestCache.get("page2");
+      }
+      requestCache.get("page1");
+      requestCache.get("unknown");
+
+      assertThat(requestCache.getHottestKeys(1)).hasSize(1).containsEntry("/page2", 3L);
+      assertThat(requestCache.getHottestKeys(10).keySet()).containsExactly("/page2", "/page1");
+
+      requestCache.remove("page2");
+      assertThat(requestCache.getHottestKeys(10).keySet()).containsExactly("/page1");
+   }
+
+   @Test
+   public void should_not_track_the_hits_by_key_without_jmx() {
+      Mockito.when(context.getConfiguration().isMonitoringJmxEnabled()).thenReturn(false);
+      requestCache.initCache(context);
+      cacheManager.storeAssets("page1", entry("/page1", jquery, app));
+
+      assertThat(requestCache.get("page1")).isNotNull();
+      assertThat(requestCache.getHitCount().get()).isEqualTo(1);
+      assertThat(requestCache.getHottestKeys(10)).isEmpty();
+   }
+
+   @Test
+   public void should_count_the_evictions_due_to_the_size_limit() {
+      for (int i = 4; i <= 12; i++) {
+         cacheManager.storeAssets("page" + i, entry("/page" + i, other));
+      }
+
+      assertThat(requestCache.getAll()).hasSize(10);
+      assertThat(requestCache.getEvictionCount().get()).isEqualTo(2);
+   }
+
+   @Test
+   public void should_forget_the_entries_evicted_due_to_the_size_limit() {
+      for (int i = 4; i <= 12; i++) {
+         cacheManager.storeAssets("page" + i, entry("/page" + i, other));
+      }
+
+      assertThat(cacheManager.invalidateBundle("jquery")).isEqualTo(0);
+      assertThat(cacheManager.invalidateAsset("app-key")).isEqualTo(0);
+      assertThat(cacheManager.invalidateBundle("other")).isEqualTo(10);
+   }
+
+   @Test
+   public void should_clear_the_cache_when_it_cannot_remove_a_single_entry() {
+      RequestCache customCache = Mockito.mock(RequestCache.class);
+      Mockito.when(context.getCache()).thenReturn(customCache);
+
+      assertThat(cacheManager.invalidateAsset("app-key")).isEqualTo(1);
+
+      Mockito.verify(customCache).clear();
+      assertThat(cacheManager.invalidateBundle("other")).isEqualTo(0);
+   }
+}
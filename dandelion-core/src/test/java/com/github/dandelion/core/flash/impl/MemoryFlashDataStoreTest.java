@@ -0,0 +1,144 @@
+package com.github.dandelion.core.flash.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.github.dandelion.core.web.RequestFlashData;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemoryFlashDataStoreTest {
+
+   private static final AtomicLong NOW = new AtomicLong();
+
+   private MemoryFlashDataStore store;
+   private RequestFlashData data;
+
+   private static class TestStore extends MemoryFlashDataStore {
+
+      public TestStore(int maxSize, int timeToLive) {
+         configure(maxSize, timeToLive);
+      }
+
+      @Override
+      protected long currentTimeMillis() {
+         return NOW.get();
+      }
+   }
+
+   @Before
+   public void setup() {
+      NOW.set(1000000L);
+      store = new TestStore(3, 60);
+      MockHttpServletRequest request = new MockHttpServletRequest();
+      request.setAttribute("user", "Mike");
+      data = new RequestFlashData(request);
+   }
+
+   @Test
+   public void should_return_the_stored_data() {
+      store.put("key", data);
+
+      assertThat(store.get("key")).isSameAs(data);
+      assertThat(store.get("unknown")).isNull();
+      assertThat(store.get(null)).isNull();
+   }
+
+   @Test
+   public void should_expire_the_data_on_tick() {
+      store.put("key1", data);
+      NOW.addAndGet(30000);
+      store.put("key2", data);
+
+      NOW.addAndGet(29000);
+      assertThat(store.expire()).isEqualTo(0);
+      assertThat(store.size()).isEqualTo(2);
+
+      NOW.addAndGet(2000);
+      assertThat(store.expire()).isEqualTo(1);
+      assertThat(store.get("key1")).isNull();
+      assertThat(store.get("key2")).isSameAs(data);
+   }
+
+   @Test
+   public void should_expire_entries_scheduled_beyond_one_revolution() {
+      store = new TestStore(3, 3600);
+      store.put("key", data);
+
+      NOW.addAndGet(1800000);
+      assertThat(store.expire()).isEqualTo(0);
+      assertThat(store.size()).isEqualTo(1);
+
+      NOW.addAndGet(1800001);
+      assertThat(store.expire()).isEqualTo(1);
+      assertThat(store.size()).isEqualTo(0);
+   }
+
+   @Test
+   public void should_shorten_the_time_to_live_once_read() {
+      store.put("key", data);
+      assertThat(store.get("key")).isSameAs(data);
+
+      // Still available for the other assets of the page
+      NOW.addAndGet(MemoryFlashDataStore.READ_GRACE_PERIOD - 1000);
+      assertThat(store.get("key")).isSameAs(data);
+
+      NOW.addAndGet(2000);
+      store.expire();
+      assertThat(store.size()).isEqualTo(0);
+      assertThat(store.get("key")).isNull();
+   }
+
+   @Test
+   public void should_not_return_expired_data_before_the_tick() {
+      store.put("key", data);
+      NOW.addAndGet(60001);
+
+      assertThat(store.get("key")).isNull();
+      assertThat(store.size()).isEqualTo(0);
+   }
+
+   @Test
+   public void should_evict_the_oldest_entry_when_full() {
+      store.put("key1", data);
+      NOW.addAndGet(10000);
+      store.put("key2", data);
+      NOW.addAndGet(10000);
+      store.put("key3", data);
+      NOW.addAndGet(10000);
+      store.put("key4", data);
+
+      assertThat(store.size()).isEqualTo(3);
+      assertThat(store.get("key1")).isNull();
+      assertThat(store.get("key2")).isNotNull();
+      assertThat(store.get("key4")).isNotNull();
+   }
+
+   @Test
+   public void should_replace_the_data_of_an_existing_key() {
+      store.put("key", data);
+      NOW.addAndGet(50000);
+      store.put("key", data);
+      NOW.addAndGet(20000);
+
+      assertThat(store.expire()).isEqualTo(0);
+      assertThat(store.get("key")).isSameAs(data);
+   }
+
+   @Test
+   public void should_skip_the_replaced_entries_when_evicting() {
+      store.put("key1", data);
+      store.put("key2", data);
+      store.put("key3", data);
+      store.put("key1", data);
+      store.put("key4", data);
+
+      assertThat(store.size()).isEqualTo(3);
+      assertThat(store.get("key2")).isNull();
+      assertThat(store.get("key1")).isNotNull();
+      assertThat(store.get("key3")).isNotNull();
+   }
+}
@@ -0,0 +1,215 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.flash.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.github.dandelion.core.web.RequestFlashData;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FlashDataSerializerTest {
+
+   private static RequestFlashData roundTrip(Map<String, Object> attributes) {
+      return FlashDataSerializer.deserialize(FlashDataSerializer.serialize(new RequestFlashData(attributes)));
+   }
+
+   @Test
+   public void should_round_trip_simple_values() {
+      Map<String, Object> attributes = new HashMap<String, Object>();
+      attributes.put("string", "Hé, Mike");
+      attributes.put("empty", "");
+      attributes.put("boolean", true);
+      attributes.put("int", -42);
+      attributes.put("long", Long.MAX_VALUE);
+      attributes.put("minLong", Long.MIN_VALUE);
+      attributes.put("double", 3.14d);
+      attributes.put("float", 1.5f);
+      attributes.put("short", (short) 7);
+      attributes.put("byte", (byte) -1);
+      attributes.put("char", 'x');
+      attributes.put("date", new Date(1234567890L));
+      attributes.put("null", null);
+
+      assertThat(roundTrip(attributes).getAttributes()).isEqualTo(attributes);
+   }
+
+   @Test
+   public void should_round_trip_collections_maps_and_arrays() {
+      Map<String, Object> nested = new LinkedHashMap<String, Object>();
+      nested.put("ids", Arrays.asList(1, 2, 3));
+      nested.put("tags", new LinkedHashSet<String>(Arrays.asList("a", "b")));
+
+      Map<String, Object> attributes = new HashMap<String, Object>();
+      attributes.put("map", nested);
+      attributes.put("array", new Object[] { "x", 1L });
+
+      Map<String, Object> result = roundTrip(attributes).getAttributes();
+      assertThat(result.get("map")).isEqualTo(nested);
+      assertThat((Object[]) result.get("array")).containsExactly("x", 1L);
+   }
+
+   @Test
+   public void should_keep_the_type_of_the_collections_maps_and_arrays() {
+      Map<String, Object> attributes = new HashMap<String, Object>();
+      attributes.put("linkedList", new LinkedList<String>(Arrays.asList("a", "b")));
+      attributes.put("hashSet", new HashSet<String>(Arrays.asList("a", "b")));
+      attributes.put("treeSet", new TreeSet<String>(Arrays.asList("b", "a")));
+      attributes.put("hashMap", new HashMap<String, Integer>(Collections.singletonMap("a", 1)));
+      attributes.put("treeMap", new TreeMap<String, Integer>(Collections.singletonMap("a", 1)));
+      attributes.put("strings", new String[] { "a", "b" });
+      attributes.put("matrix", new Integer[][] { { 1 }, { 2, 3 } });
+
+      Map<String, Object> result = roundTrip(attributes).getAttributes();
+      assertThat(result.get("linkedList")).isInstanceOf(LinkedList.class).isEqualTo(attributes.get("linkedList"));
+      assertThat(result.get("hashSet")).isExactlyInstanceOf(HashSet.class).isEqualTo(attributes.get("hashSet"));
+      assertThat(result.get("treeSet")).isInstanceOf(TreeSet.class).isEqualTo(attributes.get("treeSet"));
+      assertThat(result.get("hashMap")).isExactlyInstanceOf(HashMap.class).isEqualTo(attributes.get("hashMap"));
+      assertThat(result.get("treeMap")).isInstanceOf(TreeMap.class).isEqualTo(attributes.get("treeMap"));
+      assertThat(result.get("strings")).isInstanceOf(String[].class);
+      assertThat((String[]) result.get("strings")).containsExactly("a", "b");
+      assertThat(result.get("matrix")).isInstanceOf(Integer[][].class);
+      assertThat(((Integer[][]) result.get("matrix"))[1]).containsExactly(2, 3);
+   }
+
+   @Test
+   public void should_skip_the_cyclic_values() {
+      List<Object> cyclic = new ArrayList<Object>();
+      cyclic.add("a");
+      cyclic.add(cyclic);
+      List<String> shared = Arrays.asList("a");
+
+      Map<String, Object> attributes = new HashMap<String, Object>();
+      attributes.put("cyclic", cyclic);
+      attributes.put("shared", Arrays.asList(shared, shared));
+
+      Map<String, Object> result = roundTrip(attributes).getAttributes();
+      assertThat(result).containsOnlyKeys("shared");
+      assertThat(result.get("shared")).isEqualTo(attributes.get("shared"));
+   }
+
+   @Test
+   public void should_fall_back_to_the_java_serialization() {
+      Map<String, Object> attributes = new HashMap<String, Object>();
+      attributes.put("amount", new BigDecimal("12.50"));
+
+      assertThat(roundTrip(attributes).getAttributes().get("amount")).isEqualTo(new BigDecimal("12.50"));
+   }
+
+   @Test
+   public void should_only_deserialize_the_allowed_classes() {
+      Map<String, Object> attributes = new HashMap<String, Object>();
+      attributes.put("kept", "value");
+      attributes.put("bean", new Bean("Mike"));
+      attributes.put("beans", new Bean[] { new Bean("Mike") });
+      byte[] serialized = FlashDataSerializer.serialize(new RequestFlashData(attributes));
+
+      assertThat(FlashDataSerializer.deserialize(serialized).getAttributes()).containsOnlyKeys("kept");
+
+      Map<String, Object> allowed = FlashDataSerializer.deserialize(serialized,
+            Arrays.asList("com.github.dandelion.core")).getAttributes();
+      assertThat(allowed).containsOnlyKeys("kept", "bean", "beans");
+      assertThat(((Bean) allowed.get("bean")).name).isEqualTo("Mike");
+      assertThat(allowed.get("beans")).isInstanceOf(Bean[].class);
+   }
+
+   @Test
+   public void should_check_the_packages_of_the_classes() {
+      List<String> packages = Arrays.asList("com.acme");
+
+      assertThat(FlashDataSerializer.isSerializable("java.lang.String", packages)).isTrue();
+      assertThat(FlashDataSerializer.isSerializable("[[Ljava.util.Date;", packages)).isTrue();
+      assertThat(FlashDataSerializer.isSerializable("[I", packages)).isTrue();
+      assertThat(FlashDataSerializer.isSerializable("com.acme.User", packages)).isTrue();
+      assertThat(FlashDataSerializer.isSerializable("com.acme.model.User", packages)).isTrue();
+      assertThat(FlashDataSerializer.isSerializable("com.acmecorp.User", packages)).isFalse();
+      assertThat(FlashDataSerializer.isSerializable("java.util.concurrent.atomic.AtomicLong", packages)).isFalse();
+      assertThat(FlashDataSerializer.isSerializable("[Lorg.apache.commons.collections.Transformer;", packages))
+            .isFalse();
+      assertThat(FlashDataSerializer.isSerializable("User", packages)).isFalse();
+   }
+
+   @Test
+   public void should_skip_the_values_that_cant_be_serialized() {
+      Map<String, Object> attributes = new HashMap<String, Object>();
+      attributes.put("kept", "value");
+      attributes.put("skipped", new Object());
+      attributes.put("skippedList", Arrays.asList("a", new Object()));
+
+      Map<String, Object> result = roundTrip(attributes).getAttributes();
+      assertThat(result).hasSize(1);
+      assertThat(result.get("kept")).isEqualTo("value");
+   }
+
+   @Test
+   public void should_be_more_compact_than_the_java_serialization() throws Exception {
+      Map<String, Object> attributes = new HashMap<String, Object>();
+      attributes.put("user", "Mike");
+      attributes.put("count", 12);
+      List<String> roles = Arrays.asList("admin", "user");
+      attributes.put("roles", roles);
+
+      ByteArrayOutputStream javaSerialized = new ByteArrayOutputStream();
+      ObjectOutputStream oos = new ObjectOutputStream(javaSerialized);
+      oos.writeObject(attributes);
+      oos.close();
+
+      assertThat(FlashDataSerializer.serialize(new RequestFlashData(attributes)).length).isLessThan(
+            javaSerialized.size() / 4);
+   }
+
+   @SuppressWarnings("serial")
+   static class Bean implements Serializable {
+
+      private final String name;
+
+      Bean(String name) {
+         this.name = name;
+      }
+   }
+}
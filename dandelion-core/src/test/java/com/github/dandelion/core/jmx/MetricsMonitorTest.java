@@ -0,0 +1,88 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.jmx;
+
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanAttributeInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.dandelion.core.monitoring.MetricRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetricsMonitorTest {
+
+   private MetricRegistry registry;
+   private MetricsMonitor monitor;
+
+   @Before
+   public void setup() {
+      registry = new MetricRegistry(true);
+      monitor = new MetricsMonitor(registry, "handler.");
+   }
+
+   @Test
+   public void should_expose_the_metrics_of_the_group_only() {
+      registry.timer("handler.GzipCompressionPostHandler");
+      registry.counter("handler.skipped");
+      registry.timer("filter.chain");
+
+      MBeanAttributeInfo[] attributes = monitor.getMBeanInfo().getAttributes();
+
+      assertThat(attributes).hasSize(6);
+      assertThat(attributes[0].getName()).isEqualTo("skipped");
+      assertThat(attributes[1].getName()).isEqualTo("GzipCompressionPostHandler.count");
+   }
+
+   @Test
+   public void should_expose_the_timer_statistics_in_microseconds() throws Exception {
+      registry.timer("handler.GzipCompressionPostHandler").record(1500000L);
+      registry.timer("handler.GzipCompressionPostHandler").record(2500000L);
+      registry.counter("handler.skipped").add(4);
+
+      assertThat(monitor.getAttribute("GzipCompressionPostHandler.count")).isEqualTo(2L);
+      assertThat(monitor.getAttribute("GzipCompressionPostHandler.mean")).isEqualTo(2000L);
+      assertThat(monitor.getAttribute("GzipCompressionPostHandler.max")).isEqualTo(2500L);
+      assertThat(monitor.getAttribute("GzipCompressionPostHandler.p50")).isEqualTo(2048L);
+      assertThat(monitor.getAttribute("skipped")).isEqualTo(4L);
+
+      monitor.invoke("reset", null, null);
+      assertThat(monitor.getAttribute("GzipCompressionPostHandler.count")).isEqualTo(0L);
+      assertThat(monitor.getAttribute("skipped")).isEqualTo(0L);
+   }
+
+   @Test(expected = AttributeNotFoundException.class)
+   public void should_not_expose_the_metrics_of_other_groups() throws Exception {
+      registry.timer("filter.chain");
+      monitor.getAttribute("chain.count");
+   }
+}
@@ -0,0 +1,136 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetricRegistryTest {
+
+   @Test
+   public void should_share_metrics_by_name() {
+
+      MetricRegistry registry = new MetricRegistry(true);
+
+      assertThat(registry.counter("cache.hits")).isSameAs(registry.counter("cache.hits"));
+      assertThat(registry.timer("filter.chain")).isSameAs(registry.timer("filter.chain"));
+      assertThat(registry.getCounters()).containsOnlyKeys("cache.hits");
+      assertThat(registry.getTimers()).containsOnlyKeys("filter.chain");
+   }
+
+   @Test
+   public void should_hand_out_disabled_metrics_when_disabled() {
+
+      MetricRegistry registry = new MetricRegistry(false);
+      Counter counter = registry.counter("cache.hits");
+      Timer timer = registry.timer("filter.chain");
+
+      counter.increment();
+      timer.record(1000L);
+
+      assertThat(counter).isSameAs(Counter.DISABLED);
+      assertThat(counter.sum()).isEqualTo(0);
+      assertThat(timer).isSameAs(Timer.DISABLED);
+      assertThat(timer.getCount()).isEqualTo(0);
+      assertThat(registry.getCounters()).isEmpty();
+      assertThat(registry.getTimers()).isEmpty();
+      assertThat(MetricRegistry.of(null)).isSameAs(MetricRegistry.DISABLED);
+   }
+
+   @Test
+   public void should_sum_concurrent_increments() throws InterruptedException {
+
+      final Counter counter = new MetricRegistry(true).counter("filter.bytes.out");
+      List<Thread> threads = new ArrayList<Thread>();
+      for (int i = 0; i < 8; i++) {
+         threads.add(new Thread() {
+            @Override
+            public void run() {
+               for (int j = 0; j < 10000; j++) {
+                  counter.add(2);
+               }
+            }
+         });
+      }
+      for (Thread thread : threads) {
+         thread.start();
+      }
+      for (Thread thread : threads) {
+         thread.join();
+      }
+
+      assertThat(counter.sum()).isEqualTo(160000);
+
+      counter.reset();
+      assertThat(counter.sum()).isEqualTo(0);
+   }
+
+   @Test
+   public void should_record_durations_in_power_of_two_buckets() {
+
+      Timer timer = new Timer();
+      timer.record(500L);
+      timer.record(1500L);
+      timer.record(3000L);
+      timer.record(3500L);
+
+      long[] buckets = timer.getBucketCounts();
+      assertThat(buckets[0]).isEqualTo(1);
+      assertThat(buckets[1]).isEqualTo(1);
+      assertThat(buckets[2]).isEqualTo(2);
+      assertThat(timer.getCount()).isEqualTo(4);
+      assertThat(timer.getTotalTime()).isEqualTo(8500L);
+      assertThat(timer.getMeanTime()).isEqualTo(2125L);
+      assertThat(timer.getMaxTime()).isEqualTo(3500L);
+   }
+
+   @Test
+   public void should_approximate_percentiles_with_the_bucket_upper_bounds() {
+
+      Timer timer = new Timer();
+      for (int i = 0; i < 99; i++) {
+         timer.record(1500L);
+      }
+      timer.record(300000000000L);
+
+      assertThat(timer.getPercentile(0.5)).isEqualTo(2000L);
+      assertThat(timer.getPercentile(0.99)).isEqualTo(2000L);
+      assertThat(timer.getPercentile(1)).isEqualTo(300000000000L);
+      assertThat(timer.getBucketCounts()[Timer.BUCKET_COUNT - 1]).isEqualTo(1);
+
+      timer.reset();
+      assertThat(timer.getCount()).isEqualTo(0);
+      assertThat(timer.getPercentile(0.99)).isEqualTo(0);
+   }
+}
@@ -0,0 +1,102 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.storage;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.dandelion.core.asset.AssetType;
+import com.github.dandelion.core.reporting.Alert;
+import com.github.dandelion.core.reporting.Alert.AlertType;
+import com.github.dandelion.core.storage.support.BundleSuggestionIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BundleStorageAlertTest {
+
+   private BundleStorage bundleStorage;
+
+   @Before
+   public void setup() {
+      BundleStorageUnit b1 = new BundleStorageUnit("b1");
+      b1.getAssetStorageUnits().add(new AssetStorageUnit("a1", "1", AssetType.js));
+
+      bundleStorage = new BundleStorage();
+      bundleStorage.storeBundles(Arrays.asList(b1));
+      bundleStorage.setSuggestionIndex(new BundleSuggestionIndex(new HashSet<String>(Arrays.asList(
+            "asset-query/json/dandelion/bundle3.json", "asset-query/json/dandelion/bundle4.json"))));
+      bundleStorage.freeze();
+   }
+
+   @Test
+   public void should_not_report_any_alert_for_existing_bundles() {
+      assertThat(bundleStorage.alertsFor(new String[] { "b1" })).isEmpty();
+   }
+
+   @Test
+   public void should_report_a_missing_bundle_with_its_suggestion() {
+      Set<Alert> alerts = bundleStorage.alertsFor(new String[] { "b1", "Bundle4" });
+
+      assertThat(alerts).hasSize(1);
+      Alert alert = alerts.iterator().next();
+      assertThat(alert.getRequestedBundle()).isEqualTo("Bundle4");
+      assertThat(alert.getAlertType()).isEqualTo(AlertType.MISSING_BUNDLE);
+      assertThat(alert.getSuggestions()).hasSize(1);
+      assertThat(alert.getSuggestions().iterator().next().getSuggestedBundle().getName()).isEqualTo("bundle4");
+   }
+
+   @Test
+   public void should_report_a_missing_bundle_without_suggestion() {
+      Set<Alert> alerts = bundleStorage.alertsFor(new String[] { "unknown" });
+
+      assertThat(alerts).hasSize(1);
+      assertThat(alerts.iterator().next().getSuggestions()).isNull();
+   }
+
+   @Test
+   public void should_cache_the_alerts_regardless_of_the_order_of_the_requested_bundles() {
+      Set<Alert> alerts = bundleStorage.alertsFor(new String[] { "b1", "unknown" });
+
+      assertThat(bundleStorage.alertsFor(new String[] { "unknown", "b1" })).isSameAs(alerts);
+   }
+
+   @Test
+   public void should_build_each_suggestion_once() {
+      BundleSuggestionIndex suggestionIndex = bundleStorage.getSuggestionIndex();
+
+      assertThat(suggestionIndex.size()).isEqualTo(2);
+      assertThat(suggestionIndex.suggestionsFor("bundle3").get(0)).isSameAs(
+            suggestionIndex.suggestionsFor("BUNDLE3").get(0));
+   }
+}
@@ -0,0 +1,49 @@
+package com.github.dandelion.core.storage;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.dandelion.core.asset.AssetType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BundleStorageFreezingTest {
+
+   private BundleStorage bundleStorage;
+
+   @Before
+   public void setup() {
+      BundleStorageUnit b1 = new BundleStorageUnit("b1");
+      b1.addDependency("b2");
+      b1.getAssetStorageUnits().add(new AssetStorageUnit("a1", "1", AssetType.js));
+      BundleStorageUnit b2 = new BundleStorageUnit("b2");
+
+      bundleStorage = new BundleStorage();
+      bundleStorage.storeBundles(Arrays.asList(b1, b2));
+      bundleStorage.freeze();
+   }
+
+   @Test
+   public void should_still_be_queryable_once_frozen() {
+      assertThat(bundleStorage.isFrozen()).isTrue();
+      assertThat(bundleStorage.bundlesFor("b1")).extracting("name").containsExactly("b2", "b1");
+   }
+
+   @Test(expected = IllegalStateException.class)
+   public void should_not_store_bundles_once_frozen() {
+      bundleStorage.storeBundles(Collections.singletonList(new BundleStorageUnit("b3")));
+   }
+
+   @Test(expected = IllegalStateException.class)
+   public void should_not_consolidate_bundles_once_frozen() {
+      bundleStorage.consolidateBundles(Collections.singletonList(new BundleStorageUnit("b1")));
+   }
+
+   @Test(expected = UnsupportedOperationException.class)
+   public void should_expose_a_read_only_graph_once_frozen() {
+      bundleStorage.getBundleDag().getVerticies().add(new BundleStorageUnit("b3"));
+   }
+}
@@ -0,0 +1,77 @@
+package com.github.dandelion.core.storage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.dandelion.core.asset.AssetType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BundleStorageOverridingTest {
+
+   private BundleStorage bundleStorage;
+
+   @Before
+   public void setup() {
+      bundleStorage = new BundleStorage();
+   }
+
+   private static AssetStorageUnit asset(String name, String version, AssetType type, String location) {
+      AssetStorageUnit asu = new AssetStorageUnit(name, version, type);
+      Map<String, String> locations = new HashMap<String, String>();
+      locations.put("remote", location);
+      asu.setLocations(locations);
+      return asu;
+   }
+
+   private static BundleStorageUnit bundle(String name, AssetStorageUnit... asus) {
+      BundleStorageUnit bsu = new BundleStorageUnit(name);
+      bsu.getAssetStorageUnits().addAll(Arrays.asList(asus));
+      return bsu;
+   }
+
+   @Test
+   public void should_override_an_asset_with_the_same_name_and_type_in_its_original_bundle() {
+      bundleStorage.storeBundles(Collections.singletonList(bundle("vendor",
+            asset("jquery", "1.10.0", AssetType.js, "//cdn/jquery-1.10.0.js"))));
+      bundleStorage.storeBundles(Collections.singletonList(bundle("regular",
+            asset("JQuery", "2.1.0", AssetType.js, "//cdn/jquery-2.1.0.js"))));
+
+      BundleStorageUnit vendor = bundleStorage.getBundleDag().getVertex("vendor");
+      assertThat(vendor.getAssetStorageUnits()).hasSize(1);
+      AssetStorageUnit jquery = vendor.getAssetStorageUnits().iterator().next();
+      assertThat(jquery.getVersion()).isEqualTo("2.1.0");
+      assertThat(jquery.getLocations()).containsValue("//cdn/jquery-2.1.0.js");
+      assertThat(jquery.getBundle()).isEqualTo("vendor");
+      assertThat(bundleStorage.getBundleDag().getVertex("regular").getAssetStorageUnits()).isEmpty();
+   }
+
+   @Test
+   public void should_not_override_an_asset_with_the_same_name_but_another_type() {
+      bundleStorage.storeBundles(Arrays.asList(bundle("b1", asset("app", "1", AssetType.js, "//cdn/app.js")),
+            bundle("b2", asset("app", "1", AssetType.css, "//cdn/app.css"))));
+
+      assertThat(bundleStorage.getBundleDag().getVertex("b1").getAssetStorageUnits()).hasSize(1);
+      assertThat(bundleStorage.getBundleDag().getVertex("b2").getAssetStorageUnits()).hasSize(1);
+   }
+
+   @Test
+   public void should_consolidate_bundles_with_the_first_raw_bundle_of_the_same_name() {
+      BundleStorageUnit raw1 = bundle("b1", asset("a1", "1", AssetType.js, "//cdn/a1.js"));
+      raw1.setRelativePath("dandelion/b1.json");
+      BundleStorageUnit raw2 = bundle("B1", asset("a2", "1", AssetType.js, "//cdn/a2.js"));
+      raw2.setRelativePath("dandelion/other/b1.json");
+
+      bundleStorage.storeBundles(Collections.singletonList(raw1));
+      bundleStorage.consolidateBundles(Arrays.asList(raw1, raw2));
+
+      BundleStorageUnit b1 = bundleStorage.getBundleDag().getVertex("b1");
+      assertThat(b1.getRelativePath()).isEqualTo("dandelion/b1.json");
+      assertThat(b1.getAssetStorageUnitNames()).containsOnly("a1");
+   }
+}
@@ -0,0 +1,148 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.storage.support;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.asset.AssetType;
+import com.github.dandelion.core.asset.locator.impl.FileLocator;
+import com.github.dandelion.core.cache.CacheManager;
+import com.github.dandelion.core.cache.RequestCache;
+import com.github.dandelion.core.storage.BundleStorage;
+import com.github.dandelion.core.storage.BundleStorageUnit;
+import com.github.dandelion.core.storage.StorageEntry;
+import com.github.dandelion.core.storage.impl.MemoryAssetStorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceWatcherTest {
+
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder();
+
+   private Context context;
+   private RequestCache requestCache;
+   private MemoryAssetStorage assetStorage;
+   private ResourceWatcher watcher;
+
+   @Before
+   public void setup() {
+      context = Mockito.mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+      requestCache = Mockito.mock(RequestCache.class);
+      assetStorage = new MemoryAssetStorage();
+      BundleStorage bundleStorage = new BundleStorage();
+      bundleStorage.freeze();
+
+      Mockito.when(context.getCache()).thenReturn(requestCache);
+      Mockito.when(context.getAssetStorage()).thenReturn(assetStorage);
+      Mockito.when(context.getBundleStorage()).thenReturn(bundleStorage);
+      Mockito.when(context.getCacheManager()).thenReturn(new CacheManager(context));
+
+      watcher = new ResourceWatcher(context);
+   }
+
+   private static File write(File file, String contents) throws IOException {
+      file.getParentFile().mkdirs();
+      FileWriter writer = new FileWriter(file);
+      writer.write(contents);
+      writer.close();
+      return file;
+   }
+
+   private void storeFileAsset(String storageKey, File file) {
+      Asset asset = new Asset("app", "1.0", AssetType.css);
+      asset.setConfigLocationKey(FileLocator.LOCATION_KEY);
+      asset.setConfigLocation(file.getAbsolutePath());
+      asset.setStorageKey(storageKey);
+      assetStorage.put(storageKey, new StorageEntry(asset, "body{}"));
+   }
+
+   @Test
+   public void should_evict_only_the_modified_asset() throws Exception {
+      File modifiedFile = write(folder.newFile("app.css"), "body{}");
+      File untouchedFile = write(folder.newFile("other.css"), "p{}");
+      storeFileAsset("modified", modifiedFile);
+      storeFileAsset("untouched", untouchedFile);
+
+      assertThat(watcher.check()).isFalse();
+
+      assertThat(modifiedFile.setLastModified(modifiedFile.lastModified() + 10000)).isTrue();
+      assertThat(watcher.check()).isTrue();
+
+      assertThat(assetStorage.contains("modified")).isFalse();
+      assertThat(assetStorage.contains("untouched")).isTrue();
+      Mockito.verify(requestCache, Mockito.never()).clear();
+      Mockito.verify(context, Mockito.never()).initBundleStorage();
+   }
+
+   @Test
+   public void should_reload_bundles_when_a_bundle_file_is_modified() throws Exception {
+      File classesDirectory = folder.newFolder();
+      File bundleFile = write(new File(classesDirectory, "dandelion/b1.json"), "{}");
+
+      BundleStorageUnit b1 = new BundleStorageUnit("b1");
+      b1.setRelativePath("dandelion/b1.json");
+      BundleStorage bundleStorage = new BundleStorage();
+      bundleStorage.storeBundles(Collections.singletonList(b1));
+      bundleStorage.consolidateBundles(Collections.singletonList(b1));
+      bundleStorage.freeze();
+      Mockito.when(context.getBundleStorage()).thenReturn(bundleStorage);
+
+      ClassLoader previousClassLoader = Thread.currentThread().getContextClassLoader();
+      Thread.currentThread().setContextClassLoader(
+            new URLClassLoader(new URL[] { classesDirectory.toURI().toURL() }, null));
+      try {
+         assertThat(watcher.check()).isFalse();
+         Mockito.verify(context, Mockito.never()).initBundleStorage();
+
+         assertThat(bundleFile.setLastModified(bundleFile.lastModified() + 10000)).isTrue();
+         assertThat(watcher.check()).isTrue();
+      }
+      finally {
+         Thread.currentThread().setContextClassLoader(previousClassLoader);
+      }
+
+      Mockito.verify(context).initBundleStorage();
+      Mockito.verify(requestCache).clear();
+   }
+}
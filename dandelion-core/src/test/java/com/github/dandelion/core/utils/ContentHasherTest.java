@@ -0,0 +1,87 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.utils;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import com.github.dandelion.core.util.ContentHasher;
+import com.github.dandelion.core.util.HashingWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContentHasherTest {
+
+   @Test
+   public void should_compute_the_murmur3_128_hash() throws Exception {
+      assertThat(ContentHasher.hash(new byte[0])).isEqualTo("00000000000000000000000000000000");
+      assertThat(ContentHasher.hash("The quick brown fox jumps over the lazy dog".getBytes("UTF-8"))).isEqualTo(
+            "6c1b07bc7bbc4be347939ac4a93c437a");
+   }
+
+   @Test
+   public void should_hash_chars_as_utf16_little_endian_bytes() throws Exception {
+      String contents = "body{padding-top:60px;padding-bottom:40px}é";
+      assertThat(ContentHasher.hash(contents)).isEqualTo(ContentHasher.hash(contents.getBytes("UTF-16LE")));
+   }
+
+   @Test
+   public void should_hash_contents_incrementally() throws Exception {
+      String contents = "var a = 1;\nvar b = 2;\nfunction f(){ return a + b; }";
+
+      ContentHasher hasher = new ContentHasher();
+      hasher.update((byte) 'x');
+      hasher.update(contents.toCharArray(), 0, 5);
+      hasher.update(contents.substring(5));
+
+      byte[] chars = contents.getBytes("UTF-16LE");
+      byte[] bytes = new byte[chars.length + 1];
+      bytes[0] = 'x';
+      System.arraycopy(chars, 0, bytes, 1, chars.length);
+
+      assertThat(hasher.toHexString()).isEqualTo(ContentHasher.hash(bytes));
+   }
+
+   @Test
+   public void should_hash_while_writing() throws Exception {
+      String contents = "body{padding-top:60px;padding-bottom:40px}";
+
+      StringWriter writer = new StringWriter();
+      HashingWriter hashingWriter = new HashingWriter(writer);
+      hashingWriter.write(contents, 0, 10);
+      hashingWriter.write(contents.toCharArray(), 10, 20);
+      hashingWriter.write(contents.substring(30));
+      hashingWriter.close();
+
+      assertThat(writer.toString()).isEqualTo(contents);
+      assertThat(hashingWriter.getHash()).isEqualTo(ContentHasher.hash(contents));
+   }
+}
@@ -14,6 +14,6 @@ public class ServiceLoaderUtilsTest {
    @Test
    public void should_return_all_bundleLoader_as_list() {
       assertThat(ServiceLoaderUtils.getProvidersAsList(AssetVersioningStrategy.class)).isInstanceOf(ArrayList.class);
-      assertThat(ServiceLoaderUtils.getProvidersAsList(AssetVersioningStrategy.class)).hasSize(3);
+      assertThat(ServiceLoaderUtils.getProvidersAsList(AssetVersioningStrategy.class)).hasSize(4);
    }
 }
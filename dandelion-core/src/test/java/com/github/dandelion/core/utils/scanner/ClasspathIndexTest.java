@@ -0,0 +1,131 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.utils.scanner;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.github.dandelion.core.util.scanner.ClasspathIndex;
+import com.github.dandelion.core.util.scanner.ClasspathResourceScanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClasspathIndexTest {
+
+   @After
+   public void closeIndex() {
+      ClasspathResourceScanner.closeIndex();
+   }
+
+   @Test
+   public void should_return_the_same_resources_as_a_full_scan() {
+      String[] locations = { "scanning", "scanning/subfolder", "dandelion", "dandelion/vendor", "META-INF/resources",
+            "META-INF/services", "org/slf4j", "unknown-folder" };
+
+      for (String location : locations) {
+         Set<String> scanned = ClasspathResourceScanner.findResourcePaths(location, null, null, null);
+
+         ClasspathResourceScanner.openIndex();
+         Set<String> indexed = ClasspathResourceScanner.findResourcePaths(location, null, null, null);
+         Set<String> indexedAgain = ClasspathResourceScanner.findResourcePaths(location, null, null, null);
+         ClasspathResourceScanner.closeIndex();
+
+         assertThat(indexed).as(location).isEqualTo(scanned);
+         assertThat(indexedAgain).as(location).isEqualTo(scanned);
+      }
+   }
+
+   @Test
+   public void should_walk_each_jar_only_once() {
+      ClasspathIndex index = ClasspathResourceScanner.openIndex();
+
+      ClasspathResourceScanner.findResourcePaths("META-INF", null, null, ".json");
+      int walkedJarCount = index.getWalkedJarCount();
+      assertThat(walkedJarCount).isGreaterThan(0);
+
+      ClasspathResourceScanner.findResourcePaths("META-INF/services", null, null, null);
+      ClasspathResourceScanner.findResourcePaths("META-INF", null, "pom.xml");
+      ClasspathResourceScanner.findResourcePath("META-INF", "MANIFEST.MF");
+
+      assertThat(index.getWalkedJarCount()).isEqualTo(walkedJarCount);
+   }
+
+   @Test
+   public void should_walk_directories_once_per_location() {
+      ClasspathIndex index = ClasspathResourceScanner.openIndex();
+
+      assertThat(ClasspathResourceScanner.findResourcePaths("scanning", null, null, ".json")).hasSize(6);
+      int walkedDirectoryCount = index.getWalkedDirectoryCount();
+
+      assertThat(ClasspathResourceScanner.findResourcePaths("scanning", null, null, ".properties")).hasSize(2);
+      assertThat(ClasspathResourceScanner.findResourcePaths("scanning/subfolder", null, null, null)).isNotEmpty();
+      assertThat(index.getWalkedDirectoryCount()).isEqualTo(walkedDirectoryCount);
+   }
+
+   @Test
+   public void should_only_be_used_by_the_thread_that_opened_it() throws Exception {
+      final ClasspathIndex index = ClasspathResourceScanner.openIndex();
+
+      Thread otherThread = new Thread() {
+
+         @Override
+         public void run() {
+            ClasspathResourceScanner.findResourcePaths("scanning", null, null, ".json");
+            ClasspathResourceScanner.closeIndex();
+         }
+      };
+      otherThread.start();
+      otherThread.join();
+      assertThat(index.getWalkedDirectoryCount()).isEqualTo(0);
+
+      ClasspathResourceScanner.findResourcePaths("scanning", null, null, ".json");
+      assertThat(index.getWalkedDirectoryCount()).isGreaterThan(0);
+   }
+
+   @Test
+   public void should_not_be_used_with_another_context_class_loader() {
+      ClasspathIndex index = ClasspathResourceScanner.openIndex();
+
+      Thread currentThread = Thread.currentThread();
+      ClassLoader classLoader = currentThread.getContextClassLoader();
+      currentThread.setContextClassLoader(new URLClassLoader(new URL[0], classLoader));
+      try {
+         assertThat(ClasspathResourceScanner.findResourcePaths("scanning", null, null, ".json")).hasSize(6);
+         assertThat(index.getWalkedDirectoryCount()).isEqualTo(0);
+      }
+      finally {
+         currentThread.setContextClassLoader(classLoader);
+      }
+   }
+}
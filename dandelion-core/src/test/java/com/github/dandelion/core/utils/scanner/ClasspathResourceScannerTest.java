@@ -78,4 +78,15 @@ public class ClasspathResourceScannerTest {
       assertThat(ClasspathResourceScanner.findResourcePaths("scanning", newLinkedHashSet("scanning/subfolder"), null, null))
             .hasSize(5);
    }
+
+   @Test
+   public void should_find_a_directory_down_to_the_given_depth() throws IOException {
+      assertThat(ClasspathResourceScanner.findDirectoryPath("bower_components", null, 3)).isEqualTo(
+            "pre-loader/bower/bower_components/");
+      assertThat(ClasspathResourceScanner.findDirectoryPath("bower_components", null, 2)).isNull();
+      assertThat(ClasspathResourceScanner.findDirectoryPath("bower_components", newLinkedHashSet("bower"), 3))
+            .isNull();
+      assertThat(ClasspathResourceScanner.findDirectoryPath("bower_components", newLinkedHashSet("/pre-loader/"), 3))
+            .isNull();
+   }
 }
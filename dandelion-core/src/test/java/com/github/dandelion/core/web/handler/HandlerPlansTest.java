@@ -0,0 +1,209 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.web.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.github.dandelion.core.config.Configuration;
+import com.github.dandelion.core.web.handler.impl.AssetInjectionPostHandler;
+import com.github.dandelion.core.web.handler.impl.DebuggerPostHandler;
+import com.github.dandelion.core.web.handler.impl.ETagPostHandler;
+import com.github.dandelion.core.web.handler.impl.GzipCompressionPostHandler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HandlerPlansTest {
+
+   private Configuration configuration;
+
+   @Before
+   public void setup() {
+      configuration = mock(Configuration.class);
+      when(configuration.getAssetUrlPattern()).thenReturn("/dandelion-assets/*");
+   }
+
+   @Test
+   public void should_only_keep_the_handlers_that_can_apply() {
+
+      when(configuration.isToolGzipEnabled()).thenReturn(true);
+      when(configuration.isToolDebuggerEnabled()).thenReturn(false);
+
+      AbstractHandlerChain injection = new AssetInjectionPostHandler();
+      AbstractHandlerChain debugger = new DebuggerPostHandler();
+      AbstractHandlerChain etag = new ETagPostHandler();
+      AbstractHandlerChain gzip = new GzipCompressionPostHandler();
+      HandlerPlans plans = HandlerPlans.create(Collections.<HandlerChain> emptyList(),
+            Arrays.<HandlerChain> asList(gzip, injection, debugger, etag), configuration);
+
+      RequestProfile page = plans.getRequestProfile(new MockHttpServletRequest("GET", "/page"));
+      RequestProfile debuggerPage = plans.getRequestProfile(new MockHttpServletRequest("GET", "/ddl-debugger"));
+      RequestProfile asset = plans.getRequestProfile(new MockHttpServletRequest("GET", "/dandelion-assets/a.css"));
+
+      assertThat(plans.getPostPlan(page, "text/html;charset=UTF-8")).containsExactly(gzip, injection);
+      assertThat(plans.getPostPlan(debuggerPage, "text/html")).containsExactly(gzip);
+      assertThat(plans.getPostPlan(asset, "text/css")).containsExactly(gzip, etag);
+      assertThat(plans.getPostPlan(page, null)).isEmpty();
+   }
+
+   @Test
+   public void should_cache_the_plans() {
+
+      HandlerPlans plans = HandlerPlans.create(Collections.<HandlerChain> emptyList(),
+            Arrays.<HandlerChain> asList(new ETagPostHandler()), configuration);
+
+      RequestProfile page = plans.getRequestProfile(new MockHttpServletRequest("GET", "/page"));
+      AbstractHandlerChain[] plan = plans.getPostPlan(page, "text/css");
+      assertThat(plans.getPostPlan(page, "text/css")).isSameAs(plan);
+      assertThat(plans.size()).isEqualTo(1);
+   }
+
+   @Test
+   public void should_share_the_request_profiles_between_the_requests_and_phases() {
+
+      HandlerPlans plans = HandlerPlans.create(Collections.<HandlerChain> emptyList(),
+            Collections.<HandlerChain> emptyList(), configuration);
+
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", "/page");
+      HandlerContext preContext = new HandlerContext(null, request, new MockHttpServletResponse(), null);
+      plans.execute(false, preContext);
+      assertThat(preContext.getRequestProfile()).isSameAs(
+            plans.getRequestProfile(new MockHttpServletRequest("GET", "/other-page")));
+      assertThat(preContext.getRequestProfile().isAssetRequest()).isFalse();
+
+      HandlerContext postContext = new HandlerContext(null, request, new MockHttpServletResponse(), null);
+      postContext.setRequestProfile(preContext.getRequestProfile());
+      plans.execute(true, postContext);
+      assertThat(postContext.getRequestProfile()).isSameAs(preContext.getRequestProfile());
+   }
+
+   @Test
+   public void should_not_create_plans_for_handlers_not_extending_the_abstract_handler() {
+
+      HandlerChain handler = mock(HandlerChain.class);
+      assertThat(
+            HandlerPlans.create(Arrays.asList(handler), Collections.<HandlerChain> emptyList(), configuration))
+            .isNull();
+   }
+
+   @Test
+   public void should_execute_the_applicable_handlers_until_one_stops_the_chain() {
+
+      List<String> calls = new ArrayList<String>();
+      HandlerChain first = new RecordingHandler("first", 1, true, true, calls);
+      HandlerChain skipped = new RecordingHandler("skipped", 2, false, true, calls);
+      HandlerChain stopping = new RecordingHandler("stopping", 3, true, false, calls);
+      HandlerChain last = new RecordingHandler("last", 4, true, true, calls);
+      HandlerPlans plans = HandlerPlans.create(Arrays.asList(first, skipped, stopping, last),
+            Collections.<HandlerChain> emptyList(), configuration);
+
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", "/page");
+      plans.execute(false, new HandlerContext(null, request, new MockHttpServletResponse(), null));
+
+      assertThat(calls).containsExactly("first", "stopping");
+   }
+
+   @Test
+   public void should_only_check_what_the_profile_does_not_cover() {
+
+      List<String> calls = new ArrayList<String>();
+      HandlerChain planned = new RecordingHandler("planned", 1, false, true, calls) {
+
+         @Override
+         public boolean isApplicableInPlan(HandlerContext context) {
+            return true;
+         }
+      };
+      HandlerPlans plans = HandlerPlans.create(Arrays.asList(planned), Collections.<HandlerChain> emptyList(),
+            configuration);
+
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", "/page");
+      plans.execute(false, new HandlerContext(null, request, new MockHttpServletResponse(), null));
+
+      assertThat(calls).containsExactly("planned");
+   }
+
+   private static class RecordingHandler extends AbstractHandlerChain {
+
+      private static final Logger LOG = LoggerFactory.getLogger(RecordingHandler.class);
+
+      private final String name;
+      private final int rank;
+      private final boolean applicable;
+      private final boolean continueChain;
+      private final List<String> calls;
+
+      RecordingHandler(String name, int rank, boolean applicable, boolean continueChain, List<String> calls) {
+         this.name = name;
+         this.rank = rank;
+         this.applicable = applicable;
+         this.continueChain = continueChain;
+         this.calls = calls;
+      }
+
+      @Override
+      protected Logger getLogger() {
+         return LOG;
+      }
+
+      @Override
+      public boolean isAfterChaining() {
+         return false;
+      }
+
+      @Override
+      public int getRank() {
+         return rank;
+      }
+
+      @Override
+      public boolean isApplicable(HandlerContext context) {
+         return applicable;
+      }
+
+      @Override
+      protected boolean handle(HandlerContext context) {
+         calls.add(name);
+         return continueChain;
+      }
+   }
+}
@@ -250,4 +250,63 @@ public class AssetInjectionHandlerTest {
 
       handler.handle(handlerContext);
    }
+
+   @Test
+   public void should_leave_the_response_untouched_when_all_assets_are_rendered_inline() throws Exception {
+
+      Set<Asset> js = new LinkedHashSet<Asset>();
+      js.add(new Asset("a1", "1.0.0", AssetType.js, "final-location/a1.js"));
+      Set<Asset> css = new LinkedHashSet<Asset>();
+      css.add(new Asset("a1", "1.0.0", AssetType.css, "final-location/a1.css"));
+
+      Context context = mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+      when(context.getConfiguration().getEncoding()).thenReturn("UTF-8");
+
+      AssetQuery aq = mock(AssetQuery.class, Mockito.RETURNS_DEEP_STUBS);
+      whenNew(AssetQuery.class).withAnyArguments().thenReturn(aq);
+      when(aq.atPosition(AssetDomPosition.head).perform()).thenReturn(css);
+      when(aq.atPosition(AssetDomPosition.body).perform()).thenReturn(js);
+
+      request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, context);
+      AssetRequestContext.get(request).addRenderedAssets(AssetDomPosition.head, css)
+            .addRenderedAssets(AssetDomPosition.body, js);
+
+      byte[] html = HTML_DEFAULT_PLACEHOLDER.getBytes();
+      HandlerContext handlerContext = new HandlerContext(context, request, response, html);
+
+      handler.handle(handlerContext);
+
+      assertThat(handlerContext.getResponseAsBytes()).isSameAs(html);
+   }
+
+   @Test
+   public void should_insert_the_assets_declared_after_an_inline_placeholder_in_the_default_placeholder()
+         throws Exception {
+
+      Set<Asset> js = new LinkedHashSet<Asset>();
+      js.add(new Asset("a1", "1.0.0", AssetType.js, "final-location/a1.js"));
+      js.add(new Asset("a2", "1.0.0", AssetType.js, "final-location/a2.js"));
+      Set<Asset> renderedJs = new LinkedHashSet<Asset>();
+      renderedJs.add(new Asset("a1", "1.0.0", AssetType.js, "final-location/a1.js"));
+
+      Context context = mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+      when(context.getConfiguration().getEncoding()).thenReturn("UTF-8");
+
+      AssetQuery aq = mock(AssetQuery.class, Mockito.RETURNS_DEEP_STUBS);
+      whenNew(AssetQuery.class).withAnyArguments().thenReturn(aq);
+      when(aq.atPosition(AssetDomPosition.head).perform()).thenReturn(new LinkedHashSet<Asset>());
+      when(aq.atPosition(AssetDomPosition.body).perform()).thenReturn(js);
+
+      request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, context);
+      AssetRequestContext.get(request).addRenderedAssets(AssetDomPosition.body, renderedJs);
+
+      HandlerContext handlerContext = new HandlerContext(context, request, response,
+            HTML_DEFAULT_PLACEHOLDER.getBytes());
+
+      handler.handle(handlerContext);
+
+      String processedResponseAsString = new String(handlerContext.getResponseAsBytes());
+      assertThat(processedResponseAsString).doesNotContain("a1.js");
+      assertThat(processedResponseAsString).contains("<script src=\"final-location/a2.js\"></script>\n</body>");
+   }
 }
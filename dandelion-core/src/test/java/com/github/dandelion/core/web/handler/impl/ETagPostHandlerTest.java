@@ -40,15 +40,17 @@ import org.springframework.mock.web.MockHttpServletResponse;
 
 import com.github.dandelion.core.Context;
 import com.github.dandelion.core.GlobalOptionsRule;
+import com.github.dandelion.core.web.WebConstants;
 import com.github.dandelion.core.web.handler.HandlerContext;
 import com.github.dandelion.core.web.handler.cache.HttpHeader;
+import com.github.dandelion.core.web.handler.cache.HttpHeaderUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class ETagPostHandlerTest {
 
    private static String RESOURCE_RAW = "some-resource";
-   private static String RESOURCE_MD5 = "e6b6c052bdb0a50cf2bc0e4aa9c7d921";
+   private static String RESOURCE_HASH = "08fe94ca0abd98cf4a9bc6b1f3fb4209";
    private ETagPostHandler handler;
    private MockHttpServletRequest request;
    private MockHttpServletResponse response;
@@ -93,7 +95,7 @@ public class ETagPostHandlerTest {
    public void should_stop_chaining_when_ifnonematch_equals_etag() {
 
       HandlerContext handlerContext = new HandlerContext(context, request, response, RESOURCE_RAW.getBytes());
-      request.addHeader(HttpHeader.IFNONEMATCH.getName(), "\"" + RESOURCE_MD5 + "\"");
+      request.addHeader(HttpHeader.IFNONEMATCH.getName(), "\"" + RESOURCE_HASH + "\"");
 
       boolean shouldContinue = handler.handle(handlerContext);
 
@@ -105,10 +107,37 @@ public class ETagPostHandlerTest {
    public void should_continue_chaining_when_ifnonematch_ne_etag() {
 
       HandlerContext handlerContext = new HandlerContext(context, request, response, "content-has-changed".getBytes());
-      request.addHeader(HttpHeader.IFNONEMATCH.getName(), "\"" + RESOURCE_MD5 + "\"");
+      request.addHeader(HttpHeader.IFNONEMATCH.getName(), "\"" + RESOURCE_HASH + "\"");
 
       boolean shouldContinue = handler.handle(handlerContext);
 
       assertThat(shouldContinue).isTrue();
    }
+
+   @Test
+   public void should_reuse_the_hash_of_the_stored_asset() {
+
+      HandlerContext handlerContext = new HandlerContext(context, request, response, RESOURCE_RAW.getBytes());
+      request.setAttribute(WebConstants.DANDELION_ASSET_HASH, "0123456789abcdef0123456789abcdef");
+      request.addHeader(HttpHeader.IFNONEMATCH.getName(), "\"0123456789abcdef0123456789abcdef\"");
+
+      boolean shouldContinue = handler.handle(handlerContext);
+
+      assertThat(shouldContinue).isFalse();
+   }
+
+   @Test
+   public void should_hash_the_response_once_modified_by_a_handler() {
+
+      HandlerContext handlerContext = new HandlerContext(context, request, response, "template".getBytes());
+      handlerContext.setResponseAsBytes(RESOURCE_RAW.getBytes());
+      request.setAttribute(WebConstants.DANDELION_ASSET_HASH, "0123456789abcdef0123456789abcdef");
+      request.addHeader(HttpHeader.IFNONEMATCH.getName(), "\"0123456789abcdef0123456789abcdef\"");
+
+      boolean shouldContinue = handler.handle(handlerContext);
+
+      assertThat(shouldContinue).isTrue();
+      assertThat(HttpHeaderUtils.computeETag(RESOURCE_RAW.getBytes(), handlerContext)).isEqualTo(
+            "\"" + RESOURCE_HASH + "\"");
+   }
 }
@@ -0,0 +1,123 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.core.web.handler.impl;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.config.Configuration;
+import com.github.dandelion.core.web.ServerTiming;
+import com.github.dandelion.core.web.WebConstants;
+import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.cache.HttpHeader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ServerTimingHandlerTest {
+
+   private Context context;
+   private ServerTimingPreHandler preHandler;
+   private ServerTimingPostHandler postHandler;
+
+   @Before
+   public void setup() {
+      context = Mockito.mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+      Mockito.when(context.getConfiguration().isMonitoringServerTimingEnabled()).thenReturn(true);
+      Mockito.when(context.getConfiguration().getMonitoringServerTimingSampling()).thenReturn(2);
+      preHandler = new ServerTimingPreHandler();
+      postHandler = new ServerTimingPostHandler();
+   }
+
+   @Test
+   public void should_only_bind_a_server_timing_to_the_sampled_requests() {
+      int sampled = 0;
+      for (int i = 0; i < 4; i++) {
+         MockHttpServletRequest request = new MockHttpServletRequest();
+         preHandler.doHandle(new HandlerContext(context, request, new MockHttpServletResponse(), null));
+         if (ServerTiming.get(request) != null) {
+            sampled++;
+         }
+      }
+      assertThat(sampled).isEqualTo(2);
+   }
+
+   @Test
+   public void should_emit_the_recorded_stages_in_the_header() {
+      MockHttpServletRequest request = new MockHttpServletRequest();
+      MockHttpServletResponse response = new MockHttpServletResponse();
+      preHandler.doHandle(new HandlerContext(context, request, response, null));
+      ServerTiming.get(request).add("app", 12500000L);
+      ServerTiming.get(request).add("mapping", 1000000L);
+      ServerTiming.get(request).add("mapping", 500000L);
+
+      HandlerContext postHandlerContext = new HandlerContext(context, request, response, new byte[0]);
+      assertThat(postHandler.isApplicable(postHandlerContext)).isTrue();
+      postHandler.doHandle(postHandlerContext);
+
+      String header = response.getHeader(ServerTimingPostHandler.SERVER_TIMING_HEADER);
+      assertThat(header).startsWith("app;dur=12.5, mapping;dur=1.5, dandelion;dur=");
+      assertThat(header).contains(", total;dur=");
+   }
+
+   @Test
+   public void should_not_apply_to_the_requests_not_sampled() {
+      HandlerContext handlerContext = new HandlerContext(context, new MockHttpServletRequest(),
+            new MockHttpServletResponse(), new byte[0]);
+      assertThat(postHandler.isApplicable(handlerContext)).isFalse();
+   }
+
+   @Test
+   public void should_not_look_the_requests_up_when_disabled() {
+      HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+      long start = ServerTiming.start(Mockito.mock(Configuration.class), request);
+      ServerTiming.stop(request, "stage", start);
+
+      assertThat(start).isEqualTo(0L);
+      Mockito.verifyZeroInteractions(request);
+   }
+
+   @Test
+   public void should_not_time_the_handlers_when_disabled() {
+      MockHttpServletRequest request = Mockito.spy(new MockHttpServletRequest());
+      MockHttpServletResponse response = new MockHttpServletResponse();
+      response.setContentType("text/css");
+
+      new ETagPostHandler().doHandle(new HandlerContext(context, request, response, "a{}".getBytes()));
+
+      Mockito.verify(request).getHeader(HttpHeader.IFNONEMATCH.getName());
+      Mockito.verify(request, Mockito.never()).getAttribute(WebConstants.DANDELION_SERVER_TIMING);
+   }
+}
@@ -0,0 +1,75 @@
+// is.js
+
+// (c) 2001 Douglas Crockford
+// 2001 June 3
+
+
+// is
+
+// The -is- object is used to identify the browser.  Every browser edition
+// identifies itself, but there is no standard way of doing it, and some of
+// the identification is deceptive. This is because the authors of web
+// browsers are liars. For example, Microsoft's IE browsers claim to be
+// Mozilla 4. Netscape 6 claims to be version 5.
+
+var is = {
+    ie:      navigator.appName == 'Microsoft Internet Explorer',
+    java:    navigator.javaEnabled(),
+    ns:      navigator.appName == 'Netscape',
+    ua:      navigator.userAgent.toLowerCase(),
+    version: parseFloat(navigator.appVersion.substr(21)) ||
+             parseFloat(navigator.appVersion),
+    win:     navigator.platform == 'Win32'
+}
+is.mac = is.ua.indexOf('mac') >= 0;
+if (is.ua.indexOf('opera') >= 0) {
+    is.ie = is.ns = false;
+    is.opera = true;
+}
+if (is.ua.indexOf('gecko') >= 0) {
+    is.ie = is.ns = false;
+    is.gecko = true;
+}
+
+/*
+ * Some more constructs: strings, escapes, regular expressions and unicode.
+ */
+(function ($, window, undefined) {
+	"use strict";
+
+	var greeting = "Hello \"world\"",
+		path = 'C:\\temp\\',
+		unicode = "Crème brûlée — ✓",
+		trim = /^\s+|\s+$/g,
+		words = str.split(/\s*,\s*/);
+
+	function Plugin(element, options) {
+		this.element = element;
+		this.options = $.extend({}, $.fn.plugin.defaults, options);
+		this._init();
+	}
+
+	Plugin.prototype._init = function () {
+		var i, len = this.options.items.length;
+		for (i = 0; i < len; i++) {
+			if (this.options.items[i] !== undefined && trim.test(this.options.items[i])) {
+				this.options.items[i] = this.options.items[i].replace(trim, '');
+			}
+		}
+		return i / len;
+	};
+
+	$.fn.plugin = function (options) {
+		return this.each(function () {
+			if (!$.data(this, 'plugin')) {
+				$.data(this, 'plugin', new Plugin(this, options));
+			}
+		});
+	};
+
+	$.fn.plugin.defaults = {
+		items: [],
+		ratio: 3 / 4,
+		label: "<a href='#'>" + greeting + "</a>"
+	};
+}(jQuery, window));
@@ -0,0 +1,145 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.extras.cache.ehcache;
+
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.flash.FlashDataStore;
+import com.github.dandelion.core.flash.support.FlashDataSerializer;
+import com.github.dandelion.core.web.RequestFlashData;
+
+/**
+ * <p>
+ * EhCache implementation of {@link FlashDataStore}.
+ * </p>
+ * <p>
+ * The flash data are stored in a cache called {@code dandelionFlashDataCache},
+ * serialized with the {@link FlashDataSerializer}. Once this cache is
+ * replicated or clustered in the {@code ehcache.xml} configuration file, the
+ * JavaScript assets of a page can be requested on any node, without session
+ * affinity. If the cache doesn't exist in the configuration file, Dandelion
+ * will automatically add and use a local one.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class EhCacheFlashDataStore implements FlashDataStore {
+
+   private static final Logger LOG = LoggerFactory.getLogger(EhCacheFlashDataStore.class);
+
+   public static final String NAME = "ehcache";
+   public static final String DANDELION_FLASH_DATA_CACHE_NAME = "dandelionFlashDataCache";
+
+   /**
+    * Time, in seconds, an entry is still kept once read.
+    */
+   static final int READ_GRACE_PERIOD = 5;
+
+   private Ehcache cache;
+   private int timeToLive;
+   private List<String> serializablePackages;
+
+   @Override
+   public String getName() {
+      return NAME;
+   }
+
+   @Override
+   public void init(Context context) {
+      init(EhCacheUtils.getCache(context, DANDELION_FLASH_DATA_CACHE_NAME), context.getConfiguration()
+            .getAssetJsProcessingFlashTtl(), context.getConfiguration().getAssetJsProcessingFlashSerializablePackages());
+   }
+
+   void init(Ehcache cache, int timeToLive) {
+      init(cache, timeToLive, Collections.<String> emptyList());
+   }
+
+   void init(Ehcache cache, int timeToLive, List<String> serializablePackages) {
+      this.cache = cache;
+      this.timeToLive = timeToLive;
+      this.serializablePackages = serializablePackages;
+   }
+
+   @Override
+   public void put(String requestKey, RequestFlashData requestFlashData) {
+      cache.put(new Element(requestKey, FlashDataSerializer.serialize(requestFlashData), false, 0, timeToLive));
+   }
+
+   @Override
+   public RequestFlashData get(String requestKey) {
+      if (requestKey == null) {
+         return null;
+      }
+
+      Element element = cache.get(requestKey);
+      if (element == null) {
+         return null;
+      }
+
+      // The other assets of the page only have a few seconds left to read the
+      // same data
+      if (element.getTimeToLive() == 0 || element.getTimeToLive() > READ_GRACE_PERIOD) {
+         Element shortened = new Element(requestKey, element.getObjectValue(), false, 0, READ_GRACE_PERIOD);
+         if (!cache.replace(element, shortened)) {
+            LOG.trace("The flash data of the request {} have been concurrently updated", requestKey);
+         }
+      }
+
+      return FlashDataSerializer.deserialize((byte[]) element.getObjectValue(), serializablePackages);
+   }
+
+   @Override
+   public void remove(String requestKey) {
+      cache.remove(requestKey);
+   }
+
+   @Override
+   public void clear() {
+      cache.removeAll();
+   }
+
+   @Override
+   public int size() {
+      return cache.getSize();
+   }
+
+   @Override
+   public void destroy() {
+      // The cache manager may be shared with the request cache
+   }
+}
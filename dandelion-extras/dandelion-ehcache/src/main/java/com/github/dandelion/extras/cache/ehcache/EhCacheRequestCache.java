@@ -29,13 +29,13 @@
  */
 package com.github.dandelion.extras.cache.ehcache;
 
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 
 import net.sf.ehcache.Cache;
-import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
 import net.sf.ehcache.Element;
+import net.sf.ehcache.event.CacheEventListenerAdapter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,8 +43,6 @@ import org.slf4j.LoggerFactory;
 import com.github.dandelion.core.Context;
 import com.github.dandelion.core.cache.AbstractRequestCache;
 import com.github.dandelion.core.cache.CacheEntry;
-import com.github.dandelion.core.util.StringUtils;
-import com.github.dandelion.core.util.scanner.ClasspathResourceScanner;
 
 /**
  * <p>
@@ -67,6 +65,11 @@ import com.github.dandelion.core.util.scanner.ClasspathResourceScanner;
  * automatically add and use it.
  * </p>
  * <p>
+ * The entries evicted or expired by EhCache are reported to the
+ * {@link com.github.dandelion.core.cache.CacheManager}, so that it stops
+ * referencing them.
+ * </p>
+ * <p>
  * 
  * @author Thibault Duchateau
  * @since 0.10.0
@@ -75,7 +78,7 @@ public class EhCacheRequestCache extends AbstractRequestCache {
 
    private static final Logger LOG = LoggerFactory.getLogger(EhCacheRequestCache.class);
 
-   private Cache cache;
+   private Ehcache cache;
 
    @Override
    public String getCacheName() {
@@ -90,25 +93,28 @@ public class EhCacheRequestCache extends AbstractRequestCache {
    @Override
    public void initCache(Context context) {
       super.initCache(context);
+      init(EhCacheUtils.getCache(context, DANDELION_CACHE_NAME));
+   }
 
-      InputStream stream = null;
-
-      String cacheConfigurationPath = context.getConfiguration().getCacheConfigurationLocation();
+   void init(Ehcache cache) {
+      this.cache = cache;
+      this.cache.getCacheEventNotificationService().registerListener(new CacheEventListenerAdapter() {
 
-      if (StringUtils.isBlank(cacheConfigurationPath)) {
-         LOG.warn("The 'cache.configuration.location' configuration is not set. Dandelion will scan for any ehcache.xml file inside the classpath.");
-         cacheConfigurationPath = ClasspathResourceScanner.findResourcePath("", "ehcache.xml");
-         LOG.debug("ehcache.xml file found: {}", cacheConfigurationPath);
-      }
+         @Override
+         public void notifyElementEvicted(Ehcache cache, Element element) {
+            recordEviction(element);
+         }
 
-      stream = Thread.currentThread().getContextClassLoader().getResourceAsStream(cacheConfigurationPath);
-      CacheManager cacheManager = stream == null ? CacheManager.create() : CacheManager.create(stream);
+         @Override
+         public void notifyElementExpired(Ehcache cache, Element element) {
+            recordEviction(element);
+         }
+      });
+   }
 
-      if (!cacheManager.cacheExists(DANDELION_CACHE_NAME)) {
-         cacheManager.addCache(DANDELION_CACHE_NAME);
-         LOG.debug("Added cache called '{}' to the cache manager", DANDELION_CACHE_NAME);
-      }
-      cache = cacheManager.getCache(DANDELION_CACHE_NAME);
+   private void recordEviction(Element element) {
+      Object value = element.getObjectValue();
+      recordEviction(String.valueOf(element.getObjectKey()), value instanceof CacheEntry ? (CacheEntry) value : null);
    }
 
    @Override
@@ -123,6 +129,11 @@ public class EhCacheRequestCache extends AbstractRequestCache {
       return cache.getKeysNoDuplicateCheck().size();
    }
 
+   @Override
+   protected void doRemove(String cacheKey) {
+      cache.remove(cacheKey);
+   }
+
    @Override
    public void doClear() {
       cache.removeAll();
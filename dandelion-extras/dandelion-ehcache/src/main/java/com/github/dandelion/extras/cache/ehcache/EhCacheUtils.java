@@ -0,0 +1,106 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.extras.cache.ehcache;
+
+import java.io.InputStream;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.util.StringUtils;
+import com.github.dandelion.core.util.scanner.ClasspathResourceScanner;
+
+/**
+ * <p>
+ * Helper methods shared by the EhCache service providers.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public final class EhCacheUtils {
+
+   private static final Logger LOG = LoggerFactory.getLogger(EhCacheUtils.class);
+
+   /**
+    * <p>
+    * Returns the cache with the provided name, adding it to the cache manager
+    * if it doesn't exist in the {@code ehcache.xml} configuration file.
+    * </p>
+    * <p>
+    * The configuration file is loaded using the following strategy:
+    * </p>
+    * <ul>
+    * <li>First checks if the {@code cache.configuration.location}
+    * configuration property exists and uses this path to load the file.</li>
+    * <li>If the above configuration property is not used, scans the classpath
+    * (starting from the root) for the {@code ehcache.xml} configuration file.
+    * </li>
+    * </ul>
+    * 
+    * @param context
+    *           The Dandelion context.
+    * @param cacheName
+    *           The name of the cache.
+    * @return the cache.
+    */
+   public static Cache getCache(Context context, String cacheName) {
+
+      String cacheConfigurationPath = context.getConfiguration().getCacheConfigurationLocation();
+
+      if (StringUtils.isBlank(cacheConfigurationPath)) {
+         LOG.warn("The 'cache.configuration.location' configuration is not set. Dandelion will scan for any ehcache.xml file inside the classpath.");
+         cacheConfigurationPath = ClasspathResourceScanner.findResourcePath("", "ehcache.xml");
+         LOG.debug("ehcache.xml file found: {}", cacheConfigurationPath);
+      }
+
+      InputStream stream = cacheConfigurationPath == null ? null : Thread.currentThread().getContextClassLoader()
+            .getResourceAsStream(cacheConfigurationPath);
+      CacheManager cacheManager = stream == null ? CacheManager.create() : CacheManager.create(stream);
+
+      if (!cacheManager.cacheExists(cacheName)) {
+         cacheManager.addCache(cacheName);
+         LOG.debug("Added cache called '{}' to the cache manager", cacheName);
+      }
+      return cacheManager.getCache(cacheName);
+   }
+
+   /**
+    * <p>
+    * Suppress default constructor for noninstantiability.
+    * </p>
+    */
+   private EhCacheUtils() {
+      throw new AssertionError();
+   }
+}
@@ -0,0 +1,96 @@
+package com.github.dandelion.extras.cache.ehcache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.dandelion.core.web.RequestFlashData;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * <p>
+ * A local cache manager stands in for the cluster: the stores of two nodes
+ * share the same cache.
+ * </p>
+ */
+public class EhCacheFlashDataStoreTest {
+
+   private CacheManager cacheManager;
+   private Cache cache;
+   private EhCacheFlashDataStore node1;
+   private EhCacheFlashDataStore node2;
+
+   @Before
+   public void setup() {
+      cacheManager = new CacheManager();
+      cacheManager.addCache(EhCacheFlashDataStore.DANDELION_FLASH_DATA_CACHE_NAME);
+      cache = cacheManager.getCache(EhCacheFlashDataStore.DANDELION_FLASH_DATA_CACHE_NAME);
+
+      node1 = new EhCacheFlashDataStore();
+      node1.init(cache, 60);
+      node2 = new EhCacheFlashDataStore();
+      node2.init(cache, 60);
+   }
+
+   @After
+   public void tearDown() {
+      cacheManager.shutdown();
+   }
+
+   @Test
+   public void should_read_on_a_node_the_data_stored_on_another_one() {
+      Map<String, Object> attributes = new HashMap<String, Object>();
+      attributes.put("user", "Mike");
+      attributes.put("roles", Arrays.asList("admin", "user"));
+      node1.put("key", new RequestFlashData(attributes));
+
+      RequestFlashData data = node2.get("key");
+
+      assertThat(data).isNotNull();
+      assertThat(data.getAttributes()).isEqualTo(attributes);
+      assertThat(node2.get("unknown")).isNull();
+   }
+
+   @Test
+   public void should_store_the_serialized_data() {
+      Map<String, Object> attributes = new HashMap<String, Object>();
+      attributes.put("user", "Mike");
+      node1.put("key", new RequestFlashData(attributes));
+
+      assertThat(cache.get("key").getObjectValue()).isInstanceOf(byte[].class);
+      assertThat(cache.get("key").getTimeToLive()).isEqualTo(60);
+   }
+
+   @Test
+   public void should_shorten_the_time_to_live_once_read() {
+      node1.put("key", new RequestFlashData(new HashMap<String, Object>()));
+
+      assertThat(node2.get("key")).isNotNull();
+      assertThat(cache.get("key").getTimeToLive()).isEqualTo(EhCacheFlashDataStore.READ_GRACE_PERIOD);
+
+      // Still available for the other assets of the page
+      assertThat(node1.get("key")).isNotNull();
+   }
+
+   @Test
+   public void should_remove_and_clear_the_data() {
+      node1.put("key1", new RequestFlashData(new HashMap<String, Object>()));
+      node1.put("key2", new RequestFlashData(new HashMap<String, Object>()));
+      assertThat(node2.size()).isEqualTo(2);
+
+      node2.remove("key1");
+      assertThat(node1.get("key1")).isNull();
+      assertThat(node1.size()).isEqualTo(1);
+
+      node2.clear();
+      assertThat(node1.size()).isEqualTo(0);
+   }
+}
@@ -0,0 +1,72 @@
+package com.github.dandelion.extras.cache.ehcache;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.config.CacheConfiguration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.asset.AssetType;
+import com.github.dandelion.core.cache.CacheEntry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EhCacheRequestCacheTest {
+
+   private CacheManager cacheManager;
+   private Context context;
+   private EhCacheRequestCache requestCache;
+
+   @Before
+   public void setup() {
+      cacheManager = new CacheManager();
+      cacheManager.addCache(new Cache(new CacheConfiguration("dandelionCache", 2)));
+
+      context = Mockito.mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+      Mockito.when(context.getConfiguration().getCacheMaxSize()).thenReturn(2);
+      requestCache = new EhCacheRequestCache();
+      requestCache.initCache(context);
+      requestCache.init(cacheManager.getCache("dandelionCache"));
+   }
+
+   @After
+   public void tearDown() {
+      cacheManager.shutdown();
+   }
+
+   @Test
+   public void should_only_remove_the_given_entry() {
+      requestCache.put("page1", entry("/page1"));
+      requestCache.put("page2", entry("/page2"));
+
+      requestCache.remove("page1");
+
+      assertThat(requestCache.get("page1")).isNull();
+      assertThat(requestCache.get("page2")).isNotNull();
+   }
+
+   @Test
+   public void should_report_the_evicted_entries() {
+      requestCache.put("page1", entry("/page1"));
+      requestCache.put("page2", entry("/page2"));
+      requestCache.put("page3", entry("/page3"));
+
+      assertThat(requestCache.getEvictionCount().get()).isGreaterThan(0);
+      Mockito.verify(context.getCacheManager(), Mockito.atLeastOnce()).unindex(Mockito.anyString(), Mockito.any(CacheEntry.class));
+   }
+
+   private static CacheEntry entry(String requestUri) {
+      Asset asset = new Asset("app", "1.0", AssetType.js);
+      asset.setBundle("app");
+      asset.setStorageKey("app-key");
+      return new CacheEntry(requestUri, new LinkedHashSet<Asset>(Arrays.asList(asset)));
+   }
+}
@@ -31,12 +31,20 @@
 package com.github.dandelion.jsp.tag;
 
 import java.io.IOException;
+import java.util.Set;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.jsp.JspException;
 import javax.servlet.jsp.tagext.TagSupport;
 
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.asset.AssetDomPosition;
+import com.github.dandelion.core.asset.AssetQuery;
+import com.github.dandelion.core.util.HtmlUtils;
 import com.github.dandelion.core.util.StringUtils;
 import com.github.dandelion.core.web.AssetRequestContext;
+import com.github.dandelion.core.web.WebConstants;
 
 /**
  * <p>
@@ -69,30 +77,44 @@ public class PlaceholderTag extends TagSupport {
     */
    private String placeholderType;
 
+   /**
+    * (Optional) Whether the assets should be rendered by the tag itself.
+    */
+   private boolean inline;
+
    @Override
    public int doEndTag() throws JspException {
 
       String placeholder = "dandelionPlaceholder" + placeholderType;
+      Context context = (Context) pageContext.getRequest().getAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE);
+      boolean renderInline = this.inline && context != null;
 
       if (PLACEHOLDER_TYPE_JS.equalsIgnoreCase(this.placeholderType)) {
 
-         String existingPlaceholder = AssetRequestContext.get(pageContext.getRequest()).getJsPlaceholder();
-         if (StringUtils.isNotBlank(existingPlaceholder)) {
+         AssetRequestContext arc = AssetRequestContext.get(pageContext.getRequest());
+         if (StringUtils.isNotBlank(arc.getJsPlaceholder()) || arc.isRendered(AssetDomPosition.body)) {
             throw new JspException(
                   "The placeholder type \"" + PLACEHOLDER_TYPE_JS + "\" can be used only once in the same page");
          }
+         else if (renderInline) {
+            return renderAssets(context, arc, AssetDomPosition.body);
+         }
          else {
-            AssetRequestContext.get(pageContext.getRequest()).setJsPlaceholder(placeholder);
+            arc.setJsPlaceholder(placeholder);
          }
       }
       else if (PLACEHOLDER_TYPE_CSS.equalsIgnoreCase(this.placeholderType)) {
-         String existingPlaceholder = AssetRequestContext.get(pageContext.getRequest()).getCssPlaceholder();
-         if (StringUtils.isNotBlank(existingPlaceholder)) {
+
+         AssetRequestContext arc = AssetRequestContext.get(pageContext.getRequest());
+         if (StringUtils.isNotBlank(arc.getCssPlaceholder()) || arc.isRendered(AssetDomPosition.head)) {
             throw new JspException(
                   "The placeholder type \"" + PLACEHOLDER_TYPE_CSS + "\" can be used only once in the same page");
          }
+         else if (renderInline) {
+            return renderAssets(context, arc, AssetDomPosition.head);
+         }
          else {
-            AssetRequestContext.get(pageContext.getRequest()).setCssPlaceholder(placeholder);
+            arc.setCssPlaceholder(placeholder);
          }
       }
       else {
@@ -110,6 +132,32 @@ public class PlaceholderTag extends TagSupport {
       return EVAL_PAGE;
    }
 
+   /**
+    * <p>
+    * Renders the assets of the given position declared so far in the page.
+    * </p>
+    * <p>
+    * The query bypasses the request cache since the bundles and assets
+    * declared further in the page are not known yet.
+    * </p>
+    */
+   private int renderAssets(Context context, AssetRequestContext arc, AssetDomPosition assetDomPosition)
+         throws JspException {
+
+      Set<Asset> assets = new AssetQuery((HttpServletRequest) pageContext.getRequest(), context)
+            .atPosition(assetDomPosition).withRequestCache(false).perform();
+      arc.addRenderedAssets(assetDomPosition, assets);
+
+      try {
+         this.pageContext.getOut().print(HtmlUtils.toHtml(assets));
+      }
+      catch (IOException e) {
+         throw new JspException("Unable to update the page with the assets", e);
+      }
+
+      return EVAL_PAGE;
+   }
+
    public void setType(String placeholderType) throws JspException {
       if (StringUtils.isBlank(placeholderType)) {
          throw new JspException("The \"type\" attribute cannot be blank. Possible values: \"" + PLACEHOLDER_TYPE_JS
@@ -117,4 +165,8 @@ public class PlaceholderTag extends TagSupport {
       }
       this.placeholderType = placeholderType;
    }
+
+   public void setInline(boolean inline) {
+      this.inline = inline;
+   }
 }
\ No newline at end of file
@@ -39,11 +39,15 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterConfig;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockPageContext;
 import org.springframework.mock.web.MockServletContext;
 
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.AssetDomPosition;
 import com.github.dandelion.core.web.AssetRequestContext;
+import com.github.dandelion.core.web.WebConstants;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -142,4 +146,40 @@ public class PlaceholderTagTest {
       tag.setType("");
       tag.doEndTag();
    }
+
+   @Test
+   public void shouldRenderTheAssetsInsteadOfAPlaceholderWhenInline() throws JspException,
+         UnsupportedEncodingException {
+
+      mockServletRequest.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, new Context(new MockFilterConfig(
+            mockServletContext)));
+
+      tag.setType("js");
+      tag.setInline(true);
+      tag.doEndTag();
+
+      assertThat(mockPageContext.getContentAsString()).doesNotContain("dandelionPlaceholderjs");
+      AssetRequestContext arc = AssetRequestContext.get(mockServletRequest);
+      assertThat(arc.isRendered(AssetDomPosition.body)).isTrue();
+      assertThat(arc.getJsPlaceholder()).isNull();
+   }
+
+   @Test
+   public void shouldThrowAnExceptionWhenUsingAPlaceholderAfterAnInlineOne() throws JspException {
+
+      mockServletRequest.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, new Context(new MockFilterConfig(
+            mockServletContext)));
+
+      tag.setType("css");
+      tag.setInline(true);
+      tag.doEndTag();
+
+      expectedEx.expect(JspException.class);
+      expectedEx.expectMessage("The placeholder type \"css\" can be used only once in the same page");
+
+      PlaceholderTag otherTag = new PlaceholderTag();
+      otherTag.setPageContext(mockPageContext);
+      otherTag.setType("css");
+      otherTag.doEndTag();
+   }
 }
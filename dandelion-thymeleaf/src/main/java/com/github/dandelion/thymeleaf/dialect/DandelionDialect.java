@@ -36,7 +36,9 @@ import org.thymeleaf.dialect.AbstractDialect;
 import org.thymeleaf.processor.IProcessor;
 
 import com.github.dandelion.thymeleaf.processor.AssetAttrProcessor;
+import com.github.dandelion.thymeleaf.processor.AssetsElProcessor;
 import com.github.dandelion.thymeleaf.processor.BundleAttrProcessor;
+import com.github.dandelion.thymeleaf.processor.HtmlElProcessor;
 import com.github.dandelion.thymeleaf.processor.PlaceholderAttrProcessor;
 
 /**
@@ -77,6 +79,10 @@ public class DandelionDialect extends AbstractDialect {
          processors.add(new PlaceholderAttrProcessor(attr.getAttribute()));
       }
 
+      // Render-time asset injection
+      processors.add(new HtmlElProcessor());
+      processors.add(new AssetsElProcessor());
+
       return processors;
    }
 }
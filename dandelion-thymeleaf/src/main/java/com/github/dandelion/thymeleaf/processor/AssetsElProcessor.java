@@ -0,0 +1,188 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.thymeleaf.processor;
+
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.thymeleaf.Arguments;
+import org.thymeleaf.dom.Element;
+import org.thymeleaf.dom.Macro;
+import org.thymeleaf.dom.NestableNode;
+import org.thymeleaf.dom.Node;
+import org.thymeleaf.processor.ElementNameProcessorMatcher;
+import org.thymeleaf.processor.ProcessorResult;
+import org.thymeleaf.processor.element.AbstractElementProcessor;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.asset.AssetDomPosition;
+import com.github.dandelion.core.asset.AssetQuery;
+import com.github.dandelion.core.util.HtmlUtils;
+import com.github.dandelion.core.web.AssetRequestContext;
+import com.github.dandelion.core.web.WebConstants;
+import com.github.dandelion.core.web.handler.impl.AssetInjectionPostHandler;
+import com.github.dandelion.thymeleaf.dialect.DandelionDialect;
+import com.github.dandelion.thymeleaf.util.ArgumentsUtil;
+
+/**
+ * <p>
+ * Element processor in charge of injecting the assets while the template is
+ * processed, when the {@code asset.injection.template} option is enabled.
+ * </p>
+ * <p>
+ * It handles the marker element appended by {@link HtmlElProcessor} as the
+ * last child of the {@code html} element. The assets are rendered in place of
+ * the configured placeholders, or at the end of the {@code head} and
+ * {@code body} elements, and recorded in the {@link AssetRequestContext} so
+ * that the {@link AssetInjectionPostHandler} doesn't need to rewrite the page.
+ * </p>
+ * <p>
+ * A position whose placeholder or section can't be found in the page is left
+ * to the {@link AssetInjectionPostHandler}.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class AssetsElProcessor extends AbstractElementProcessor {
+
+   /**
+    * Name of the marker element.
+    */
+   public static final String ELEMENT_NAME = "dandelion-assets";
+
+   public AssetsElProcessor() {
+      super(new ElementNameProcessorMatcher(ELEMENT_NAME, false));
+   }
+
+   @Override
+   public int getPrecedence() {
+      return DandelionDialect.HIGHEST_PRECEDENCE;
+   }
+
+   @Override
+   protected ProcessorResult processElement(Arguments arguments, Element element) {
+
+      NestableNode html = element.getParent();
+      html.removeChild(element);
+
+      HttpServletRequest request = ArgumentsUtil.getWebContext(arguments).getHttpServletRequest();
+      inject(request, html, AssetDomPosition.head, "head");
+      inject(request, html, AssetDomPosition.body, "body");
+
+      return ProcessorResult.OK;
+   }
+
+   private void inject(HttpServletRequest request, NestableNode html, AssetDomPosition assetDomPosition,
+         String sectionName) {
+
+      Context context = (Context) request.getAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE);
+      Set<Asset> assets = new AssetQuery(request, context).atPosition(assetDomPosition).perform();
+
+      AssetRequestContext arc = AssetRequestContext.get(request);
+      Node placeholder = (Node) arc.removePlaceholderNode(assetDomPosition);
+      if (placeholder != null) {
+         NestableNode parent = placeholder.getParent();
+         if (parent == null) {
+            return;
+         }
+         if (!assets.isEmpty()) {
+            parent.insertBefore(placeholder, new Macro(HtmlUtils.toHtml(assets).toString()));
+         }
+         parent.removeChild(placeholder);
+      }
+      else {
+         Element section = findSection(html, sectionName);
+         if (section == null) {
+            return;
+         }
+         if (!assets.isEmpty()) {
+            section.addChild(new Macro(HtmlUtils.toHtml(assets).toString()));
+         }
+      }
+
+      arc.addRenderedAssets(assetDomPosition, assets);
+   }
+
+   private static Element findSection(NestableNode html, String sectionName) {
+      for (Element child : html.getElementChildren()) {
+         if (sectionName.equals(child.getNormalizedName())) {
+            return child;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * <p>
+    * Registers the node of a placeholder, to be replaced by the assets of the
+    * given position.
+    * </p>
+    * <p>
+    * The node is kept in the {@link AssetRequestContext} rather than in a
+    * request attribute, so that it isn't captured with the attributes used by
+    * the JavaScript assets, and is released as soon as it's replaced.
+    * </p>
+    * 
+    * @param request
+    *           The current request.
+    * @param assetDomPosition
+    *           The position of the assets to render in place of the node.
+    * @param placeholder
+    *           The placeholder node.
+    */
+   public static void registerPlaceholder(HttpServletRequest request, AssetDomPosition assetDomPosition,
+         Node placeholder) {
+      AssetRequestContext.get(request).setPlaceholderNode(assetDomPosition, placeholder);
+   }
+
+   /**
+    * @param request
+    *           The current request.
+    * @return {@code true} if the assets of the current request have to be
+    *         injected while the template is processed.
+    */
+   public static boolean isEnabled(HttpServletRequest request) {
+
+      Context context = (Context) request.getAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE);
+      if (context == null || !context.getConfiguration().isAssetInjectionTemplateEnabled()) {
+         return false;
+      }
+
+      // The asset injection may have been explicitely disabled, either from a
+      // request attribute or from a request parameter
+      Object filterState = request.getAttribute(WebConstants.DANDELION_ASSET_FILTER_STATE);
+      if (filterState == null) {
+         filterState = request.getParameter(WebConstants.DANDELION_ASSET_FILTER_STATE);
+      }
+      return filterState == null || Boolean.parseBoolean(String.valueOf(filterState));
+   }
+}
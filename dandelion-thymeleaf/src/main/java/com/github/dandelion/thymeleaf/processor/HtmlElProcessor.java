@@ -0,0 +1,83 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.thymeleaf.processor;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.thymeleaf.Arguments;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.dom.Element;
+import org.thymeleaf.processor.ElementNameProcessorMatcher;
+import org.thymeleaf.processor.ProcessorResult;
+import org.thymeleaf.processor.element.AbstractElementProcessor;
+
+import com.github.dandelion.thymeleaf.dialect.DandelionDialect;
+
+/**
+ * <p>
+ * Element processor of the {@code html} element, active when the assets are
+ * injected while the template is processed.
+ * </p>
+ * <p>
+ * It appends to the {@code html} element a marker element, which is
+ * therefore processed after all other elements of the page, once all bundles
+ * and assets are known. See {@link AssetsElProcessor}.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public class HtmlElProcessor extends AbstractElementProcessor {
+
+   public HtmlElProcessor() {
+      super(new ElementNameProcessorMatcher("html", false));
+   }
+
+   /**
+    * Runs after the other processors of the {@code html} element, which may
+    * replace its contents.
+    */
+   @Override
+   public int getPrecedence() {
+      return DandelionDialect.HIGHEST_PRECEDENCE + 10;
+   }
+
+   @Override
+   protected ProcessorResult processElement(Arguments arguments, Element element) {
+
+      if (arguments.getContext() instanceof WebContext) {
+         HttpServletRequest request = ((WebContext) arguments.getContext()).getHttpServletRequest();
+         if (AssetsElProcessor.isEnabled(request)) {
+            element.addChild(new Element(AssetsElProcessor.ELEMENT_NAME));
+         }
+      }
+
+      return ProcessorResult.OK;
+   }
+}
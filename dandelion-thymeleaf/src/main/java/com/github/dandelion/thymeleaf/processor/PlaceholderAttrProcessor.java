@@ -37,6 +37,7 @@ import org.thymeleaf.dom.Text;
 import org.thymeleaf.processor.ProcessorResult;
 
 import com.github.dandelion.core.DandelionException;
+import com.github.dandelion.core.asset.AssetDomPosition;
 import com.github.dandelion.core.util.StringUtils;
 import com.github.dandelion.core.web.AssetRequestContext;
 import com.github.dandelion.thymeleaf.dialect.DandelionDialect;
@@ -86,13 +87,13 @@ public class PlaceholderAttrProcessor extends DandelionAttrProcessor {
       String placeholder = "dandelionPlaceholder" + attributeValue;
       handlePlaceholder(attributeValue, arc, placeholder);
 
+      Text text = new Text(placeholder);
       switch (placeholderAttributeName) {
 
       // Include a new Text node containing the placeholder within the existing
       // element
       case PLACEHOLDER_INCLUDE:
 
-         Text text = new Text(placeholder);
          element.insertChild(element.getChildren().size(), text);
 
          break;
@@ -100,13 +101,19 @@ public class PlaceholderAttrProcessor extends DandelionAttrProcessor {
       // Replace the current element by the placeholder
       case PLACEHOLDER_REPLACE:
 
-         text = new Text(placeholder);
          element.clearChildren();
          element.addChild(text);
 
          break;
       }
 
+      // When the assets are injected while the template is processed, the
+      // placeholder node is directly replaced by the assets
+      if (AssetsElProcessor.isEnabled(request)) {
+         AssetsElProcessor.registerPlaceholder(request, PLACEHOLDER_TYPE_JS.equalsIgnoreCase(attributeValue)
+               ? AssetDomPosition.body : AssetDomPosition.head, text);
+      }
+
       return ProcessorResult.ok();
    }
 
@@ -0,0 +1,239 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.thymeleaf.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import com.github.dandelion.core.storage.StorageEntry;
+
+/**
+ * <p>
+ * Extracts the names of the variables referenced by the Thymeleaf expressions
+ * of the JavaScript assets, so that only the matching request attributes need
+ * to be captured as flash data.
+ * </p>
+ * <p>
+ * The names are cached by storage key and recomputed as soon as the asset
+ * storage holds another entry for this key.
+ * </p>
+ * 
+ * @since 1.1.2
+ */
+public final class JsTemplateVariables {
+
+   /**
+    * Words of the OGNL and SpEL expressions that can't be variable names.
+    */
+   private static final Set<String> KEYWORDS = new HashSet<String>(Arrays.asList("and", "or", "not", "eq", "ne",
+         "neq", "lt", "gt", "le", "ge", "true", "false", "null", "new", "instanceof", "matches", "between", "div",
+         "mod", "in", "shl", "shr", "ushr", "bor", "band", "xor"));
+
+   /**
+    * Expression objects giving access to any variable by its name, which
+    * prevents from knowing the referenced variables.
+    */
+   private static final Pattern DYNAMIC_ACCESS = Pattern
+         .compile("#(ctx|vars|root|request|httpServletRequest)\\b");
+
+   private static final ConcurrentMap<String, Variables> variablesByStorageKey = new ConcurrentHashMap<String, Variables>();
+
+   /**
+    * <p>
+    * Returns the names of the variables referenced by the asset stored in the
+    * provided entry.
+    * </p>
+    * 
+    * @param storageKey
+    *           The storage key of the asset.
+    * @param storageEntry
+    *           The current storage entry of the asset.
+    * @return the names of the referenced variables, or {@code null} if any
+    *         variable may be referenced.
+    */
+   public static Set<String> getReferencedVariables(String storageKey, StorageEntry storageEntry) {
+      Variables variables = variablesByStorageKey.get(storageKey);
+      if (variables == null || variables.source != storageEntry) {
+         variables = new Variables(storageEntry, extract(storageEntry.getContents()));
+         variablesByStorageKey.put(storageKey, variables);
+      }
+      return variables.names;
+   }
+
+   /**
+    * <p>
+    * Collects all the identifiers of the variable and selection expressions
+    * that aren't accessed through another object, e.g. {@code user} and
+    * {@code idx} in {@code [[${#strings.escapeJavaScript(user.names[idx])}]]}.
+    * Some of them may be method or property names, which only leads to capture
+    * a few more attributes than required.
+    * </p>
+    * 
+    * @param contents
+    *           The contents of a JavaScript asset.
+    * @return the names of the variables referenced by the contents, or
+    *         {@code null} if any variable may be referenced.
+    */
+   public static Set<String> extract(String contents) {
+      if (contents == null) {
+         return Collections.emptySet();
+      }
+      if (DYNAMIC_ACCESS.matcher(contents).find()) {
+         return null;
+      }
+
+      Set<String> names = new HashSet<String>();
+      int start = nextExpression(contents, 0);
+      while (start != -1) {
+         int end = collectVariables(contents, start + 2, names);
+         if (end == -1) {
+            // Unterminated expression, whose variables can't be known
+            return null;
+         }
+         start = nextExpression(contents, end);
+      }
+      return Collections.unmodifiableSet(names);
+   }
+
+   /**
+    * @return the index of the next variable or selection expression, or
+    *         {@code -1} if there's none.
+    */
+   private static int nextExpression(String contents, int from) {
+      int variable = contents.indexOf("${", from);
+      int selection = contents.indexOf("*{", from);
+      if (variable == -1 || selection == -1) {
+         return Math.max(variable, selection);
+      }
+      return Math.min(variable, selection);
+   }
+
+   /**
+    * <p>
+    * Adds the variables of the expression whose body starts at the provided
+    * index.
+    * </p>
+    * 
+    * @return the index following the end of the expression, or {@code -1} if
+    *         it isn't terminated.
+    */
+   private static int collectVariables(String contents, int from, Set<String> names) {
+      int depth = 1;
+      int i = from;
+      while (i < contents.length()) {
+         char c = contents.charAt(i);
+         if (c == '\'' || c == '"') {
+            int end = contents.indexOf(c, i + 1);
+            while (end != -1 && contents.charAt(end - 1) == '\\') {
+               end = contents.indexOf(c, end + 1);
+            }
+            if (end == -1) {
+               return -1;
+            }
+            i = end + 1;
+         }
+         else if (c == '{') {
+            depth++;
+            i++;
+         }
+         else if (c == '}') {
+            depth--;
+            i++;
+            if (depth == 0) {
+               return i;
+            }
+         }
+         else if (Character.isDigit(c)) {
+            // Numbers, including their suffix or exponent
+            while (i < contents.length()
+                  && (Character.isLetterOrDigit(contents.charAt(i)) || contents.charAt(i) == '.')) {
+               i++;
+            }
+         }
+         else if (Character.isJavaIdentifierStart(c) && c != '$') {
+            int end = i + 1;
+            while (end < contents.length() && Character.isJavaIdentifierPart(contents.charAt(end))) {
+               end++;
+            }
+            String identifier = contents.substring(i, end);
+            if (!isAccessed(contents, i) && !KEYWORDS.contains(identifier.toLowerCase())) {
+               names.add(identifier);
+            }
+            i = end;
+         }
+         else {
+            i++;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * @return {@code true} if the identifier starting at the provided index is
+    *         accessed through an object, an expression object or a bean
+    *         reference.
+    */
+   private static boolean isAccessed(String contents, int identifierStart) {
+      int i = identifierStart - 1;
+      while (i >= 0 && Character.isWhitespace(contents.charAt(i))) {
+         i--;
+      }
+      if (i < 0) {
+         return false;
+      }
+      char previous = contents.charAt(i);
+      return previous == '.' || previous == '#' || previous == '@';
+   }
+
+   private static final class Variables {
+
+      private final StorageEntry source;
+      private final Set<String> names;
+
+      private Variables(StorageEntry source, Set<String> names) {
+         this.source = source;
+         this.names = names;
+      }
+   }
+
+   /**
+    * <p>
+    * Suppress default constructor for noninstantiability.
+    * </p>
+    */
+   private JsTemplateVariables() {
+      throw new AssertionError();
+   }
+}
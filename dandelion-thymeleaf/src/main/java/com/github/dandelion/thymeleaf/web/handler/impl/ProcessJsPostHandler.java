@@ -32,7 +32,6 @@ package com.github.dandelion.thymeleaf.web.handler.impl;
 import java.io.UnsupportedEncodingException;
 import java.util.Calendar;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -42,12 +41,14 @@ import org.thymeleaf.context.WebContext;
 
 import com.github.dandelion.core.DandelionException;
 import com.github.dandelion.core.asset.Asset;
-import com.github.dandelion.core.cache.Cache;
+import com.github.dandelion.core.config.Configuration;
+import com.github.dandelion.core.storage.StorageEntry;
 import com.github.dandelion.core.util.AssetUtils;
 import com.github.dandelion.core.util.StringUtils;
 import com.github.dandelion.core.web.RequestFlashData;
 import com.github.dandelion.core.web.handler.AbstractHandlerChain;
 import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.RequestProfile;
 import com.github.dandelion.core.web.handler.cache.HttpHeader;
 import com.github.dandelion.core.web.handler.cache.HttpHeaderUtils;
 import com.github.dandelion.thymeleaf.resourceresolver.JsResourceResolver;
@@ -62,6 +63,12 @@ import com.github.dandelion.thymeleaf.templateresolver.JsTemplateResolver;
  * <p>
  * Only applies on "user assets" (i.e. non vendor).
  * </p>
+ * <p>
+ * Parsed templates are cached by Thymeleaf under the hash of the asset
+ * contents, so that only the evaluation of the expressions happens on each
+ * request. A changed asset is therefore parsed again under a new name while
+ * the bounded template cache of Thymeleaf evicts the stale templates.
+ * </p>
  * 
  * @author Thibault Duchateau
  * @since 1.0.0
@@ -83,7 +90,7 @@ public class ProcessJsPostHandler extends AbstractHandlerChain {
    static {
       JsTemplateResolver templateResolver = new JsTemplateResolver();
       templateResolver.setTemplateMode(DandelionTemplateModeHandlers.TEMPLATEMODE_DANDELION_JS);
-      templateResolver.setCacheable(false);
+      templateResolver.setCacheable(true);
 
       templateEngine = new TemplateEngine();
       templateEngine.addTemplateModeHandler(DandelionTemplateModeHandlers.DANDELION_JS);
@@ -113,6 +120,12 @@ public class ProcessJsPostHandler extends AbstractHandlerChain {
       return 2;
    }
 
+   @Override
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return configuration.isAssetJsProcessingEnabled() && profile.isAssetRequest()
+            && compatibleMimeTypes.contains(profile.getMimeType());
+   }
+
    @Override
    public boolean isApplicable(HandlerContext handlerContext) {
 
@@ -131,27 +144,35 @@ public class ProcessJsPostHandler extends AbstractHandlerChain {
       return isJsProcessingEnabled && compatibleMimeType && matchesServletName;
    }
 
+   @Override
+   public boolean isApplicableInPlan(HandlerContext handlerContext) {
+      return true;
+   }
+
    @Override
    public boolean handle(HandlerContext handlerContext) {
 
       // Get the asset content thanks to the cache key
       String cacheKey = AssetUtils.extractCacheKeyFromRequest(handlerContext.getRequest());
-      Asset asset = handlerContext.getContext().getAssetStorage().get(cacheKey).getAsset();
+      StorageEntry storageEntry = handlerContext.getContext().getAssetStorage().get(cacheKey);
+      Asset asset = storageEntry.getAsset();
+      String templateName = storageEntry.getHash();
 
       // Update the current context with additional attributes
       WebContext ctx = new WebContext(handlerContext.getRequest(), handlerContext.getResponse(), handlerContext
             .getRequest().getServletContext(), handlerContext.getRequest().getLocale());
 
-      // Retrieve the cached request attributes from cache
+      // Retrieve the request attributes saved while rendering the page
       String requestKey = AssetUtils.extractRequestKeyFromRequest(handlerContext.getRequest());
-      RequestFlashData requestData = handlerContext.getContext().getRequestFlashDataCache().get(requestKey);
+      RequestFlashData requestData = handlerContext.getContext().getFlashDataStore().get(requestKey);
 
       if (requestData != null) {
          ctx.setVariables(requestData.getAttributes());
       }
 
       // Process the Javascript asset
-      String processed = templateEngine.process(asset.getName(), ctx);
+      LOG.trace("Processing the asset {} as the template {}", asset.toLog(), templateName);
+      String processed = templateEngine.process(templateName, ctx);
 
       // Housecleaning
       processed = processed.replace(JsResourceResolver.BLOCK_WRAP_CDATA_START, "");
@@ -161,23 +182,11 @@ public class ProcessJsPostHandler extends AbstractHandlerChain {
 
       // Update HTTP headers so that this asset is never cached
       handlerContext.getResponse().setHeader(HttpHeader.CACHE_CONTROL.getName(), "no-cache, no-store");
-      handlerContext.getResponse().setHeader(HttpHeader.ETAG.getName(),
-            HttpHeaderUtils.computeETag(handlerContext.getResponseAsBytes(), handlerContext));
       Calendar past = Calendar.getInstance();
       past.add(Calendar.YEAR, -1);
       handlerContext.getResponse().setDateHeader(HttpHeader.EXPIRES.getName(), past.getTimeInMillis());
       handlerContext.getResponse().setHeader(HttpHeader.VARY.getName(), "Accept-Encoding");
 
-      // Clean flash data cache
-      Cache<String, RequestFlashData> cache = handlerContext.getContext().getRequestFlashDataCache();
-      Iterator<String> iterator = cache.keySet().iterator();
-      while (iterator.hasNext()) {
-         String key = iterator.next();
-         if (cache.get(key).isExpired()) {
-            iterator.remove();
-         }
-      }
-      
       // Override the response with the processed Javascript
       try {
          handlerContext.setResponseAsBytes(processed.getBytes(configuredEncoding));
@@ -187,6 +196,10 @@ public class ProcessJsPostHandler extends AbstractHandlerChain {
                + "', which doesn't seem to be supported", e);
       }
 
+      // The ETag is computed from the processed Javascript actually sent
+      handlerContext.getResponse().setHeader(HttpHeader.ETAG.getName(),
+            HttpHeaderUtils.computeETag(handlerContext.getResponseAsBytes(), handlerContext));
+
       return false;
    }
-}
\ No newline at end of file
+}
@@ -29,6 +29,8 @@
  */
 package com.github.dandelion.thymeleaf.web.handler.impl;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.servlet.http.HttpServletRequest;
@@ -37,17 +39,30 @@ import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.asset.AssetQuery;
+import com.github.dandelion.core.asset.AssetType;
+import com.github.dandelion.core.config.Configuration;
+import com.github.dandelion.core.storage.StorageEntry;
+import com.github.dandelion.core.util.AssetUtils;
 import com.github.dandelion.core.util.DigestUtils;
 import com.github.dandelion.core.web.RequestFlashData;
 import com.github.dandelion.core.web.WebConstants;
 import com.github.dandelion.core.web.handler.AbstractHandlerChain;
 import com.github.dandelion.core.web.handler.HandlerContext;
+import com.github.dandelion.core.web.handler.RequestProfile;
+import com.github.dandelion.thymeleaf.util.JsTemplateVariables;
 
 /**
  * <p>
  * Post-filtering request handler in charge of storing request attributes for
  * later use inside external JavaScript assets.
  * </p>
+ * <p>
+ * Only the attributes referenced by the Thymeleaf expressions of the
+ * non-vendor JavaScript assets of the page are captured, and nothing is stored
+ * if none is referenced.
+ * </p>
  * 
  * @author Thibault Duchateau
  * @since 1.0.0
@@ -71,6 +86,11 @@ public class SaveRequestPostHandler extends AbstractHandlerChain {
       return 1;
    }
 
+   @Override
+   public boolean isApplicableTo(RequestProfile profile, Configuration configuration) {
+      return configuration.isAssetJsProcessingEnabled() && profile.isHtmlResponse() && !profile.isDebuggerRequest();
+   }
+
    @Override
    public boolean isApplicable(HandlerContext handlerContext) {
 
@@ -85,21 +105,62 @@ public class SaveRequestPostHandler extends AbstractHandlerChain {
       return isJsProcessingEnabled && isHtmlRequest && notBrowsingDebugger;
    }
 
+   @Override
+   public boolean isApplicableInPlan(HandlerContext handlerContext) {
+      return true;
+   }
+
    @Override
    public boolean handle(HandlerContext handlerContext) {
 
       // Generate a brand new request key
       String requestKey = DigestUtils.md5Digest(UUID.randomUUID().toString());
 
-      // Create a new instance intended to be stored in session
-      RequestFlashData requestData = new RequestFlashData(handlerContext.getRequest());
-
-      // Store request data in cache for later use
-      handlerContext.getContext().getRequestFlashDataCache().put(requestKey, requestData);
-
       // Store the generated request key as a request attribute for later use
       handlerContext.getRequest().setAttribute(WebConstants.DANDELION_REQUEST_KEY, requestKey);
 
+      // Only the attributes referenced by the JavaScript assets of the page
+      // are captured
+      Set<String> attributeNames = getReferencedAttributes(handlerContext);
+      if (attributeNames != null && attributeNames.isEmpty()) {
+         LOG.trace("No request attribute referenced by the JavaScript assets of the page");
+         return true;
+      }
+
+      RequestFlashData requestData = new RequestFlashData(handlerContext.getRequest(), attributeNames);
+
+      // Store request data for later use
+      handlerContext.getContext().getFlashDataStore().put(requestKey, requestData);
+
       return true;
    }
-}
\ No newline at end of file
+
+   /**
+    * <p>
+    * Collects the names of the variables referenced by the non-vendor
+    * JavaScript assets of the current page.
+    * </p>
+    * 
+    * @return the names of the referenced attributes, or {@code null} if all
+    *         attributes must be captured.
+    */
+   private static Set<String> getReferencedAttributes(HandlerContext handlerContext) {
+
+      Set<Asset> assets = new AssetQuery(handlerContext.getRequest(), handlerContext.getContext()).perform();
+
+      Set<String> attributeNames = new HashSet<String>();
+      for (Asset asset : AssetUtils.filtersByType(AssetUtils.filtersNotVendor(assets), AssetType.js)) {
+         StorageEntry storageEntry = handlerContext.getContext().getAssetStorage().get(asset.getStorageKey());
+         if (storageEntry == null) {
+            return null;
+         }
+
+         Set<String> variables = JsTemplateVariables.getReferencedVariables(asset.getStorageKey(), storageEntry);
+         if (variables == null) {
+            return null;
+         }
+         attributeNames.addAll(variables);
+      }
+      return attributeNames;
+   }
+}
@@ -0,0 +1,132 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.thymeleaf.processor;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.dom.Node;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.AssetDomPosition;
+import com.github.dandelion.core.config.StandardConfigurationLoader;
+import com.github.dandelion.core.web.AssetRequestContext;
+import com.github.dandelion.core.web.WebConstants;
+import com.github.dandelion.thymeleaf.dialect.DandelionDialect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AssetsElProcessorTest {
+
+   private MockServletContext servletContext;
+   private MockHttpServletRequest request;
+   private TemplateEngine templateEngine;
+
+   @Before
+   public void setup() {
+      String path = new File("src/test/resources/template-injection/dandelion/".replace("/", File.separator))
+            .getAbsolutePath();
+      System.setProperty(StandardConfigurationLoader.DANDELION_CONFIGURATION, path);
+
+      servletContext = new MockServletContext();
+      request = new MockHttpServletRequest(servletContext, "GET", "/context/page");
+      request.setContextPath("/context");
+      request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, new Context(new MockFilterConfig(
+            servletContext)));
+
+      ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+      templateResolver.setPrefix("template-injection/templates/");
+      templateResolver.setSuffix(".html");
+      templateResolver.setTemplateMode("HTML5");
+      templateEngine = new TemplateEngine();
+      templateEngine.setTemplateResolver(templateResolver);
+      templateEngine.addDialect(new DandelionDialect());
+   }
+
+   @After
+   public void teardown() {
+      System.clearProperty(StandardConfigurationLoader.DANDELION_CONFIGURATION);
+   }
+
+   private String render(String template) {
+      StringWriter writer = new StringWriter();
+      templateEngine.process(template, new WebContext(request, new MockHttpServletResponse(), servletContext,
+            Locale.ENGLISH), writer);
+      return writer.toString();
+   }
+
+   @Test
+   public void should_inject_the_assets_at_the_end_of_the_head_and_body_sections() {
+      String html = render("page");
+
+      assertThat(html).doesNotContain("<" + AssetsElProcessor.ELEMENT_NAME);
+      assertThat(html.indexOf("app-css")).isGreaterThan(html.indexOf("<title>")).isLessThan(
+            html.indexOf("</head>"));
+      assertThat(html.indexOf("app-js")).isGreaterThan(html.indexOf("<p>Content</p>")).isLessThan(
+            html.indexOf("</body>"));
+
+      AssetRequestContext arc = AssetRequestContext.get(request);
+      assertThat(arc.isRendered(AssetDomPosition.head)).isTrue();
+      assertThat(arc.isRendered(AssetDomPosition.body)).isTrue();
+      assertThat(arc.getRenderedAssets()).extracting("name").containsOnly("app-css", "app-js");
+   }
+
+   @Test
+   public void should_replace_the_placeholder() {
+      String html = render("placeholder");
+
+      assertThat(html).doesNotContain("dandelionPlaceholder");
+      assertThat(html.indexOf("app-js")).isGreaterThan(html.indexOf("id=\"scripts\"")).isLessThan(
+            html.indexOf("<p>Content</p>"));
+      assertThat(AssetRequestContext.get(request).isRendered(AssetDomPosition.body)).isTrue();
+   }
+
+   @Test
+   public void should_not_keep_the_placeholder_nodes_once_replaced() {
+      render("placeholder");
+
+      assertThat(AssetRequestContext.get(request).removePlaceholderNode(AssetDomPosition.body)).isNull();
+      for (String attributeName : Collections.list(request.getAttributeNames())) {
+         assertThat(request.getAttribute(attributeName)).isNotInstanceOf(Node.class);
+      }
+   }
+}
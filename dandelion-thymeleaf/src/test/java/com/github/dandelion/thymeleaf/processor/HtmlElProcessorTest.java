@@ -0,0 +1,124 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.thymeleaf.processor;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.AssetDomPosition;
+import com.github.dandelion.core.config.DandelionConfig;
+import com.github.dandelion.core.config.StandardConfigurationLoader;
+import com.github.dandelion.core.web.AssetRequestContext;
+import com.github.dandelion.core.web.WebConstants;
+import com.github.dandelion.thymeleaf.dialect.DandelionDialect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HtmlElProcessorTest {
+
+   private MockServletContext servletContext;
+   private MockHttpServletRequest request;
+   private TemplateEngine templateEngine;
+
+   @Before
+   public void setup() {
+      String path = new File("src/test/resources/template-injection/dandelion/".replace("/", File.separator))
+            .getAbsolutePath();
+      System.setProperty(StandardConfigurationLoader.DANDELION_CONFIGURATION, path);
+
+      servletContext = new MockServletContext();
+      request = new MockHttpServletRequest(servletContext, "GET", "/context/page");
+      request.setContextPath("/context");
+
+      ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+      templateResolver.setPrefix("template-injection/templates/");
+      templateResolver.setSuffix(".html");
+      templateResolver.setTemplateMode("HTML5");
+      templateEngine = new TemplateEngine();
+      templateEngine.setTemplateResolver(templateResolver);
+      templateEngine.addDialect(new DandelionDialect());
+   }
+
+   @After
+   public void teardown() {
+      System.clearProperty(StandardConfigurationLoader.DANDELION_CONFIGURATION);
+      System.clearProperty(DandelionConfig.ASSET_INJECTION_TEMPLATE.getName());
+   }
+
+   private String render() {
+      request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, new Context(new MockFilterConfig(
+            servletContext)));
+      StringWriter writer = new StringWriter();
+      templateEngine.process("page", new WebContext(request, new MockHttpServletResponse(), servletContext,
+            Locale.ENGLISH), writer);
+      return writer.toString();
+   }
+
+   @Test
+   public void should_let_the_marker_inject_the_assets() {
+      String html = render();
+
+      assertThat(html).contains("app-js").doesNotContain("<" + AssetsElProcessor.ELEMENT_NAME);
+      assertThat(AssetRequestContext.get(request).isRendered(AssetDomPosition.body)).isTrue();
+   }
+
+   @Test
+   public void should_leave_the_page_untouched_when_the_option_is_disabled() {
+      System.setProperty(DandelionConfig.ASSET_INJECTION_TEMPLATE.getName(), "false");
+
+      String html = render();
+
+      assertThat(html).doesNotContain("app-js").doesNotContain("<" + AssetsElProcessor.ELEMENT_NAME);
+      assertThat(AssetRequestContext.get(request).isRendered(AssetDomPosition.body)).isFalse();
+   }
+
+   @Test
+   public void should_leave_the_page_untouched_when_the_asset_filter_is_disabled() {
+      request.setAttribute(WebConstants.DANDELION_ASSET_FILTER_STATE, false);
+
+      String html = render();
+
+      assertThat(html).doesNotContain("app-js").doesNotContain("<" + AssetsElProcessor.ELEMENT_NAME);
+      assertThat(AssetRequestContext.get(request).isRendered(AssetDomPosition.body)).isFalse();
+   }
+}
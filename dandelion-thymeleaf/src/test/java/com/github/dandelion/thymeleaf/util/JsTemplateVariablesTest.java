@@ -0,0 +1,70 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.thymeleaf.util;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsTemplateVariablesTest {
+
+   @Test
+   public void should_extract_the_variables_of_property_paths() {
+      assertThat(JsTemplateVariables.extract("var name = [[${user.name}]];\nvar id = /*[[${ account.id }]]*/ 0;"))
+            .containsOnly("user", "account");
+   }
+
+   @Test
+   public void should_extract_all_the_variables_of_an_expression() {
+      assertThat(JsTemplateVariables.extract("[[${#strings.escapeJavaScript(user.name)}]]")).containsOnly("user");
+      assertThat(JsTemplateVariables.extract("[[${a + b}]]")).containsOnly("a", "b");
+      assertThat(JsTemplateVariables.extract("[[${cond ? x : y}]]")).containsOnly("cond", "x", "y");
+      assertThat(JsTemplateVariables.extract("[[${list[idx]}]]")).containsOnly("list", "idx");
+      assertThat(JsTemplateVariables.extract("[[${count gt 10 and not empty}]]")).containsOnly("count", "empty");
+      assertThat(JsTemplateVariables.extract("[[*{label}]]")).containsOnly("label");
+   }
+
+   @Test
+   public void should_ignore_the_literals() {
+      assertThat(JsTemplateVariables.extract("[[${map['key'] + \"a}b\" + 1.5e3 + 10L}]]")).containsOnly("map");
+   }
+
+   @Test
+   public void should_capture_all_variables_when_they_cant_be_known() {
+      assertThat(JsTemplateVariables.extract("[[${#vars.get(name)}]]")).isNull();
+      assertThat(JsTemplateVariables.extract("[[${user.name]]")).isNull();
+   }
+
+   @Test
+   public void should_not_capture_any_variable_without_expression() {
+      assertThat(JsTemplateVariables.extract("var a = {};")).isEmpty();
+      assertThat(JsTemplateVariables.extract(null)).isEmpty();
+   }
+}
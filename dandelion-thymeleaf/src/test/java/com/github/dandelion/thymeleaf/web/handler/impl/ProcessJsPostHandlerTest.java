@@ -0,0 +1,140 @@
+/*
+ * [The "BSD licence"]
+ * Copyright (c) 2013-2015 Dandelion
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * 3. Neither the name of Dandelion nor the names of its contributors 
+ * may be used to endorse or promote products derived from this software 
+ * without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR ``AS IS'' AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.dandelion.thymeleaf.web.handler.impl;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+
+import com.github.dandelion.core.Context;
+import com.github.dandelion.core.asset.Asset;
+import com.github.dandelion.core.asset.AssetType;
+import com.github.dandelion.core.config.StandardConfigurationLoader;
+import com.github.dandelion.core.storage.StorageEntry;
+import com.github.dandelion.core.web.WebConstants;
+import com.github.dandelion.core.web.handler.HandlerContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessJsPostHandlerTest {
+
+   private static final String STORAGE_KEY = "0123456789abcdef0123456789abcdef";
+
+   private MockServletContext servletContext;
+   private Context context;
+
+   @Before
+   public void setup() {
+      String path = new File("src/test/resources/template-injection/dandelion/".replace("/", File.separator))
+            .getAbsolutePath();
+      System.setProperty(StandardConfigurationLoader.DANDELION_CONFIGURATION, path);
+
+      servletContext = new MockServletContext();
+      context = new Context(new MockFilterConfig(servletContext));
+   }
+
+   @After
+   public void teardown() {
+      System.clearProperty(StandardConfigurationLoader.DANDELION_CONFIGURATION);
+   }
+
+   private String process() throws Exception {
+      MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/context/dandelion-assets/"
+            + STORAGE_KEY + "/js/app.js");
+      request.setContextPath("/context");
+      request.setAttribute(WebConstants.DANDELION_CONTEXT_ATTRIBUTE, context);
+      HandlerContext handlerContext = new HandlerContext(context, request, new MockHttpServletResponse(), null);
+
+      new ProcessJsPostHandler().handle(handlerContext);
+      return new String(handlerContext.getResponseAsBytes(), context.getConfiguration().getEncoding());
+   }
+
+   @Test
+   public void should_parse_the_template_only_once() throws Exception {
+      CountingStorageEntry entry = new CountingStorageEntry("var parsedOnce = 1;");
+      context.getAssetStorage().put(STORAGE_KEY, entry);
+
+      assertThat(process()).contains("var parsedOnce = 1;");
+      assertThat(process()).contains("var parsedOnce = 1;");
+      assertThat(entry.reads).isEqualTo(1);
+   }
+
+   @Test
+   public void should_parse_the_template_again_when_the_asset_changes() throws Exception {
+      CountingStorageEntry entry = new CountingStorageEntry("var changed = 1;");
+      context.getAssetStorage().put(STORAGE_KEY, entry);
+      assertThat(process()).contains("var changed = 1;");
+
+      CountingStorageEntry changedEntry = new CountingStorageEntry("var changed = 2;");
+      context.getAssetStorage().put(STORAGE_KEY, changedEntry);
+      assertThat(process()).contains("var changed = 2;");
+      assertThat(process()).contains("var changed = 2;");
+      assertThat(entry.reads).isEqualTo(1);
+      assertThat(changedEntry.reads).isEqualTo(1);
+   }
+
+   @Test
+   public void should_share_the_template_between_storage_keys_with_the_same_contents() throws Exception {
+      CountingStorageEntry entry = new CountingStorageEntry("var shared = 1;");
+      context.getAssetStorage().put(STORAGE_KEY, entry);
+      assertThat(process()).contains("var shared = 1;");
+
+      CountingStorageEntry copy = new CountingStorageEntry("var shared = 1;");
+      context.getAssetStorage().put(STORAGE_KEY, copy);
+      assertThat(process()).contains("var shared = 1;");
+      assertThat(copy.reads).isEqualTo(0);
+   }
+
+   /**
+    * Storage entry counting the reads of its contents, i.e. the template
+    * parses.
+    */
+   @SuppressWarnings("serial")
+   static class CountingStorageEntry extends StorageEntry {
+
+      private int reads;
+
+      CountingStorageEntry(String contents) {
+         super(new Asset("app", "1.0.0", AssetType.js), contents);
+      }
+
+      @Override
+      public String getContents() {
+         reads++;
+         return super.getContents();
+      }
+   }
+}